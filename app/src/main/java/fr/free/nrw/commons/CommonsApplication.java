@@ -38,7 +38,9 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import fr.free.nrw.commons.auth.SessionManager;
+import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsContentProvider;
 import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsDao;
 import fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesDao;
 import fr.free.nrw.commons.category.CategoryDao;
@@ -50,6 +52,7 @@ import fr.free.nrw.commons.di.ApplicationlessInjection;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.logging.FileLoggingTree;
 import fr.free.nrw.commons.logging.LogUtils;
+import fr.free.nrw.commons.notification.NotificationStore;
 import fr.free.nrw.commons.settings.Prefs;
 import fr.free.nrw.commons.upload.FileUtils;
 import fr.free.nrw.commons.utils.ConfigUtils;
@@ -60,6 +63,8 @@ import io.reactivex.schedulers.Schedulers;
 import okhttp3.OkHttpClient;
 import timber.log.Timber;
 
+import static fr.free.nrw.commons.di.NetworkingModule.NAMED_COMMONS_CSRF;
+import static fr.free.nrw.commons.di.NetworkingModule.NAMED_WIKI_DATA_CSRF;
 import static org.acra.ReportField.ANDROID_VERSION;
 import static org.acra.ReportField.APP_VERSION_CODE;
 import static org.acra.ReportField.APP_VERSION_NAME;
@@ -91,10 +96,14 @@ public class CommonsApplication extends Application {
     @Inject DBOpenHelper dbOpenHelper;
 
     @Inject @Named("default_preferences") JsonKvStore defaultPrefs;
+    @Inject NotificationStore notificationStore;
 
     @Inject
     OkHttpClient okHttpClient;
 
+    @Inject @Named(NAMED_COMMONS_CSRF) CsrfTokenCache commonsCsrfTokenCache;
+    @Inject @Named(NAMED_WIKI_DATA_CSRF) CsrfTokenCache wikidataCsrfTokenCache;
+
     /**
      * Constants begin
      */
@@ -281,10 +290,13 @@ public class CommonsApplication extends Application {
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(() -> {
                     Timber.d("All accounts have been removed");
+                    commonsCsrfTokenCache.invalidate();
+                    wikidataCsrfTokenCache.invalidate();
                     clearImageCache();
                     //TODO: fix preference manager
                     defaultPrefs.clearAll();
                     defaultPrefs.putBoolean("firstrun", false);
+                    notificationStore.clear();
                     updateAllDatabases();
                     logoutListener.onLogoutComplete();
                 });
@@ -309,6 +321,8 @@ public class CommonsApplication extends Application {
         ContributionDao.Table.onDelete(db);
         BookmarkPicturesDao.Table.onDelete(db);
         BookmarkLocationsDao.Table.onDelete(db);
+        // Lets the bookmarks kept in memory know that the table was cleared
+        getContentResolver().notifyChange(BookmarkLocationsContentProvider.BASE_URI, null);
     }
 
     /**
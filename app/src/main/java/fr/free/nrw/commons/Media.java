@@ -59,7 +59,7 @@ public class Media implements Parcelable {
     protected ArrayList<String> categories; // as loaded at runtime?
     protected boolean requestedDeletion;
     private Map<String, String> descriptions; // multilingual descriptions as loaded
-    private HashMap<String, Object> tags = new HashMap<>();
+    private @Nullable HashMap<String, Object> tags; // allocated by the first setTag()
     private @Nullable LatLng coordinates;
 
     /**
@@ -103,8 +103,40 @@ public class Media implements Parcelable {
         this.dateCreated = dateCreated;
         this.dateUploaded = dateUploaded;
         this.creator = creator;
-        this.categories = new ArrayList<>();
-        this.descriptions = new HashMap<>();
+    }
+
+    /**
+     * Creates a copy of a Media, that can be changed without changing the original
+     * @param media Media to copy
+     */
+    public Media(Media media) {
+        this();
+        // Through the getters, as a Contribution decodes these fields only when they are read
+        this.localUri = media.getLocalUri();
+        this.thumbUrl = media.thumbUrl;
+        this.imageUrl = media.imageUrl;
+        this.filename = media.filename;
+        this.description = media.description;
+        this.discussion = media.discussion;
+        this.dataLength = media.dataLength;
+        Date dateCreated = media.getDateCreated();
+        this.dateCreated = dateCreated == null ? null : new Date(dateCreated.getTime());
+        Date dateUploaded = media.getDateUploaded();
+        this.dateUploaded = dateUploaded == null ? null : new Date(dateUploaded.getTime());
+        this.width = media.width;
+        this.height = media.height;
+        this.license = media.license;
+        this.licenseUrl = media.licenseUrl;
+        this.creator = media.creator;
+        if (media.categories != null) {
+            this.categories.addAll(media.categories);
+        }
+        this.requestedDeletion = media.requestedDeletion;
+        if (media.descriptions != null) {
+            this.descriptions.putAll(media.descriptions);
+        }
+        this.tags = media.tags == null ? null : new HashMap<>(media.tags);
+        this.coordinates = media.coordinates;
     }
 
     @SuppressWarnings("unchecked")
@@ -122,9 +154,7 @@ public class Media implements Parcelable {
         width = in.readInt();
         height = in.readInt();
         license = in.readString();
-        if (categories != null) {
-            in.readStringList(categories);
-        }
+        categories = in.createStringArrayList();
         descriptions = in.readHashMap(ClassLoader.getSystemClassLoader());
     }
 
@@ -185,6 +215,31 @@ public class Media implements Parcelable {
         return media;
     }
 
+    /**
+     * Creating a Media object with only what lists and grids of images show from MWQueryPage,
+     * i.e. the image URLs, title, author and upload date. The rest of the metadata isn't parsed,
+     * the full media object is fetched when it is shown, e.g. by
+     * {@link MediaDataExtractor#fetchMediaDetails(String)}
+     *
+     * @param page response from the API
+     * @return Media object
+     */
+    @Nullable
+    public static Media summaryFrom(MwQueryPage page) {
+        ImageInfo imageInfo = page.imageInfo();
+        if (imageInfo == null) {
+            return null;
+        }
+        ExtMetadata metadata = imageInfo.getMetadata();
+        Date dateUploaded = metadata == null ? null : safeParseDate(metadata.dateTime());
+        Media media = new Media(null, imageInfo.getOriginalUrl(), page.title(), "", 0,
+                dateUploaded, dateUploaded, metadata == null ? null : getArtist(metadata));
+        if (!StringUtils.isBlank(imageInfo.getThumbUrl())) {
+            media.setThumbUrl(imageInfo.getThumbUrl());
+        }
+        return media;
+    }
+
     /**
      * This method extracts the Commons Username from the artist HTML information
      * @param metadata
@@ -210,7 +265,7 @@ public class Media implements Parcelable {
      * @return Media tag
      */
     public Object getTag(String key) {
-        return tags.get(key);
+        return tags == null ? null : tags.get(key);
     }
 
     /**
@@ -219,6 +274,9 @@ public class Media implements Parcelable {
      * @param value Media value
      */
     public void setTag(String key, Object value) {
+        if (tags == null) {
+            tags = new HashMap<>();
+        }
         tags.put(key, value);
     }
 
@@ -2,10 +2,13 @@ package fr.free.nrw.commons;
 
 import androidx.core.text.HtmlCompat;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import fr.free.nrw.commons.media.MediaClient;
+import fr.free.nrw.commons.utils.ExpiringLruCache;
 import io.reactivex.Single;
 import timber.log.Timber;
 
@@ -14,10 +17,21 @@ import timber.log.Timber;
  *
  * This includes things like category lists and multilingual descriptions,
  * which are not intrinsic to the media and may change due to editing.
+ *
+ * Details and talk pages are kept for a few minutes, so that going back to a file shows it
+ * without waiting for the network again. Callers get copies of the kept details, and are expected
+ * to call {@link #invalidate(String)} once they edited a file.
  */
 @Singleton
 public class MediaDataExtractor {
+    private static final int CACHE_SIZE = 50;
+    private static final long CACHE_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(10);
+
     private final MediaClient mediaClient;
+    private final ExpiringLruCache<String, Media> mediaDetailsCache =
+            new ExpiringLruCache<>(CACHE_SIZE, CACHE_TIME_TO_LIVE_MS);
+    private final ExpiringLruCache<String, String> discussionCache =
+            new ExpiringLruCache<>(CACHE_SIZE, CACHE_TIME_TO_LIVE_MS);
 
     @Inject
     public MediaDataExtractor(MediaClient mediaClient) {
@@ -26,23 +40,36 @@ public class MediaDataExtractor {
 
     /**
      * Simplified method to extract all details required to show media details.
-     * It fetches media object, deletion status and talk page for the filename
+     * It fetches media object and deletion status for the filename in a single request.
+     * The talk page is fetched separately by {@link #getDiscussion(String)}, when it is shown
      * @param filename for which the details are to be fetched
-     * @return full Media object with all details including deletion status and talk page
+     * @return full Media object with all details including deletion status
      */
     public Single<Media> fetchMediaDetails(String filename) {
-        Single<Media> mediaSingle = getMediaFromFileName(filename);
-        Single<Boolean> pageExistsSingle = mediaClient.checkPageExistsUsingTitle("Commons:Deletion_requests/" + filename);
-        Single<String> discussionSingle = getDiscussion(filename);
-        return Single.zip(mediaSingle, pageExistsSingle, discussionSingle, (media, deletionStatus, discussion) -> {
-            media.setDiscussion(discussion);
-            if (deletionStatus) {
-                media.setRequestedDeletion();
+        return Single.defer(() -> {
+            Media cachedMedia = mediaDetailsCache.get(filename);
+            if (cachedMedia != null) {
+                return Single.just(new Media(cachedMedia));
             }
-            return media;
+            return mediaClient.getMediaWithDeletionStatus(filename)
+                    .doOnSuccess(media -> {
+                        if (media != Media.EMPTY) {
+                            mediaDetailsCache.put(filename, new Media(media));
+                        }
+                    });
         });
     }
 
+    /**
+     * Forgets the kept details and talk page of a file, so that they are fetched again the next
+     * time they are shown
+     * @param filename Eg. File:Test.jpg
+     */
+    public void invalidate(String filename) {
+        mediaDetailsCache.remove(filename);
+        discussionCache.remove(filename);
+    }
+
     /**
      * Method can be used to fetch media for a given filename
      * @param filename Eg. File:Test.jpg
@@ -54,15 +81,22 @@ public class MediaDataExtractor {
 
     /**
      * Fetch talk page from the MediaWiki API
-     * @param filename
-     * @return
+     * @param filename Eg. File:Test.jpg
+     * @return talk page as plain text, empty if there is none or it could not be fetched
      */
-    private Single<String> getDiscussion(String filename) {
-        return mediaClient.getPageHtml(filename.replace("File", "File talk"))
-                .map(discussion -> HtmlCompat.fromHtml(discussion, HtmlCompat.FROM_HTML_MODE_LEGACY).toString())
-                .onErrorReturn(throwable -> {
-                    Timber.e(throwable, "Error occurred while fetching discussion");
-                    return "";
-                });
+    public Single<String> getDiscussion(String filename) {
+        return Single.defer(() -> {
+            String cachedDiscussion = discussionCache.get(filename);
+            if (cachedDiscussion != null) {
+                return Single.just(cachedDiscussion);
+            }
+            return mediaClient.getPageHtml(filename.replace("File", "File talk"))
+                    .map(discussion -> HtmlCompat.fromHtml(discussion, HtmlCompat.FROM_HTML_MODE_LEGACY).toString())
+                    .doOnSuccess(discussion -> discussionCache.put(filename, discussion))
+                    .onErrorReturn(throwable -> {
+                        Timber.e(throwable, "Error occurred while fetching discussion");
+                        return "";
+                    });
+        });
     }
 }
@@ -1,8 +1,8 @@
 package fr.free.nrw.commons.actions;
 
-import org.wikipedia.csrf.CsrfTokenClient;
 import org.wikipedia.dataclient.Service;
 
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import io.reactivex.Observable;
 
 /**
@@ -14,14 +14,14 @@ import io.reactivex.Observable;
  */
 public class PageEditClient {
 
-    private final CsrfTokenClient csrfTokenClient;
+    private final CsrfTokenCache csrfTokenCache;
     private final PageEditInterface pageEditInterface;
     private final Service service;
 
-    public PageEditClient(CsrfTokenClient csrfTokenClient,
+    public PageEditClient(CsrfTokenCache csrfTokenCache,
                           PageEditInterface pageEditInterface,
                           Service service) {
-        this.csrfTokenClient = csrfTokenClient;
+        this.csrfTokenCache = csrfTokenCache;
         this.pageEditInterface = pageEditInterface;
         this.service = service;
     }
@@ -33,12 +33,8 @@ public class PageEditClient {
      * @param summary     Edit summary
      */
     public Observable<Boolean> edit(String pageTitle, String text, String summary) {
-        try {
-            return pageEditInterface.postEdit(pageTitle, summary, text, csrfTokenClient.getTokenBlocking())
-                    .map(editResponse -> editResponse.edit().editSucceeded());
-        } catch (Throwable throwable) {
-            return Observable.just(false);
-        }
+        return csrfTokenCache.withToken(token -> pageEditInterface.postEdit(pageTitle, summary, text, token)
+                .map(editResponse -> editResponse.edit().editSucceeded()), false);
     }
 
     /**
@@ -48,12 +44,8 @@ public class PageEditClient {
      * @param summary     Edit summary
      */
     public Observable<Boolean> appendEdit(String pageTitle, String appendText, String summary) {
-        try {
-            return pageEditInterface.postAppendEdit(pageTitle, summary, appendText, csrfTokenClient.getTokenBlocking())
-                    .map(editResponse -> editResponse.edit().editSucceeded());
-        } catch (Throwable throwable) {
-            return Observable.just(false);
-        }
+        return csrfTokenCache.withToken(token -> pageEditInterface.postAppendEdit(pageTitle, summary, appendText, token)
+                .map(editResponse -> editResponse.edit().editSucceeded()), false);
     }
 
     /**
@@ -63,12 +55,8 @@ public class PageEditClient {
      * @param summary     Edit summary
      */
     public Observable<Boolean> prependEdit(String pageTitle, String prependText, String summary) {
-        try {
-            return pageEditInterface.postPrependEdit(pageTitle, summary, prependText, csrfTokenClient.getTokenBlocking())
-                    .map(editResponse -> editResponse.edit().editSucceeded());
-        } catch (Throwable throwable) {
-            return Observable.just(false);
-        }
+        return csrfTokenCache.withToken(token -> pageEditInterface.postPrependEdit(pageTitle, summary, prependText, token)
+                .map(editResponse -> editResponse.edit().editSucceeded()), false);
     }
 
 }
@@ -1,6 +1,5 @@
 package fr.free.nrw.commons.actions;
 
-import org.wikipedia.csrf.CsrfTokenClient;
 import org.wikipedia.dataclient.Service;
 
 import javax.inject.Inject;
@@ -8,6 +7,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import fr.free.nrw.commons.CommonsApplication;
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import io.reactivex.Observable;
 
 /**
@@ -20,13 +20,13 @@ import io.reactivex.Observable;
 @Singleton
 public class ThanksClient {
 
-    private final CsrfTokenClient csrfTokenClient;
+    private final CsrfTokenCache csrfTokenCache;
     private final Service service;
 
     @Inject
-    public ThanksClient(@Named("commons-csrf") CsrfTokenClient csrfTokenClient,
+    public ThanksClient(@Named("commons-csrf") CsrfTokenCache csrfTokenCache,
                         @Named("commons-service") Service service) {
-        this.csrfTokenClient = csrfTokenClient;
+        this.csrfTokenCache = csrfTokenCache;
         this.service = service;
     }
 
@@ -36,13 +36,9 @@ public class ThanksClient {
      * @return if thanks was successfully sent to intended recepient, returned as a boolean observable
      */
     public Observable<Boolean> thank(long revisionId) {
-        try {
-            return service.thank(String.valueOf(revisionId), null,
-                    csrfTokenClient.getTokenBlocking(),
-                    CommonsApplication.getInstance().getUserAgent())
-                    .map(mwQueryResponse -> mwQueryResponse.getSuccessVal() == 1);
-        } catch (Throwable throwable) {
-            return Observable.just(false);
-        }
+        String userAgent = CommonsApplication.getInstance().getUserAgent();
+        return csrfTokenCache.withToken(token -> service.thank(String.valueOf(revisionId), null,
+                token, userAgent)
+                .map(mwQueryResponse -> mwQueryResponse.getSuccessVal() == 1), false);
     }
 }
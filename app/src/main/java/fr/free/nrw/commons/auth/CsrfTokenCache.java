@@ -0,0 +1,159 @@
+package fr.free.nrw.commons.auth;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.wikipedia.dataclient.mwapi.MwException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Keeps the CSRF token of one wiki in memory so that write actions do not have to fetch a new
+ * token for every request.
+ *
+ * Tokens that are older than {@link #REFRESH_AFTER_MS} are still handed out but a refresh is
+ * kicked off in the background. Requests made through {@link #withToken(Function)} are replayed
+ * once with a fresh token if the server rejects the cached one with a "badtoken" error.
+ */
+public class CsrfTokenCache {
+
+    @VisibleForTesting
+    static final long REFRESH_AFTER_MS = TimeUnit.MINUTES.toMillis(10);
+    @VisibleForTesting
+    static final long MAX_AGE_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final String BAD_TOKEN = "badtoken";
+
+    private final Callable<String> tokenFetcher;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    @Nullable
+    private volatile String token;
+    private volatile long fetchedAt;
+
+    /**
+     * @param tokenFetcher blocking call that fetches a new token from the wiki
+     */
+    public CsrfTokenCache(@NonNull Callable<String> tokenFetcher) {
+        this.tokenFetcher = tokenFetcher;
+    }
+
+    /**
+     * Returns the cached token, fetching a new one on the calling thread if there is no usable
+     * token. Must not be called on the main thread.
+     */
+    @NonNull
+    public String getTokenBlocking() throws Exception {
+        String cached = token;
+        long seenFetchedAt = fetchedAt;
+        long age = System.currentTimeMillis() - seenFetchedAt;
+        if (cached != null && age < MAX_AGE_MS) {
+            if (age >= REFRESH_AFTER_MS) {
+                refreshAsync(seenFetchedAt);
+            }
+            return cached;
+        }
+        return fetchToken(seenFetchedAt);
+    }
+
+    /**
+     * Fetches a token in the background so that it is ready by the time the first write action
+     * needs it, e.g. when an upload batch is about to start.
+     */
+    public void prefetch() {
+        if (token == null) {
+            refreshAsync(fetchedAt);
+        }
+    }
+
+    /**
+     * Drops the cached token. Called on logout and when the server reports a bad token.
+     */
+    public synchronized void invalidate() {
+        token = null;
+        fetchedAt = 0;
+    }
+
+    /**
+     * Runs a request with the cached token. If the server responds with a "badtoken" error the
+     * token is dropped and the request is replayed once with a freshly fetched token.
+     *
+     * @param request builds the request for the given token
+     */
+    public <T> Observable<T> withToken(@NonNull Function<String, ObservableSource<T>> request) {
+        return replayOnBadToken(Observable.defer(() -> request.apply(getTokenBlocking())));
+    }
+
+    /**
+     * Like {@link #withToken(Function)}, but emits the given value instead of failing if no token
+     * can be fetched. Errors of the request itself still reach the subscriber.
+     *
+     * @param request builds the request for the given token
+     * @param valueWithoutToken emitted if no token can be fetched
+     */
+    public <T> Observable<T> withToken(@NonNull Function<String, ObservableSource<T>> request,
+                                       @NonNull T valueWithoutToken) {
+        return replayOnBadToken(Observable.defer(() -> {
+            String csrfToken;
+            try {
+                csrfToken = getTokenBlocking();
+            } catch (Exception e) {
+                Timber.e(e, "Failed to get CSRF token");
+                return Observable.just(valueWithoutToken);
+            }
+            return request.apply(csrfToken);
+        }));
+    }
+
+    private <T> Observable<T> replayOnBadToken(Observable<T> request) {
+        return request
+                .retry((attempt, throwable) -> {
+                    if (attempt > 1 || !isBadToken(throwable)) {
+                        return false;
+                    }
+                    Timber.d("CSRF token rejected, replaying request with a fresh token");
+                    invalidate();
+                    return true;
+                });
+    }
+
+    /**
+     * @param seenFetchedAt fetch time of the token the caller found to be missing or stale
+     */
+    private synchronized String fetchToken(long seenFetchedAt) throws Exception {
+        // Another thread may have refreshed the token while this one was waiting for the lock
+        String cached = token;
+        if (cached != null && fetchedAt != seenFetchedAt) {
+            return cached;
+        }
+        String fresh = tokenFetcher.call();
+        token = fresh;
+        fetchedAt = System.currentTimeMillis();
+        return fresh;
+    }
+
+    private void refreshAsync(long seenFetchedAt) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Completable.fromAction(() -> fetchToken(seenFetchedAt))
+                .subscribeOn(Schedulers.io())
+                .doFinally(() -> refreshing.set(false))
+                .subscribe(() -> Timber.d("CSRF token refreshed"),
+                        throwable -> Timber.e(throwable, "Failed to refresh CSRF token"));
+    }
+
+    private static boolean isBadToken(Throwable throwable) {
+        return throwable instanceof MwException
+                && BAD_TOKEN.equals(((MwException) throwable).getTitle());
+    }
+}
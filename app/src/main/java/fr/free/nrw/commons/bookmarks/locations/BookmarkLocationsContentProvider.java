@@ -10,11 +10,8 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
-import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
+import fr.free.nrw.commons.data.TransactionalContentProvider;
 import timber.log.Timber;
 
 import static fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsDao.Table.COLUMN_NAME;
@@ -23,7 +20,7 @@ import static fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsDao.Table
 /**
  * Handles private storage for Bookmark locations
  */
-public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvider {
+public class BookmarkLocationsContentProvider extends TransactionalContentProvider {
 
     private static final String BASE_PATH = "bookmarksLocations";
     public static final Uri BASE_URI = Uri.parse("content://" + BuildConfig.BOOKMARK_LOCATIONS_AUTHORITY + "/" + BASE_PATH);
@@ -35,7 +32,10 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
         return Uri.parse(BASE_URI.toString() + "/" + name);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
+    @Override
+    protected Uri getBaseUri() {
+        return BASE_URI;
+    }
 
     @Override
     public String getType(@NonNull Uri uri) {
@@ -87,7 +87,7 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
             throw new IllegalArgumentException(
                     "Parameter `selection` should be empty when updating an ID");
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 
@@ -99,7 +99,7 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
     public Uri insert(@NonNull Uri uri, ContentValues contentValues) {
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         long id = sqlDB.insert(BookmarkLocationsDao.Table.TABLE_NAME, null, contentValues);
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -113,7 +113,7 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
                 "location_name = ?",
                 new String[]{uri.getLastPathSegment()}
         );
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 }
@@ -11,16 +11,16 @@ import fr.free.nrw.commons.nearby.Place;
 public class BookmarkLocationsController {
 
     @Inject
-    BookmarkLocationsDao bookmarkLocationDao;
+    BookmarkLocationsIndex bookmarkLocationsIndex;
 
     @Inject
     public BookmarkLocationsController() {}
 
     /**
-     * Load from DB the bookmarked locations
+     * Load the bookmarked locations, which are read from DB once and then kept in memory
      * @return a list of Place objects.
      */
     public List<Place> loadFavoritesLocations() {
-        return bookmarkLocationDao.getAllBookmarksLocations();
+        return bookmarkLocationsIndex.getAll();
     }
 }
@@ -16,6 +16,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 
+import fr.free.nrw.commons.data.CursorRowMapper;
 import fr.free.nrw.commons.location.LatLng;
 import fr.free.nrw.commons.nearby.Label;
 import fr.free.nrw.commons.nearby.Place;
@@ -50,8 +51,8 @@ public class BookmarkLocationsDao {
                     null,
                     new String[]{},
                     null);
-            while (cursor != null && cursor.moveToNext()) {
-                items.add(fromCursor(cursor));
+            if (cursor != null) {
+                items = new RowMapper(cursor).mapAll();
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -85,7 +86,7 @@ public class BookmarkLocationsDao {
      *
      * @param bookmarkLocation : Place to add
      */
-    private void addBookmarkLocation(Place bookmarkLocation) {
+    void addBookmarkLocation(Place bookmarkLocation) {
         ContentProviderClient db = clientProvider.get();
         try {
             db.insert(BASE_URI, toContentValues(bookmarkLocation));
@@ -101,7 +102,7 @@ public class BookmarkLocationsDao {
      *
      * @param bookmarkLocation : Place to delete
      */
-    private void deleteBookmarkLocation(Place bookmarkLocation) {
+    void deleteBookmarkLocation(Place bookmarkLocation) {
         ContentProviderClient db = clientProvider.get();
         try {
             db.delete(BookmarkLocationsContentProvider.uriForName(bookmarkLocation.name), null, null);
@@ -145,25 +146,59 @@ public class BookmarkLocationsDao {
 
     @NonNull
     Place fromCursor(Cursor cursor) {
-        LatLng location = new LatLng(cursor.getDouble(cursor.getColumnIndex(Table.COLUMN_LAT)),
-                cursor.getDouble(cursor.getColumnIndex(Table.COLUMN_LONG)), 1F);
+        return new RowMapper(cursor).map();
+    }
+
+    /**
+     * Maps bookmarked place rows, resolving the column indices once per cursor
+     */
+    static class RowMapper extends CursorRowMapper<Place> {
+        private final int nameIndex;
+        private final int labelTextIndex;
+        private final int descriptionIndex;
+        private final int categoryIndex;
+        private final int latIndex;
+        private final int longIndex;
+        private final int wikipediaLinkIndex;
+        private final int wikidataLinkIndex;
+        private final int commonsLinkIndex;
 
-        Sitelinks.Builder builder = new Sitelinks.Builder();
-        builder.setWikipediaLink(cursor.getString(cursor.getColumnIndex(Table.COLUMN_WIKIPEDIA_LINK)));
-        builder.setWikidataLink(cursor.getString(cursor.getColumnIndex(Table.COLUMN_WIKIDATA_LINK)));
-        builder.setCommonsLink(cursor.getString(cursor.getColumnIndex(Table.COLUMN_COMMONS_LINK)));
+        RowMapper(Cursor cursor) {
+            super(cursor);
+            nameIndex = cursor.getColumnIndex(Table.COLUMN_NAME);
+            labelTextIndex = cursor.getColumnIndex(Table.COLUMN_LABEL_TEXT);
+            descriptionIndex = cursor.getColumnIndex(Table.COLUMN_DESCRIPTION);
+            categoryIndex = cursor.getColumnIndex(Table.COLUMN_CATEGORY);
+            latIndex = cursor.getColumnIndex(Table.COLUMN_LAT);
+            longIndex = cursor.getColumnIndex(Table.COLUMN_LONG);
+            wikipediaLinkIndex = cursor.getColumnIndex(Table.COLUMN_WIKIPEDIA_LINK);
+            wikidataLinkIndex = cursor.getColumnIndex(Table.COLUMN_WIKIDATA_LINK);
+            commonsLinkIndex = cursor.getColumnIndex(Table.COLUMN_COMMONS_LINK);
+        }
 
-        return new Place(
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_NAME)),
-                Label.fromText((cursor.getString(cursor.getColumnIndex(Table.COLUMN_LABEL_TEXT)))),
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_DESCRIPTION)),
-                location,
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_CATEGORY)),
-                builder.build(),
-                null,
-                null
-        );
-        // TODO: add pic and destroyed to bookmark location dao
+        @NonNull
+        @Override
+        public Place map() {
+            LatLng location = new LatLng(cursor.getDouble(latIndex),
+                    cursor.getDouble(longIndex), 1F);
+
+            Sitelinks.Builder builder = new Sitelinks.Builder();
+            builder.setWikipediaLink(cursor.getString(wikipediaLinkIndex));
+            builder.setWikidataLink(cursor.getString(wikidataLinkIndex));
+            builder.setCommonsLink(cursor.getString(commonsLinkIndex));
+
+            return new Place(
+                    cursor.getString(nameIndex),
+                    Label.fromText(cursor.getString(labelTextIndex)),
+                    cursor.getString(descriptionIndex),
+                    location,
+                    cursor.getString(categoryIndex),
+                    builder.build(),
+                    null,
+                    null
+            );
+            // TODO: add pic and destroyed to bookmark location dao
+        }
     }
 
     private ContentValues toContentValues(Place bookmarkLocation) {
@@ -263,7 +298,7 @@ public class BookmarkLocationsDao {
                 onUpdate(db, from, to);
                 return;
             }
-            if (from == 10 && to == 11) {
+            if (from == 10) {
                 from++;
                 //This is safe, and can be called clean, as we/I do not remember the appropriate version for this
                 //We are anyways switching to room, these things won't be nescessary then
@@ -272,6 +307,7 @@ public class BookmarkLocationsDao {
                 }catch (SQLiteException exception){
                     Timber.e(exception);//
                 }
+                onUpdate(db, from, to);
                 return;
             }
         }
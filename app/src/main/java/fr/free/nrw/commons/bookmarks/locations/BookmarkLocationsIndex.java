@@ -0,0 +1,121 @@
+package fr.free.nrw.commons.bookmarks.locations;
+
+import android.content.Context;
+import android.database.ContentObserver;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.nearby.Place;
+
+/**
+ * Keeps the bookmarked locations in memory, keyed by their Wikidata item, so that the map and the
+ * lists of places can tell whether a place is bookmarked without querying the database. The
+ * bookmarks are loaded on first use, and again after the content provider notified a change of
+ * the bookmarks table that wasn't made here, e.g. when it was cleared on logout.
+ */
+@Singleton
+public class BookmarkLocationsIndex {
+
+    private final Context context;
+    private final BookmarkLocationsDao bookmarkLocationsDao;
+
+    // Null until loaded, and after the table changed
+    private Map<String, Place> bookmarks;
+    private ContentObserver observer;
+    // Notifications of changes made by toggle(), which the map already contains
+    private int pendingOwnChanges;
+
+    @Inject
+    public BookmarkLocationsIndex(Context context, BookmarkLocationsDao bookmarkLocationsDao) {
+        this.context = context;
+        this.bookmarkLocationsDao = bookmarkLocationsDao;
+    }
+
+    /**
+     * @return whether the place is bookmarked
+     */
+    public synchronized boolean contains(Place place) {
+        return getBookmarks().containsKey(keyOf(place));
+    }
+
+    /**
+     * Bookmarks the place, or removes its bookmark if it is bookmarked
+     *
+     * @return whether the place is bookmarked now
+     */
+    public synchronized boolean toggle(Place place) {
+        String key = keyOf(place);
+        Map<String, Place> bookmarks = getBookmarks();
+        // The content provider notifies each write once
+        pendingOwnChanges++;
+        try {
+            if (bookmarks.containsKey(key)) {
+                bookmarkLocationsDao.deleteBookmarkLocation(bookmarks.remove(key));
+                return false;
+            }
+            bookmarkLocationsDao.addBookmarkLocation(place);
+            bookmarks.put(key, place);
+            return true;
+        } catch (RuntimeException e) {
+            pendingOwnChanges--;
+            this.bookmarks = null;
+            throw e;
+        }
+    }
+
+    /**
+     * @return the bookmarked places, in the order they were bookmarked
+     */
+    @NonNull
+    public synchronized List<Place> getAll() {
+        return new ArrayList<>(getBookmarks().values());
+    }
+
+    private Map<String, Place> getBookmarks() {
+        if (observer == null) {
+            observer = new ContentObserver(null) {
+                @Override
+                public void onChange(boolean selfChange) {
+                    onBookmarksChanged();
+                }
+            };
+            context.getContentResolver().registerContentObserver(
+                    BookmarkLocationsContentProvider.BASE_URI, true, observer);
+        }
+        if (bookmarks == null) {
+            bookmarks = new LinkedHashMap<>();
+            for (Place place : bookmarkLocationsDao.getAllBookmarksLocations()) {
+                bookmarks.put(keyOf(place), place);
+            }
+        }
+        return bookmarks;
+    }
+
+    private synchronized void onBookmarksChanged() {
+        if (pendingOwnChanges > 0) {
+            pendingOwnChanges--;
+            return;
+        }
+        bookmarks = null;
+    }
+
+    /**
+     * Places are identified by their Wikidata item. Places without one, which Nearby doesn't
+     * show, fall back to their name, which the bookmarks table is keyed by
+     */
+    @NonNull
+    public static String keyOf(Place place) {
+        if (place.hasWikidataLink()) {
+            return place.getWikiDataEntityId();
+        }
+        return place.name;
+    }
+}
@@ -10,11 +10,8 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
-import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
+import fr.free.nrw.commons.data.TransactionalContentProvider;
 import timber.log.Timber;
 
 import static fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesDao.Table.COLUMN_MEDIA_NAME;
@@ -23,7 +20,7 @@ import static fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesDao.Table.T
 /**
  * Handles private storage for Bookmark pictures
  */
-public class BookmarkPicturesContentProvider extends CommonsDaggerContentProvider {
+public class BookmarkPicturesContentProvider extends TransactionalContentProvider {
 
     private static final String BASE_PATH = "bookmarks";
     public static final Uri BASE_URI = Uri.parse("content://" + BuildConfig.BOOKMARK_AUTHORITY + "/" + BASE_PATH);
@@ -35,8 +32,10 @@ public class BookmarkPicturesContentProvider extends CommonsDaggerContentProvide
         return Uri.parse(BASE_URI.toString() + "/" + name);
     }
 
-    @Inject
-    DBOpenHelper dbOpenHelper;
+    @Override
+    protected Uri getBaseUri() {
+        return BASE_URI;
+    }
 
     @Override
     public String getType(@NonNull Uri uri) {
@@ -67,7 +66,8 @@ public class BookmarkPicturesContentProvider extends CommonsDaggerContentProvide
 
     /**
      * Handles the update query of local SQLite Database 
-     * @param uri : contains the uri for bookmark pictures
+     * @param uri : contains the uri for bookmark pictures, ending with the name of the picture
+     *            when no selection is given
      * @param contentValues : new values to be entered to db
      * @param selection : handles Where
      * @param selectionArgs : the condition of Where clause
@@ -79,16 +79,14 @@ public class BookmarkPicturesContentProvider extends CommonsDaggerContentProvide
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         int rowsUpdated;
         if (TextUtils.isEmpty(selection)) {
-            int id = Integer.valueOf(uri.getLastPathSegment());
             rowsUpdated = sqlDB.update(TABLE_NAME,
                     contentValues,
                     COLUMN_MEDIA_NAME + " = ?",
-                    new String[]{String.valueOf(id)});
+                    new String[]{uri.getLastPathSegment()});
         } else {
-            throw new IllegalArgumentException(
-                    "Parameter `selection` should be empty when updating an ID");
+            rowsUpdated = sqlDB.update(TABLE_NAME, contentValues, selection, selectionArgs);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 
@@ -100,7 +98,7 @@ public class BookmarkPicturesContentProvider extends CommonsDaggerContentProvide
     public Uri insert(@NonNull Uri uri, ContentValues contentValues) {
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         long id = sqlDB.insert(BookmarkPicturesDao.Table.TABLE_NAME, null, contentValues);
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -114,7 +112,7 @@ public class BookmarkPicturesContentProvider extends CommonsDaggerContentProvide
                 "media_name = ?",
                 new String[]{uri.getLastPathSegment()}
         );
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 }
@@ -1,64 +1,81 @@
 package fr.free.nrw.commons.bookmarks.pictures;
 
-import org.apache.commons.lang3.StringUtils;
-
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import fr.free.nrw.commons.Media;
-import fr.free.nrw.commons.bookmarks.Bookmark;
 import fr.free.nrw.commons.media.MediaClient;
+import io.reactivex.Completable;
 import io.reactivex.Observable;
-import io.reactivex.ObservableSource;
-import io.reactivex.Single;
-import io.reactivex.functions.Function;
+import timber.log.Timber;
 
 @Singleton
 public class BookmarkPicturesController {
 
+    // Details of bookmarked pictures, like their author, rarely change
+    static final long STALE_AFTER_MS = TimeUnit.DAYS.toMillis(7);
+
     private final MediaClient mediaClient;
     private final BookmarkPicturesDao bookmarkDao;
 
-    private List<Bookmark> currentBookmarks;
+    private int loadedModificationCount = -1;
 
     @Inject
     public BookmarkPicturesController(MediaClient mediaClient, BookmarkPicturesDao bookmarkDao) {
         this.mediaClient = mediaClient;
         this.bookmarkDao = bookmarkDao;
-        currentBookmarks = new ArrayList<>();
     }
 
     /**
-     * Loads the Media objects from the raw data stored in DB and the API.
-     * @return a list of bookmarked Media object
+     * Loads the bookmarked Media objects stored in the DB, then fetches the details of the
+     * bookmarks that were never fetched or are outdated from the API, in batches, and loads them
+     * again. Bookmarks whose details can't be fetched, e.g. offline, are fetched the next time.
+     * @return the list of bookmarked Media objects, then the updated list if there were
+     * bookmarks to fetch
      */
-    Single<List<Media>> loadBookmarkedPictures() {
-        List<Bookmark> bookmarks = bookmarkDao.getAllBookmarks();
-        currentBookmarks = bookmarks;
-        return Observable.fromIterable(bookmarks)
-                .flatMap((Function<Bookmark, ObservableSource<Media>>) this::getMediaFromBookmark)
-                .filter(media -> media != null && !StringUtils.isBlank(media.getFilename()))
-                .toList();
+    Observable<List<Media>> loadBookmarkedPictures() {
+        return Observable.defer(() -> {
+            loadedModificationCount = bookmarkDao.getModificationCount();
+            List<Media> bookmarkedMedia = bookmarkDao.getBookmarkedMedia();
+            long now = System.currentTimeMillis();
+            List<String> staleNames = bookmarkDao.getMediaNamesFetchedBefore(now - STALE_AFTER_MS);
+            if (staleNames.isEmpty()) {
+                return Observable.just(bookmarkedMedia);
+            }
+            Observable<List<Media>> updatedMedia = fetchMedia(staleNames, now)
+                    .andThen(Observable.fromCallable(bookmarkDao::getBookmarkedMedia));
+            // An empty list would show that there are no bookmarks until the update arrives
+            return bookmarkedMedia.isEmpty() ? updatedMedia
+                    : Observable.just(bookmarkedMedia).concatWith(updatedMedia);
+        });
     }
 
-    private Observable<Media> getMediaFromBookmark(Bookmark bookmark) {
-        Media dummyMedia = new Media("");
-        return mediaClient.getMedia(bookmark.getMediaName())
-                .map(media -> media == null ? dummyMedia : media)
-                .onErrorReturn(throwable -> dummyMedia)
-                .toObservable();
+    private Completable fetchMedia(List<String> names, long fetchedAt) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < names.size(); i += MediaClient.MAX_TITLES_PER_REQUEST) {
+            batches.add(names.subList(i,
+                    Math.min(names.size(), i + MediaClient.MAX_TITLES_PER_REQUEST)));
+        }
+        return Observable.fromIterable(batches)
+                .concatMapCompletable(batch -> mediaClient.getMediaSummaries(batch)
+                        .doOnSuccess(media -> bookmarkDao.updateBookmarkedMedia(batch, media, fetchedAt))
+                        .ignoreElement()
+                        .onErrorResumeNext((Throwable throwable) -> {
+                            Timber.e(throwable, "Error fetching bookmarked pictures");
+                            return Completable.complete();
+                        }));
     }
 
     /**
-     * Loads the Media objects from the raw data stored in DB and the API.
-     * @return a list of bookmarked Media object
+     * Checks whether bookmarks were added or removed since they were loaded
+     * @return true if the bookmarked pictures should be loaded again
      */
     boolean needRefreshBookmarkedPictures() {
-        List<Bookmark> bookmarks = bookmarkDao.getAllBookmarks();
-        return bookmarks.size() != currentBookmarks.size();
+        return bookmarkDao.getModificationCount() != loadedModificationCount;
     }
 
     /**
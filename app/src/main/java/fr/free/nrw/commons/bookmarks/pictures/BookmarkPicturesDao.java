@@ -7,16 +7,23 @@ import android.database.sqlite.SQLiteDatabase;
 import android.os.RemoteException;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
+import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.bookmarks.Bookmark;
+import fr.free.nrw.commons.data.ContentProviderBatch;
+import fr.free.nrw.commons.data.CursorRowMapper;
 
 import static fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesContentProvider.BASE_URI;
 
@@ -24,6 +31,7 @@ import static fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesContentProv
 public class BookmarkPicturesDao {
 
     private final Provider<ContentProviderClient> clientProvider;
+    private volatile int modificationCount;
 
     @Inject
     public BookmarkPicturesDao(@Named("bookmarks") Provider<ContentProviderClient> clientProvider) {
@@ -48,8 +56,8 @@ public class BookmarkPicturesDao {
                     null,
                     new String[]{},
                     null);
-            while (cursor != null && cursor.moveToNext()) {
-                items.add(fromCursor(cursor));
+            if (cursor != null) {
+                items = new RowMapper(cursor).mapAll();
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -63,6 +71,98 @@ public class BookmarkPicturesDao {
     }
 
 
+    /**
+     * Finds the bookmarked pictures whose details were fetched, see
+     * {@link #updateBookmarkedMedia(List, Map, long)}, skipping files that don't exist anymore
+     *
+     * @return list of media with their image URLs and creator
+     */
+    @NonNull
+    public List<Media> getBookmarkedMedia() {
+        List<Media> items = new ArrayList<>();
+        Cursor cursor = null;
+        ContentProviderClient db = clientProvider.get();
+        try {
+            cursor = db.query(
+                    BookmarkPicturesContentProvider.BASE_URI,
+                    Table.ALL_FIELDS,
+                    Table.COLUMN_IMAGE_URL + " != ''",
+                    new String[]{},
+                    null);
+            if (cursor != null) {
+                items = new MediaRowMapper(cursor).mapAll();
+            }
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            db.release();
+        }
+        return items;
+    }
+
+    /**
+     * Finds the bookmarked pictures whose details were never fetched or are outdated
+     *
+     * @param fetchedBefore time in milliseconds the details must have been fetched after
+     * @return names of the bookmarked pictures
+     */
+    @NonNull
+    public List<String> getMediaNamesFetchedBefore(long fetchedBefore) {
+        List<String> names = new ArrayList<>();
+        Cursor cursor = null;
+        ContentProviderClient db = clientProvider.get();
+        try {
+            cursor = db.query(
+                    BookmarkPicturesContentProvider.BASE_URI,
+                    new String[]{Table.COLUMN_MEDIA_NAME},
+                    Table.COLUMN_FETCHED_AT + " < ?",
+                    new String[]{String.valueOf(fetchedBefore)},
+                    null);
+            while (cursor != null && cursor.moveToNext()) {
+                names.add(cursor.getString(0));
+            }
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            db.release();
+        }
+        return names;
+    }
+
+    /**
+     * Stores the fetched details of bookmarked pictures next to the bookmarks, so that they can be
+     * shown without the network
+     *
+     * @param names names of the bookmarked pictures whose details were fetched
+     * @param media fetched details keyed by name. Names without details are files that don't
+     *              exist anymore
+     * @param fetchedAt time the details were fetched, in milliseconds
+     */
+    public void updateBookmarkedMedia(List<String> names, Map<String, Media> media, long fetchedAt) {
+        ContentProviderBatch batch = new ContentProviderBatch(clientProvider);
+        for (String name : names) {
+            batch.update(BASE_URI, toContentValues(media.get(name), fetchedAt),
+                    Table.COLUMN_MEDIA_NAME + " = ?", new String[]{name});
+        }
+        batch.apply();
+    }
+
+    /**
+     * Counts the bookmarks added and removed, so that callers can tell cheaply whether the list of
+     * bookmarks they loaded is still current
+     *
+     * @return number of times a bookmark was added or removed
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     /**
      * Look for a bookmark in database and in order to insert or delete it
      *
@@ -88,6 +188,7 @@ public class BookmarkPicturesDao {
         ContentProviderClient db = clientProvider.get();
         try {
             db.insert(BASE_URI, toContentValues(bookmark));
+            modificationCount++;
         } catch (RemoteException e) {
             throw new RuntimeException(e);
         } finally {
@@ -107,6 +208,7 @@ public class BookmarkPicturesDao {
                 throw new RuntimeException("tried to delete item with no content URI");
             } else {
                 db.delete(bookmark.getContentUri(), null, null);
+                modificationCount++;
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -152,12 +254,82 @@ public class BookmarkPicturesDao {
 
     @NonNull
     Bookmark fromCursor(Cursor cursor) {
-        String fileName = cursor.getString(cursor.getColumnIndex(Table.COLUMN_MEDIA_NAME));
-        return new Bookmark(
-                fileName,
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_CREATOR)),
-                BookmarkPicturesContentProvider.uriForName(fileName)
-        );
+        return new RowMapper(cursor).map();
+    }
+
+    /**
+     * Maps bookmarked picture rows, resolving the column indices once per cursor
+     */
+    static class RowMapper extends CursorRowMapper<Bookmark> {
+        private final int mediaNameIndex;
+        private final int creatorIndex;
+
+        RowMapper(Cursor cursor) {
+            super(cursor);
+            mediaNameIndex = cursor.getColumnIndex(Table.COLUMN_MEDIA_NAME);
+            creatorIndex = cursor.getColumnIndex(Table.COLUMN_CREATOR);
+        }
+
+        @NonNull
+        @Override
+        public Bookmark map() {
+            String fileName = cursor.getString(mediaNameIndex);
+            return new Bookmark(
+                    fileName,
+                    cursor.getString(creatorIndex),
+                    BookmarkPicturesContentProvider.uriForName(fileName)
+            );
+        }
+    }
+
+    /**
+     * Maps the fetched details of bookmarked pictures to Media objects
+     */
+    static class MediaRowMapper extends CursorRowMapper<Media> {
+        private final int mediaNameIndex;
+        private final int creatorIndex;
+        private final int imageUrlIndex;
+        private final int thumbUrlIndex;
+
+        MediaRowMapper(Cursor cursor) {
+            super(cursor);
+            mediaNameIndex = cursor.getColumnIndex(Table.COLUMN_MEDIA_NAME);
+            creatorIndex = cursor.getColumnIndex(Table.COLUMN_CREATOR);
+            imageUrlIndex = cursor.getColumnIndex(Table.COLUMN_IMAGE_URL);
+            thumbUrlIndex = cursor.getColumnIndex(Table.COLUMN_THUMB_URL);
+        }
+
+        @NonNull
+        @Override
+        public Media map() {
+            Media media = new Media(null, cursor.getString(imageUrlIndex),
+                    cursor.getString(mediaNameIndex), "", 0, null, null,
+                    cursor.getString(creatorIndex));
+            String thumbUrl = cursor.getString(thumbUrlIndex);
+            if (!StringUtils.isBlank(thumbUrl)) {
+                media.setThumbUrl(thumbUrl);
+            }
+            return media;
+        }
+    }
+
+    /**
+     * A file that doesn't exist anymore is stored with an empty image URL, so that it isn't
+     * fetched again until its details are outdated
+     */
+    private ContentValues toContentValues(@Nullable Media media, long fetchedAt) {
+        ContentValues cv = new ContentValues();
+        cv.put(Table.COLUMN_FETCHED_AT, fetchedAt);
+        if (media == null || StringUtils.isBlank(media.getImageUrl())) {
+            cv.put(Table.COLUMN_IMAGE_URL, "");
+            return cv;
+        }
+        cv.put(Table.COLUMN_IMAGE_URL, media.getImageUrl());
+        cv.put(Table.COLUMN_THUMB_URL, media.getThumbUrl());
+        if (!StringUtils.isBlank(media.getCreator())) {
+            cv.put(Table.COLUMN_CREATOR, media.getCreator());
+        }
+        return cv;
     }
 
     private ContentValues toContentValues(Bookmark bookmark) {
@@ -173,20 +345,37 @@ public class BookmarkPicturesDao {
 
         public static final String COLUMN_MEDIA_NAME = "media_name";
         public static final String COLUMN_CREATOR = "media_creator";
+        public static final String COLUMN_IMAGE_URL = "media_image_url";
+        public static final String COLUMN_THUMB_URL = "media_thumb_url";
+        public static final String COLUMN_FETCHED_AT = "media_fetched_at";
 
         // NOTE! KEEP IN SAME ORDER AS THEY ARE DEFINED UP THERE. HELPS HARD CODE COLUMN INDICES.
         public static final String[] ALL_FIELDS = {
                 COLUMN_MEDIA_NAME,
-                COLUMN_CREATOR
+                COLUMN_CREATOR,
+                COLUMN_IMAGE_URL,
+                COLUMN_THUMB_URL,
+                COLUMN_FETCHED_AT
         };
 
         public static final String DROP_TABLE_STATEMENT = "DROP TABLE IF EXISTS " + TABLE_NAME;
 
         public static final String CREATE_TABLE_STATEMENT = "CREATE TABLE " + TABLE_NAME + " ("
                 + COLUMN_MEDIA_NAME + " STRING PRIMARY KEY,"
-                + COLUMN_CREATOR + " STRING"
+                + COLUMN_CREATOR + " STRING,"
+                + COLUMN_IMAGE_URL + " STRING,"
+                + COLUMN_THUMB_URL + " STRING,"
+                + COLUMN_FETCHED_AT + " INTEGER DEFAULT 0"
                 + ");";
 
+        // Added in version 16
+        static final String ADD_IMAGE_URL_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN "
+                + COLUMN_IMAGE_URL + " STRING;";
+        static final String ADD_THUMB_URL_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN "
+                + COLUMN_THUMB_URL + " STRING;";
+        static final String ADD_FETCHED_AT_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN "
+                + COLUMN_FETCHED_AT + " INTEGER DEFAULT 0;";
+
         public static void onCreate(SQLiteDatabase db) {
             db.execSQL(CREATE_TABLE_STATEMENT);
         }
@@ -208,14 +397,23 @@ public class BookmarkPicturesDao {
             }
 
             if (from == 7) {
-                // table added in version 8
+                // table added in version 8, created with the columns of the current version
                 onCreate(db);
+                return;
+            }
+
+            if (from < 15) {
+                // table didn't change
                 from++;
                 onUpdate(db, from, to);
                 return;
             }
 
-            if (from == 8) {
+            if (from == 15) {
+                // fetched media details added in version 16
+                db.execSQL(ADD_IMAGE_URL_FIELD);
+                db.execSQL(ADD_THUMB_URL_FIELD);
+                db.execSQL(ADD_FETCHED_AT_FIELD);
                 from++;
                 onUpdate(db, from, to);
                 return;
@@ -108,16 +108,11 @@ public class BookmarkPicturesFragment extends DaggerFragment {
     }
 
     /**
-     * Checks for internet connection and then initializes
-     * the recycler view with bookmarked pictures
+     * Initializes the recycler view with bookmarked pictures. The pictures stored in the DB are
+     * shown first, also without internet connection, and updated when their details are fetched
      */
     @SuppressLint("CheckResult")
     private void initList() {
-        if (!NetworkUtils.isInternetConnectionEstablished(getContext())) {
-            handleNoInternet();
-            return;
-        }
-
         progressBar.setVisibility(VISIBLE);
         statusTextView.setVisibility(GONE);
 
@@ -183,7 +178,7 @@ public class BookmarkPicturesFragment extends DaggerFragment {
 
     /**
      * Handles the success scenario
-     * On first load, it initializes the grid view. On subsequent loads, it adds items to the adapter
+     * On first load, it initializes the grid view. On subsequent loads, it replaces the items of the adapter
      * @param collection List of new Media to be displayed
      */
     private void handleSuccess(List<Media> collection) {
@@ -192,16 +187,22 @@ public class BookmarkPicturesFragment extends DaggerFragment {
             return;
         }
         if (collection.isEmpty()) {
-            initEmptyBookmarkListView();
+            if (gridAdapter != null) {
+                gridAdapter.clear();
+            }
+            if (NetworkUtils.isInternetConnectionEstablished(getContext())) {
+                initEmptyBookmarkListView();
+            } else {
+                handleNoInternet();
+            }
             return;
         }
 
         if (gridAdapter == null) {
             setAdapter(collection);
         } else {
-            if (gridAdapter.containsAll(collection)) {
-                return;
-            }
+            // The stored pictures are replaced when their details are fetched
+            gridAdapter.clear();
             gridAdapter.addItems(collection);
             try {
                 ((BookmarksActivity) getContext()).viewPagerNotifyDataSetChanged();
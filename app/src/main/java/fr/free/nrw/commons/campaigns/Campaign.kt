@@ -1,5 +1,10 @@
 package fr.free.nrw.commons.campaigns
 
+import fr.free.nrw.commons.utils.CommonsDateUtil
+import timber.log.Timber
+import java.text.ParseException
+import java.util.*
+
 /**
  * A data class to hold a campaign
  */
@@ -7,4 +12,28 @@ data class Campaign(var title: String? = null,
                     var description: String? = null,
                     var startDate: String? = null,
                     var endDate: String? = null,
-                    var link: String? = null)
\ No newline at end of file
+                    var link: String? = null) {
+    @Transient
+    var parsedStartDate: Date? = null
+    @Transient
+    var parsedEndDate: Date? = null
+
+    /**
+     * Parses the start and end dates once, when the campaigns are fetched
+     * @return whether both dates could be parsed
+     */
+    fun parseDates(): Boolean {
+        if (startDate == null || endDate == null) {
+            return false
+        }
+        return try {
+            val dateFormat = CommonsDateUtil.getIso8601DateFormatShort()
+            parsedStartDate = dateFormat.parse(startDate)
+            parsedEndDate = dateFormat.parse(endDate)
+            true
+        } catch (e: ParseException) {
+            Timber.e(e, "Could not parse the dates of campaign %s", title)
+            false
+        }
+    }
+}
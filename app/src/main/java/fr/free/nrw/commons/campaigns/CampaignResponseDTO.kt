@@ -9,6 +9,13 @@ class CampaignResponseDTO {
     @SerializedName("config")
     val campaignConfig: CampaignConfig? = null
     @SerializedName("campaigns")
-    val campaigns: List<Campaign>? = null
+    var campaigns: List<Campaign>? = null
 
-}
\ No newline at end of file
+    /**
+     * Parses the dates of the campaigns and sorts them by their start date. Campaigns whose dates
+     * can't be parsed are left out
+     */
+    fun parseDates() {
+        campaigns = campaigns?.filter { it.parseDates() }?.sortedBy { it.parsedStartDate }
+    }
+}
@@ -2,8 +2,6 @@ package fr.free.nrw.commons.campaigns;
 
 import android.annotation.SuppressLint;
 
-import java.text.ParseException;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -13,7 +11,6 @@ import javax.inject.Singleton;
 
 import fr.free.nrw.commons.BasePresenter;
 import fr.free.nrw.commons.mwapi.OkHttpJsonApiClient;
-import fr.free.nrw.commons.utils.CommonsDateUtil;
 import io.reactivex.Scheduler;
 import io.reactivex.Single;
 import io.reactivex.SingleObserver;
@@ -83,32 +80,14 @@ public class CampaignsPresenter implements BasePresenter<ICampaignsView> {
                             view.showCampaigns(null);
                             return;
                         }
-                        Collections.sort(campaigns, (campaign, t1) -> {
-                            Date date1, date2;
-                            try {
-
-                                date1 = CommonsDateUtil.getIso8601DateFormatShort().parse(campaign.getStartDate());
-                                date2 = CommonsDateUtil.getIso8601DateFormatShort().parse(t1.getStartDate());
-                            } catch (ParseException e) {
-                                e.printStackTrace();
-                                return -1;
-                            }
-                            return date1.compareTo(date2);
-                        });
-                        Date campaignEndDate, campaignStartDate;
+                        // The campaigns are sorted, and their dates parsed, when they are fetched
                         Date currentDate = new Date();
-                        try {
-                            for (Campaign aCampaign : campaigns) {
-                                campaignEndDate = CommonsDateUtil.getIso8601DateFormatShort().parse(aCampaign.getEndDate());
-                                campaignStartDate = CommonsDateUtil.getIso8601DateFormatShort().parse(aCampaign.getStartDate());
-                                if (campaignEndDate.compareTo(currentDate) >= 0
-                                    && campaignStartDate.compareTo(currentDate) <= 0) {
-                                    campaign = aCampaign;
-                                    break;
-                                }
+                        for (Campaign aCampaign : campaigns) {
+                            if (aCampaign.getParsedEndDate().compareTo(currentDate) >= 0
+                                && aCampaign.getParsedStartDate().compareTo(currentDate) <= 0) {
+                                campaign = aCampaign;
+                                break;
                             }
-                        } catch (ParseException e) {
-                            e.printStackTrace();
                         }
                         view.showCampaigns(campaign);
                     }
@@ -4,10 +4,10 @@ import android.text.TextUtils;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -16,6 +16,7 @@ import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.upload.GpsCategoryModel;
 import fr.free.nrw.commons.utils.StringSortingUtils;
 import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
 /**
@@ -23,23 +24,26 @@ import timber.log.Timber;
  */
 public class CategoriesModel{
     private static final int SEARCH_CATS_LIMIT = 25;
+    private static final Pattern YEAR_PATTERN = Pattern.compile("(19|20)\\d{2}");
+    private static final Pattern RELEVANT_DECADE_PATTERN = Pattern.compile("(200|201)0s");
 
     private final CategoryClient categoryClient;
     private final CategoryDao categoryDao;
     private final JsonKvStore directKvStore;
+    private final CategoryPrefixIndex prefixIndex;
 
-    private HashMap<String, ArrayList<String>> categoriesCache;
     private List<CategoryItem> selectedCategories;
 
     @Inject GpsCategoryModel gpsCategoryModel;
     @Inject
     public CategoriesModel(CategoryClient categoryClient,
                            CategoryDao categoryDao,
-                           @Named("default_preferences") JsonKvStore directKvStore) {
+                           @Named("default_preferences") JsonKvStore directKvStore,
+                           CategoryPrefixIndex prefixIndex) {
         this.categoryClient = categoryClient;
         this.categoryDao = categoryDao;
         this.directKvStore = directKvStore;
-        this.categoriesCache = new HashMap<>();
+        this.prefixIndex = prefixIndex;
         this.selectedCategories = new ArrayList<>();
     }
 
@@ -67,15 +71,14 @@ public class CategoriesModel{
 
         int prevYear = year - 1;
         String prevYearInString = String.valueOf(prevYear);
-        Timber.d("Previous year: %s", prevYearInString);
 
-        //Check if item contains a 4-digit word anywhere within the string (.* is wildcard)
+        //Check if item contains a 4-digit word anywhere within the string
         //And that item does not equal the current year or previous year
         //And if it is an irrelevant category such as Media_needing_categories_as_of_16_June_2017(Issue #750)
         //Check if the year in the form of XX(X)0s is relevant, i.e. in the 2000s or 2010s as stated in Issue #1029
-        return ((item.matches(".*(19|20)\\d{2}.*") && !item.contains(yearInString) && !item.contains(prevYearInString))
-                || item.matches("(.*)needing(.*)") || item.matches("(.*)taken on(.*)")
-                || (item.matches(".*0s.*") && !item.matches(".*(200|201)0s.*")));
+        return ((YEAR_PATTERN.matcher(item).find() && !item.contains(yearInString) && !item.contains(prevYearInString))
+                || item.contains("needing") || item.contains("taken on")
+                || (item.contains("0s") && !RELEVANT_DECADE_PATTERN.matcher(item).find()));
     }
 
     /**
@@ -83,21 +86,9 @@ public class CategoriesModel{
      * @param item
      */
     public void updateCategoryCount(CategoryItem item) {
-        Category category = categoryDao.find(item.getName());
-
-        // Newly used category...
-        if (category == null) {
-            category = new Category(null, item.getName(), new Date(), 0);
-        }
-
-        category.incTimesUsed();
-        categoryDao.save(category);
-    }
-
-    boolean cacheContainsKey(String term) {
-        return categoriesCache.containsKey(term);
+        categoryDao.recordUse(item.getName());
+        prefixIndex.addAll(Collections.singletonList(item.getName()));
     }
-    //endregion
 
     /**
      * Regional category search
@@ -107,36 +98,57 @@ public class CategoriesModel{
      */
     public Observable<CategoryItem> searchAll(String term, List<String> imageTitleList) {
         //If query text is empty, show him category based on gps and title and recent searches
+        //All sources are queried at once, their results are emitted in this order
         if (TextUtils.isEmpty(term)) {
-            Observable<CategoryItem> categoryItemObservable = gpsCategories()
-                    .concatWith(titleCategories(imageTitleList));
+            List<Observable<CategoryItem>> sources = new ArrayList<>();
+            sources.add(gpsCategories());
+            sources.add(titleCategories(imageTitleList));
             if (hasDirectCategories()) {
-                categoryItemObservable.concatWith(directCategories().concatWith(recentCategories()));
+                sources.add(directCategories());
+                sources.add(recentCategories());
             }
-            return categoryItemObservable;
+            return addToPrefixIndex(Observable.concatEager(sources));
         }
 
-        //if user types in something that is in cache, return cached category
-        if (cacheContainsKey(term)) {
-            return Observable.fromIterable(getCachedCategories(term))
-                    .map(name -> new CategoryItem(name, false));
-        }
+        //Categories seen before are suggested right away, the API results follow
+        Observable<CategoryItem> localCategories = Observable
+                .fromCallable(() -> prefixIndex.search(term, SEARCH_CATS_LIMIT))
+                .flatMapIterable(names -> names)
+                .map(name -> new CategoryItem(name, false));
 
-        //otherwise, search API for matching categories
         //term passed as lower case to make search case-insensitive(taking only lower case for everything)
-        return categoryClient
+        Observable<CategoryItem> remoteCategories = emptyOnError(addToPrefixIndex(categoryClient
                 .searchCategoriesForPrefix(term.toLowerCase(), SEARCH_CATS_LIMIT)
-                .map(name -> new CategoryItem(name, false));
+                .subscribeOn(Schedulers.io())
+                .map(name -> new CategoryItem(name, false))));
+
+        return Observable.concatArrayEager(localCategories, remoteCategories);
     }
 
+    /**
+     * Lets a failing source end without results, so that the other sources are still shown
+     * @param categories
+     * @return
+     */
+    private Observable<CategoryItem> emptyOnError(Observable<CategoryItem> categories) {
+        return categories.onErrorResumeNext((Throwable throwable) -> {
+            Timber.e(throwable, "Category search failed");
+            return Observable.empty();
+        });
+    }
 
     /**
-     * Returns cached categories
-     * @param term
+     * Adds the names of the categories to the prefix index once all of them have been received
+     * @param categories
      * @return
      */
-    private ArrayList<String> getCachedCategories(String term) {
-        return categoriesCache.get(term);
+    private Observable<CategoryItem> addToPrefixIndex(Observable<CategoryItem> categories) {
+        return Observable.defer(() -> {
+            List<String> names = new ArrayList<>();
+            return categories
+                    .doOnNext(item -> names.add(item.getName()))
+                    .doOnComplete(() -> prefixIndex.addAll(names));
+        });
     }
 
     /**
@@ -179,7 +191,7 @@ public class CategoriesModel{
      */
     private Observable<CategoryItem> titleCategories(List<String> titleList) {
         return Observable.fromIterable(titleList)
-                .concatMap(this::getTitleCategories);
+                .concatMapEager(this::getTitleCategories);
     }
 
     /**
@@ -189,8 +201,9 @@ public class CategoriesModel{
      * @return
      */
     private Observable<CategoryItem> getTitleCategories(String title) {
-        return categoryClient.searchCategories(title.toLowerCase(), SEARCH_CATS_LIMIT)
-                .map(name -> new CategoryItem(name, false));
+        return emptyOnError(categoryClient.searchCategories(title.toLowerCase(), SEARCH_CATS_LIMIT)
+                .subscribeOn(Schedulers.io())
+                .map(name -> new CategoryItem(name, false)));
     }
 
     /**
@@ -198,7 +211,8 @@ public class CategoriesModel{
      * @return
      */
     private Observable<CategoryItem> recentCategories() {
-        return Observable.fromIterable(categoryDao.recentCategories(SEARCH_CATS_LIMIT))
+        return Observable.fromCallable(() -> categoryDao.recentCategories(SEARCH_CATS_LIMIT))
+                .flatMapIterable(names -> names)
                 .map(s -> new CategoryItem(s, false));
     }
 
@@ -253,10 +267,10 @@ public class CategoriesModel{
     }
 
     /**
-     * Cleanup the existing in memory cache's
+     * Clears the selected categories and saves the categories seen during this upload
      */
     public void cleanUp() {
-        this.categoriesCache.clear();
         this.selectedCategories.clear();
+        prefixIndex.save();
     }
 }
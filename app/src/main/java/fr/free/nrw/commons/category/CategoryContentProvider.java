@@ -3,6 +3,7 @@ package fr.free.nrw.commons.category;
 import android.content.ContentValues;
 import android.content.UriMatcher;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
 import android.net.Uri;
@@ -10,39 +11,60 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
-import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
-import timber.log.Timber;
+import fr.free.nrw.commons.data.TransactionalContentProvider;
 
 import static android.content.UriMatcher.NO_MATCH;
 import static fr.free.nrw.commons.category.CategoryDao.Table.ALL_FIELDS;
 import static fr.free.nrw.commons.category.CategoryDao.Table.COLUMN_ID;
+import static fr.free.nrw.commons.category.CategoryDao.Table.COLUMN_LAST_USED;
+import static fr.free.nrw.commons.category.CategoryDao.Table.COLUMN_NAME;
+import static fr.free.nrw.commons.category.CategoryDao.Table.INSERT_IF_MISSING;
+import static fr.free.nrw.commons.category.CategoryDao.Table.RECORD_USE;
 import static fr.free.nrw.commons.category.CategoryDao.Table.TABLE_NAME;
 
-public class CategoryContentProvider extends CommonsDaggerContentProvider {
+public class CategoryContentProvider extends TransactionalContentProvider {
 
     // For URI matcher
     private static final int CATEGORIES = 1;
     private static final int CATEGORIES_ID = 2;
+    private static final int CATEGORY_USES = 3;
     private static final String BASE_PATH = "categories";
+    private static final String USES_PATH = BASE_PATH + "/uses";
+    private static final String QUERY_PARAMETER_LIMIT = "limit";
 
     public static final Uri BASE_URI = Uri.parse("content://" + BuildConfig.CATEGORY_AUTHORITY + "/" + BASE_PATH);
 
+    /**
+     * Inserting a category name and date here records a use of the category, see CategoryDao.recordUse
+     */
+    static final Uri USES_URI = Uri.parse("content://" + BuildConfig.CATEGORY_AUTHORITY + "/" + USES_PATH);
+
     private static final UriMatcher uriMatcher = new UriMatcher(NO_MATCH);
 
     static {
         uriMatcher.addURI(BuildConfig.CATEGORY_AUTHORITY, BASE_PATH, CATEGORIES);
         uriMatcher.addURI(BuildConfig.CATEGORY_AUTHORITY, BASE_PATH + "/#", CATEGORIES_ID);
+        uriMatcher.addURI(BuildConfig.CATEGORY_AUTHORITY, USES_PATH, CATEGORY_USES);
     }
 
     public static Uri uriForId(int id) {
         return Uri.parse(BASE_URI.toString() + "/" + id);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
+    /**
+     * @return URI for querying at most limit categories
+     */
+    static Uri limitedUri(int limit) {
+        return BASE_URI.buildUpon()
+                .appendQueryParameter(QUERY_PARAMETER_LIMIT, String.valueOf(limit))
+                .build();
+    }
+
+    @Override
+    protected Uri getBaseUri() {
+        return BASE_URI;
+    }
 
     @SuppressWarnings("ConstantConditions")
     @Override
@@ -59,7 +81,7 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
         switch (uriType) {
             case CATEGORIES:
                 cursor = queryBuilder.query(db, projection, selection, selectionArgs,
-                        null, null, sortOrder);
+                        null, null, sortOrder, uri.getQueryParameter(QUERY_PARAMETER_LIMIT));
                 break;
             case CATEGORIES_ID:
                 cursor = queryBuilder.query(db,
@@ -95,13 +117,32 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
             case CATEGORIES:
                 id = sqlDB.insert(TABLE_NAME, null, contentValues);
                 break;
+            case CATEGORY_USES:
+                id = recordUse(sqlDB, contentValues.getAsString(COLUMN_NAME),
+                        contentValues.getAsLong(COLUMN_LAST_USED));
+                break;
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
+    private long recordUse(SQLiteDatabase sqlDB, String name, long lastUsed) {
+        sqlDB.beginTransaction();
+        try {
+            sqlDB.execSQL(INSERT_IF_MISSING, new Object[]{name});
+            sqlDB.execSQL(RECORD_USE, new Object[]{lastUsed, name});
+            long id = DatabaseUtils.longForQuery(sqlDB,
+                    "SELECT " + COLUMN_ID + " FROM " + TABLE_NAME + " WHERE " + COLUMN_NAME + " = ?",
+                    new String[]{name});
+            sqlDB.setTransactionSuccessful();
+            return id;
+        } finally {
+            sqlDB.endTransaction();
+        }
+    }
+
     @Override
     public int delete(@NonNull Uri uri, String s, String[] strings) {
         return 0;
@@ -110,23 +151,21 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
     @SuppressWarnings("ConstantConditions")
     @Override
     public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
-        Timber.d("Hello, bulk insert! (CategoryContentProvider)");
         int uriType = uriMatcher.match(uri);
+        if (uriType != CATEGORIES) {
+            throw new IllegalArgumentException("Unknown URI: " + uri);
+        }
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         sqlDB.beginTransaction();
-        switch (uriType) {
-            case CATEGORIES:
-                for (ContentValues value : values) {
-                    Timber.d("Inserting! %s", value);
-                    sqlDB.insert(TABLE_NAME, null, value);
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown URI: " + uri);
+        try {
+            for (ContentValues value : values) {
+                sqlDB.insert(TABLE_NAME, null, value);
+            }
+            sqlDB.setTransactionSuccessful();
+        } finally {
+            sqlDB.endTransaction();
         }
-        sqlDB.setTransactionSuccessful();
-        sqlDB.endTransaction();
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return values.length;
     }
 
@@ -162,7 +201,7 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri + " with type " + uriType);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 }
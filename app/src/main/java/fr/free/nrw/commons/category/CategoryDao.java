@@ -17,6 +17,8 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 
+import fr.free.nrw.commons.data.CursorRowMapper;
+
 public class CategoryDao {
 
     private final Provider<ContentProviderClient> clientProvider;
@@ -74,7 +76,28 @@ public class CategoryDao {
     }
 
     /**
-     * Retrieve recently-used categories, ordered by descending date.
+     * Records that a category was used now, adding it if it was never used before. The count,
+     * date and frecency are updated in place, without reading the category first.
+     *
+     * @param name Category's name
+     */
+    void recordUse(String name) {
+        ContentValues cv = new ContentValues();
+        cv.put(Table.COLUMN_NAME, name);
+        cv.put(Table.COLUMN_LAST_USED, System.currentTimeMillis());
+        ContentProviderClient db = clientProvider.get();
+        try {
+            db.insert(CategoryContentProvider.USES_URI, cv);
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+
+    /**
+     * Retrieve recently-used categories, ordered by descending frecency, so categories used
+     * often stay ahead of categories used once a little more recently.
      *
      * @return a list containing recent categories
      */
@@ -85,15 +108,16 @@ public class CategoryDao {
         ContentProviderClient db = clientProvider.get();
         try {
             cursor = db.query(
-                    CategoryContentProvider.BASE_URI,
-                    Table.ALL_FIELDS,
+                    CategoryContentProvider.limitedUri(limit),
+                    new String[]{Table.COLUMN_NAME},
                     null,
                     new String[]{},
-                    Table.COLUMN_LAST_USED + " DESC");
-            // fixme add a limit on the original query instead of falling out of the loop?
-            while (cursor != null && cursor.moveToNext()
-                    && cursor.getPosition() < limit) {
-                items.add(fromCursor(cursor).getName());
+                    Table.COLUMN_FRECENCY + " DESC");
+            if (cursor != null) {
+                RowMapper mapper = new RowMapper(cursor);
+                while (cursor.moveToNext()) {
+                    items.add(mapper.getName());
+                }
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -108,13 +132,43 @@ public class CategoryDao {
 
     @NonNull
     Category fromCursor(Cursor cursor) {
-        // Hardcoding column positions!
-        return new Category(
-                CategoryContentProvider.uriForId(cursor.getInt(cursor.getColumnIndex(Table.COLUMN_ID))),
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_NAME)),
-                new Date(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_LAST_USED))),
-                cursor.getInt(cursor.getColumnIndex(Table.COLUMN_TIMES_USED))
-        );
+        return new RowMapper(cursor).map();
+    }
+
+    /**
+     * Maps category rows, resolving the column indices once per cursor
+     */
+    static class RowMapper extends CursorRowMapper<Category> {
+        private final int idIndex;
+        private final int nameIndex;
+        private final int lastUsedIndex;
+        private final int timesUsedIndex;
+
+        RowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndex(Table.COLUMN_ID);
+            nameIndex = cursor.getColumnIndex(Table.COLUMN_NAME);
+            lastUsedIndex = cursor.getColumnIndex(Table.COLUMN_LAST_USED);
+            timesUsedIndex = cursor.getColumnIndex(Table.COLUMN_TIMES_USED);
+        }
+
+        /**
+         * Reads only the name of the current row, for callers that need nothing else
+         */
+        String getName() {
+            return cursor.getString(nameIndex);
+        }
+
+        @NonNull
+        @Override
+        public Category map() {
+            return new Category(
+                    CategoryContentProvider.uriForId(cursor.getInt(idIndex)),
+                    cursor.getString(nameIndex),
+                    new Date(cursor.getLong(lastUsedIndex)),
+                    cursor.getInt(timesUsedIndex)
+            );
+        }
     }
 
     private ContentValues toContentValues(Category category) {
@@ -122,6 +176,8 @@ public class CategoryDao {
         cv.put(CategoryDao.Table.COLUMN_NAME, category.getName());
         cv.put(CategoryDao.Table.COLUMN_LAST_USED, category.getLastUsed().getTime());
         cv.put(CategoryDao.Table.COLUMN_TIMES_USED, category.getTimesUsed());
+        cv.put(CategoryDao.Table.COLUMN_FRECENCY, Table.frecency(category.getLastUsed().getTime(),
+                category.getTimesUsed()));
         return cv;
     }
 
@@ -132,26 +188,82 @@ public class CategoryDao {
         static final String COLUMN_NAME = "name";
         static final String COLUMN_LAST_USED = "last_used";
         static final String COLUMN_TIMES_USED = "times_used";
+        static final String COLUMN_FRECENCY = "frecency";
 
         // NOTE! KEEP IN SAME ORDER AS THEY ARE DEFINED UP THERE. HELPS HARD CODE COLUMN INDICES.
         public static final String[] ALL_FIELDS = {
                 COLUMN_ID,
                 COLUMN_NAME,
                 COLUMN_LAST_USED,
-                COLUMN_TIMES_USED
+                COLUMN_TIMES_USED,
+                COLUMN_FRECENCY
         };
 
+        /*
+         * Frecency is the last used date moved forward by a bonus for every use, up to a cap, so
+         * a category used often ranks like one used up to a month more recently, and a category
+         * that is no longer used still falls behind with time.
+         */
+        static final long FRECENCY_BONUS_PER_USE = 3L * 24 * 60 * 60 * 1000;
+        static final int FRECENCY_MAX_USES = 10;
+
         static final String DROP_TABLE_STATEMENT = "DROP TABLE IF EXISTS " + TABLE_NAME;
 
         static final String CREATE_TABLE_STATEMENT = "CREATE TABLE " + TABLE_NAME + " ("
                 + COLUMN_ID + " INTEGER PRIMARY KEY,"
                 + COLUMN_NAME + " STRING,"
                 + COLUMN_LAST_USED + " INTEGER,"
-                + COLUMN_TIMES_USED + " INTEGER"
+                + COLUMN_TIMES_USED + " INTEGER,"
+                + COLUMN_FRECENCY + " INTEGER"
                 + ");";
 
+        private static final String ADD_FRECENCY_FIELD = "ALTER TABLE " + TABLE_NAME
+                + " ADD COLUMN " + COLUMN_FRECENCY + " INTEGER;";
+
+        private static final String SET_DEFAULT_FRECENCY = "UPDATE " + TABLE_NAME
+                + " SET " + COLUMN_FRECENCY + " = "
+                + frecencyExpression(COLUMN_LAST_USED, COLUMN_TIMES_USED) + ";";
+
+        // Older versions could store the same category twice, keep the most recent row only
+        private static final String DELETE_DUPLICATE_NAMES = "DELETE FROM " + TABLE_NAME
+                + " WHERE " + COLUMN_ID + " NOT IN (SELECT MAX(" + COLUMN_ID + ") FROM "
+                + TABLE_NAME + " GROUP BY " + COLUMN_NAME + ");";
+
+        private static final String CREATE_NAME_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS "
+                + TABLE_NAME + "_name ON " + TABLE_NAME + " (" + COLUMN_NAME + ");";
+
+        private static final String CREATE_FRECENCY_INDEX = "CREATE INDEX IF NOT EXISTS "
+                + TABLE_NAME + "_frecency ON " + TABLE_NAME + " (" + COLUMN_FRECENCY + ");";
+
+        // Adds a category that was never used, the use itself is counted by RECORD_USE
+        static final String INSERT_IF_MISSING = "INSERT OR IGNORE INTO " + TABLE_NAME + " ("
+                + COLUMN_NAME + ", " + COLUMN_TIMES_USED + ") VALUES (?, 0);";
+
+        // Arguments are the date of the use and the category name
+        static final String RECORD_USE = "UPDATE " + TABLE_NAME + " SET "
+                + COLUMN_TIMES_USED + " = " + COLUMN_TIMES_USED + " + 1, "
+                + COLUMN_LAST_USED + " = ?1, "
+                + COLUMN_FRECENCY + " = " + frecencyExpression("?1", COLUMN_TIMES_USED + " + 1")
+                + " WHERE " + COLUMN_NAME + " = ?2;";
+
+        static long frecency(long lastUsed, int timesUsed) {
+            return lastUsed + Math.min(timesUsed, FRECENCY_MAX_USES) * FRECENCY_BONUS_PER_USE;
+        }
+
+        // Same as frecency(), for SQL expressions
+        private static String frecencyExpression(String lastUsed, String timesUsed) {
+            return lastUsed + " + MIN(" + timesUsed + ", " + FRECENCY_MAX_USES + ") * "
+                    + FRECENCY_BONUS_PER_USE;
+        }
+
         public static void onCreate(SQLiteDatabase db) {
             db.execSQL(CREATE_TABLE_STATEMENT);
+            createIndexes(db);
+        }
+
+        private static void createIndexes(SQLiteDatabase db) {
+            db.execSQL(CREATE_NAME_INDEX);
+            db.execSQL(CREATE_FRECENCY_INDEX);
         }
 
         public static void onDelete(SQLiteDatabase db) {
@@ -170,13 +282,22 @@ public class CategoryDao {
                 return;
             }
             if (from == 4) {
-                // table added in version 5
+                // table added in version 5, created with the columns of the latest version
                 onCreate(db);
+                return;
+            }
+            if (from < 13) {
+                // Table didn't change until version 14
                 from++;
                 onUpdate(db, from, to);
                 return;
             }
-            if (from == 5) {
+            if (from == 13) {
+                // Added frecency, and indexes to look up categories by name and by frecency
+                db.execSQL(ADD_FRECENCY_FIELD);
+                db.execSQL(SET_DEFAULT_FRECENCY);
+                db.execSQL(DELETE_DUPLICATE_NAMES);
+                createIndexes(db);
                 from++;
                 onUpdate(db, from, to);
                 return;
@@ -0,0 +1,134 @@
+package fr.free.nrw.commons.category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+import static fr.free.nrw.commons.category.CategoryHierarchyDao.PARENTS;
+import static fr.free.nrw.commons.category.CategoryHierarchyDao.SUBCATEGORIES;
+
+/**
+ * Subcategories and parent categories for browsing the category tree. Lists are read from
+ * {@link CategoryHierarchyDao} first, and lists older than {@link #STALE_AFTER_MS} are fetched
+ * again through {@link CategoryClient} after the stored list was shown. Once a list is known,
+ * the same list of its first few categories is prefetched, as those are the likely next steps.
+ */
+@Singleton
+public class CategoryHierarchy {
+
+    static final long STALE_AFTER_MS = TimeUnit.DAYS.toMillis(1);
+    static final int PREFETCH_COUNT = 3;
+    private static final int TIMEOUT_SECONDS = 15;
+    private static final String CATEGORY_PREFIX = "Category:";
+
+    private final CategoryClient categoryClient;
+    private final CategoryHierarchyDao hierarchyDao;
+
+    @Inject
+    public CategoryHierarchy(CategoryClient categoryClient, CategoryHierarchyDao hierarchyDao) {
+        this.categoryClient = categoryClient;
+        this.hierarchyDao = hierarchyDao;
+    }
+
+    /**
+     * Returns the subcategories of a category. The stored list is emitted first if there is one,
+     * followed by the list from the API if the stored one was missing, stale or different.
+     *
+     * @param categoryName Category name without the "Category:" prefix
+     */
+    public Observable<List<String>> getSubCategories(String categoryName) {
+        return getRelated(categoryName, SUBCATEGORIES);
+    }
+
+    /**
+     * Returns the parent categories of a category, like {@link #getSubCategories(String)}
+     *
+     * @param categoryName Category name without the "Category:" prefix
+     */
+    public Observable<List<String>> getParentCategories(String categoryName) {
+        return getRelated(categoryName, PARENTS);
+    }
+
+    private Observable<List<String>> getRelated(String categoryName, int direction) {
+        return Observable.defer(() -> {
+            CategoryHierarchyDao.Node node = hierarchyDao.find(categoryName, direction);
+            if (node == null) {
+                return fetch(categoryName, direction)
+                        .concatWith(prefetchNextOf(categoryName, direction));
+            }
+            Observable<List<String>> stored = Observable.just(node.getRelated());
+            if (System.currentTimeMillis() - node.getFetchedAt() < STALE_AFTER_MS) {
+                return stored.concatWith(prefetch(node.getRelated(), direction));
+            }
+            // Keep showing the stored list if it can't be revalidated, e.g. when offline
+            Observable<List<String>> fresh = fetch(categoryName, direction)
+                    .filter(related -> !related.equals(node.getRelated()))
+                    .onErrorResumeNext((Throwable throwable) -> {
+                        Timber.e(throwable, "Failed to revalidate categories of %s", categoryName);
+                        return Observable.empty();
+                    });
+            return stored.concatWith(fresh)
+                    .concatWith(prefetchNextOf(categoryName, direction));
+        });
+    }
+
+    /**
+     * Fetches the list from the API and stores it
+     */
+    private Observable<List<String>> fetch(String categoryName, int direction) {
+        String title = CATEGORY_PREFIX + categoryName;
+        Observable<String> related = direction == SUBCATEGORIES
+                ? categoryClient.getSubCategoryList(title)
+                : categoryClient.getParentCategoryList(title);
+        return related
+                .subscribeOn(Schedulers.io())
+                .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .<List<String>>collect(ArrayList::new, List::add)
+                .doOnSuccess(list -> hierarchyDao.save(categoryName, direction, list,
+                        System.currentTimeMillis()))
+                .toObservable();
+    }
+
+    /**
+     * Prefetches the next steps from the stored list of the category, which is the fresh list
+     * if it could be fetched and the previous one otherwise
+     */
+    private Observable<List<String>> prefetchNextOf(String categoryName, int direction) {
+        return Observable.defer(() -> {
+            CategoryHierarchyDao.Node node = hierarchyDao.find(categoryName, direction);
+            return node == null ? Observable.<List<String>>empty()
+                    : prefetch(node.getRelated(), direction);
+        });
+    }
+
+    /**
+     * Fetches the lists of the first categories that have no stored list yet, completing
+     * without emitting anything
+     */
+    private Observable<List<String>> prefetch(List<String> related, int direction) {
+        List<String> next = related.subList(0, Math.min(PREFETCH_COUNT, related.size()));
+        return Observable.fromIterable(new ArrayList<>(next))
+                .concatMapCompletable(categoryName -> prefetchCategory(categoryName, direction))
+                .toObservable();
+    }
+
+    private Completable prefetchCategory(String categoryName, int direction) {
+        return Completable.defer(() -> {
+            if (hierarchyDao.find(categoryName, direction) != null) {
+                return Completable.complete();
+            }
+            return fetch(categoryName, direction)
+                    .ignoreElements()
+                    .doOnError(throwable -> Timber.e(throwable, "Failed to prefetch %s", categoryName))
+                    .onErrorComplete();
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package fr.free.nrw.commons.category;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.data.DBOpenHelper;
+
+/**
+ * Stores the subcategories and parent categories fetched for categories, with the time they were
+ * fetched, so that the category tree can be browsed again without waiting for the network. Only
+ * the most recently fetched {@link #MAX_NODES} lists are kept.
+ */
+@Singleton
+public class CategoryHierarchyDao {
+
+    static final int SUBCATEGORIES = 0;
+    static final int PARENTS = 1;
+    static final int MAX_NODES = 500;
+
+    private final DBOpenHelper dbOpenHelper;
+
+    @Inject
+    public CategoryHierarchyDao(DBOpenHelper dbOpenHelper) {
+        this.dbOpenHelper = dbOpenHelper;
+    }
+
+    /**
+     * Finds the stored subcategories or parent categories of a category
+     *
+     * @param name category, as passed to the API
+     * @param direction {@link #SUBCATEGORIES} or {@link #PARENTS}
+     * @return stored list, or null if the list was never fetched
+     */
+    @Nullable
+    public synchronized Node find(String name, int direction) {
+        SQLiteDatabase db = dbOpenHelper.getReadableDatabase();
+        String[] args = {name, String.valueOf(direction)};
+        long fetchedAt;
+        try (Cursor cursor = db.query(Table.NODES_TABLE_NAME, new String[]{Table.COLUMN_FETCHED_AT},
+                Table.COLUMN_NAME + " = ? AND " + Table.COLUMN_DIRECTION + " = ?", args,
+                null, null, null)) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            fetchedAt = cursor.getLong(0);
+        }
+        List<String> related = new ArrayList<>();
+        try (Cursor cursor = db.query(Table.EDGES_TABLE_NAME, new String[]{Table.COLUMN_RELATED},
+                Table.COLUMN_NAME + " = ? AND " + Table.COLUMN_DIRECTION + " = ?", args,
+                null, null, Table.COLUMN_POSITION)) {
+            while (cursor.moveToNext()) {
+                related.add(cursor.getString(0));
+            }
+        }
+        return new Node(related, fetchedAt);
+    }
+
+    /**
+     * Replaces the stored subcategories or parent categories of a category
+     *
+     * @param name category, as passed to the API
+     * @param direction {@link #SUBCATEGORIES} or {@link #PARENTS}
+     * @param related the subcategories or parent categories
+     * @param fetchedAt time the list was fetched, in milliseconds
+     */
+    public synchronized void save(String name, int direction, List<String> related, long fetchedAt) {
+        SQLiteDatabase db = dbOpenHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            delete(db, name, direction);
+            ContentValues node = new ContentValues();
+            node.put(Table.COLUMN_NAME, name);
+            node.put(Table.COLUMN_DIRECTION, direction);
+            node.put(Table.COLUMN_FETCHED_AT, fetchedAt);
+            db.insert(Table.NODES_TABLE_NAME, null, node);
+            for (int i = 0; i < related.size(); i++) {
+                ContentValues edge = new ContentValues();
+                edge.put(Table.COLUMN_NAME, name);
+                edge.put(Table.COLUMN_DIRECTION, direction);
+                edge.put(Table.COLUMN_POSITION, i);
+                edge.put(Table.COLUMN_RELATED, related.get(i));
+                db.insert(Table.EDGES_TABLE_NAME, null, edge);
+            }
+            evictOldestNodes(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void evictOldestNodes(SQLiteDatabase db) {
+        long excess = DatabaseUtils.queryNumEntries(db, Table.NODES_TABLE_NAME) - MAX_NODES;
+        if (excess <= 0) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        List<Integer> directions = new ArrayList<>();
+        try (Cursor cursor = db.query(Table.NODES_TABLE_NAME,
+                new String[]{Table.COLUMN_NAME, Table.COLUMN_DIRECTION}, null, null, null, null,
+                Table.COLUMN_FETCHED_AT, String.valueOf(excess))) {
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(0));
+                directions.add(cursor.getInt(1));
+            }
+        }
+        for (int i = 0; i < names.size(); i++) {
+            delete(db, names.get(i), directions.get(i));
+        }
+    }
+
+    private void delete(SQLiteDatabase db, String name, int direction) {
+        String[] args = {name, String.valueOf(direction)};
+        String where = Table.COLUMN_NAME + " = ? AND " + Table.COLUMN_DIRECTION + " = ?";
+        db.delete(Table.NODES_TABLE_NAME, where, args);
+        db.delete(Table.EDGES_TABLE_NAME, where, args);
+    }
+
+    /**
+     * Subcategories or parent categories of one category, with the time they were fetched
+     */
+    public static class Node {
+        private final List<String> related;
+        private final long fetchedAt;
+
+        Node(List<String> related, long fetchedAt) {
+            this.related = related;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public List<String> getRelated() {
+            return related;
+        }
+
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+    }
+
+    public static class Table {
+        static final String NODES_TABLE_NAME = "category_hierarchy_nodes";
+        static final String EDGES_TABLE_NAME = "category_hierarchy_edges";
+
+        static final String COLUMN_NAME = "name";
+        static final String COLUMN_DIRECTION = "direction";
+        static final String COLUMN_FETCHED_AT = "fetched_at";
+        static final String COLUMN_POSITION = "position";
+        static final String COLUMN_RELATED = "related";
+
+        static final String CREATE_NODES_TABLE_STATEMENT = "CREATE TABLE " + NODES_TABLE_NAME + " ("
+                + COLUMN_NAME + " STRING,"
+                + COLUMN_DIRECTION + " INTEGER,"
+                + COLUMN_FETCHED_AT + " INTEGER,"
+                + "PRIMARY KEY (" + COLUMN_NAME + ", " + COLUMN_DIRECTION + ")"
+                + ");";
+
+        static final String CREATE_EDGES_TABLE_STATEMENT = "CREATE TABLE " + EDGES_TABLE_NAME + " ("
+                + COLUMN_NAME + " STRING,"
+                + COLUMN_DIRECTION + " INTEGER,"
+                + COLUMN_POSITION + " INTEGER,"
+                + COLUMN_RELATED + " STRING"
+                + ");";
+
+        static final String CREATE_EDGES_INDEX = "CREATE INDEX " + EDGES_TABLE_NAME + "_node ON "
+                + EDGES_TABLE_NAME + " (" + COLUMN_NAME + ", " + COLUMN_DIRECTION + ", "
+                + COLUMN_POSITION + ");";
+
+        static final String CREATE_FETCHED_AT_INDEX = "CREATE INDEX " + NODES_TABLE_NAME
+                + "_fetched_at ON " + NODES_TABLE_NAME + " (" + COLUMN_FETCHED_AT + ");";
+
+        static final String DROP_NODES_TABLE_STATEMENT = "DROP TABLE IF EXISTS " + NODES_TABLE_NAME;
+        static final String DROP_EDGES_TABLE_STATEMENT = "DROP TABLE IF EXISTS " + EDGES_TABLE_NAME;
+
+        public static void onCreate(SQLiteDatabase db) {
+            db.execSQL(CREATE_NODES_TABLE_STATEMENT);
+            db.execSQL(CREATE_EDGES_TABLE_STATEMENT);
+            db.execSQL(CREATE_EDGES_INDEX);
+            db.execSQL(CREATE_FETCHED_AT_INDEX);
+        }
+
+        public static void onDelete(SQLiteDatabase db) {
+            db.execSQL(DROP_NODES_TABLE_STATEMENT);
+            db.execSQL(DROP_EDGES_TABLE_STATEMENT);
+            onCreate(db);
+        }
+
+        public static void onUpdate(SQLiteDatabase db, int from, int to) {
+            if (from == to) {
+                return;
+            }
+            if (from < 14) {
+                // doesn't exist yet
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 14) {
+                // tables added in version 15
+                onCreate(db);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+        }
+    }
+}
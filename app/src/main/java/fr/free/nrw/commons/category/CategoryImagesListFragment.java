@@ -2,6 +2,7 @@ package fr.free.nrw.commons.category;
 
 import android.annotation.SuppressLint;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,15 +20,14 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
-import javax.inject.Named;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import dagger.android.support.DaggerFragment;
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.R;
+import fr.free.nrw.commons.explore.PagePrefetcher;
 import fr.free.nrw.commons.explore.categories.ExploreActivity;
-import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.media.MediaClient;
 import fr.free.nrw.commons.utils.NetworkUtils;
 import fr.free.nrw.commons.utils.ViewUtil;
@@ -57,11 +57,9 @@ public class CategoryImagesListFragment extends DaggerFragment {
     private boolean hasMoreImages = true;
     private boolean isLoading = true;
     private String categoryName = null;
+    private final PagePrefetcher pagePrefetcher = new PagePrefetcher();
 
     @Inject MediaClient mediaClient;
-    @Inject
-    @Named("default_preferences")
-    JsonKvStore categoryKvStore;
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -91,21 +89,12 @@ public class CategoryImagesListFragment extends DaggerFragment {
         String categoryName = getArguments().getString("categoryName");
         if (getArguments() != null && categoryName != null) {
             this.categoryName = categoryName;
-            resetQueryContinueValues(categoryName);
+            mediaClient.resetMediaListFromCategory(categoryName);
             initList();
             setScrollListener();
         }
     }
 
-    /**
-     * Query continue values determine the last page that was loaded for the particular keyword
-     * This method resets those values, so that the results can be queried from the first page itself
-     * @param keyword
-     */
-    private void resetQueryContinueValues(String keyword) {
-        categoryKvStore.remove("query_continue_" + keyword);
-    }
-
     /**
      * Checks for internet connection and then initializes the grid view with first 10 images of that category
      */
@@ -176,7 +165,8 @@ public class CategoryImagesListFragment extends DaggerFragment {
     }
 
     /**
-     * Sets the scroll listener for the grid view so that more images are fetched when the user scrolls down
+     * Sets the scroll listener for the grid view so that more images are fetched when the user scrolls down,
+     * early enough for the speed of scrolling
      * Checks if the category has more images before loading
      * Also checks whether images are currently being fetched before triggering another request
      */
@@ -188,7 +178,9 @@ public class CategoryImagesListFragment extends DaggerFragment {
 
             @Override
             public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
-                if (hasMoreImages && !isLoading && (firstVisibleItem + visibleItemCount + 1 >= totalItemCount)) {
+                int lastVisibleItem = firstVisibleItem + visibleItemCount - 1;
+                pagePrefetcher.onScrolled(lastVisibleItem, SystemClock.uptimeMillis());
+                if (hasMoreImages && !isLoading && pagePrefetcher.shouldLoadMore(lastVisibleItem, totalItemCount)) {
                     isLoading = true;
                     fetchMoreImages();
                 }
@@ -224,7 +216,7 @@ public class CategoryImagesListFragment extends DaggerFragment {
         }
 
         progressBar.setVisibility(VISIBLE);
-        compositeDisposable.add(mediaClient.getMediaListFromCategory(categoryName)
+        compositeDisposable.add(mediaClient.getMediaListFromCategory(categoryName, pagePrefetcher.getPageSize())
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
@@ -243,6 +235,7 @@ public class CategoryImagesListFragment extends DaggerFragment {
             return;
         }
 
+        PagePrefetcher.prefetchThumbnails(collection);
         if (gridAdapter == null) {
             setAdapter(collection);
         } else {
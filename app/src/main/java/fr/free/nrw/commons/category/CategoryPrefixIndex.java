@@ -0,0 +1,121 @@
+package fr.free.nrw.commons.category;
+
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.kvstore.JsonKvStore;
+
+/**
+ * Local index of category names for prefix lookups while typing. It is filled with the
+ * categories the user has used and the categories returned by earlier searches, so that
+ * matching categories can be suggested before the network answers, or without a network.
+ */
+@Singleton
+public class CategoryPrefixIndex {
+
+    static final int MAX_NAMES = 5000;
+    private static final String KEY_NAMES = "names";
+
+    private final JsonKvStore store;
+
+    // Lower case names to names, sorted so that all names with a given prefix are adjacent
+    private final TreeMap<String, String> index = new TreeMap<>();
+    // Lower case names from least to most recently added, the least recent are evicted first
+    private final LinkedHashSet<String> recency = new LinkedHashSet<>();
+    private boolean loaded;
+    private boolean changed;
+
+    @Inject
+    public CategoryPrefixIndex(@Named("category_prefix_index") JsonKvStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Returns the indexed categories starting with the given prefix, ignoring case, in
+     * alphabetical order
+     *
+     * @param prefix start of the category name
+     * @param limit maximum number of categories to return
+     */
+    public synchronized List<String> search(String prefix, int limit) {
+        load();
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, String> entry : index.tailMap(key, true).entrySet()) {
+            if (names.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            names.add(entry.getValue());
+        }
+        return names;
+    }
+
+    /**
+     * Adds categories to the index, or marks them as recently seen if they already are in it
+     */
+    public synchronized void addAll(Collection<String> names) {
+        load();
+        for (String name : names) {
+            add(name);
+        }
+    }
+
+    /**
+     * Writes the index to its store if it changed since it was loaded or last saved
+     */
+    public synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        List<String> names = new ArrayList<>(recency.size());
+        for (String key : recency) {
+            names.add(index.get(key));
+        }
+        store.putJson(KEY_NAMES, names);
+        changed = false;
+    }
+
+    private void add(String name) {
+        if (StringUtils.isBlank(name)) {
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        recency.remove(key);
+        recency.add(key);
+        index.put(key, name);
+        changed = true;
+        if (recency.size() > MAX_NAMES) {
+            Iterator<String> eldest = recency.iterator();
+            index.remove(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        List<String> names = store.getJson(KEY_NAMES, new TypeToken<List<String>>() {}.getType());
+        if (names != null) {
+            for (String name : names) {
+                add(name);
+            }
+        }
+        changed = false;
+    }
+}
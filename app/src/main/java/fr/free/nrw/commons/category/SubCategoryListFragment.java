@@ -18,7 +18,6 @@ import com.pedrogomez.renderers.RVRendererAdapter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -29,6 +28,7 @@ import fr.free.nrw.commons.di.CommonsDaggerSupportFragment;
 import fr.free.nrw.commons.explore.categories.SearchCategoriesAdapterFactory;
 import fr.free.nrw.commons.utils.NetworkUtils;
 import fr.free.nrw.commons.utils.ViewUtil;
+import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
@@ -42,8 +42,6 @@ import static android.view.View.VISIBLE;
 
 public class SubCategoryListFragment extends CommonsDaggerSupportFragment {
 
-    private static int TIMEOUT_SECONDS = 15;
-
     @BindView(R.id.imagesListBox)
     RecyclerView categoriesRecyclerView;
     @BindView(R.id.imageSearchInProgress)
@@ -52,7 +50,7 @@ public class SubCategoryListFragment extends CommonsDaggerSupportFragment {
     TextView categoriesNotFoundView;
 
     private String categoryName = null;
-    @Inject CategoryClient categoryClient;
+    @Inject CategoryHierarchy categoryHierarchy;
 
     private RVRendererAdapter<String> categoriesAdapter;
     private boolean isParentCategory = true;
@@ -85,31 +83,19 @@ public class SubCategoryListFragment extends CommonsDaggerSupportFragment {
     }
 
     /**
-     * Checks for internet connection and then initializes the recycler view with all(max 500) categories of the searched query
-     * Clearing categoryAdapter every time new keyword is searched so that user can see only new results
+     * Initializes the recycler view with all(max 500) parent or subcategories of the category.
+     * Categories browsed before are shown straight away, and replaced if they changed since
      */
     public void initSubCategoryList() {
         categoriesNotFoundView.setVisibility(GONE);
-        if (!NetworkUtils.isInternetConnectionEstablished(getContext())) {
-            handleNoInternet();
-            return;
-        }
         progressBar.setVisibility(View.VISIBLE);
-        if (isParentCategory) {
-            compositeDisposable.add(categoryClient.getParentCategoryList("Category:"+categoryName)
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .collect(ArrayList<String>::new, ArrayList::add)
-                    .subscribe(this::handleSuccess, this::handleError));
-        } else {
-            compositeDisposable.add(categoryClient.getSubCategoryList("Category:"+categoryName)
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .collect(ArrayList<String>::new, ArrayList::add)
-                    .subscribe(this::handleSuccess, this::handleError));
-        }
+        Observable<List<String>> categories = isParentCategory
+                ? categoryHierarchy.getParentCategories(categoryName)
+                : categoryHierarchy.getSubCategories(categoryName);
+        compositeDisposable.add(categories
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::handleSuccess, this::handleError));
     }
 
 
@@ -120,10 +106,14 @@ public class SubCategoryListFragment extends CommonsDaggerSupportFragment {
      */
     private void handleSuccess(List<String> subCategoryList) {
         if (subCategoryList == null || subCategoryList.isEmpty()) {
+            categoriesAdapter.clear();
+            categoriesAdapter.notifyDataSetChanged();
             initEmptyView();
         }
         else {
             progressBar.setVisibility(View.GONE);
+            categoriesNotFoundView.setVisibility(GONE);
+            categoriesAdapter.clear();
             categoriesAdapter.addAll(subCategoryList);
             categoriesAdapter.notifyDataSetChanged();
         }
@@ -134,6 +124,10 @@ public class SubCategoryListFragment extends CommonsDaggerSupportFragment {
      * @param throwable
      */
     private void handleError(Throwable throwable) {
+        if (!NetworkUtils.isInternetConnectionEstablished(getContext())) {
+            handleNoInternet();
+            return;
+        }
         if (!isParentCategory){
             Timber.e(throwable, "Error occurred while loading queried subcategories");
             ViewUtil.showShortSnackbar(categoriesRecyclerView,R.string.error_loading_categories);
@@ -5,6 +5,7 @@ import android.net.Uri;
 import android.os.Parcel;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
 import org.apache.commons.lang3.StringUtils;
@@ -65,6 +66,20 @@ public class  Contribution extends Media {
     private String wikiDataEntityId;
     private Uri contentProviderUri;
     private String dateCreatedSource;
+    /**
+     * Value of the sort key column when read from the database, used for keyset paging
+     */
+    private long sortKey;
+
+    // Raw values read from the database, decoded the first time they are needed
+    private boolean hasEncodedFields;
+    private String encodedLocalUri;
+    private long encodedDateCreated;
+    private long encodedDateUploaded;
+
+    // Display title of displayTitleFilename, kept because the list asks for it on every bind
+    private String displayTitle;
+    private String displayTitleFilename;
 
     public Contribution(Uri contentUri, String filename, Uri localUri, String imageUrl, Date dateCreated,
                         int state, long dataLength, Date dateUploaded, long transferred,
@@ -110,6 +125,7 @@ public class  Contribution extends Media {
 
     @Override
     public void writeToParcel(Parcel parcel, int flags) {
+        decodeFields();
         super.writeToParcel(parcel, flags);
         parcel.writeParcelable(contentUri, flags);
         parcel.writeString(source);
@@ -150,6 +166,14 @@ public class  Contribution extends Media {
         this.contentUri = contentUri;
     }
 
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    public void setSortKey(long sortKey) {
+        this.sortKey = sortKey;
+    }
+
     public int getState() {
         return state;
     }
@@ -158,10 +182,75 @@ public class  Contribution extends Media {
         this.state = state;
     }
 
+    /**
+     * Sets the local URI and dates as stored in the database. They are only decoded when one of
+     * them is read, which most rows of the contributions list never do.
+     *
+     * @param localUri local URI string, empty or null when there is none
+     * @param dateCreated creation time in milliseconds, 0 when unknown
+     * @param dateUploaded upload time in milliseconds, 0 when unknown
+     */
+    void setEncodedFields(String localUri, long dateCreated, long dateUploaded) {
+        this.localUri = null;
+        this.dateCreated = null;
+        this.dateUploaded = null;
+        this.encodedLocalUri = localUri;
+        this.encodedDateCreated = dateCreated;
+        this.encodedDateUploaded = dateUploaded;
+        this.hasEncodedFields = true;
+    }
+
+    private void decodeFields() {
+        if (!hasEncodedFields) {
+            return;
+        }
+        hasEncodedFields = false;
+        localUri = StringUtils.isEmpty(encodedLocalUri) ? null : Uri.parse(encodedLocalUri);
+        dateCreated = encodedDateCreated == 0 ? null : new Date(encodedDateCreated);
+        dateUploaded = encodedDateUploaded == 0 ? null : new Date(encodedDateUploaded);
+        encodedLocalUri = null;
+    }
+
+    @Override
+    public Uri getLocalUri() {
+        decodeFields();
+        return super.getLocalUri();
+    }
+
+    @Override
+    public Date getDateCreated() {
+        decodeFields();
+        return super.getDateCreated();
+    }
+
+    @Override
+    public void setDateCreated(Date date) {
+        decodeFields();
+        super.setDateCreated(date);
+    }
+
+    @Nullable
+    @Override
+    public Date getDateUploaded() {
+        decodeFields();
+        return super.getDateUploaded();
+    }
+
     public void setDateUploaded(Date date) {
+        decodeFields();
         this.dateUploaded = date;
     }
 
+    @NonNull
+    @Override
+    public String getDisplayTitle() {
+        if (displayTitle == null || !StringUtils.equals(displayTitleFilename, filename)) {
+            displayTitle = super.getDisplayTitle();
+            displayTitleFilename = filename;
+        }
+        return displayTitle;
+    }
+
     public String getPageContents(Context applicationContext) {
         StringBuilder buffer = new StringBuilder();
         buffer
@@ -203,6 +292,7 @@ public class  Contribution extends Media {
      * @return
      */
     private String getTemplatizedCreatedDate() {
+        decodeFields();
         if (dateCreated != null) {
             java.text.SimpleDateFormat dateFormat = new java.text.SimpleDateFormat("yyyy-MM-dd");
             if (UploadableFile.DateTimeWithSource.EXIF_SOURCE.equals(dateCreatedSource)) {
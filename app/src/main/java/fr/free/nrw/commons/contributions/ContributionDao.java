@@ -1,30 +1,21 @@
 package fr.free.nrw.commons.contributions;
 
-import android.content.ContentProviderClient;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
-import android.net.Uri;
-import android.os.RemoteException;
-import android.text.TextUtils;
 
-import androidx.annotation.Nullable;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Date;
-
 import javax.inject.Inject;
-import javax.inject.Named;
-import javax.inject.Provider;
 
+import fr.free.nrw.commons.data.CursorRowMapper;
 import fr.free.nrw.commons.settings.Prefs;
 import timber.log.Timber;
 
-import static fr.free.nrw.commons.contributions.ContributionDao.Table.ALL_FIELDS;
 import static fr.free.nrw.commons.contributions.ContributionDao.Table.COLUMN_WIKI_DATA_ENTITY_ID;
-import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
 import static fr.free.nrw.commons.contributions.ContributionsContentProvider.uriForId;
 
 public class ContributionDao {
@@ -36,59 +27,19 @@ public class ContributionDao {
         Completed (Sorted in descending order of time added)
 
         This is why Contribution.STATE_COMPLETED is -1.
-     */
-    static final String CONTRIBUTION_SORT = Table.COLUMN_STATE + " DESC, "
-            + Table.COLUMN_UPLOADED + " DESC , ("
-            + Table.COLUMN_TIMESTAMP + " * "
-            + Table.COLUMN_STATE + ")";
 
-    private final Provider<ContentProviderClient> clientProvider;
+        The order is materialised in COLUMN_SORT_KEY (see Table.SORT_KEY_EXPRESSION) so that
+        the list can be read straight from an index.
+     */
+    static final String CONTRIBUTION_SORT = Table.COLUMN_SORT_KEY + " DESC, "
+            + Table.COLUMN_ID + " DESC";
 
+    /**
+     * Contributions are written through {@link DirectContributionDao}, and by the sync adapter
+     * through its own content provider client, which uses the values built here
+     */
     @Inject
-    public ContributionDao(@Named("contribution") Provider<ContentProviderClient> clientProvider) {
-        this.clientProvider = clientProvider;
-    }
-
-    Cursor loadAllContributions() {
-        ContentProviderClient db = clientProvider.get();
-        try {
-            return db.query(BASE_URI, ALL_FIELDS, "", null, CONTRIBUTION_SORT);
-        } catch (RemoteException e) {
-            return null;
-        } finally {
-            db.release();
-        }
-    }
-
-    public void save(Contribution contribution) {
-        ContentProviderClient db = clientProvider.get();
-        try {
-            if (contribution.getContentUri() == null) {
-                contribution.setContentUri(db.insert(BASE_URI, toContentValues(contribution)));
-            } else {
-                db.update(contribution.getContentUri(), toContentValues(contribution), null, null);
-            }
-        } catch (RemoteException e) {
-            throw new RuntimeException(e);
-        } finally {
-            db.release();
-        }
-    }
-
-    public void delete(Contribution contribution) {
-        ContentProviderClient db = clientProvider.get();
-        try {
-            if (contribution.getContentUri() == null) {
-                // noooo
-                throw new RuntimeException("tried to delete item with no content URI");
-            } else {
-                db.delete(contribution.getContentUri(), null, null);
-            }
-        } catch (RemoteException e) {
-            throw new RuntimeException(e);
-        } finally {
-            db.release();
-        }
+    public ContributionDao() {
     }
 
     ContentValues toContentValues(Contribution contribution) {
@@ -120,53 +71,102 @@ public class ContributionDao {
     }
 
     public Contribution fromCursor(Cursor cursor) {
-        // Hardcoding column positions!
         //Check that cursor has a value to avoid CursorIndexOutOfBoundsException
         if (cursor.getCount() > 0) {
-            int index;
-            if (cursor.getColumnIndex(Table.COLUMN_LICENSE) == -1){
-                index = 15;
-            } else {
-                index = cursor.getColumnIndex(Table.COLUMN_LICENSE);
-            }
+            return new RowMapper(cursor).map();
+        }
+
+        return null;
+    }
+
+    /**
+     * Maps contribution rows. The local URI and the dates are handed to the contribution
+     * undecoded, see {@link Contribution#setEncodedFields(String, long, long)}.
+     */
+    public static class RowMapper extends CursorRowMapper<Contribution> {
+        private final int idIndex;
+        private final int filenameIndex;
+        private final int localUriIndex;
+        private final int imageUrlIndex;
+        private final int timestampIndex;
+        private final int stateIndex;
+        private final int lengthIndex;
+        private final int uploadedIndex;
+        private final int transferredIndex;
+        private final int sourceIndex;
+        private final int descriptionIndex;
+        private final int creatorIndex;
+        private final int multipleIndex;
+        private final int widthIndex;
+        private final int heightIndex;
+        private final int licenseIndex;
+        private final int wikiDataEntityIdIndex;
+        private final int thumbnailUrlIndex;
+        private final int sortKeyIndex;
+
+        public RowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndex(Table.COLUMN_ID);
+            filenameIndex = cursor.getColumnIndex(Table.COLUMN_FILENAME);
+            localUriIndex = cursor.getColumnIndex(Table.COLUMN_LOCAL_URI);
+            imageUrlIndex = cursor.getColumnIndex(Table.COLUMN_IMAGE_URL);
+            timestampIndex = cursor.getColumnIndex(Table.COLUMN_TIMESTAMP);
+            stateIndex = cursor.getColumnIndex(Table.COLUMN_STATE);
+            lengthIndex = cursor.getColumnIndex(Table.COLUMN_LENGTH);
+            uploadedIndex = cursor.getColumnIndex(Table.COLUMN_UPLOADED);
+            transferredIndex = cursor.getColumnIndex(Table.COLUMN_TRANSFERRED);
+            sourceIndex = cursor.getColumnIndex(Table.COLUMN_SOURCE);
+            descriptionIndex = cursor.getColumnIndex(Table.COLUMN_DESCRIPTION);
+            creatorIndex = cursor.getColumnIndex(Table.COLUMN_CREATOR);
+            multipleIndex = cursor.getColumnIndex(Table.COLUMN_MULTIPLE);
+            widthIndex = cursor.getColumnIndex(Table.COLUMN_WIDTH);
+            heightIndex = cursor.getColumnIndex(Table.COLUMN_HEIGHT);
+            // Hardcoding column positions!
+            int index = cursor.getColumnIndex(Table.COLUMN_LICENSE);
+            licenseIndex = index == -1 ? 15 : index;
+            wikiDataEntityIdIndex = cursor.getColumnIndex(COLUMN_WIKI_DATA_ENTITY_ID);
+            thumbnailUrlIndex = cursor.getColumnIndex(Table.COLUMN_THUMBNAIL_URL);
+            sortKeyIndex = cursor.getColumnIndex(Table.COLUMN_SORT_KEY);
+        }
+
+        @Override
+        public Contribution map() {
             Contribution contribution = new Contribution(
-                    uriForId(cursor.getInt(cursor.getColumnIndex(Table.COLUMN_ID))),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_FILENAME)),
-                    parseUri(cursor.getString(cursor.getColumnIndex(Table.COLUMN_LOCAL_URI))),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_IMAGE_URL)),
-                    parseTimestamp(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_TIMESTAMP))),
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_STATE)),
-                    cursor.getLong(cursor.getColumnIndex(Table.COLUMN_LENGTH)),
-                    parseTimestamp(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_UPLOADED))),
-                    cursor.getLong(cursor.getColumnIndex(Table.COLUMN_TRANSFERRED)),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_SOURCE)),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_DESCRIPTION)),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_CREATOR)),
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_MULTIPLE)) == 1,
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_WIDTH)),
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_HEIGHT)),
-                    cursor.getString(index)
+                    uriForId(cursor.getInt(idIndex)),
+                    cursor.getString(filenameIndex),
+                    null,
+                    cursor.getString(imageUrlIndex),
+                    null,
+                    cursor.getInt(stateIndex),
+                    cursor.getLong(lengthIndex),
+                    null,
+                    cursor.getLong(transferredIndex),
+                    cursor.getString(sourceIndex),
+                    cursor.getString(descriptionIndex),
+                    cursor.getString(creatorIndex),
+                    cursor.getInt(multipleIndex) == 1,
+                    cursor.getInt(widthIndex),
+                    cursor.getInt(heightIndex),
+                    cursor.getString(licenseIndex)
             );
+            contribution.setEncodedFields(cursor.getString(localUriIndex),
+                    cursor.getLong(timestampIndex), cursor.getLong(uploadedIndex));
+
+            // The thumbnail is only known once fetched, never fall back to the full size image
+            contribution.setThumbUrl(thumbnailUrlIndex == -1
+                    ? null : cursor.getString(thumbnailUrlIndex));
+
+            if (sortKeyIndex != -1) {
+                contribution.setSortKey(cursor.getLong(sortKeyIndex));
+            }
 
-            String wikidataEntityId = cursor.getString(cursor.getColumnIndex(COLUMN_WIKI_DATA_ENTITY_ID));
+            String wikidataEntityId = cursor.getString(wikiDataEntityIdIndex);
             if (!StringUtils.isBlank(wikidataEntityId)) {
                 contribution.setWikiDataEntityId(wikidataEntityId);
             }
 
             return contribution;
         }
-
-        return null;
-    }
-
-    @Nullable
-    private static Date parseTimestamp(long timestamp) {
-        return timestamp == 0 ? null : new Date(timestamp);
-    }
-
-    @Nullable
-    private static Uri parseUri(String uriString) {
-        return TextUtils.isEmpty(uriString) ? null : Uri.parse(uriString);
     }
 
     public static class Table {
@@ -189,6 +189,12 @@ public class ContributionDao {
         public static final String COLUMN_HEIGHT = "height";
         public static final String COLUMN_LICENSE = "license";
         public static final String COLUMN_WIKI_DATA_ENTITY_ID = "wikidataEntityID";
+        // Written only by the thumbnail backfill, null until a thumbnail was found
+        public static final String COLUMN_THUMBNAIL_URL = "thumbnail_url";
+        // When the backfill looks again for a thumbnail it did not find, null otherwise
+        public static final String COLUMN_THUMBNAIL_RETRY_AFTER = "thumbnail_retry_after";
+        // Maintained by triggers, never written by the app
+        public static final String COLUMN_SORT_KEY = "sort_key";
 
         // NOTE! KEEP IN SAME ORDER AS THEY ARE DEFINED UP THERE. HELPS HARD CODE COLUMN INDICES.
         public static final String[] ALL_FIELDS = {
@@ -208,9 +214,12 @@ public class ContributionDao {
                 COLUMN_WIDTH,
                 COLUMN_HEIGHT,
                 COLUMN_LICENSE,
-                COLUMN_WIKI_DATA_ENTITY_ID
+                COLUMN_WIKI_DATA_ENTITY_ID,
+                COLUMN_THUMBNAIL_URL
         };
 
+        public static final String[] ALL_FIELDS_WITH_SORT_KEY = ArrayUtils.add(ALL_FIELDS, COLUMN_SORT_KEY);
+
         public static final String DROP_TABLE_STATEMENT = "DROP TABLE IF EXISTS " + TABLE_NAME;
 
         public static final String CREATE_TABLE_STATEMENT = "CREATE TABLE " + TABLE_NAME + " ("
@@ -230,9 +239,39 @@ public class ContributionDao {
                 + "width INTEGER,"
                 + "height INTEGER,"
                 + "LICENSE STRING,"
-                + "wikidataEntityID STRING"
+                + "wikidataEntityID STRING,"
+                + "sort_key INTEGER,"
+                + "thumbnail_url STRING,"
+                + "thumbnail_retry_after INTEGER"
                 + ");";
 
+        /*
+            The sort key packs the state bucket above bit 44 and a time below it:
+            completed contributions are ordered by upload time, newest first, the others by the
+            time they were added, oldest first. Sorting by the key descending gives the order
+            described at CONTRIBUTION_SORT.
+         */
+        static final String SORT_KEY_EXPRESSION = "((state + 1) * 17592186044416 + "
+                + "CASE WHEN state = " + Contribution.STATE_COMPLETED
+                + " THEN COALESCE(NULLIF(uploaded, 0), timestamp, 0)"
+                + " ELSE 8796093022208 - COALESCE(timestamp, 0) END)";
+
+        static final String CREATE_FILENAME_INDEX = "CREATE INDEX IF NOT EXISTS contributions_filename ON "
+                + TABLE_NAME + " (filename);";
+        static final String CREATE_STATE_INDEX = "CREATE INDEX IF NOT EXISTS contributions_state ON "
+                + TABLE_NAME + " (state);";
+        static final String CREATE_SORT_KEY_INDEX = "CREATE INDEX IF NOT EXISTS contributions_sort_key ON "
+                + TABLE_NAME + " (sort_key DESC, _id DESC);";
+
+        static final String CREATE_SORT_KEY_INSERT_TRIGGER = "CREATE TRIGGER IF NOT EXISTS contributions_sort_key_insert"
+                + " AFTER INSERT ON " + TABLE_NAME + " BEGIN"
+                + " UPDATE " + TABLE_NAME + " SET sort_key = " + SORT_KEY_EXPRESSION + " WHERE _id = NEW._id;"
+                + " END;";
+        static final String CREATE_SORT_KEY_UPDATE_TRIGGER = "CREATE TRIGGER IF NOT EXISTS contributions_sort_key_update"
+                + " AFTER UPDATE OF state, uploaded, timestamp ON " + TABLE_NAME + " BEGIN"
+                + " UPDATE " + TABLE_NAME + " SET sort_key = " + SORT_KEY_EXPRESSION + " WHERE _id = NEW._id;"
+                + " END;";
+
         // Upgrade from version 1 ->
         static final String ADD_CREATOR_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN creator STRING;";
         static final String ADD_DESCRIPTION_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN description STRING;";
@@ -252,9 +291,29 @@ public class ContributionDao {
         // Upgrade from version 8 ->
         static final String ADD_WIKI_DATA_ENTITY_ID_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN wikidataEntityID STRING;";
 
+        // Upgrade from version 11 ->
+        static final String ADD_SORT_KEY_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN sort_key INTEGER;";
+        static final String SET_DEFAULT_SORT_KEY = "UPDATE " + TABLE_NAME + " SET sort_key = " + SORT_KEY_EXPRESSION;
+
+        // Upgrade from version 12 ->
+        static final String ADD_THUMBNAIL_URL_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN thumbnail_url STRING;";
+
+        // Upgrade from version 16 ->
+        static final String ADD_THUMBNAIL_RETRY_AFTER_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN thumbnail_retry_after INTEGER;";
+        static final String RESET_EMPTY_THUMBNAIL_URLS = "UPDATE " + TABLE_NAME + " SET thumbnail_url = NULL WHERE thumbnail_url = ''";
+
 
         public static void onCreate(SQLiteDatabase db) {
             db.execSQL(CREATE_TABLE_STATEMENT);
+            createIndexesAndTriggers(db);
+        }
+
+        private static void createIndexesAndTriggers(SQLiteDatabase db) {
+            db.execSQL(CREATE_FILENAME_INDEX);
+            db.execSQL(CREATE_STATE_INDEX);
+            db.execSQL(CREATE_SORT_KEY_INDEX);
+            db.execSQL(CREATE_SORT_KEY_INSERT_TRIGGER);
+            db.execSQL(CREATE_SORT_KEY_UPDATE_TRIGGER);
         }
 
         public static void onDelete(SQLiteDatabase db) {
@@ -308,8 +367,43 @@ public class ContributionDao {
                 onUpdate(db, from, to);
                 return;
             }
-            if (from > 5) {
+            if (from > 5 && from < 11) {
                 // Added place field
+                from = Math.min(to, 11);
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 11) {
+                // Added sort key with its indexes and triggers
+                runQuery(db, ADD_SORT_KEY_FIELD);
+                runQuery(db, SET_DEFAULT_SORT_KEY);
+                createIndexesAndTriggers(db);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 12) {
+                // Added thumbnail URL, filled in by the thumbnail backfill
+                runQuery(db, ADD_THUMBNAIL_URL_FIELD);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from > 12 && from < 16) {
+                // Tables of other DAOs changed
+                from = Math.min(to, 16);
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 16) {
+                // Missing thumbnails are looked up again later instead of being stored as empty
+                runQuery(db, ADD_THUMBNAIL_RETRY_AFTER_FIELD);
+                runQuery(db, RESET_EMPTY_THUMBNAIL_URLS);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from > 16) {
                 from=to;
                 onUpdate(db, from, to);
                 return;
@@ -0,0 +1,53 @@
+package fr.free.nrw.commons.contributions;
+
+import androidx.core.util.ObjectsCompat;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.List;
+
+/**
+ * Compares two snapshots of the contributions list so that only the rows that changed are
+ * rebound. Contributions are the same item when they share a database ID.
+ */
+class ContributionDiffCallback extends DiffUtil.Callback {
+
+    private final List<Contribution> oldList;
+    private final List<Contribution> newList;
+
+    ContributionDiffCallback(List<Contribution> oldList, List<Contribution> newList) {
+        this.oldList = oldList;
+        this.newList = newList;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldList.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newList.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return ObjectsCompat.equals(oldList.get(oldItemPosition).getContentUri(),
+                newList.get(newItemPosition).getContentUri());
+    }
+
+    /**
+     * Compares the fields that are shown in the contributions list
+     */
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        Contribution oldItem = oldList.get(oldItemPosition);
+        Contribution newItem = newList.get(newItemPosition);
+        return oldItem.getState() == newItem.getState()
+                && oldItem.getTransferred() == newItem.getTransferred()
+                && oldItem.getDataLength() == newItem.getDataLength()
+                && ObjectsCompat.equals(oldItem.getFilename(), newItem.getFilename())
+                && ObjectsCompat.equals(oldItem.getImageUrl(), newItem.getImageUrl())
+                && ObjectsCompat.equals(oldItem.getThumbUrl(), newItem.getThumbUrl())
+                && ObjectsCompat.equals(oldItem.getLocalUri(), newItem.getLocalUri());
+    }
+}
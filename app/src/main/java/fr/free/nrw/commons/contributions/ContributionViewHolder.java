@@ -1,34 +1,24 @@
 package fr.free.nrw.commons.contributions;
 
+import android.net.Uri;
 import android.view.View;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
-import androidx.collection.LruCache;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.facebook.drawee.view.SimpleDraweeView;
 
 import org.apache.commons.lang3.StringUtils;
 
-import javax.inject.Inject;
-import javax.inject.Named;
-
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.OnClick;
-import fr.free.nrw.commons.MediaDataExtractor;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.contributions.ContributionsListAdapter.Callback;
 import fr.free.nrw.commons.contributions.model.DisplayableContribution;
-import fr.free.nrw.commons.di.ApplicationlessInjection;
 import fr.free.nrw.commons.upload.FileUtils;
-import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
-import timber.log.Timber;
 
 public class ContributionViewHolder extends RecyclerView.ViewHolder {
 
@@ -41,15 +31,8 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
     @BindView(R.id.contributionProgress) ProgressBar progressView;
     @BindView(R.id.failed_image_options) LinearLayout failedImageOptions;
 
-    @Inject
-    MediaDataExtractor mediaDataExtractor;
-
-    @Inject
-    @Named("thumbnail-cache")
-    LruCache<String, String> thumbnailCache;
-
-    private DisplayableContribution contribution;
-    private CompositeDisposable compositeDisposable = new CompositeDisposable();
+    // Shared with the list, the callbacks get a copy so that they cannot change the list
+    private Contribution contribution;
     private int position;
 
     ContributionViewHolder(View parent, Callback callback) {
@@ -58,15 +41,13 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
         this.callback=callback;
     }
 
-    public void init(int position, DisplayableContribution contribution) {
-        ApplicationlessInjection.getInstance(itemView.getContext())
-                .getCommonsApplicationComponent().inject(this);
+    public void init(int position, Contribution contribution) {
         this.position=position;
         this.contribution = contribution;
-        fetchAndDisplayThumbnail(contribution);
+        displayThumbnail(contribution);
         titleView.setText(contribution.getDisplayTitle());
 
-        seqNumView.setText(String.valueOf(contribution.getPosition() + 1));
+        seqNumView.setText(String.valueOf(position + 1));
         seqNumView.setVisibility(View.VISIBLE);
 
         switch (contribution.getState()) {
@@ -104,40 +85,28 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
     }
 
     /**
-     * This method fetches the thumbnail url from file name
-     * If the thumbnail url is present in cache, then it is used otherwise API call is made to fetch the thumbnail
-     * This can be removed once #2904 is in place and contribution contains all metadata beforehand
-     * @param contribution
+     * Updates the sequence number of a contribution whose content did not change
      */
-    private void fetchAndDisplayThumbnail(DisplayableContribution contribution) {
-        String keyForLRUCache = contribution.getFilename();
-        String cacheUrl = thumbnailCache.get(keyForLRUCache);
-        if (!StringUtils.isBlank(cacheUrl)) {
-            imageView.setImageURI(cacheUrl);
-            return;
-        }
+    void updatePosition(int position) {
+        this.position = position;
+        seqNumView.setText(String.valueOf(position + 1));
+    }
 
+    /**
+     * Shows the stored thumbnail of the contribution, falling back to the local file.
+     * Missing thumbnail URLs are fetched in batches in the background, never per row.
+     * @param contribution
+     */
+    private void displayThumbnail(Contribution contribution) {
         imageView.setBackground(null);
-        if ((contribution.getState() != Contribution.STATE_COMPLETED) && FileUtils.fileExists(
-                contribution.getLocalUri())) {
+        if (contribution.getState() == Contribution.STATE_COMPLETED
+                && !StringUtils.isBlank(contribution.getThumbUrl())) {
+            imageView.setImageURI(contribution.getThumbUrl());
+        } else if (FileUtils.fileExists(contribution.getLocalUri())) {
             imageView.setImageURI(contribution.getLocalUri());
         } else {
-            Timber.d("Fetching thumbnail for %s", contribution.getFilename());
-            Disposable disposable = mediaDataExtractor
-                    .getMediaFromFileName(contribution.getFilename())
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(media -> {
-                        thumbnailCache.put(keyForLRUCache, media.getThumbUrl());
-                        imageView.setImageURI(media.getThumbUrl());
-                    });
-            compositeDisposable.add(disposable);
+            imageView.setImageURI((Uri) null);
         }
-
-    }
-
-    public void clear() {
-        compositeDisposable.clear();
     }
 
     /**
@@ -145,7 +114,7 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
      */
     @OnClick(R.id.retryButton)
     public void retryUpload() {
-        callback.retryUpload(contribution);
+        callback.retryUpload(new DisplayableContribution(contribution, position));
     }
 
     /**
@@ -153,7 +122,7 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
      */
     @OnClick(R.id.cancelButton)
     public void deleteUpload() {
-        callback.deleteUpload(contribution);
+        callback.deleteUpload(new DisplayableContribution(contribution, position));
     }
 
     @OnClick(R.id.contributionImage)
@@ -10,18 +10,15 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
-import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
+import fr.free.nrw.commons.data.TransactionalContentProvider;
 import timber.log.Timber;
 
 import static android.content.UriMatcher.NO_MATCH;
 import static fr.free.nrw.commons.contributions.ContributionDao.Table.ALL_FIELDS;
 import static fr.free.nrw.commons.contributions.ContributionDao.Table.TABLE_NAME;
 
-public class ContributionsContentProvider extends CommonsDaggerContentProvider {
+public class ContributionsContentProvider extends TransactionalContentProvider {
 
     private static final int CONTRIBUTIONS = 1;
     private static final int CONTRIBUTIONS_ID = 2;
@@ -39,7 +36,10 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
         return Uri.parse(BASE_URI.toString() + "/" + id);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
+    @Override
+    protected Uri getBaseUri() {
+        return BASE_URI;
+    }
 
     @SuppressWarnings("ConstantConditions")
     @Override
@@ -95,7 +95,7 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -118,30 +118,28 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI" + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 
     @SuppressWarnings("ConstantConditions")
     @Override
     public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
-        Timber.d("Hello, bulk insert! (ContributionsContentProvider)");
         int uriType = uriMatcher.match(uri);
+        if (uriType != CONTRIBUTIONS) {
+            throw new IllegalArgumentException("Unknown URI: " + uri);
+        }
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         sqlDB.beginTransaction();
-        switch (uriType) {
-            case CONTRIBUTIONS:
-                for (ContentValues value : values) {
-                    Timber.d("Inserting! %s", value);
-                    sqlDB.insert(TABLE_NAME, null, value);
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown URI: " + uri);
+        try {
+            for (ContentValues value : values) {
+                sqlDB.insert(TABLE_NAME, null, value);
+            }
+            sqlDB.setTransactionSuccessful();
+        } finally {
+            sqlDB.endTransaction();
         }
-        sqlDB.setTransactionSuccessful();
-        sqlDB.endTransaction();
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return values.length;
     }
 
@@ -180,7 +178,7 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri + " with type " + uriType);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 }
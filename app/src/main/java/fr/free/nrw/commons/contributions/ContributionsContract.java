@@ -1,8 +1,6 @@
 package fr.free.nrw.commons.contributions;
 
-import android.database.Cursor;
-
-import androidx.loader.app.LoaderManager;
+import androidx.recyclerview.widget.DiffUtil;
 
 import fr.free.nrw.commons.BasePresenter;
 import fr.free.nrw.commons.Media;
@@ -22,16 +20,19 @@ public class ContributionsContract {
 
         void setUploadCount(int count);
 
-        void onDataSetChanged();
+        void onDataSetChanged(DiffUtil.DiffResult diffResult);
     }
 
-    public interface UserActionListener extends BasePresenter<ContributionsContract.View>,
-            LoaderManager.LoaderCallbacks<Cursor> {
+    public interface UserActionListener extends BasePresenter<ContributionsContract.View> {
+
+        void loadContributions();
 
-        Contribution getContributionsFromCursor(Cursor cursor);
+        void loadMoreContributions();
 
         void deleteUpload(Contribution contribution);
 
         Media getItemAtPosition(int i);
+
+        int getChildPositionWithId(String id);
     }
 }
@@ -19,6 +19,7 @@ import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentManager.OnBackStackChangedListener;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.recyclerview.widget.DiffUtil;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -71,7 +72,6 @@ public class ContributionsFragment
         LocationUpdateListener,
         ICampaignsView, ContributionsContract.View {
     @Inject @Named("default_preferences") JsonKvStore store;
-    @Inject ContributionDao contributionDao;
     @Inject NearbyController nearbyController;
     @Inject OkHttpJsonApiClient okHttpJsonApiClient;
     @Inject CampaignsPresenter presenter;
@@ -310,7 +310,6 @@ public class ContributionsFragment
         if (getActivity() != null) { // If fragment is attached to parent activity
             getActivity().bindService(getUploadServiceIntent(), uploadServiceConnection, Context.BIND_AUTO_CREATE);
             isUploadServiceConnected = true;
-            getActivity().getSupportLoaderManager().initLoader(0, null, contributionsPresenter);
         }
 
     }
@@ -336,7 +335,7 @@ public class ContributionsFragment
 
     @Override
     public void refreshSource() {
-        getActivity().getSupportLoaderManager().restartLoader(0, null, contributionsPresenter);
+        contributionsPresenter.loadContributions();
     }
 
     @Override
@@ -555,6 +554,7 @@ public class ContributionsFragment
     @Override public void onDestroyView() {
         super.onDestroyView();
         presenter.onDetachView();
+        contributionsPresenter.onDetachView();
     }
 
     @Override
@@ -578,8 +578,8 @@ public class ContributionsFragment
     }
 
     @Override
-    public void onDataSetChanged() {
-        contributionsListFragment.onDataSetChanged();
+    public void onDataSetChanged(DiffUtil.DiffResult diffResult) {
+        contributionsListFragment.onDataSetChanged(diffResult);
         mediaDetailPagerFragment.onDataSetChanged();
     }
 
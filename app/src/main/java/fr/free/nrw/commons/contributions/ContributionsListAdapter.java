@@ -4,16 +4,24 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.util.List;
+
 import fr.free.nrw.commons.R;
-import fr.free.nrw.commons.contributions.model.DisplayableContribution;
 
 /**
  * Represents The View Adapter for the List of Contributions  
  */
 public class ContributionsListAdapter extends RecyclerView.Adapter<ContributionViewHolder> {
 
+    /**
+     * Payload for rows that only moved and need their sequence number updated
+     */
+    private static final Object PAYLOAD_POSITION = new Object();
+
     private Callback callback;
 
     public ContributionsListAdapter(Callback callback) {
@@ -35,10 +43,59 @@ public class ContributionsListAdapter extends RecyclerView.Adapter<ContributionV
 
     @Override
     public void onBindViewHolder(@NonNull ContributionViewHolder holder, int position) {
-        final Contribution contribution = callback.getContributionForPosition(position);
-        DisplayableContribution displayableContribution = new DisplayableContribution(contribution,
-                position);
-        holder.init(position, displayableContribution);
+        holder.init(position, callback.getContributionForPosition(position));
+    }
+
+    /**
+     * Rebinds only the sequence number when a row has merely shifted position
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ContributionViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && payloads.get(0) == PAYLOAD_POSITION) {
+            holder.updatePosition(position);
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    /**
+     * Dispatches the row level changes of a new list of contributions. Rows below an insertion
+     * or removal keep their content but their sequence number changes, so they get a
+     * position-only update instead of a full rebind.
+     */
+    void dispatchUpdates(DiffUtil.DiffResult diffResult) {
+        final int[] firstShiftedPosition = {Integer.MAX_VALUE};
+        diffResult.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                firstShiftedPosition[0] = Math.min(firstShiftedPosition[0], position);
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                firstShiftedPosition[0] = Math.min(firstShiftedPosition[0], position);
+                notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                firstShiftedPosition[0] = Math.min(firstShiftedPosition[0],
+                        Math.min(fromPosition, toPosition));
+                notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                notifyItemRangeChanged(position, count, payload);
+            }
+        });
+        int itemCount = getItemCount();
+        if (firstShiftedPosition[0] < itemCount) {
+            notifyItemRangeChanged(firstShiftedPosition[0], itemCount - firstShiftedPosition[0],
+                    PAYLOAD_POSITION);
+        }
     }
 
     @Override
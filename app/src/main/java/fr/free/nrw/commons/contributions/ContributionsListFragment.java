@@ -13,6 +13,7 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -178,9 +179,12 @@ public class ContributionsListFragment extends CommonsDaggerSupportFragment {
         noContributionsYet.setVisibility(shouldShow ? VISIBLE : GONE);
     }
 
-    public void onDataSetChanged() {
+    /**
+     * Applies the changes between the previous and the new list of contributions to the adapter
+     */
+    public void onDataSetChanged(DiffUtil.DiffResult diffResult) {
         if (null != adapter) {
-            adapter.notifyDataSetChanged();
+            adapter.dispatchUpdates(diffResult);
             //Restoring last visible item position in cases of orientation change
             if (null != lastVisibleItemID) {
                 int itemPositionWithId = callback.findItemPositionWithId(lastVisibleItemID);
@@ -1,26 +1,38 @@
 package fr.free.nrw.commons.contributions;
 
-import android.database.Cursor;
+import android.content.Context;
+import android.database.ContentObserver;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import fr.free.nrw.commons.kvstore.JsonKvStore;
+import io.reactivex.Observable;
+
+import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
 
 /**
  * The LocalDataSource class for Contributions
  */
 class ContributionsLocalDataSource {
 
-    private final ContributionDao contributionsDao;
+    private final DirectContributionDao contributionsDao;
     private final JsonKvStore defaultKVStore;
+    private final Context context;
 
     @Inject
     public ContributionsLocalDataSource(
             @Named("default_preferences") JsonKvStore defaultKVStore,
-            ContributionDao contributionDao) {
+            DirectContributionDao contributionDao,
+            Context context) {
         this.defaultKVStore = defaultKVStore;
         this.contributionsDao = contributionDao;
+        this.context = context;
     }
 
     /**
@@ -30,15 +42,6 @@ class ContributionsLocalDataSource {
         return defaultKVStore.getInt(key);
     }
 
-    /**
-     * Get contribution object from cursor
-     * @param cursor
-     * @return
-     */
-    public Contribution getContributionFromCursor(Cursor cursor) {
-        return contributionsDao.fromCursor(cursor);
-    }
-
     /**
      * Remove a contribution from the contributions table
      * @param contribution
@@ -46,4 +49,42 @@ class ContributionsLocalDataSource {
     public void deleteContribution(Contribution contribution) {
         contributionsDao.delete(contribution);
     }
+
+    /**
+     * Load a page of contributions, starting after the given contribution
+     */
+    public List<Contribution> loadContributions(@Nullable Contribution after, int limit) {
+        return contributionsDao.loadContributions(after, limit);
+    }
+
+    /**
+     * Returns the filenames of completed contributions without a stored thumbnail URL
+     */
+    public List<String> getFilenamesWithoutThumbnail(int limit) {
+        return contributionsDao.getFilenamesWithoutThumbnail(limit);
+    }
+
+    /**
+     * Stores thumbnail URLs keyed by filename
+     */
+    public void saveThumbnailUrls(Map<String, String> thumbnailUrls) {
+        contributionsDao.saveThumbnailUrls(thumbnailUrls);
+    }
+
+    /**
+     * Emits whenever the contributions table changes, until disposed
+     */
+    public Observable<Boolean> observeChanges() {
+        return Observable.create(emitter -> {
+            ContentObserver observer = new ContentObserver(null) {
+                @Override
+                public void onChange(boolean selfChange) {
+                    emitter.onNext(selfChange);
+                }
+            };
+            context.getContentResolver().registerContentObserver(BASE_URI, true, observer);
+            emitter.setCancellable(() -> context.getContentResolver()
+                    .unregisterContentObserver(observer));
+        });
+    }
 }
@@ -1,106 +1,214 @@
 package fr.free.nrw.commons.contributions;
 
-import android.content.Context;
-import android.database.Cursor;
-import android.database.DataSetObserver;
-import android.os.Bundle;
-
-import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.loader.content.CursorLoader;
-import androidx.loader.content.Loader;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.contributions.ContributionsContract.UserActionListener;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
 import timber.log.Timber;
 
-import static fr.free.nrw.commons.contributions.ContributionDao.Table.ALL_FIELDS;
-import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
+import static fr.free.nrw.commons.di.CommonsApplicationModule.IO_THREAD;
+import static fr.free.nrw.commons.di.CommonsApplicationModule.MAIN_THREAD;
 import static fr.free.nrw.commons.settings.Prefs.UPLOADS_SHOWING;
 
 /**
  * The presenter class for Contributions
+ *
+ * Contributions are loaded page by page using the sort key of the last loaded contribution
+ * (keyset paging). When the contributions table changes, the pages loaded so far are read again
+ * and compared with the previous snapshot, so the view only rebinds the rows that changed.
  */
-public class ContributionsPresenter extends DataSetObserver implements UserActionListener {
+public class ContributionsPresenter implements UserActionListener {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    /**
+     * Items left before the end of the loaded pages at which the next page is requested
+     */
+    private static final int LOAD_MORE_THRESHOLD = 10;
+    /**
+     * Upload progress saves the contribution many times per second, refresh at most this often
+     */
+    private static final long REFRESH_INTERVAL_MS = 500;
+
+    private enum LoadRequest {REFRESH, NEXT_PAGE}
 
     private final ContributionsRepository repository;
+    private final Scheduler ioScheduler;
+    private final Scheduler mainThreadScheduler;
+    private final CompositeDisposable compositeDisposable = new CompositeDisposable();
     private ContributionsContract.View view;
-    private Cursor cursor;
 
-    @Inject
-    Context context;
+    /**
+     * Snapshot shown by the view, only touched on the main thread
+     */
+    private ContributionsPage shownPage = ContributionsPage.EMPTY;
+    /**
+     * Snapshot the next load starts from, only touched by the sequential load chain while
+     * attached. Set back to the shown snapshot on detach, as loads that didn't reach the view are
+     * dropped then.
+     */
+    private ContributionsPage loadedPage = ContributionsPage.EMPTY;
+    private boolean isLoadingNextPage;
+    /**
+     * Set while thumbnail URLs are fetched. Stays set after a failure so that the fetch is not
+     * retried on every refresh, only once the view is attached again.
+     */
+    private boolean isFetchingThumbnails;
+    /**
+     * Fed from the main thread and from the change observer on the IO thread, so serialized.
+     * Null while detached.
+     */
+    private Subject<LoadRequest> loadRequests;
 
     @Inject
-    ContributionsPresenter(ContributionsRepository repository) {
+    ContributionsPresenter(ContributionsRepository repository,
+                           @Named(IO_THREAD) Scheduler ioScheduler,
+                           @Named(MAIN_THREAD) Scheduler mainThreadScheduler) {
         this.repository = repository;
+        this.ioScheduler = ioScheduler;
+        this.mainThreadScheduler = mainThreadScheduler;
     }
 
     @Override
     public void onAttachView(ContributionsContract.View view) {
         this.view = view;
-        if (null != cursor) {
-            try {
-                cursor.registerDataSetObserver(this);
-            } catch (IllegalStateException e) {//Cursor might be already registered
-                Timber.d(e);
-            }
+        if (null != loadRequests) {
+            // Attached again, e.g. on resume, the load chain and the change observer are running
+            loadContributions();
+            return;
         }
+        loadRequests = PublishSubject.<LoadRequest>create().toSerialized();
+        compositeDisposable.add(loadRequests
+                .observeOn(ioScheduler)
+                .concatMap(request -> Observable.fromCallable(() -> load(request)))
+                .observeOn(mainThreadScheduler)
+                .subscribe(this::showPage,
+                        throwable -> Timber.e(throwable, "Failed to load contributions")));
+        compositeDisposable.add(repository.observeChanges()
+                .throttleLatest(REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS, ioScheduler, true)
+                .subscribe(selfChange -> loadRequests.onNext(LoadRequest.REFRESH)));
+        loadContributions();
     }
 
     @Override
     public void onDetachView() {
         this.view = null;
-        if (null != cursor) {
-            try {
-                cursor.unregisterDataSetObserver(this);
-            } catch (Exception e) {//Cursor might not be already registered
-                Timber.d(e);
-            }
-        }
+        compositeDisposable.clear();
+        loadRequests = null;
+        loadedPage = shownPage;
+        isLoadingNextPage = false;
+        isFetchingThumbnails = false;
     }
 
-    @NonNull
+    /**
+     * Loads the first page, or reloads all pages loaded so far
+     */
     @Override
-    public Loader<Cursor> onCreateLoader(int id, @Nullable Bundle args) {
-        int preferredNumberOfUploads = repository.get(UPLOADS_SHOWING);
-        return new CursorLoader(context, BASE_URI,
-                ALL_FIELDS, "", null,
-                ContributionDao.CONTRIBUTION_SORT + "LIMIT "
-                        + (preferredNumberOfUploads>0?preferredNumberOfUploads:100));
+    public void loadContributions() {
+        if (null != loadRequests) {
+            loadRequests.onNext(LoadRequest.REFRESH);
+        }
     }
 
+    /**
+     * Loads the page after the last loaded contribution
+     */
     @Override
-    public void onLoadFinished(@NonNull Loader<Cursor> loader, Cursor cursor) {
+    public void loadMoreContributions() {
+        if (null != loadRequests && !isLoadingNextPage && shownPage.hasMore) {
+            isLoadingNextPage = true;
+            loadRequests.onNext(LoadRequest.NEXT_PAGE);
+        }
+    }
+
+    private ContributionsPage load(LoadRequest request) {
+        int pageSize = getPageSize();
+        List<Contribution> contributions;
+        boolean hasMore;
+        if (request == LoadRequest.NEXT_PAGE && !loadedPage.contributions.isEmpty()) {
+            List<Contribution> nextPage = repository.loadContributions(
+                    loadedPage.contributions.get(loadedPage.contributions.size() - 1), pageSize);
+            contributions = new ArrayList<>(loadedPage.contributions);
+            contributions.addAll(nextPage);
+            hasMore = nextPage.size() == pageSize;
+        } else {
+            int limit = Math.max(pageSize, loadedPage.contributions.size());
+            contributions = repository.loadContributions(null, limit);
+            hasMore = contributions.size() == limit;
+        }
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(
+                new ContributionDiffCallback(loadedPage.contributions, contributions), false);
+        loadedPage = new ContributionsPage(contributions, hasMore, diffResult);
+        return loadedPage;
+    }
+
+    private void showPage(ContributionsPage page) {
+        shownPage = page;
+        isLoadingNextPage = false;
+        if (null == view) {
+            return;
+        }
         view.showProgress(false);
-        if (null != cursor && cursor.getCount() > 0) {
+        if (page.contributions.size() > 0) {
             view.showWelcomeTip(false);
             view.showNoContributionsUI(false);
-            view.setUploadCount(cursor.getCount());
         } else {
             view.showWelcomeTip(true);
             view.showNoContributionsUI(true);
         }
-        swapCursor(cursor);
+        view.setUploadCount(page.contributions.size());
+        view.onDataSetChanged(page.diffResult);
+        fetchMissingThumbnails(page.contributions);
     }
 
-    @Override
-    public void onLoaderReset(@NonNull Loader<Cursor> loader) {
-        this.cursor = null;
-        //On LoadFinished is not guaranteed to be called
-        view.showProgress(false);
-        view.showWelcomeTip(true);
-        view.showNoContributionsUI(true);
-        swapCursor(null);
+    /**
+     * Starts fetching the thumbnail URLs that are missing in the background. The stored URLs
+     * reach the list through the change observer.
+     */
+    private void fetchMissingThumbnails(List<Contribution> contributions) {
+        if (isFetchingThumbnails || !hasMissingThumbnail(contributions)) {
+            return;
+        }
+        isFetchingThumbnails = true;
+        compositeDisposable.add(repository.fetchMissingThumbnails()
+                .subscribeOn(ioScheduler)
+                .observeOn(mainThreadScheduler)
+                .subscribe(() -> isFetchingThumbnails = false,
+                        throwable -> Timber.e(throwable, "Failed to fetch thumbnails")));
     }
 
     /**
-     * Get contribution from the repository
+     * A null thumbnail URL means it has not been fetched yet, or was not found and is looked up
+     * again later
      */
-    @Override
-    public Contribution getContributionsFromCursor(Cursor cursor) {
-        return repository.getContributionFromCursor(cursor);
+    private static boolean hasMissingThumbnail(List<Contribution> contributions) {
+        for (Contribution contribution : contributions) {
+            if (contribution.getState() == Contribution.STATE_COMPLETED
+                    && null == contribution.getThumbUrl()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getPageSize() {
+        int preferredNumberOfUploads = repository.get(UPLOADS_SHOWING);
+        return preferredNumberOfUploads > 0 ? preferredNumberOfUploads : DEFAULT_PAGE_SIZE;
     }
 
     /**
@@ -113,71 +221,57 @@ public class ContributionsPresenter extends DataSetObserver implements UserActio
     }
 
     /**
-     * Returns a contribution at the specified cursor position
+     * Returns the contribution at the specified position, requesting the next page when the
+     * position gets close to the end of the loaded pages
      * @param i
      * @return
      */
     @Nullable
     @Override
     public Media getItemAtPosition(int i) {
-        if (null != cursor && cursor.moveToPosition(i)) {
-            return getContributionsFromCursor(cursor);
+        List<Contribution> contributions = shownPage.contributions;
+        if (i >= contributions.size() - LOAD_MORE_THRESHOLD) {
+            loadMoreContributions();
+        }
+        if (i >= 0 && i < contributions.size()) {
+            return contributions.get(i);
         }
         return null;
     }
 
     /**
-     * Get contribution position  with id
+     * Get contribution position with id
      */
-    public int getChildPositionWithId(String id) {
-        int position = 0;
-        cursor.moveToFirst();
-        while (null != cursor && cursor.moveToNext()) {
-            if (getContributionsFromCursor(cursor).getContentUri().getLastPathSegment()
-                    .equals(id)) {
-                position = cursor.getPosition();
-                break;
-            }
-        }
-        return position;
-    }
-
-    @Override
-    public void onChanged() {
-        super.onChanged();
-        view.onDataSetChanged();
-    }
-
     @Override
-    public void onInvalidated() {
-        super.onInvalidated();
-        //Not letting the view know of this as of now, TODO discuss how to handle this and maybe show a proper ui for this
+    public int getChildPositionWithId(String id) {
+        Integer position = shownPage.positionsById.get(id);
+        return null == position ? 0 : position;
     }
 
     /**
-     * Swap in a new Cursor, returning the old Cursor. The returned old Cursor is <em>not</em>
-     * closed.
-     *
-     * @param newCursor The new cursor to be used.
-     * @return Returns the previously set Cursor, or null if there was not one. If the given new
-     * Cursor is the same instance is the previously set Cursor, null is also returned.
+     * Immutable snapshot of the loaded contributions with an index from ID to position
      */
-    private void swapCursor(Cursor newCursor) {
-        try {
-            if (newCursor == cursor) {
-                return;
-            }
-            Cursor oldCursor = cursor;
-            if (oldCursor != null) {
-                oldCursor.unregisterDataSetObserver(this);
-            }
-            cursor = newCursor;
-            if (newCursor != null) {
-                newCursor.registerDataSetObserver(this);
+    private static class ContributionsPage {
+        static final ContributionsPage EMPTY =
+                new ContributionsPage(Collections.emptyList(), true, null);
+
+        final List<Contribution> contributions;
+        final Map<String, Integer> positionsById;
+        final boolean hasMore;
+        @Nullable
+        final DiffUtil.DiffResult diffResult;
+
+        ContributionsPage(List<Contribution> contributions, boolean hasMore,
+                          @Nullable DiffUtil.DiffResult diffResult) {
+            this.contributions = Collections.unmodifiableList(contributions);
+            this.hasMore = hasMore;
+            this.diffResult = diffResult;
+            this.positionsById = new HashMap<>(contributions.size());
+            for (int i = 0; i < contributions.size(); i++) {
+                if (null != contributions.get(i).getContentUri()) {
+                    positionsById.put(contributions.get(i).getContentUri().getLastPathSegment(), i);
+                }
             }
-            view.onDataSetChanged();
-        } catch (IllegalStateException e) {//Cursor might [not] be already registered/unregistered
-            Timber.e(e);
         }
     }
 }
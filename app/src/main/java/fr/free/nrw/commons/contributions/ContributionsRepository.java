@@ -1,19 +1,29 @@
 package fr.free.nrw.commons.contributions;
 
-import android.database.Cursor;
+import androidx.annotation.Nullable;
+
+import java.util.List;
 
 import javax.inject.Inject;
 
+import fr.free.nrw.commons.media.MediaClient;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+
 /**
  * The repository class for contributions
  */
 public class ContributionsRepository {
 
     private ContributionsLocalDataSource localDataSource;
+    private MediaClient mediaClient;
 
     @Inject
-    public ContributionsRepository(ContributionsLocalDataSource localDataSource) {
+    public ContributionsRepository(ContributionsLocalDataSource localDataSource,
+                                   MediaClient mediaClient) {
         this.localDataSource = localDataSource;
+        this.mediaClient = mediaClient;
     }
 
     /**
@@ -23,21 +33,49 @@ public class ContributionsRepository {
         return localDataSource.get(uploadsShowing);
     }
 
+    /**
+     * Deletes a failed upload from DB
+     * @param contribution
+     */
+    public void deleteContributionFromDB(Contribution contribution) {
+        localDataSource.deleteContribution(contribution);
+    }
 
     /**
-     * Get contribution object from cursor from LocalDataSource
-     * @param cursor
-     * @return
+     * Load a page of contributions from LocalDataSource, starting after the given contribution
+     * @param after last contribution of the previous page, null for the first page
+     * @param limit maximum number of contributions to load
      */
-    public Contribution getContributionFromCursor(Cursor cursor) {
-        return localDataSource.getContributionFromCursor(cursor);
+    public List<Contribution> loadContributions(@Nullable Contribution after, int limit) {
+        return localDataSource.loadContributions(after, limit);
     }
 
     /**
-     * Deletes a failed upload from DB
-     * @param contribution
+     * Emits whenever contributions are added, changed or removed
      */
-    public void deleteContributionFromDB(Contribution contribution) {
-        localDataSource.deleteContribution(contribution);
+    public Observable<Boolean> observeChanges() {
+        return localDataSource.observeChanges();
+    }
+
+    /**
+     * Fetches the thumbnail URLs of all completed contributions that do not have one yet, as many
+     * titles per request as the API allows, and stores them batch by batch
+     */
+    public Completable fetchMissingThumbnails() {
+        return Single.fromCallable(() -> localDataSource
+                .getFilenamesWithoutThumbnail(MediaClient.MAX_TITLES_PER_REQUEST))
+                .flatMap(filenames -> {
+                    if (filenames.isEmpty()) {
+                        return Single.just(false);
+                    }
+                    return mediaClient.getThumbnailUrls(filenames)
+                            .map(thumbnailUrls -> {
+                                localDataSource.saveThumbnailUrls(thumbnailUrls);
+                                return true;
+                            });
+                })
+                .repeat()
+                .takeWhile(fetched -> fetched)
+                .ignoreElements();
     }
 }
@@ -1,7 +1,6 @@
 package fr.free.nrw.commons.contributions;
 
 import android.accounts.Account;
-import android.annotation.SuppressLint;
 import android.content.AbstractThreadedSyncAdapter;
 import android.content.ContentProviderClient;
 import android.content.ContentValues;
@@ -10,6 +9,21 @@ import android.content.SyncResult;
 import android.database.Cursor;
 import android.os.Bundle;
 import android.os.RemoteException;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import org.wikipedia.dataclient.mwapi.MwQueryLogEvent;
+import org.wikipedia.dataclient.mwapi.MwQueryResponse;
+import org.wikipedia.util.DateUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -23,11 +37,18 @@ import static fr.free.nrw.commons.contributions.Contribution.STATE_COMPLETED;
 import static fr.free.nrw.commons.contributions.ContributionDao.Table.COLUMN_FILENAME;
 import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
 
+/**
+ * Syncs the upload log of the user into the contributions table.
+ *
+ * Only log events newer than the newest event seen by the last completed sync are fetched. The
+ * continuation of a sync that has not completed yet is stored so that a later sync can pick up
+ * where it stopped instead of walking the whole upload log again.
+ */
 @SuppressWarnings("WeakerAccess")
 public class ContributionsSyncAdapter extends AbstractThreadedSyncAdapter {
 
+    private static final String SYNC_STATE_KEY_PREFIX = "contributionsSyncState_";
     private static final String[] existsQuery = {COLUMN_FILENAME};
-    private static final String existsSelection = COLUMN_FILENAME + " = ?";
     private static final ContentValues[] EMPTY = {};
 
     @Inject
@@ -40,23 +61,31 @@ public class ContributionsSyncAdapter extends AbstractThreadedSyncAdapter {
         super(context, autoInitialize);
     }
 
-    private boolean fileExists(ContentProviderClient client, String filename) {
-        if (filename == null) {
-            return false;
+    /**
+     * Looks up which of the given filenames are already stored, using a single query
+     */
+    private Set<String> existingFilenames(ContentProviderClient client, Set<String> filenames) {
+        Set<String> existing = new HashSet<>();
+        if (filenames.isEmpty()) {
+            return existing;
         }
+        String selection = COLUMN_FILENAME + " IN ("
+                + TextUtils.join(",", Collections.nCopies(filenames.size(), "?")) + ")";
         try (Cursor cursor = client.query(BASE_URI,
                 existsQuery,
-                existsSelection,
-                new String[]{filename},
+                selection,
+                filenames.toArray(new String[0]),
                 ""
         )) {
-            return cursor != null && cursor.getCount() != 0;
+            while (cursor != null && cursor.moveToNext()) {
+                existing.add(cursor.getString(0));
+            }
+            return existing;
         } catch (RemoteException e) {
             throw new RuntimeException(e);
         }
     }
 
-    @SuppressLint("CheckResult")
     @Override
     public void onPerformSync(Account account, Bundle bundle, String authority,
                               ContentProviderClient contentProviderClient, SyncResult syncResult) {
@@ -65,20 +94,124 @@ public class ContributionsSyncAdapter extends AbstractThreadedSyncAdapter {
                         .getApplicationContext())
                 .getCommonsApplicationComponent()
                 .inject(this);
-        // This code is(was?) fraught with possibilities of race conditions, but lalalalala I can't hear you!
-        String user = account.name;
-        ContributionDao contributionDao = new ContributionDao(() -> contentProviderClient);
-        userClient.logEvents(user)
-                .doOnNext(mwQueryLogEvent->Timber.d("Received image %s", mwQueryLogEvent.title() ))
-                .filter(mwQueryLogEvent -> !mwQueryLogEvent.isDeleted())
-                .filter(mwQueryLogEvent -> !fileExists(contentProviderClient, mwQueryLogEvent.title()))
-                .doOnNext(mwQueryLogEvent->Timber.d("Image %s passed filters", mwQueryLogEvent.title() ))
-                .map(image -> new Contribution(null, null, image.title(),
-                        "", -1, image.date(), image.date(), user,
-                        "", "", STATE_COMPLETED))
-                .map(contributionDao::toContentValues)
-                .buffer(10)
-                .subscribe(imageValues->contentProviderClient.bulkInsert(BASE_URI, imageValues.toArray(EMPTY)));
-        Timber.d("Oh hai, everyone! Look, a kitty!");
+        sync(account.name, contentProviderClient, syncResult);
+    }
+
+    /**
+     * Stores the upload log events of the user that are not stored yet, resuming from the
+     * continuation of an earlier sync that did not complete
+     */
+    void sync(String user, ContentProviderClient contentProviderClient, SyncResult syncResult) {
+        ContributionDao contributionDao = new ContributionDao();
+        SyncState state = loadSyncState(user);
+        Map<String, String> continuation = state.continuation == null
+                ? Collections.emptyMap() : state.continuation;
+        String end = state.highWaterMark == 0
+                ? null : DateUtil.iso8601DateFormat(new Date(state.highWaterMark));
+
+        try {
+            do {
+                MwQueryResponse response = userClient
+                        .logEvents(user, end, continuation)
+                        .blockingFirst();
+                if (response == null || response.query() == null) {
+                    break;
+                }
+                List<MwQueryLogEvent> logEvents = response.query().logevents();
+                if (logEvents != null) {
+                    insertNewContributions(user, logEvents, contentProviderClient,
+                            contributionDao, syncResult);
+                    updatePendingHighWaterMark(state, logEvents);
+                }
+
+                continuation = response.continuation();
+                state.continuation = continuation;
+                saveSyncState(user, state);
+            } while (continuation != null && !continuation.isEmpty());
+        } catch (Throwable throwable) {
+            // The stored continuation lets the next sync resume from the last completed page
+            Timber.e(throwable, "Contributions sync failed");
+            syncResult.stats.numIoExceptions++;
+            return;
+        }
+
+        state.highWaterMark = Math.max(state.highWaterMark, state.pendingHighWaterMark);
+        state.pendingHighWaterMark = 0;
+        state.continuation = null;
+        saveSyncState(user, state);
+        Timber.d("Contributions sync complete, high-water mark is %s", state.highWaterMark);
+    }
+
+    /**
+     * Inserts the log events of one page that are not stored yet
+     */
+    private void insertNewContributions(String user,
+                                        List<MwQueryLogEvent> logEvents,
+                                        ContentProviderClient contentProviderClient,
+                                        ContributionDao contributionDao,
+                                        SyncResult syncResult) throws RemoteException {
+        Set<String> filenames = new HashSet<>();
+        for (MwQueryLogEvent logEvent : logEvents) {
+            if (!logEvent.isDeleted() && logEvent.title() != null) {
+                filenames.add(logEvent.title());
+            }
+        }
+        filenames.removeAll(existingFilenames(contentProviderClient, filenames));
+
+        List<ContentValues> imageValues = new ArrayList<>(filenames.size());
+        for (MwQueryLogEvent logEvent : logEvents) {
+            // Removing the title also skips duplicate events of the same file within the page
+            if (filenames.remove(logEvent.title())) {
+                imageValues.add(contributionDao.toContentValues(new Contribution(null, null,
+                        logEvent.title(), "", -1, logEvent.date(), logEvent.date(), user,
+                        "", "", STATE_COMPLETED)));
+            }
+        }
+        if (!imageValues.isEmpty()) {
+            contentProviderClient.bulkInsert(BASE_URI, imageValues.toArray(EMPTY));
+            syncResult.stats.numInserts += imageValues.size();
+        }
+        Timber.d("Received %d log events, inserted %d", logEvents.size(), imageValues.size());
+    }
+
+    /**
+     * Remembers the newest event of the running sync. It only becomes the high-water mark once
+     * the sync has gone through all pages, as older pages may still be missing.
+     */
+    private void updatePendingHighWaterMark(SyncState state, List<MwQueryLogEvent> logEvents) {
+        for (MwQueryLogEvent logEvent : logEvents) {
+            Date date = logEvent.date();
+            if (date != null && date.getTime() > state.pendingHighWaterMark) {
+                state.pendingHighWaterMark = date.getTime();
+            }
+        }
+    }
+
+    private SyncState loadSyncState(String user) {
+        SyncState state = defaultKvStore.getJson(SYNC_STATE_KEY_PREFIX + user, SyncState.class);
+        return state == null ? new SyncState() : state;
+    }
+
+    private void saveSyncState(String user, SyncState state) {
+        defaultKvStore.putJson(SYNC_STATE_KEY_PREFIX + user, state);
+    }
+
+    /**
+     * Sync progress of one account, stored as JSON in the default preferences
+     */
+    static class SyncState {
+        /**
+         * Time in milliseconds of the newest event stored by the last completed sync, 0 if none
+         */
+        long highWaterMark;
+        /**
+         * Time in milliseconds of the newest event seen by the sync that is in progress, 0 if none
+         */
+        long pendingHighWaterMark;
+        /**
+         * Continuation of the sync that is in progress
+         */
+        @Nullable
+        Map<String, String> continuation;
     }
 }
@@ -0,0 +1,331 @@
+package fr.free.nrw.commons.contributions;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.contributions.ContributionDao.Table;
+import fr.free.nrw.commons.data.DBOpenHelper;
+
+import static fr.free.nrw.commons.contributions.ContributionDao.CONTRIBUTION_SORT;
+import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
+import static fr.free.nrw.commons.contributions.ContributionsContentProvider.uriForId;
+
+/**
+ * Reads and writes contributions straight through {@link DBOpenHelper}, for use inside the app
+ * process. Writes use compiled statements that are kept for the lifetime of the database and
+ * observers of {@link ContributionsContentProvider#BASE_URI} are notified once per write
+ * transaction, so cursors and the sync adapter still see the changes.
+ *
+ * {@link ContributionDao} holds the table definition and maps rows and values. The sync adapter
+ * inserts the contributions it fetches through the content provider.
+ */
+@Singleton
+public class DirectContributionDao {
+
+    private static final String WRITABLE_COLUMNS = Table.COLUMN_FILENAME + ", "
+            + Table.COLUMN_LOCAL_URI + ", "
+            + Table.COLUMN_IMAGE_URL + ", "
+            + Table.COLUMN_UPLOADED + ", "
+            + Table.COLUMN_TIMESTAMP + ", "
+            + Table.COLUMN_STATE + ", "
+            + Table.COLUMN_LENGTH + ", "
+            + Table.COLUMN_TRANSFERRED + ", "
+            + Table.COLUMN_SOURCE + ", "
+            + Table.COLUMN_DESCRIPTION + ", "
+            + Table.COLUMN_CREATOR + ", "
+            + Table.COLUMN_MULTIPLE + ", "
+            + Table.COLUMN_WIDTH + ", "
+            + Table.COLUMN_HEIGHT + ", "
+            + Table.COLUMN_LICENSE + ", "
+            + Table.COLUMN_WIKI_DATA_ENTITY_ID;
+
+    private static final String INSERT = "INSERT INTO " + Table.TABLE_NAME
+            + " (" + WRITABLE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // A missing local URI, image URL or upload date keeps the stored value, like ContributionDao
+    private static final String UPDATE = "UPDATE " + Table.TABLE_NAME + " SET "
+            + Table.COLUMN_FILENAME + " = ?, "
+            + Table.COLUMN_LOCAL_URI + " = COALESCE(?, " + Table.COLUMN_LOCAL_URI + "), "
+            + Table.COLUMN_IMAGE_URL + " = COALESCE(?, " + Table.COLUMN_IMAGE_URL + "), "
+            + Table.COLUMN_UPLOADED + " = COALESCE(?, " + Table.COLUMN_UPLOADED + "), "
+            + Table.COLUMN_TIMESTAMP + " = ?, "
+            + Table.COLUMN_STATE + " = ?, "
+            + Table.COLUMN_LENGTH + " = ?, "
+            + Table.COLUMN_TRANSFERRED + " = ?, "
+            + Table.COLUMN_SOURCE + " = ?, "
+            + Table.COLUMN_DESCRIPTION + " = ?, "
+            + Table.COLUMN_CREATOR + " = ?, "
+            + Table.COLUMN_MULTIPLE + " = ?, "
+            + Table.COLUMN_WIDTH + " = ?, "
+            + Table.COLUMN_HEIGHT + " = ?, "
+            + Table.COLUMN_LICENSE + " = ?, "
+            + Table.COLUMN_WIKI_DATA_ENTITY_ID + " = ?"
+            + " WHERE " + Table.COLUMN_ID + " = ?";
+
+    private static final String UPDATE_PROGRESS = "UPDATE " + Table.TABLE_NAME + " SET "
+            + Table.COLUMN_STATE + " = ?, "
+            + Table.COLUMN_TRANSFERRED + " = ?"
+            + " WHERE " + Table.COLUMN_ID + " = ?";
+
+    private static final String UPDATE_THUMBNAIL_URL = "UPDATE " + Table.TABLE_NAME + " SET "
+            + Table.COLUMN_THUMBNAIL_URL + " = ?, "
+            + Table.COLUMN_THUMBNAIL_RETRY_AFTER + " = ?"
+            + " WHERE " + Table.COLUMN_FILENAME + " = ?";
+
+    // How long the thumbnail backfill waits before it looks again for a thumbnail it did not find
+    static final long THUMBNAIL_RETRY_DELAY = TimeUnit.DAYS.toMillis(1);
+
+    private static final String DELETE = "DELETE FROM " + Table.TABLE_NAME
+            + " WHERE " + Table.COLUMN_ID + " = ?";
+
+    private static final String SELECT_ALL_FIELDS = "SELECT "
+            + StringUtils.join(Table.ALL_FIELDS_WITH_SORT_KEY, ", ")
+            + " FROM " + Table.TABLE_NAME;
+
+    private final DBOpenHelper dbOpenHelper;
+    private final Context context;
+
+    /**
+     * Database the statements below were compiled for. The database is closed and opened again
+     * when the user logs out, which requires compiling them again.
+     */
+    private SQLiteDatabase statementsDatabase;
+    private SQLiteStatement insertStatement;
+    private SQLiteStatement updateStatement;
+    private SQLiteStatement updateProgressStatement;
+    private SQLiteStatement updateThumbnailUrlStatement;
+    private SQLiteStatement deleteStatement;
+
+    @Inject
+    public DirectContributionDao(DBOpenHelper dbOpenHelper, Context context) {
+        this.dbOpenHelper = dbOpenHelper;
+        this.context = context;
+    }
+
+    public void save(Contribution contribution) {
+        save(Collections.singletonList(contribution));
+    }
+
+    /**
+     * Saves several contributions in a single transaction, observers are notified once
+     */
+    public synchronized void save(List<Contribution> contributions) {
+        SQLiteDatabase db = prepareStatements();
+        db.beginTransaction();
+        try {
+            for (Contribution contribution : contributions) {
+                if (contribution.getContentUri() == null) {
+                    bindContribution(insertStatement, contribution);
+                    long id = insertStatement.executeInsert();
+                    contribution.setContentUri(uriForId((int) id));
+                } else {
+                    bindContribution(updateStatement, contribution);
+                    updateStatement.bindString(17, contribution.getContentUri().getLastPathSegment());
+                    updateStatement.executeUpdateDelete();
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChange();
+    }
+
+    /**
+     * Stores the state and number of transferred bytes of a saved contribution, without
+     * writing its other fields
+     */
+    public synchronized void saveProgress(Contribution contribution) {
+        if (contribution.getContentUri() == null) {
+            save(contribution);
+            return;
+        }
+        prepareStatements();
+        updateProgressStatement.bindLong(1, contribution.getState());
+        updateProgressStatement.bindLong(2, contribution.getTransferred());
+        updateProgressStatement.bindString(3, contribution.getContentUri().getLastPathSegment());
+        updateProgressStatement.executeUpdateDelete();
+        notifyChange();
+    }
+
+    public synchronized void delete(Contribution contribution) {
+        if (contribution.getContentUri() == null) {
+            throw new RuntimeException("tried to delete item with no content URI");
+        }
+        prepareStatements();
+        deleteStatement.bindString(1, contribution.getContentUri().getLastPathSegment());
+        deleteStatement.executeUpdateDelete();
+        notifyChange();
+    }
+
+    /**
+     * Loads one page of contributions in list order, using the sort key of the last item of the
+     * previous page as the start of the page. This way each page is read straight from the sort
+     * key index instead of skipping over all rows before it.
+     *
+     * @param after last contribution of the previous page, or null for the first page
+     * @param limit maximum number of contributions to load
+     */
+    List<Contribution> loadContributions(@Nullable Contribution after, int limit) {
+        String query;
+        String[] selectionArgs;
+        if (after != null && after.getContentUri() != null) {
+            String sortKey = String.valueOf(after.getSortKey());
+            query = SELECT_ALL_FIELDS + " WHERE " + Table.COLUMN_SORT_KEY + " < ? OR ("
+                    + Table.COLUMN_SORT_KEY + " = ? AND " + Table.COLUMN_ID + " < ?)"
+                    + " ORDER BY " + CONTRIBUTION_SORT + " LIMIT " + limit;
+            selectionArgs = new String[]{sortKey, sortKey, after.getContentUri().getLastPathSegment()};
+        } else {
+            query = SELECT_ALL_FIELDS + " ORDER BY " + CONTRIBUTION_SORT + " LIMIT " + limit;
+            selectionArgs = null;
+        }
+        try (Cursor cursor = dbOpenHelper.getReadableDatabase().rawQuery(query, selectionArgs)) {
+            return new ContributionDao.RowMapper(cursor).mapAll();
+        }
+    }
+
+    /**
+     * Returns the filenames of completed contributions whose thumbnail URL has not been fetched
+     * yet, in list order so that the rows the user sees first are filled first. Files whose
+     * thumbnail was not found are left out until their retry time has passed.
+     *
+     * @param limit maximum number of filenames to return
+     */
+    List<String> getFilenamesWithoutThumbnail(int limit) {
+        List<String> filenames = new ArrayList<>();
+        try (Cursor cursor = dbOpenHelper.getReadableDatabase().rawQuery("SELECT "
+                        + Table.COLUMN_FILENAME + " FROM " + Table.TABLE_NAME
+                        + " WHERE " + Table.COLUMN_STATE + " = ? AND "
+                        + Table.COLUMN_FILENAME + " IS NOT NULL AND "
+                        + Table.COLUMN_THUMBNAIL_URL + " IS NULL AND ("
+                        + Table.COLUMN_THUMBNAIL_RETRY_AFTER + " IS NULL OR "
+                        + Table.COLUMN_THUMBNAIL_RETRY_AFTER + " <= ?)"
+                        + " ORDER BY " + CONTRIBUTION_SORT + " LIMIT " + limit,
+                new String[]{String.valueOf(Contribution.STATE_COMPLETED),
+                        String.valueOf(System.currentTimeMillis())})) {
+            while (cursor.moveToNext()) {
+                filenames.add(cursor.getString(0));
+            }
+        }
+        return filenames;
+    }
+
+    /**
+     * Stores fetched thumbnail URLs in a single transaction. An empty URL marks a file whose
+     * thumbnail was not found. Its URL stays null, and it is looked up again after
+     * {@link #THUMBNAIL_RETRY_DELAY}.
+     *
+     * @param thumbnailUrls thumbnail URLs keyed by filename
+     */
+    synchronized void saveThumbnailUrls(Map<String, String> thumbnailUrls) {
+        SQLiteDatabase db = prepareStatements();
+        long retryAfter = System.currentTimeMillis() + THUMBNAIL_RETRY_DELAY;
+        db.beginTransaction();
+        try {
+            for (Map.Entry<String, String> entry : thumbnailUrls.entrySet()) {
+                updateThumbnailUrlStatement.clearBindings();
+                if (StringUtils.isEmpty(entry.getValue())) {
+                    updateThumbnailUrlStatement.bindNull(1);
+                    updateThumbnailUrlStatement.bindLong(2, retryAfter);
+                } else {
+                    updateThumbnailUrlStatement.bindString(1, entry.getValue());
+                    updateThumbnailUrlStatement.bindNull(2);
+                }
+                updateThumbnailUrlStatement.bindString(3, entry.getKey());
+                updateThumbnailUrlStatement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChange();
+    }
+
+    /**
+     * Binds the writable columns in the order of {@link #WRITABLE_COLUMNS}
+     */
+    private static void bindContribution(SQLiteStatement statement, Contribution contribution) {
+        statement.clearBindings();
+        bindStringOrNull(statement, 1, contribution.getFilename());
+        bindStringOrNull(statement, 2, contribution.getLocalUri() == null
+                ? null : contribution.getLocalUri().toString());
+        bindStringOrNull(statement, 3, contribution.getImageUrl());
+        if (contribution.getDateUploaded() != null) {
+            statement.bindLong(4, contribution.getDateUploaded().getTime());
+        }
+        //This was always meant to store the date created..If somehow date created is not fetched while actually saving the contribution, lets saveValue today's date
+        statement.bindLong(5, contribution.getDateCreated() == null
+                ? System.currentTimeMillis() : contribution.getDateCreated().getTime());
+        statement.bindLong(6, contribution.getState());
+        statement.bindLong(7, contribution.getDataLength());
+        statement.bindLong(8, contribution.getTransferred());
+        bindStringOrNull(statement, 9, contribution.getSource());
+        bindStringOrNull(statement, 10, contribution.getDescription());
+        bindStringOrNull(statement, 11, contribution.getCreator());
+        statement.bindLong(12, contribution.getMultiple() ? 1 : 0);
+        statement.bindLong(13, contribution.getWidth());
+        statement.bindLong(14, contribution.getHeight());
+        bindStringOrNull(statement, 15, contribution.getLicense());
+        bindStringOrNull(statement, 16, contribution.getWikiDataEntityId());
+    }
+
+    private static void bindStringOrNull(SQLiteStatement statement, int index, @Nullable String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    /**
+     * Compiles the statements the first time they are needed, and again whenever the database
+     * has been reopened. The statements of the previous database are closed, as each of them
+     * keeps a reference to it.
+     *
+     * @return the database the statements belong to
+     */
+    private SQLiteDatabase prepareStatements() {
+        SQLiteDatabase db = dbOpenHelper.getWritableDatabase();
+        if (db != statementsDatabase) {
+            closeStatements();
+            insertStatement = db.compileStatement(INSERT);
+            updateStatement = db.compileStatement(UPDATE);
+            updateProgressStatement = db.compileStatement(UPDATE_PROGRESS);
+            updateThumbnailUrlStatement = db.compileStatement(UPDATE_THUMBNAIL_URL);
+            deleteStatement = db.compileStatement(DELETE);
+            statementsDatabase = db;
+        }
+        return db;
+    }
+
+    private void closeStatements() {
+        if (statementsDatabase == null) {
+            return;
+        }
+        insertStatement.close();
+        updateStatement.close();
+        updateProgressStatement.close();
+        updateThumbnailUrlStatement.close();
+        deleteStatement.close();
+        statementsDatabase = null;
+    }
+
+    private void notifyChange() {
+        context.getContentResolver().notifyChange(BASE_URI, null);
+    }
+}
@@ -22,6 +22,7 @@ public class DisplayableContribution extends Contribution {
                 contribution.getWidth(),
                 contribution.getHeight(),
                 contribution.getLicense());
+        setThumbUrl(contribution.getThumbUrl());
         this.position = position;
     }
 
@@ -0,0 +1,79 @@
+package fr.free.nrw.commons.data;
+
+import android.content.ContentProviderClient;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
+import android.content.ContentValues;
+import android.content.OperationApplicationException;
+import android.net.Uri;
+import android.os.RemoteException;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import javax.inject.Provider;
+
+/**
+ * Collects writes to one content provider so that they can be applied together. Providers
+ * extending {@link TransactionalContentProvider} apply them in a single transaction and notify
+ * observers once.
+ */
+public class ContentProviderBatch {
+
+    private final Provider<ContentProviderClient> clientProvider;
+    private final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+
+    public ContentProviderBatch(Provider<ContentProviderClient> clientProvider) {
+        this.clientProvider = clientProvider;
+    }
+
+    public ContentProviderBatch insert(Uri uri, ContentValues values) {
+        operations.add(ContentProviderOperation.newInsert(uri)
+                .withValues(values)
+                .build());
+        return this;
+    }
+
+    public ContentProviderBatch update(Uri uri, ContentValues values) {
+        return update(uri, values, null, null);
+    }
+
+    public ContentProviderBatch update(Uri uri, ContentValues values,
+                                       @Nullable String selection,
+                                       @Nullable String[] selectionArgs) {
+        operations.add(ContentProviderOperation.newUpdate(uri)
+                .withValues(values)
+                .withSelection(selection, selectionArgs)
+                .build());
+        return this;
+    }
+
+    public ContentProviderBatch delete(Uri uri) {
+        operations.add(ContentProviderOperation.newDelete(uri).build());
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * Applies the collected writes
+     *
+     * @return one result per write, in the order the writes were added
+     */
+    public ContentProviderResult[] apply() {
+        if (operations.isEmpty()) {
+            return new ContentProviderResult[0];
+        }
+        ContentProviderClient db = clientProvider.get();
+        try {
+            return db.applyBatch(operations);
+        } catch (RemoteException | OperationApplicationException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+}
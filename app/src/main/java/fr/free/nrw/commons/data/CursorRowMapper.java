@@ -0,0 +1,37 @@
+package fr.free.nrw.commons.data;
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the rows of one cursor to model objects. Subclasses look up the indices of the columns
+ * they read once, when the mapper is created, so mapping a row does no lookups by column name.
+ *
+ * @param <T> type of the model objects
+ */
+public abstract class CursorRowMapper<T> {
+
+    protected final Cursor cursor;
+
+    protected CursorRowMapper(Cursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Maps the row the cursor is currently positioned on
+     */
+    public abstract T map();
+
+    /**
+     * Maps the rows after the current position of the cursor
+     */
+    public List<T> mapAll() {
+        List<T> items = new ArrayList<>(Math.max(cursor.getCount(), 0));
+        while (cursor.moveToNext()) {
+            items.add(map());
+        }
+        return items;
+    }
+}
@@ -7,13 +7,14 @@ import android.database.sqlite.SQLiteOpenHelper;
 import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsDao;
 import fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesDao;
 import fr.free.nrw.commons.category.CategoryDao;
+import fr.free.nrw.commons.category.CategoryHierarchyDao;
 import fr.free.nrw.commons.contributions.ContributionDao;
 import fr.free.nrw.commons.explore.recentsearches.RecentSearchesDao;
 
 public class DBOpenHelper  extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "commons.db";
-    private static final int DATABASE_VERSION = 11;
+    private static final int DATABASE_VERSION = 17;
 
     /**
      * Do not use directly - @Inject an instance where it's needed and let
@@ -21,6 +22,8 @@ public class DBOpenHelper  extends SQLiteOpenHelper {
      */
     public DBOpenHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        // Lets the contributions list read while uploads and syncs are writing
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
@@ -30,6 +33,7 @@ public class DBOpenHelper  extends SQLiteOpenHelper {
         BookmarkPicturesDao.Table.onCreate(sqLiteDatabase);
         BookmarkLocationsDao.Table.onCreate(sqLiteDatabase);
         RecentSearchesDao.Table.onCreate(sqLiteDatabase);
+        CategoryHierarchyDao.Table.onCreate(sqLiteDatabase);
     }
 
     @Override
@@ -39,5 +43,6 @@ public class DBOpenHelper  extends SQLiteOpenHelper {
         BookmarkPicturesDao.Table.onUpdate(sqLiteDatabase, from, to);
         BookmarkLocationsDao.Table.onUpdate(sqLiteDatabase, from, to);
         RecentSearchesDao.Table.onUpdate(sqLiteDatabase, from, to);
+        CategoryHierarchyDao.Table.onUpdate(sqLiteDatabase, from, to);
     }
 }
@@ -0,0 +1,77 @@
+package fr.free.nrw.commons.data;
+
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
+import android.content.OperationApplicationException;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+import javax.inject.Inject;
+
+import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
+
+/**
+ * Content provider backed by {@link DBOpenHelper} that applies a batch of operations in a single
+ * SQLite transaction. Writes that are part of a batch do not notify observers one by one,
+ * a single change of {@link #getBaseUri()} is notified once the batch has been committed.
+ */
+public abstract class TransactionalContentProvider extends CommonsDaggerContentProvider {
+
+    @Inject
+    protected DBOpenHelper dbOpenHelper;
+
+    /**
+     * Set on the thread that is applying a batch, true once a write of the batch changed data
+     */
+    private final ThreadLocal<boolean[]> batchChanged = new ThreadLocal<>();
+
+    /**
+     * @return the URI that is notified once for each committed batch
+     */
+    protected abstract Uri getBaseUri();
+
+    @NonNull
+    @Override
+    public ContentProviderResult[] applyBatch(@NonNull ArrayList<ContentProviderOperation> operations)
+            throws OperationApplicationException {
+        SQLiteDatabase db = dbOpenHelper.getWritableDatabase();
+        boolean[] changed = {false};
+        boolean committed = false;
+        batchChanged.set(changed);
+        db.beginTransaction();
+        try {
+            ContentProviderResult[] results = super.applyBatch(operations);
+            db.setTransactionSuccessful();
+            committed = true;
+            return results;
+        } finally {
+            db.endTransaction();
+            batchChanged.remove();
+            if (committed && changed[0]) {
+                notifyObservers(getBaseUri());
+            }
+        }
+    }
+
+    /**
+     * Notifies observers of a change, or defers the notification to the end of the batch
+     * that is being applied on this thread
+     */
+    protected void notifyChange(Uri uri) {
+        boolean[] changed = batchChanged.get();
+        if (changed != null) {
+            changed[0] = true;
+        } else {
+            notifyObservers(uri);
+        }
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private void notifyObservers(Uri uri) {
+        getContext().getContentResolver().notifyChange(uri, null);
+    }
+}
@@ -19,6 +19,7 @@ import javax.inject.Singleton;
 
 import fr.free.nrw.commons.BuildConfig;
 import fr.free.nrw.commons.Media;
+import fr.free.nrw.commons.MediaDataExtractor;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.actions.PageEditClient;
 import fr.free.nrw.commons.notification.NotificationHelper;
@@ -41,16 +42,19 @@ public class DeleteHelper {
     private final NotificationHelper notificationHelper;
     private final PageEditClient pageEditClient;
     private final ViewUtilWrapper viewUtil;
+    private final MediaDataExtractor mediaDataExtractor;
     private final String username;
 
     @Inject
     public DeleteHelper(NotificationHelper notificationHelper,
                         @Named("commons-page-edit") PageEditClient pageEditClient,
                         ViewUtilWrapper viewUtil,
+                        MediaDataExtractor mediaDataExtractor,
                         @Named("username") String username) {
         this.notificationHelper = notificationHelper;
         this.pageEditClient = pageEditClient;
         this.viewUtil = viewUtil;
+        this.mediaDataExtractor = mediaDataExtractor;
         this.username = username;
     }
 
@@ -101,6 +105,8 @@ public class DeleteHelper {
         return pageEditClient.prependEdit(media.getFilename(), fileDeleteString + "\n", summary)
                 .flatMap(result -> {
                     if (result) {
+                        // The file page now shows the nomination
+                        mediaDataExtractor.invalidate(media.getFilename());
                         return pageEditClient.edit("Commons:Deletion_requests/" + media.getFilename(), subpageString + "\n", summary);
                     }
                     throw new RuntimeException("Failed to nominate for deletion");
@@ -8,7 +8,6 @@ import dagger.android.AndroidInjector;
 import dagger.android.support.AndroidSupportInjectionModule;
 import fr.free.nrw.commons.CommonsApplication;
 import fr.free.nrw.commons.auth.LoginActivity;
-import fr.free.nrw.commons.contributions.ContributionViewHolder;
 import fr.free.nrw.commons.contributions.ContributionsModule;
 import fr.free.nrw.commons.contributions.ContributionsSyncAdapter;
 import fr.free.nrw.commons.nearby.PlaceRenderer;
@@ -54,8 +53,6 @@ public interface CommonsApplicationComponent extends AndroidInjector<Application
 
     void inject(PicOfDayAppWidget picOfDayAppWidget);
 
-    void inject(ContributionViewHolder viewHolder);
-
     @Component.Builder
     @SuppressWarnings({"WeakerAccess", "unused"})
     interface Builder {
@@ -5,7 +5,6 @@ import android.content.ContentProviderClient;
 import android.content.Context;
 import android.view.inputmethod.InputMethodManager;
 
-import androidx.collection.LruCache;
 
 import com.github.varunpant.quadtree.QuadTree;
 import com.google.gson.Gson;
@@ -155,6 +154,37 @@ public class CommonsApplicationModule {
         return new JsonKvStore(context, storeName, gson);
     }
 
+    /**
+     * Provides the store that keeps the category names used for local typeahead, apart from
+     * the default preferences so that they are only loaded when categories are searched
+     */
+    @Provides
+    @Named("category_prefix_index")
+    public JsonKvStore providesCategoryPrefixIndexStore(Context context, Gson gson) {
+        String storeName = context.getPackageName() + "_category_prefix_index";
+        return new JsonKvStore(context, storeName, gson);
+    }
+
+    /**
+     * Provides the store that keeps the notifications of the user
+     */
+    @Provides
+    @Named("notification_store")
+    public JsonKvStore providesNotificationStore(Context context, Gson gson) {
+        String storeName = context.getPackageName() + "_notifications";
+        return new JsonKvStore(context, storeName, gson);
+    }
+
+    /**
+     * Provides the store that keeps the pictures of the day shown by the widget
+     */
+    @Provides
+    @Named("pic_of_day")
+    public JsonKvStore providesPicOfDayStore(Context context, Gson gson) {
+        String storeName = context.getPackageName() + "_pic_of_day";
+        return new JsonKvStore(context, storeName, gson);
+    }
+
     @Provides
     public UploadController providesUploadController(SessionManager sessionManager,
                                                      @Named("default_preferences") JsonKvStore kvStore,
@@ -174,13 +204,6 @@ public class CommonsApplicationModule {
         return new DBOpenHelper(context);
     }
 
-    @Provides
-    @Singleton
-    @Named("thumbnail-cache")
-    public LruCache<String, String> provideLruCache() {
-        return new LruCache<>(1024);
-    }
-
     @Provides
     @Singleton
     public WikidataEditListener provideWikidataEditListener() {
@@ -26,11 +26,13 @@ import dagger.Provides;
 import fr.free.nrw.commons.BuildConfig;
 import fr.free.nrw.commons.actions.PageEditClient;
 import fr.free.nrw.commons.actions.PageEditInterface;
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import fr.free.nrw.commons.category.CategoryInterface;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.media.MediaInterface;
 import fr.free.nrw.commons.mwapi.OkHttpJsonApiClient;
 import fr.free.nrw.commons.mwapi.UserInterface;
+import fr.free.nrw.commons.network.NetworkMetrics;
 import fr.free.nrw.commons.review.ReviewInterface;
 import fr.free.nrw.commons.upload.UploadInterface;
 import fr.free.nrw.commons.utils.ConfigUtils;
@@ -38,8 +40,6 @@ import fr.free.nrw.commons.wikidata.WikidataInterface;
 import okhttp3.Cache;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
-import timber.log.Timber;
 
 @Module
 @SuppressWarnings({"WeakerAccess", "unused"})
@@ -55,15 +55,20 @@ public class NetworkingModule {
     private static final String NAMED_WIKI_DATA_WIKI_SITE = "wikidata-wikisite";
 
     public static final String NAMED_COMMONS_CSRF = "commons-csrf";
+    public static final String NAMED_WIKI_DATA_CSRF = "wikidata-csrf";
 
+    /**
+     * The client is instrumented by {@link NetworkMetrics}, which logs one line per call and
+     * never reads request or response bodies, some of which are uploads of many megabytes
+     */
     @Provides
     @Singleton
     public OkHttpClient provideOkHttpClient(Context context,
-                                            HttpLoggingInterceptor httpLoggingInterceptor) {
+                                            NetworkMetrics networkMetrics) {
         File dir = new File(context.getCacheDir(), "okHttpCache");
         OkHttpClient.Builder builder = new OkHttpClient.Builder().connectTimeout(60, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS)
-                .addInterceptor(httpLoggingInterceptor)
+                .eventListenerFactory(networkMetrics)
                 .readTimeout(60, TimeUnit.SECONDS)
                 .cache(new Cache(dir, OK_HTTP_CACHE_SIZE));
 
@@ -73,18 +78,6 @@ public class NetworkingModule {
         return builder.build();
     }
 
-
-
-    @Provides
-    @Singleton
-    public HttpLoggingInterceptor provideHttpLoggingInterceptor() {
-        HttpLoggingInterceptor httpLoggingInterceptor = new HttpLoggingInterceptor(message -> {
-            Timber.tag("OkHttp").v(message);
-        });
-        httpLoggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-        return httpLoggingInterceptor;
-    }
-
     @Provides
     @Singleton
     public OkHttpJsonApiClient provideOkHttpJsonApiClient(OkHttpClient okHttpClient,
@@ -106,6 +99,34 @@ public class NetworkingModule {
         return new CsrfTokenClient(commonsWikiSite, commonsWikiSite);
     }
 
+    /**
+     * The Commons token is fetched through {@link CsrfTokenClient} so that an expired session is
+     * logged in again before a new token is handed out
+     */
+    @Named(NAMED_COMMONS_CSRF)
+    @Provides
+    @Singleton
+    public CsrfTokenCache provideCommonsCsrfTokenCache(@Named(NAMED_COMMONS_CSRF) CsrfTokenClient csrfTokenClient) {
+        return new CsrfTokenCache(() -> {
+            try {
+                return csrfTokenClient.getTokenBlocking();
+            } catch (Throwable throwable) {
+                throw throwable instanceof Exception
+                        ? (Exception) throwable : new RuntimeException(throwable);
+            }
+        });
+    }
+
+    @Named(NAMED_WIKI_DATA_CSRF)
+    @Provides
+    @Singleton
+    public CsrfTokenCache provideWikidataCsrfTokenCache(WikidataInterface wikidataInterface) {
+        return new CsrfTokenCache(() -> wikidataInterface.getCsrfToken()
+                .blockingFirst()
+                .query()
+                .csrfToken());
+    }
+
     @Provides
     @Singleton
     public LoginClient provideLoginClient() {
@@ -195,10 +216,10 @@ public class NetworkingModule {
     @Named("commons-page-edit")
     @Provides
     @Singleton
-    public PageEditClient provideCommonsPageEditClient(@Named(NAMED_COMMONS_CSRF) CsrfTokenClient csrfTokenClient,
+    public PageEditClient provideCommonsPageEditClient(@Named(NAMED_COMMONS_CSRF) CsrfTokenCache csrfTokenCache,
                                                        @Named("commons-page-edit-service") PageEditInterface pageEditInterface,
                                                        @Named("commons-service") Service service) {
-        return new PageEditClient(csrfTokenClient, pageEditInterface, service);
+        return new PageEditClient(csrfTokenCache, pageEditInterface, service);
     }
 
     @Provides
@@ -0,0 +1,85 @@
+package fr.free.nrw.commons.explore;
+
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.core.ImagePipeline;
+import com.facebook.imagepipeline.request.ImageRequest;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+import fr.free.nrw.commons.Media;
+
+/**
+ * Decides when a paginated image grid should load its next page, from how fast it is scrolled.
+ * The next page is requested while there are still enough images below the screen to cover
+ * {@link #LEAD_TIME_MS} of scrolling at the current speed, and pages get larger as the grid is
+ * scrolled faster, so that a fling does not run into the end of the grid.
+ */
+public class PagePrefetcher {
+
+    static final int MIN_PAGE_SIZE = 10;
+    // Highest limit the API accepts from users without the apihighlimits right
+    static final int MAX_PAGE_SIZE = 50;
+    static final int MIN_ITEMS_AHEAD = 5;
+    static final long LEAD_TIME_MS = 2000;
+    // Scroll events further apart than this don't measure the speed of one gesture
+    private static final long MAX_SAMPLE_INTERVAL_MS = 500;
+
+    private int lastPosition = -1;
+    private long lastUptimeMillis;
+    private float itemsPerMs;
+
+    /**
+     * Records where the grid is scrolled to
+     *
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param uptimeMillis time of the scroll event, e.g. SystemClock.uptimeMillis()
+     */
+    public void onScrolled(int lastVisiblePosition, long uptimeMillis) {
+        long interval = uptimeMillis - lastUptimeMillis;
+        if (lastPosition < 0 || interval > MAX_SAMPLE_INTERVAL_MS) {
+            itemsPerMs = 0;
+        } else if (interval > 0) {
+            float speed = Math.max(0, lastVisiblePosition - lastPosition) / (float) interval;
+            // Smooths out the uneven intervals between scroll events
+            itemsPerMs = (itemsPerMs + speed) / 2;
+        }
+        lastPosition = lastVisiblePosition;
+        lastUptimeMillis = uptimeMillis;
+    }
+
+    /**
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param itemCount number of items loaded so far
+     * @return whether the next page should be requested now
+     */
+    public boolean shouldLoadMore(int lastVisiblePosition, int itemCount) {
+        int itemsAhead = itemCount - 1 - lastVisiblePosition;
+        return itemsAhead <= Math.max(MIN_ITEMS_AHEAD, itemsScrolledInLeadTime());
+    }
+
+    /**
+     * @return number of items to request for the next page
+     */
+    public int getPageSize() {
+        return Math.min(MAX_PAGE_SIZE, Math.max(MIN_PAGE_SIZE, itemsScrolledInLeadTime()));
+    }
+
+    private int itemsScrolledInLeadTime() {
+        return (int) Math.ceil(itemsPerMs * LEAD_TIME_MS);
+    }
+
+    /**
+     * Downloads the thumbnails of images that are about to be shown to the disk cache, without
+     * decoding them, so that they show without a network round trip when they are bound
+     */
+    public static void prefetchThumbnails(List<Media> mediaList) {
+        ImagePipeline imagePipeline = Fresco.getImagePipeline();
+        for (Media media : mediaList) {
+            if (!StringUtils.isBlank(media.getThumbUrl())) {
+                imagePipeline.prefetchToDiskCache(ImageRequest.fromUri(media.getThumbUrl()), null);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package fr.free.nrw.commons.explore.images;
 import android.annotation.SuppressLint;
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -28,6 +29,7 @@ import butterknife.ButterKnife;
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.di.CommonsDaggerSupportFragment;
+import fr.free.nrw.commons.explore.PagePrefetcher;
 import fr.free.nrw.commons.explore.SearchActivity;
 import fr.free.nrw.commons.explore.recentsearches.RecentSearch;
 import fr.free.nrw.commons.explore.recentsearches.RecentSearchesDao;
@@ -69,6 +71,8 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
 
     private RVRendererAdapter<Media> imagesAdapter;
     private List<Media> queryList = new ArrayList<>();
+    private final PagePrefetcher pagePrefetcher = new PagePrefetcher();
+    private boolean isLoadingMore = false;
 
     private final SearchImagesAdapterFactory adapterFactory = new SearchImagesAdapterFactory(item -> {
         // Called on Click of a individual media Item
@@ -111,6 +115,19 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         imagesAdapter = adapterFactory.create(items);
         imagesRecyclerView.setAdapter(imagesAdapter);
         imagesRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                int lastVisiblePosition = ((LinearLayoutManager) recyclerView.getLayoutManager())
+                        .findLastVisibleItemPosition();
+                pagePrefetcher.onScrolled(lastVisiblePosition, SystemClock.uptimeMillis());
+                // load the next results before the end of the list is reached
+                if (query != null && !queryList.isEmpty()
+                        && pagePrefetcher.shouldLoadMore(lastVisiblePosition, imagesAdapter.getItemCount())) {
+                    addImagesToList(query);
+                }
+            }
+
             @Override
             public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
                 super.onScrollStateChanged(recyclerView, newState);
@@ -141,6 +158,7 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         bottomProgressBar.setVisibility(GONE);
         queryList.clear();
         imagesAdapter.clear();
+        mediaClient.resetMediaListFromSearch(query);
         compositeDisposable.add(mediaClient.getMediaListFromSearch(query)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
@@ -155,13 +173,18 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
      */
     @SuppressLint("CheckResult")
     public void addImagesToList(String query) {
+        if (isLoadingMore) {
+            return;
+        }
+        isLoadingMore = true;
         this.query = query;
         bottomProgressBar.setVisibility(View.VISIBLE);
         progressBar.setVisibility(GONE);
-        compositeDisposable.add(mediaClient.getMediaListFromSearch(query)
+        compositeDisposable.add(mediaClient.getMediaListFromSearch(query, pagePrefetcher.getPageSize())
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .doFinally(() -> isLoadingMore = false)
                 .subscribe(this::handlePaginationSuccess, this::handleError));
     }
 
@@ -174,6 +197,7 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         progressBar.setVisibility(View.GONE);
         bottomProgressBar.setVisibility(GONE);
         if (mediaList.size() != 0 && !queryList.get(queryList.size() - 1).getFilename().equals(mediaList.get(mediaList.size() - 1).getFilename())) {
+            PagePrefetcher.prefetchThumbnails(mediaList);
             queryList.addAll(mediaList);
             imagesAdapter.addAll(mediaList);
             imagesAdapter.notifyDataSetChanged();
@@ -196,6 +220,7 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         else {
             bottomProgressBar.setVisibility(View.GONE);
             progressBar.setVisibility(GONE);
+            PagePrefetcher.prefetchThumbnails(mediaList);
             imagesAdapter.addAll(mediaList);
             imagesAdapter.notifyDataSetChanged();
             ((SearchActivity)getContext()).viewPagerNotifyDataSetChanged();
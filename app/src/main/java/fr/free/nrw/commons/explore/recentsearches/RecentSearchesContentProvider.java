@@ -10,11 +10,8 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
-import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
+import fr.free.nrw.commons.data.TransactionalContentProvider;
 import timber.log.Timber;
 
 import static android.content.UriMatcher.NO_MATCH;
@@ -27,7 +24,7 @@ import static fr.free.nrw.commons.explore.recentsearches.RecentSearchesDao.Table
  * This class contains functions for executing queries for
  * inserting, searching, deleting, editing recent searches in SqLite DB
  **/
-public class RecentSearchesContentProvider extends CommonsDaggerContentProvider {
+public class RecentSearchesContentProvider extends TransactionalContentProvider {
 
     // For URI matcher
     private static final int RECENT_SEARCHES = 1;
@@ -45,7 +42,10 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
         return Uri.parse(BASE_URI.toString() + "/" + id);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
+    @Override
+    protected Uri getBaseUri() {
+        return BASE_URI;
+    }
 
     /**
      * This functions executes query for searching recent searches in SqLite DB
@@ -107,7 +107,7 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -130,7 +130,7 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
             default:
                 throw new IllegalArgumentException("Unknown URI" + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 
@@ -140,23 +140,21 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
     @SuppressWarnings("ConstantConditions")
     @Override
     public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
-        Timber.d("Hello, bulk insert! (RecentSearchesContentProvider)");
         int uriType = uriMatcher.match(uri);
+        if (uriType != RECENT_SEARCHES) {
+            throw new IllegalArgumentException("Unknown URI: " + uri);
+        }
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         sqlDB.beginTransaction();
-        switch (uriType) {
-            case RECENT_SEARCHES:
-                for (ContentValues value : values) {
-                    Timber.d("Inserting! %s", value);
-                    sqlDB.insert(TABLE_NAME, null, value);
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown URI: " + uri);
+        try {
+            for (ContentValues value : values) {
+                sqlDB.insert(TABLE_NAME, null, value);
+            }
+            sqlDB.setTransactionSuccessful();
+        } finally {
+            sqlDB.endTransaction();
         }
-        sqlDB.setTransactionSuccessful();
-        sqlDB.endTransaction();
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return values.length;
     }
 
@@ -195,7 +193,7 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri + " with type " + uriType);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 }
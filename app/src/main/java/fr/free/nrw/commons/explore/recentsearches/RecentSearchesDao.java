@@ -17,7 +17,8 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 
-import timber.log.Timber;
+import fr.free.nrw.commons.data.ContentProviderBatch;
+import fr.free.nrw.commons.data.CursorRowMapper;
 
 /**
  * This class doesn't execute queries in database directly instead it contains the logic behind
@@ -56,32 +57,19 @@ public class RecentSearchesDao {
      * It deletes all recent searches from the database
      */
     public void deleteAll() {
+        ContentProviderBatch batch = new ContentProviderBatch(clientProvider);
         Cursor cursor = null;
         ContentProviderClient db = clientProvider.get();
         try {
             cursor = db.query(
                     RecentSearchesContentProvider.BASE_URI,
-                    Table.ALL_FIELDS,
+                    new String[]{Table.COLUMN_ID},
                     null,
                     new String[]{},
-                    Table.COLUMN_LAST_USED + " DESC"
+                    null
             );
             while (cursor != null && cursor.moveToNext()) {
-                try {
-                    RecentSearch recentSearch = find(fromCursor(cursor).getQuery());
-                    if (recentSearch.getContentUri() == null) {
-                        throw new RuntimeException("tried to delete item with no content URI");
-                    } else {
-                        Timber.d("QUERY_NAME %s - delete tried", recentSearch.getContentUri());
-                        db.delete(recentSearch.getContentUri(), null, null);
-                        Timber.d("QUERY_NAME %s - query deleted", recentSearch.getQuery());
-                    }
-                } catch (RemoteException e) {
-                    Timber.e(e, "query deleted");
-                    throw new RuntimeException(e);
-                } finally {
-                    db.release();
-                }
+                batch.delete(RecentSearchesContentProvider.uriForId(cursor.getInt(0)));
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -89,7 +77,10 @@ public class RecentSearchesDao {
             if (cursor != null) {
                 cursor.close();
             }
+            db.release();
         }
+        // All rows are deleted in one transaction with a single change notification
+        batch.apply();
     }
 
     /**
@@ -155,9 +146,12 @@ public class RecentSearchesDao {
         try {
             cursor = db.query( RecentSearchesContentProvider.BASE_URI, Table.ALL_FIELDS,
                     null, new String[]{}, Table.COLUMN_LAST_USED + " DESC");
-            // fixme add a limit on the original query instead of falling out of the loop?
-            while (cursor != null && cursor.moveToNext() && cursor.getPosition() < limit) {
-                items.add(fromCursor(cursor).getQuery());
+            if (cursor != null) {
+                RowMapper mapper = new RowMapper(cursor);
+                // fixme add a limit on the original query instead of falling out of the loop?
+                while (cursor.moveToNext() && cursor.getPosition() < limit) {
+                    items.add(mapper.getQuery());
+                }
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -178,12 +172,40 @@ public class RecentSearchesDao {
      */
     @NonNull
     RecentSearch fromCursor(Cursor cursor) {
-        // Hardcoding column positions!
-        return new RecentSearch(
-                RecentSearchesContentProvider.uriForId(cursor.getInt(cursor.getColumnIndex(Table.COLUMN_ID))),
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_NAME)),
-                new Date(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_LAST_USED)))
-        );
+        return new RowMapper(cursor).map();
+    }
+
+    /**
+     * Maps recent search rows, resolving the column indices once per cursor
+     */
+    static class RowMapper extends CursorRowMapper<RecentSearch> {
+        private final int idIndex;
+        private final int nameIndex;
+        private final int lastUsedIndex;
+
+        RowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndex(Table.COLUMN_ID);
+            nameIndex = cursor.getColumnIndex(Table.COLUMN_NAME);
+            lastUsedIndex = cursor.getColumnIndex(Table.COLUMN_LAST_USED);
+        }
+
+        /**
+         * Reads only the query of the current row, for callers that need nothing else
+         */
+        String getQuery() {
+            return cursor.getString(nameIndex);
+        }
+
+        @NonNull
+        @Override
+        public RecentSearch map() {
+            return new RecentSearch(
+                    RecentSearchesContentProvider.uriForId(cursor.getInt(idIndex)),
+                    cursor.getString(nameIndex),
+                    new Date(cursor.getLong(lastUsedIndex))
+            );
+        }
     }
 
     /**
@@ -0,0 +1,67 @@
+package fr.free.nrw.commons.media;
+
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Remembers where paginated media lists, like the images of a category or the results of a
+ * search, should continue. Only the {@link #MAX_LISTS} most recently used lists are kept, so the
+ * store does not grow with every category and keyword viewed. The lists are kept in memory only,
+ * and start from their first page again after the app restarts. Safe to use from any thread.
+ */
+@Singleton
+public class ContinuationStore {
+
+    static final int MAX_LISTS = 50;
+
+    // List keys to the continuation of their next page, from least to most recently used
+    private final LinkedHashMap<String, Map<String, String>> continuations =
+            new LinkedHashMap<String, Map<String, String>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, String>> eldest) {
+                    return size() > MAX_LISTS;
+                }
+            };
+
+    @Inject
+    public ContinuationStore() {
+    }
+
+    /**
+     * Returns the continuation to pass to the API for the next page of a list
+     *
+     * @param key identifies the list
+     * @return continuation of the next page, empty for the first page, or null if the list was
+     * read to its end
+     */
+    @Nullable
+    public synchronized Map<String, String> get(String key) {
+        if (!continuations.containsKey(key)) {
+            return Collections.emptyMap();
+        }
+        return continuations.get(key);
+    }
+
+    /**
+     * Stores the continuation the API returned with a page of a list
+     *
+     * @param key identifies the list
+     * @param continuation continuation of the next page, null if the page was the last one
+     */
+    public synchronized void put(String key, @Nullable Map<String, String> continuation) {
+        continuations.put(key, continuation);
+    }
+
+    /**
+     * Forgets a list, so that it is read from its first page again
+     */
+    public synchronized void remove(String key) {
+        continuations.remove(key);
+    }
+}
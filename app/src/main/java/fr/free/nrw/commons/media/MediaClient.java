@@ -3,7 +3,10 @@ package fr.free.nrw.commons.media;
 
 import androidx.annotation.NonNull;
 
+import org.apache.commons.lang3.StringUtils;
+import org.wikipedia.dataclient.mwapi.MwQueryPage;
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
+import org.wikipedia.gallery.ImageInfo;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,15 +30,22 @@ import timber.log.Timber;
 @Singleton
 public class MediaClient {
 
+    /**
+     * Maximum number of titles the API accepts in one query
+     */
+    public static final int MAX_TITLES_PER_REQUEST = 50;
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final String DELETION_REQUEST_PREFIX = "Commons:Deletion_requests/";
+
     private final MediaInterface mediaInterface;
 
-    //OkHttpJsonApiClient used JsonKvStore for this. I don't know why.
-    private Map<String, Map<String, String>> continuationStore;
+    private final ContinuationStore continuationStore;
 
     @Inject
-    public MediaClient(MediaInterface mediaInterface) {
+    public MediaClient(MediaInterface mediaInterface, ContinuationStore continuationStore) {
         this.mediaInterface = mediaInterface;
-        this.continuationStore = new HashMap<>();
+        this.continuationStore = continuationStore;
     }
 
     /**
@@ -66,33 +76,79 @@ public class MediaClient {
     /**
      * This method takes the category as input and returns a list of  Media objects filtered using image generator query
      * It uses the generator query API to get the images searched using a query, 10 at a time.
+     * Each call returns the next 10 images, and an empty list once all images were returned.
      *
      * @param category the search category. Must start with "Category:"
      * @return
      */
     public Single<List<Media>> getMediaListFromCategory(String category) {
-        return responseToMediaList(
-                continuationStore.containsKey("category_" + category) ?
-                        mediaInterface.getMediaListFromCategory(category, 10, continuationStore.get("category_" + category)) : //if true
-                        mediaInterface.getMediaListFromCategory(category, 10, Collections.emptyMap()),
-                "category_" + category); //if false
+        return getMediaListFromCategory(category, DEFAULT_PAGE_SIZE);
+    }
 
+    /**
+     * Returns the next images of the category, like {@link #getMediaListFromCategory(String)}
+     *
+     * @param category the search category. Must start with "Category:"
+     * @param itemLimit number of images to return, at most {@link #MAX_TITLES_PER_REQUEST}
+     */
+    public Single<List<Media>> getMediaListFromCategory(String category, int itemLimit) {
+        String key = "category_" + category;
+        return Single.defer(() -> {
+            Map<String, String> continuation = continuationStore.get(key);
+            if (continuation == null) {
+                return Single.just(Collections.<Media>emptyList());
+            }
+            return responseToMediaList(
+                    mediaInterface.getMediaListFromCategory(category, itemLimit, continuation), key);
+        });
     }
 
     /**
      * This method takes a keyword as input and returns a list of  Media objects filtered using image generator query
      * It uses the generator query API to get the images searched using a query, 10 at a time.
+     * Each call returns the next 10 images, and an empty list once all images were returned.
      *
      * @param keyword the search keyword
      * @return
      */
     public Single<List<Media>> getMediaListFromSearch(String keyword) {
-        return responseToMediaList(
-                continuationStore.containsKey("search_" + keyword) ?
-                        mediaInterface.getMediaListFromSearch(keyword, 10, continuationStore.get("search_" + keyword)) : //if true
-                        mediaInterface.getMediaListFromSearch(keyword, 10, Collections.emptyMap()), //if false
-                "search_" + keyword);
+        return getMediaListFromSearch(keyword, DEFAULT_PAGE_SIZE);
+    }
 
+    /**
+     * Returns the next images found for the keyword, like {@link #getMediaListFromSearch(String)}
+     *
+     * @param keyword the search keyword
+     * @param itemLimit number of images to return, at most {@link #MAX_TITLES_PER_REQUEST}
+     */
+    public Single<List<Media>> getMediaListFromSearch(String keyword, int itemLimit) {
+        String key = "search_" + keyword;
+        return Single.defer(() -> {
+            Map<String, String> continuation = continuationStore.get(key);
+            if (continuation == null) {
+                return Single.just(Collections.<Media>emptyList());
+            }
+            return responseToMediaList(
+                    mediaInterface.getMediaListFromSearch(keyword, itemLimit, continuation), key);
+        });
+    }
+
+    /**
+     * Makes the next call for the category start again from the first page
+     *
+     * @param category the category name
+     */
+    public void resetMediaListFromCategory(String category) {
+        continuationStore.remove("category_" + category);
+    }
+
+    /**
+     * Makes the next call for the search keyword start again from the first page
+     *
+     * @param keyword the search keyword
+     */
+    public void resetMediaListFromSearch(String keyword) {
+        continuationStore.remove("search_" + keyword);
     }
 
     private Single<List<Media>> responseToMediaList(Observable<MwQueryResponse> response, String key) {
@@ -105,7 +161,7 @@ public class MediaClient {
             continuationStore.put(key, mwQueryResponse.continuation());
             return Observable.fromIterable(mwQueryResponse.query().pages());
         })
-                .map(Media::from)
+                .map(Media::summaryFrom)
                 .collect(ArrayList<Media>::new, List::add);
     }
   
@@ -129,6 +185,107 @@ public class MediaClient {
                 .single(Media.EMPTY);
     }
 
+    /**
+     * Fetches the Media object of a file and whether its deletion was requested, with a single
+     * request for the file and its deletion request page
+     *
+     * @param filename Eg. File:Test.jpg
+     * @return Media object, with the requested deletion flag set if there is a deletion request
+     */
+    public Single<Media> getMediaWithDeletionStatus(String filename) {
+        String deletionRequestTitle = DELETION_REQUEST_PREFIX + filename;
+        return mediaInterface.getMedia(filename + "|" + deletionRequestTitle)
+                .map(mwQueryResponse -> {
+                    Media media = null;
+                    boolean deletionRequested = false;
+                    if (null != mwQueryResponse.query() && null != mwQueryResponse.query().pages()) {
+                        for (MwQueryPage page : mwQueryResponse.query().pages()) {
+                            if (normalizeTitle(page.title()).equals(normalizeTitle(deletionRequestTitle))) {
+                                deletionRequested = page.pageId() > 0;
+                            } else if (null == media) {
+                                media = Media.from(page);
+                            }
+                        }
+                    }
+                    if (null == media) {
+                        return Media.EMPTY;
+                    }
+                    if (deletionRequested) {
+                        media.setRequestedDeletion();
+                    }
+                    return media;
+                })
+                .single(Media.EMPTY);
+    }
+
+    /**
+     * Fetches the thumbnail URLs of several files with a single request
+     *
+     * @param titles up to {@link #MAX_TITLES_PER_REQUEST} file titles, Eg. File:Test.jpg
+     * @return thumbnail URLs keyed by the given titles. Titles of files that do not exist or have
+     * no thumbnail map to an empty string.
+     */
+    public Single<Map<String, String>> getThumbnailUrls(List<String> titles) {
+        return mediaInterface.getThumbnailUrls(StringUtils.join(titles, '|'))
+                .map(mwQueryResponse -> {
+                    Map<String, String> thumbnailUrlsByPage = new HashMap<>();
+                    if (null != mwQueryResponse.query() && null != mwQueryResponse.query().pages()) {
+                        for (MwQueryPage page : mwQueryResponse.query().pages()) {
+                            ImageInfo imageInfo = page.imageInfo();
+                            if (null != imageInfo && null != imageInfo.getThumbUrl()) {
+                                thumbnailUrlsByPage.put(normalizeTitle(page.title()),
+                                        imageInfo.getThumbUrl());
+                            }
+                        }
+                    }
+                    Map<String, String> thumbnailUrls = new HashMap<>(titles.size());
+                    for (String title : titles) {
+                        String thumbnailUrl = thumbnailUrlsByPage.get(normalizeTitle(title));
+                        thumbnailUrls.put(title, null == thumbnailUrl ? "" : thumbnailUrl);
+                    }
+                    return thumbnailUrls;
+                })
+                .singleOrError();
+    }
+
+    /**
+     * Fetches what lists of images show about several files, see {@link Media#summaryFrom}, with
+     * a single request
+     *
+     * @param titles up to {@link #MAX_TITLES_PER_REQUEST} file titles, Eg. File:Test.jpg
+     * @return Media objects keyed by the given titles. Files that do not exist are left out.
+     */
+    public Single<Map<String, Media>> getMediaSummaries(List<String> titles) {
+        return mediaInterface.getMediaSummaries(StringUtils.join(titles, '|'))
+                .map(mwQueryResponse -> {
+                    Map<String, Media> mediaByPage = new HashMap<>();
+                    if (null != mwQueryResponse.query() && null != mwQueryResponse.query().pages()) {
+                        for (MwQueryPage page : mwQueryResponse.query().pages()) {
+                            Media media = Media.summaryFrom(page);
+                            if (null != media) {
+                                mediaByPage.put(normalizeTitle(page.title()), media);
+                            }
+                        }
+                    }
+                    Map<String, Media> mediaByTitle = new HashMap<>(titles.size());
+                    for (String title : titles) {
+                        Media media = mediaByPage.get(normalizeTitle(title));
+                        if (null != media) {
+                            mediaByTitle.put(title, media);
+                        }
+                    }
+                    return mediaByTitle;
+                })
+                .singleOrError();
+    }
+
+    /**
+     * The API answers with titles that use spaces instead of underscores
+     */
+    private static String normalizeTitle(String title) {
+        return null == title ? "" : title.replace('_', ' ');
+    }
+
     /**
      * The method returns the picture of the day
      *
@@ -136,8 +293,19 @@ public class MediaClient {
      */
     @NonNull
     public Single<Media> getPictureOfTheDay() {
-        String date = CommonsDateUtil.getIso8601DateFormatShort().format(new Date());
-        Timber.d("Current date is %s", date);
+        return getPictureOfTheDay(new Date());
+    }
+
+    /**
+     * Returns the picture of the given day. Pictures are usually chosen some days ahead.
+     *
+     * @return Media object corresponding to the picture of the day, or {@link Media#EMPTY} if
+     * none was chosen
+     */
+    @NonNull
+    public Single<Media> getPictureOfTheDay(Date day) {
+        String date = CommonsDateUtil.getIso8601DateFormatShort().format(day);
+        Timber.d("Picture of the day date is %s", date);
         String template = "Template:Potd/" + date;
         return mediaInterface.getMediaWithGenerator(template)
                 .flatMap(mwQueryResponse -> {
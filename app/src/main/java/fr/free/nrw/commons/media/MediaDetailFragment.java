@@ -3,6 +3,7 @@ package fr.free.nrw.commons.media;
 import android.annotation.SuppressLint;
 import android.app.AlertDialog;
 import android.content.Intent;
+import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Bundle;
 import android.text.Editable;
@@ -131,6 +132,7 @@ public class MediaDetailFragment extends CommonsDaggerSupportFragment {
     private ArrayList<String> categoryNames;
     private boolean categoriesLoaded = false;
     private boolean categoriesPresent = false;
+    private boolean discussionRequested = false;
     private ViewTreeObserver.OnGlobalLayoutListener layoutListener; // for layout stuff, only used once!
     private ViewTreeObserver.OnScrollChangedListener scrollListener;
 
@@ -182,6 +184,7 @@ public class MediaDetailFragment extends CommonsDaggerSupportFragment {
 
         categoryNames = new ArrayList<>();
         categoryNames.add(getString(R.string.detail_panel_cats_loading));
+        discussionRequested = false;
 
         final View view = inflater.inflate(R.layout.fragment_media_detail, container, false);
 
@@ -291,7 +294,7 @@ public class MediaDetailFragment extends CommonsDaggerSupportFragment {
         license.setText(prettyLicense(media));
         coordinates.setText(prettyCoordinates(media));
         uploadedDate.setText(prettyUploadedDate(media));
-        mediaDiscussion.setText(prettyDiscussion(media));
+        loadDiscussionIfVisible();
 
         categoryNames.clear();
         categoryNames.addAll(media.getCategories());
@@ -491,6 +494,7 @@ public class MediaDetailFragment extends CommonsDaggerSupportFragment {
     }
 
     private void updateTheDarkness() {
+        loadDiscussionIfVisible();
         // You must face the darkness alone
         int scrollY = scrollView.getScrollY();
         int scrollMax = getView().getHeight();
@@ -511,6 +515,26 @@ public class MediaDetailFragment extends CommonsDaggerSupportFragment {
             return desc;
         }
     }
+    /**
+     * Fetches the talk page once the discussion is scrolled into view, as most users never
+     * look at it
+     */
+    private void loadDiscussionIfVisible() {
+        if (discussionRequested || media == null || getView() == null
+                || !mediaDiscussion.getLocalVisibleRect(new Rect())) {
+            return;
+        }
+        discussionRequested = true;
+        mediaDiscussion.setText(R.string.detail_panel_cats_loading);
+        compositeDisposable.add(mediaDataExtractor.getDiscussion(media.getFilename())
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(discussion -> {
+                    media.setDiscussion(discussion);
+                    mediaDiscussion.setText(prettyDiscussion(media));
+                }));
+    }
+
     private String prettyDiscussion(Media media) {
         String disc = media.getDiscussion().trim();
         if (disc.equals("")) {
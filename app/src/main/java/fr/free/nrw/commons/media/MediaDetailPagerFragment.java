@@ -20,12 +20,21 @@ import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentStatePagerAdapter;
 import androidx.viewpager.widget.ViewPager;
 
+import com.facebook.common.executors.CallerThreadExecutor;
+import com.facebook.datasource.BaseDataSubscriber;
+import com.facebook.datasource.DataSource;
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.request.ImageRequest;
+
+import org.apache.commons.lang3.StringUtils;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import fr.free.nrw.commons.Media;
+import fr.free.nrw.commons.MediaDataExtractor;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.auth.SessionManager;
 import fr.free.nrw.commons.bookmarks.Bookmark;
@@ -42,6 +51,8 @@ import fr.free.nrw.commons.utils.ImageUtils;
 import fr.free.nrw.commons.utils.NetworkUtils;
 import fr.free.nrw.commons.utils.PermissionUtils;
 import fr.free.nrw.commons.utils.ViewUtil;
+import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
 import static android.Manifest.permission.WRITE_EXTERNAL_STORAGE;
@@ -53,6 +64,7 @@ public class MediaDetailPagerFragment extends CommonsDaggerSupportFragment imple
     @Inject SessionManager sessionManager;
     @Inject @Named("default_preferences") JsonKvStore store;
     @Inject BookmarkPicturesDao bookmarkDao;
+    @Inject MediaDataExtractor mediaDataExtractor;
 
     @BindView(R.id.mediaDetailsPager) ViewPager pager;
     private Boolean editable;
@@ -60,6 +72,7 @@ public class MediaDetailPagerFragment extends CommonsDaggerSupportFragment imple
     MediaDetailAdapter adapter;
     private Bookmark bookmark;
     private MediaDetailProvider provider;
+    private final NeighbourPrefetcher neighbourPrefetcher = new NeighbourPrefetcher(this::prefetchMedia);
 
     public MediaDetailPagerFragment() {
         this(false, false);
@@ -312,7 +325,11 @@ public class MediaDetailPagerFragment extends CommonsDaggerSupportFragment imple
 
     public void showImage(int i) {
         Handler handler =  new Handler();
-        handler.postDelayed(() -> pager.setCurrentItem(i), 5);
+        handler.postDelayed(() -> {
+            pager.setCurrentItem(i);
+            // onPageSelected isn't called if the pager already shows the page
+            prefetchNeighbours(i);
+        }, 5);
     }
 
     /**
@@ -355,6 +372,53 @@ public class MediaDetailPagerFragment extends CommonsDaggerSupportFragment imple
 
     @Override
     public void onPageSelected(int i) {
+        prefetchNeighbours(i);
+    }
+
+    private void prefetchNeighbours(int position) {
+        if (getActivity() == null || provider == null) {
+            return;
+        }
+        neighbourPrefetcher.onPageSelected(position, provider);
+    }
+
+    /**
+     * Loads the details and the image of a page the user may swipe to into the caches the page
+     * reads them from. The image is only downloaded to the disk cache, as decoding full size
+     * images that may not be shown would take too much memory
+     */
+    private Completable prefetchMedia(Media media) {
+        Completable details = mediaDataExtractor.fetchMediaDetails(media.getFilename())
+                .subscribeOn(Schedulers.io())
+                .ignoreElement();
+        if (StringUtils.isBlank(media.getImageUrl())) {
+            return details;
+        }
+        Completable image = Completable.create(emitter -> {
+            DataSource<Void> dataSource = Fresco.getImagePipeline()
+                    .prefetchToDiskCache(ImageRequest.fromUri(media.getImageUrl()), null);
+            emitter.setCancellable(dataSource::close);
+            dataSource.subscribe(new BaseDataSubscriber<Void>() {
+                @Override
+                protected void onNewResultImpl(DataSource<Void> dataSource) {
+                    if (dataSource.isFinished()) {
+                        emitter.onComplete();
+                    }
+                }
+
+                @Override
+                protected void onFailureImpl(DataSource<Void> dataSource) {
+                    emitter.tryOnError(dataSource.getFailureCause());
+                }
+            }, CallerThreadExecutor.getInstance());
+        });
+        return Completable.mergeArray(details, image);
+    }
+
+    @Override
+    public void onDestroy() {
+        neighbourPrefetcher.clear();
+        super.onDestroy();
     }
 
     @Override
@@ -16,6 +16,9 @@ public interface MediaInterface {
     String MEDIA_PARAMS="&prop=imageinfo&iiprop=url|extmetadata&iiurlwidth=640" +
             "&iiextmetadatafilter=DateTime|Categories|GPSLatitude|GPSLongitude|ImageDescription|DateTimeOriginal" +
             "|Artist|LicenseShortName|LicenseUrl";
+    // Only what Media.summaryFrom() reads, for lists of images
+    String MEDIA_SUMMARY_PARAMS = "&prop=imageinfo&iiprop=url|extmetadata&iiurlwidth=640" +
+            "&iiextmetadatafilter=DateTime|Artist";
     /**
      * Checks if a page exists or not.
      *
@@ -44,7 +47,7 @@ public interface MediaInterface {
      */
     @GET("w/api.php?action=query&format=json&formatversion=2" + //Basic parameters
             "&generator=categorymembers&gcmtype=file&gcmsort=timestamp&gcmdir=desc" + //Category parameters
-            MEDIA_PARAMS)
+            MEDIA_SUMMARY_PARAMS)
     Observable<MwQueryResponse> getMediaListFromCategory(@Query("gcmtitle") String category, @Query("gcmlimit") int itemLimit, @QueryMap Map<String, String> continuation);
 
     /**
@@ -57,7 +60,7 @@ public interface MediaInterface {
      */
     @GET("w/api.php?action=query&format=json&formatversion=2" + //Basic parameters
             "&generator=search&gsrwhat=text&gsrnamespace=6" + //Search parameters
-            MEDIA_PARAMS)
+            MEDIA_SUMMARY_PARAMS)
     Observable<MwQueryResponse> getMediaListFromSearch(@Query("gsrsearch") String keyword, @Query("gsrlimit") int itemLimit, @QueryMap Map<String, String> continuation);
 
     /**
@@ -81,6 +84,25 @@ public interface MediaInterface {
             MEDIA_PARAMS)
     Observable<MwQueryResponse> getMediaWithGenerator(@Query("titles") String title);
 
+    /**
+     * Fetches what lists of images show about several files at once
+     *
+     * @param titles up to 50 file titles separated by "|"
+     * @return
+     */
+    @GET("w/api.php?action=query&format=json&formatversion=2" +
+            MEDIA_SUMMARY_PARAMS)
+    Observable<MwQueryResponse> getMediaSummaries(@Query("titles") String titles);
+
+    /**
+     * Fetches the thumbnail URLs of several files at once
+     *
+     * @param titles up to 50 file titles separated by "|"
+     * @return
+     */
+    @GET("w/api.php?action=query&format=json&formatversion=2&prop=imageinfo&iiprop=url&iiurlwidth=640")
+    Observable<MwQueryResponse> getThumbnailUrls(@Query("titles") String titles);
+
     @GET("w/api.php?format=json&action=parse&prop=text")
     Observable<MwParseResponse> getPageHtml(@Query("page") String title);
 }
@@ -0,0 +1,160 @@
+package fr.free.nrw.commons.media;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.free.nrw.commons.Media;
+import io.reactivex.Completable;
+import io.reactivex.disposables.Disposable;
+import timber.log.Timber;
+
+/**
+ * Loads the pages next to the one shown in the media detail pager in the background, so that
+ * swiping to them doesn't wait for the network. Only the pages within {@link #WINDOW} positions of
+ * the selected one are loaded, nearest first and at most {@link #MAX_CONCURRENT} at a time, and
+ * loads of pages that are swiped out of the window are cancelled. Safe to use from any thread.
+ */
+public class NeighbourPrefetcher {
+
+    static final int WINDOW = 2;
+    static final int MAX_CONCURRENT = 2;
+
+    /**
+     * Loads whatever a page needs to show, e.g. its details and image
+     */
+    public interface Loader {
+        Completable prefetch(Media media);
+    }
+
+    private final Loader loader;
+    // Filenames are the keys, as the same position shows another media when the list changes
+    private final Map<String, Disposable> inFlight = new HashMap<>();
+    private final LinkedList<Media> queue = new LinkedList<>();
+    private final Set<String> loaded = new HashSet<>();
+
+    public NeighbourPrefetcher(Loader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Moves the window to a newly selected page
+     *
+     * @param position position of the selected page
+     * @param provider provides the media at the neighbouring positions
+     */
+    public synchronized void onPageSelected(int position,
+                                            MediaDetailPagerFragment.MediaDetailProvider provider) {
+        List<Media> neighbours = new ArrayList<>();
+        Set<String> inWindow = new HashSet<>();
+        for (int neighbour : neighbourPositions(position, provider.getTotalMediaCount())) {
+            Media media = provider.getMediaAtPosition(neighbour);
+            if (media != null && media.getFilename() != null) {
+                neighbours.add(media);
+                inWindow.add(media.getFilename());
+            }
+        }
+
+        Iterator<Map.Entry<String, Disposable>> iterator = inFlight.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Disposable> entry = iterator.next();
+            if (!inWindow.contains(entry.getKey())) {
+                entry.getValue().dispose();
+                iterator.remove();
+            }
+        }
+        loaded.retainAll(inWindow);
+
+        queue.clear();
+        for (Media media : neighbours) {
+            if (!loaded.contains(media.getFilename()) && !inFlight.containsKey(media.getFilename())) {
+                queue.add(media);
+            }
+        }
+        startQueued();
+    }
+
+    /**
+     * Cancels all loads, e.g. when the pager is destroyed
+     */
+    public synchronized void clear() {
+        for (Disposable disposable : inFlight.values()) {
+            disposable.dispose();
+        }
+        inFlight.clear();
+        queue.clear();
+        loaded.clear();
+    }
+
+    private void startQueued() {
+        while (inFlight.size() < MAX_CONCURRENT && !queue.isEmpty()) {
+            Media media = queue.removeFirst();
+            String filename = media.getFilename();
+            // Put before subscribing, as the load may finish right away
+            PendingLoad pendingLoad = new PendingLoad();
+            inFlight.put(filename, pendingLoad);
+            pendingLoad.disposable = loader.prefetch(media)
+                    .subscribe(() -> onFinished(filename, pendingLoad, true),
+                            throwable -> {
+                                Timber.d(throwable, "Prefetching %s failed", filename);
+                                onFinished(filename, pendingLoad, false);
+                            });
+        }
+    }
+
+    private synchronized void onFinished(String filename, PendingLoad pendingLoad, boolean success) {
+        // A load that was cancelled, or replaced by a newer one, doesn't free a slot again
+        if (inFlight.get(filename) != pendingLoad) {
+            return;
+        }
+        inFlight.remove(filename);
+        if (success) {
+            loaded.add(filename);
+        }
+        startQueued();
+    }
+
+    /**
+     * @param position position of the selected page
+     * @param count number of pages
+     * @return positions within the window around the selected page, nearest first
+     */
+    static List<Integer> neighbourPositions(int position, int count) {
+        List<Integer> positions = new ArrayList<>();
+        for (int distance = 1; distance <= WINDOW; distance++) {
+            if (position + distance < count) {
+                positions.add(position + distance);
+            }
+            if (position - distance >= 0) {
+                positions.add(position - distance);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Stands in the in-flight map for a load, until the subscription it is cancelled by exists
+     */
+    private static class PendingLoad implements Disposable {
+        private volatile Disposable disposable;
+        private volatile boolean disposed;
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            if (disposable != null) {
+                disposable.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,7 +33,6 @@ import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
-import okhttp3.ResponseBody;
 import timber.log.Timber;
 
 /**
@@ -41,6 +41,9 @@ import timber.log.Timber;
 @Singleton
 public class OkHttpJsonApiClient {
     private static final String THUMB_SIZE = "640";
+    // Counts change with the uploads and edits of the user, campaigns only a few times a year
+    static final long COUNTS_TIME_TO_LIVE_MS = TimeUnit.MINUTES.toMillis(10);
+    static final long CAMPAIGNS_TIME_TO_LIVE_MS = TimeUnit.HOURS.toMillis(6);
 
     private final OkHttpClient okHttpClient;
     private final HttpUrl wikiMediaToolforgeUrl;
@@ -48,6 +51,7 @@ public class OkHttpJsonApiClient {
     private final String campaignsUrl;
     private final String commonsBaseUrl;
     private Gson gson;
+    private final ResponseCache responseCache;
 
 
     @Inject
@@ -63,6 +67,7 @@ public class OkHttpJsonApiClient {
         this.campaignsUrl = campaignsUrl;
         this.commonsBaseUrl = commonsBaseUrl;
         this.gson = gson;
+        this.responseCache = new ResponseCache(okHttpClient);
     }
 
     @NonNull
@@ -81,21 +86,18 @@ public class OkHttpJsonApiClient {
                 .build();
 
         return Single.fromCallable(() -> {
-            Response response = okHttpClient.newCall(request).execute();
-            if (response != null && response.isSuccessful()) {
-                ResponseBody responseBody = response.body();
-                if (null != responseBody) {
-                    String responseBodyString = responseBody.string().trim();
-                    if (!TextUtils.isEmpty(responseBodyString)) {
-                        try {
-                            return Integer.parseInt(responseBodyString);
-                        } catch (NumberFormatException e) {
-                            Timber.e(e);
-                        }
+            Integer uploadCount = responseCache.get(request, COUNTS_TIME_TO_LIVE_MS, body -> {
+                String responseBodyString = body.trim();
+                if (!TextUtils.isEmpty(responseBodyString)) {
+                    try {
+                        return Integer.parseInt(responseBodyString);
+                    } catch (NumberFormatException e) {
+                        Timber.e(e);
                     }
                 }
-            }
-            return 0;
+                return null;
+            });
+            return uploadCount == null ? 0 : uploadCount;
         });
     }
 
@@ -115,19 +117,11 @@ public class OkHttpJsonApiClient {
                 .build();
 
         return Single.fromCallable(() -> {
-            Response response = okHttpClient.newCall(request).execute();
-            if (response != null &&
-                    response.isSuccessful() && response.body() != null) {
-                String json = response.body().string();
-                if (json == null) {
-                    return 0;
-                }
+            Integer editCount = responseCache.get(request, COUNTS_TIME_TO_LIVE_MS, json -> {
                 GetWikidataEditCountResponse countResponse = gson.fromJson(json, GetWikidataEditCountResponse.class);
-                if (null != countResponse) {
-                    return countResponse.getWikidataEditCount();
-                }
-            }
-            return 0;
+                return countResponse == null ? null : countResponse.getWikidataEditCount();
+            });
+            return editCount == null ? 0 : editCount;
         });
     }
 
@@ -152,22 +146,14 @@ public class OkHttpJsonApiClient {
             Request request = new Request.Builder()
                     .url(urlBuilder.toString())
                     .build();
-            Response response = okHttpClient.newCall(request).execute();
-            if (response != null && response.body() != null && response.isSuccessful()) {
-                String json = response.body().string();
-                if (json == null) {
-                    return null;
-                }
+            return responseCache.get(request, COUNTS_TIME_TO_LIVE_MS, json -> {
                 Timber.d("Response for achievements is %s", json);
                 try {
                     return gson.fromJson(json, FeedbackResponse.class);
                 } catch (Exception e) {
                     return new FeedbackResponse(0, 0, 0, new FeaturedImages(0, 0), 0, "");
                 }
-
-
-            }
-            return null;
+            });
         });
     }
 
@@ -208,19 +194,20 @@ public class OkHttpJsonApiClient {
         });
     }
 
+    /**
+     * Fetches the campaigns, with their dates parsed and sorted by their start date
+     */
     public Single<CampaignResponseDTO> getCampaigns() {
         return Single.fromCallable(() -> {
             Request request = new Request.Builder().url(campaignsUrl)
                     .build();
-            Response response = okHttpClient.newCall(request).execute();
-            if (response != null && response.body() != null && response.isSuccessful()) {
-                String json = response.body().string();
-                if (json == null) {
-                    return null;
+            return responseCache.get(request, CAMPAIGNS_TIME_TO_LIVE_MS, json -> {
+                CampaignResponseDTO campaignResponse = gson.fromJson(json, CampaignResponseDTO.class);
+                if (campaignResponse != null) {
+                    campaignResponse.parseDates();
                 }
-                return gson.fromJson(json, CampaignResponseDTO.class);
-            }
-            return null;
+                return campaignResponse;
+            });
         });
     }
 
@@ -0,0 +1,155 @@
+package fr.free.nrw.commons.mwapi;
+
+import android.annotation.SuppressLint;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.Completable;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import timber.log.Timber;
+
+/**
+ * Keeps the parsed responses of endpoints that are requested on every screen open in memory, so
+ * that they are neither downloaded nor parsed again while they are fresh. Once a response is
+ * older than its time to live, it is revalidated with a conditional request if the server sent
+ * an ETag or a Last-Modified date, which the server answers without a body if it didn't change.
+ * Otherwise the stale response is returned while it is fetched again in the background. Safe to
+ * use from any thread.
+ */
+class ResponseCache {
+
+    /**
+     * Parses the body of a response, and does any preprocessing of the parsed model, once per
+     * download
+     */
+    interface Parser<T> {
+        /**
+         * @return the parsed response, or null if it shouldn't be cached
+         */
+        @Nullable
+        T parse(@NonNull String body);
+    }
+
+    private final OkHttpClient okHttpClient;
+
+    // Request URLs to their latest parsed response
+    private final Map<String, Entry<?>> entries = new HashMap<>();
+    private final Set<String> refreshing = new HashSet<>();
+
+    ResponseCache(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    /**
+     * Returns the parsed response to the request, from memory if it is fresh
+     *
+     * @param timeToLiveMs how long a response is used without asking the server
+     * @return the parsed response, a stale response if the server can't be reached, or null if
+     * the request failed and there is no response to fall back to
+     */
+    @Nullable
+    <T> T get(Request request, long timeToLiveMs, Parser<T> parser) throws IOException {
+        String key = request.url().toString();
+        Entry<T> entry = getEntry(key);
+        if (entry != null) {
+            if (System.currentTimeMillis() - entry.fetchedAt < timeToLiveMs) {
+                return entry.value;
+            }
+            if (entry.etag == null && entry.lastModified == null) {
+                refreshInBackground(key, request, parser);
+                return entry.value;
+            }
+        }
+        return fetch(key, request, entry, parser);
+    }
+
+    @Nullable
+    private <T> T fetch(String key, Request request, @Nullable Entry<T> entry, Parser<T> parser)
+            throws IOException {
+        Request.Builder builder = request.newBuilder();
+        if (entry != null && entry.etag != null) {
+            builder.header("If-None-Match", entry.etag);
+        }
+        if (entry != null && entry.lastModified != null) {
+            builder.header("If-Modified-Since", entry.lastModified);
+        }
+        long fetchedAt = System.currentTimeMillis();
+        try (Response response = okHttpClient.newCall(builder.build()).execute()) {
+            if (entry != null && response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                putEntry(key, new Entry<>(entry.value, entry.etag, entry.lastModified, fetchedAt));
+                return entry.value;
+            }
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return entry == null ? null : entry.value;
+            }
+            T value = parser.parse(body.string());
+            if (value != null) {
+                putEntry(key, new Entry<>(value, response.header("ETag"),
+                        response.header("Last-Modified"), fetchedAt));
+            }
+            return value;
+        } catch (IOException e) {
+            if (entry == null) {
+                throw e;
+            }
+            Timber.e(e, "Error revalidating %s, using the stale response", key);
+            return entry.value;
+        }
+    }
+
+    @SuppressLint("CheckResult")
+    private <T> void refreshInBackground(String key, Request request, Parser<T> parser) {
+        synchronized (this) {
+            if (!refreshing.add(key)) {
+                return;
+            }
+        }
+        Completable.fromAction(() -> fetch(key, request, null, parser))
+                .subscribeOn(Schedulers.io())
+                .doFinally(() -> {
+                    synchronized (this) {
+                        refreshing.remove(key);
+                    }
+                })
+                .subscribe(() -> {}, throwable -> Timber.e(throwable, "Error refreshing %s", key));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private synchronized <T> Entry<T> getEntry(String key) {
+        return (Entry<T>) entries.get(key);
+    }
+
+    private synchronized void putEntry(String key, Entry<?> entry) {
+        entries.put(key, entry);
+    }
+
+    private static class Entry<T> {
+        final T value;
+        @Nullable
+        final String etag;
+        @Nullable
+        final String lastModified;
+        final long fetchedAt;
+
+        Entry(T value, @Nullable String etag, @Nullable String lastModified, long fetchedAt) {
+            this.value = value;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
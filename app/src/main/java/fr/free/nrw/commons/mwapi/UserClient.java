@@ -1,13 +1,15 @@
 package fr.free.nrw.commons.mwapi;
 
-import org.wikipedia.dataclient.mwapi.MwQueryLogEvent;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.dataclient.mwapi.MwQueryResult;
 import org.wikipedia.dataclient.mwapi.UserInfo;
 import org.wikipedia.util.DateUtil;
 
-import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 
 import javax.inject.Inject;
 
@@ -45,15 +47,16 @@ public class UserClient {
                 }).single(false);
     }
 
-    public Observable<MwQueryLogEvent> logEvents(String user) {
-        try {
-            return userInterface.getUserLogEvents(user, Collections.emptyMap())
-                    .map(MwQueryResponse::query)
-                    .map(MwQueryResult::logevents)
-                    .flatMap(Observable::fromIterable);
-        } catch (Throwable throwable) {
-            return Observable.empty();
-        }
-
+    /**
+     * Fetches one page of upload log events of a user, newest first
+     *
+     * @param user         name of the user without prefix
+     * @param end          ISO 8601 timestamp of the oldest event to fetch, or null to fetch all
+     * @param continuation continuation returned with the previous page, empty for the first page
+     * @return the query response holding the page and the continuation for the next page
+     */
+    public Observable<MwQueryResponse> logEvents(String user, @Nullable String end,
+                                                 @NonNull Map<String, String> continuation) {
+        return userInterface.getUserLogEvents(user, end, continuation);
     }
 }
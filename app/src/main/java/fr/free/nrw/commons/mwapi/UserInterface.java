@@ -14,14 +14,17 @@ import static org.wikipedia.dataclient.Service.MW_API_PREFIX;
 public interface UserInterface {
 
     /**
-     * Gets the log events of user
+     * Gets the log events of user, newest first
      * @param user name of user without prefix
+     * @param end timestamp of the oldest event to return, or null to return all events
      * @param continuation continuation params returned in previous query
      * @return query response
      */
 
     @GET(MW_API_PREFIX+"action=query&list=logevents&letype=upload&leprop=title|timestamp|ids&lelimit=500")
-    Observable<MwQueryResponse> getUserLogEvents(@Query("leuser") String user, @QueryMap Map<String, String> continuation);
+    Observable<MwQueryResponse> getUserLogEvents(@Query("leuser") String user,
+                                                 @Query("leend") String end,
+                                                 @QueryMap Map<String, String> continuation);
 
     /**
      * Checks to see if a user is currently blocked from Commons
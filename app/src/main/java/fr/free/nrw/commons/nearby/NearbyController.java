@@ -13,13 +13,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 
 import fr.free.nrw.commons.R;
+import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsIndex;
 import fr.free.nrw.commons.location.LatLng;
 import fr.free.nrw.commons.utils.UiUtils;
 import timber.log.Timber;
@@ -173,6 +176,7 @@ public class NearbyController {
         } catch (Resources.NotFoundException e) {
             // ignore when running tests.
         }
+        Set<String> bookmarkedKeys = new HashSet<>();
         if (vectorDrawable != null) {
             Bitmap icon = UiUtils.getBitmap(vectorDrawable);
 
@@ -190,7 +194,7 @@ public class NearbyController {
                 nearbyBaseMarker.place(place);
                 nearbyBaseMarker.icon(IconFactory.getInstance(context)
                         .fromBitmap(icon));
-                placeList.remove(place);
+                bookmarkedKeys.add(BookmarkLocationsIndex.keyOf(place));
 
                 baseMarkerOptions.add(nearbyBaseMarker);
             }
@@ -213,6 +217,10 @@ public class NearbyController {
             Bitmap iconGrey = UiUtils.getBitmap(vectorDrawableGrey);
 
             for (Place place : placeList) {
+                if (bookmarkedKeys.contains(BookmarkLocationsIndex.keyOf(place))) {
+                    // Already shown with the bookmark marker
+                    continue;
+                }
                 String distance = formatDistanceBetween(curLatLng, place.location);
                 place.setDistance(distance);
 
@@ -68,7 +68,7 @@ import fr.free.nrw.commons.CommonsApplication;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.Utils;
 import fr.free.nrw.commons.auth.LoginActivity;
-import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsDao;
+import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsIndex;
 import fr.free.nrw.commons.contributions.ContributionController;
 import fr.free.nrw.commons.contributions.MainActivity;
 import fr.free.nrw.commons.di.CommonsDaggerSupportFragment;
@@ -152,7 +152,7 @@ public class NearbyParentFragment extends CommonsDaggerSupportFragment
     @Inject LocationServiceManager locationManager;
     @Inject NearbyController nearbyController;
     @Inject @Named("default_preferences") JsonKvStore applicationKvStore;
-    @Inject BookmarkLocationsDao bookmarkLocationDao;
+    @Inject BookmarkLocationsIndex bookmarkLocationsIndex;
     @Inject ContributionController controller;
     @Inject WikidataEditListener wikidataEditListener;
 
@@ -201,7 +201,7 @@ public class NearbyParentFragment extends CommonsDaggerSupportFragment
         view = inflater.inflate(R.layout.fragment_nearby_parent, container, false);
         ButterKnife.bind(this, view);
         initNetworkBroadCastReceiver();
-        presenter=new NearbyParentFragmentPresenter(bookmarkLocationDao);
+        presenter=new NearbyParentFragmentPresenter(bookmarkLocationsIndex);
         // Inflate the layout for this fragment
         return view;
 
@@ -1329,7 +1329,7 @@ public class NearbyParentFragment extends CommonsDaggerSupportFragment
         updateBookmarkButtonImage(this.selectedPlace);
 
         bookmarkButton.setOnClickListener(view -> {
-            boolean isBookmarked = bookmarkLocationDao.updateBookmarkLocation(this.selectedPlace);
+            boolean isBookmarked = bookmarkLocationsIndex.toggle(this.selectedPlace);
             updateBookmarkButtonImage(this.selectedPlace);
             updateMarker(isBookmarked, this.selectedPlace, locationManager.getLastLocation());
         });
@@ -1375,7 +1375,7 @@ public class NearbyParentFragment extends CommonsDaggerSupportFragment
 
     private void updateBookmarkButtonImage(Place place) {
         int bookmarkIcon;
-        if (bookmarkLocationDao.findBookmarkLocation(place)) {
+        if (bookmarkLocationsIndex.contains(place)) {
             bookmarkIcon = R.drawable.ic_round_star_filled_24px;
         } else {
             bookmarkIcon = R.drawable.ic_round_star_border_24px;
@@ -10,7 +10,7 @@ import java.util.List;
 
 import javax.inject.Inject;
 
-import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsDao;
+import fr.free.nrw.commons.bookmarks.locations.BookmarkLocationsIndex;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.location.LatLng;
 import fr.free.nrw.commons.location.LocationServiceManager;
@@ -46,7 +46,7 @@ public class NearbyParentFragmentPresenter
 
     private boolean placesLoadedOnce;
 
-    BookmarkLocationsDao bookmarkLocationDao;
+    BookmarkLocationsIndex bookmarkLocationsIndex;
 
     private static final NearbyParentFragmentContract.View DUMMY = (NearbyParentFragmentContract.View) Proxy.newProxyInstance(
             NearbyParentFragmentContract.View.class.getClassLoader(),
@@ -71,8 +71,8 @@ public class NearbyParentFragmentPresenter
     private NearbyParentFragmentContract.View nearbyParentFragmentView = DUMMY;
 
 
-    public NearbyParentFragmentPresenter(BookmarkLocationsDao bookmarkLocationDao){
-        this.bookmarkLocationDao=bookmarkLocationDao;
+    public NearbyParentFragmentPresenter(BookmarkLocationsIndex bookmarkLocationsIndex){
+        this.bookmarkLocationsIndex=bookmarkLocationsIndex;
     }
 
     @Override
@@ -211,7 +211,7 @@ public class NearbyParentFragmentPresenter
                     .loadAttractionsFromLocationToBaseMarkerOptions(nearbyPlacesInfo.curLatLng, // Curlatlang will be used to calculate distances
                             nearbyPlacesInfo.placeList,
                             nearbyParentFragmentView.getContext(),
-                            bookmarkLocationDao.getAllBookmarksLocations());
+                            bookmarkLocationsIndex.getAll());
             nearbyParentFragmentView.updateMapMarkers(nearbyBaseMarkers, selectedMarker);
             nearbyParentFragmentView.addCurrentLocationMarker(nearbyPlacesInfo.curLatLng);
             if(shouldTrackPosition){
@@ -307,7 +307,7 @@ public class NearbyParentFragmentPresenter
         for (int i = 0; i < nearbyBaseMarkers.size(); i++) {
             NearbyBaseMarker nearbyBaseMarker = nearbyBaseMarkers.get(i);
             NearbyController.markerLabelList.add(
-                    new MarkerPlaceGroup(nearbyBaseMarkers.get(i).getMarker(), bookmarkLocationDao.findBookmarkLocation(nearbyBaseMarkers.get(i).getPlace()), nearbyBaseMarker.getPlace()));
+                    new MarkerPlaceGroup(nearbyBaseMarkers.get(i).getMarker(), bookmarkLocationsIndex.contains(nearbyBaseMarkers.get(i).getPlace()), nearbyBaseMarker.getPlace()));
             //TODO: fix bookmark location
             NearbyController.markerExistsMap.put((nearbyBaseMarkers.get(i).getPlace().hasWikidataLink()), nearbyBaseMarkers.get(i).getMarker());
             NearbyController.markerNeedPicMap.put(((nearbyBaseMarkers.get(i).getPlace().pic == null) ? true : false), nearbyBaseMarkers.get(i).getMarker());
@@ -0,0 +1,103 @@
+package fr.free.nrw.commons.network;
+
+import java.util.Arrays;
+
+/**
+ * Counts values in buckets with fixed upper bounds, so that many values can be summarized in
+ * constant memory. Not thread safe; {@link NetworkMetrics} synchronizes access and hands out
+ * copies.
+ */
+public class Histogram {
+
+    // Upper bounds in milliseconds of the buckets of durations
+    static final long[] DURATION_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    // Upper bounds in bytes of the buckets of sizes
+    static final long[] SIZE_BOUNDS_BYTES = {1 << 10, 4 << 10, 16 << 10, 64 << 10, 256 << 10,
+            1 << 20, 4 << 20, 16 << 20};
+
+    private final long[] bounds;
+    // The last bucket counts the values above the last bound
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long max;
+
+    Histogram(long[] bounds) {
+        this.bounds = bounds;
+        this.counts = new long[bounds.length + 1];
+    }
+
+    private Histogram(Histogram histogram) {
+        this.bounds = histogram.bounds;
+        this.counts = Arrays.copyOf(histogram.counts, histogram.counts.length);
+        this.count = histogram.count;
+        this.sum = histogram.sum;
+        this.max = histogram.max;
+    }
+
+    void add(long value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        counts[bucket]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    Histogram copy() {
+        return new Histogram(this);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Estimates a percentile by the upper bound of the bucket it falls in
+     *
+     * @param percentile between 0 and 100
+     * @return the estimate, at most the largest value counted
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < bounds.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(bounds[bucket], max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the upper bounds of the buckets, the last bucket has none
+     */
+    public long[] getBounds() {
+        return Arrays.copyOf(bounds, bounds.length);
+    }
+
+    /**
+     * @return the number of values in each bucket, one more than there are bounds
+     */
+    public long[] getCounts() {
+        return Arrays.copyOf(counts, counts.length);
+    }
+}
@@ -0,0 +1,168 @@
+package fr.free.nrw.commons.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import fr.free.nrw.commons.network.NetworkMetrics.CacheStatus;
+import fr.free.nrw.commons.network.NetworkMetrics.Timing;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import timber.log.Timber;
+
+/**
+ * Measures a single call, and hands the measurements to {@link NetworkMetrics} when it ends.
+ * Phases that happen more than once, e.g. when a call follows a redirect, are added up, except
+ * TTFB which is taken from the last response. Each call logs one line, without its URL query or
+ * any body.
+ */
+class NetworkEventListener extends EventListener {
+
+    private final NetworkMetrics metrics;
+    private final String label;
+    private final String method;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestStart;
+    // Durations in nanoseconds, -1 for phases that didn't happen
+    private long dnsNanos = -1;
+    private long connectNanos = -1;
+    private long tlsNanos = -1;
+    private long ttfbNanos = -1;
+    private long bytesSent;
+    private long bytesReceived;
+    // Code of the last response that came from the network, -1 if none did
+    private int networkResponseCode = -1;
+
+    NetworkEventListener(NetworkMetrics metrics, String label, String method) {
+        this.metrics = metrics;
+        this.label = label;
+        this.method = method;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName,
+                       @NonNull List<InetAddress> inetAddressList) {
+        dnsNanos = add(dnsNanos, System.nanoTime() - dnsStart);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                             @NonNull Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        tlsNanos = add(tlsNanos, System.nanoTime() - secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                           @NonNull Proxy proxy, @Nullable Protocol protocol) {
+        connectNanos = add(connectNanos, System.nanoTime() - connectStart);
+    }
+
+    @Override
+    public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                              @NonNull Proxy proxy, @Nullable Protocol protocol,
+                              @NonNull IOException ioe) {
+        connectNanos = add(connectNanos, System.nanoTime() - connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        bytesSent += byteCount;
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        ttfbNanos = System.nanoTime() - requestStart;
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+        networkResponseCode = response.code();
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        bytesReceived += byteCount;
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        long totalMs = toMillis(System.nanoTime() - callStart);
+        CacheStatus cacheStatus = networkResponseCode == -1 ? CacheStatus.HIT
+                : networkResponseCode == HttpURLConnection.HTTP_NOT_MODIFIED ? CacheStatus.REVALIDATED
+                : CacheStatus.MISS;
+
+        Map<Timing, Long> timings = new EnumMap<>(Timing.class);
+        putIfMeasured(timings, Timing.DNS, dnsNanos);
+        putIfMeasured(timings, Timing.CONNECT, connectNanos);
+        putIfMeasured(timings, Timing.TLS, tlsNanos);
+        putIfMeasured(timings, Timing.TTFB, ttfbNanos);
+        timings.put(Timing.TOTAL, totalMs);
+        metrics.recordSuccess(label, timings, bytesSent, bytesReceived, cacheStatus);
+
+        Timber.tag("OkHttp").v("%s %s: %d ms, %d B sent, %d B received, cache %s",
+                method, label, totalMs, bytesSent, bytesReceived, cacheStatus);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        long totalMs = toMillis(System.nanoTime() - callStart);
+        metrics.recordFailure(label, totalMs, bytesSent);
+
+        Timber.tag("OkHttp").v("%s %s: failed after %d ms, %s", method, label, totalMs, ioe);
+    }
+
+    private static void putIfMeasured(Map<Timing, Long> timings, Timing timing, long nanos) {
+        if (nanos >= 0) {
+            timings.put(timing, toMillis(nanos));
+        }
+    }
+
+    private static long add(long total, long nanos) {
+        return total < 0 ? nanos : total + nanos;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,206 @@
+package fr.free.nrw.commons.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+
+/**
+ * Aggregates the timings, sizes and cache usage of the calls made by the shared OkHttpClient into
+ * histograms per endpoint, for diagnostics. It is the client's event listener factory, so it only
+ * sees the events of a call and never reads request or response bodies. Safe to use from any
+ * thread.
+ */
+@Singleton
+public class NetworkMetrics implements EventListener.Factory {
+
+    /**
+     * Label of the statistics of all calls
+     */
+    public static final String ALL_ENDPOINTS = "*";
+    /**
+     * Label of the statistics of the endpoints beyond {@link #MAX_ENDPOINTS}
+     */
+    public static final String OTHER_ENDPOINTS = "other";
+    static final int MAX_ENDPOINTS = 100;
+
+    /**
+     * The phases of a call. DNS, connect and TLS are only measured for calls that open a new
+     * connection, and connect includes TLS. TTFB is measured from sending the request headers to
+     * receiving the response headers.
+     */
+    public enum Timing {
+        DNS, CONNECT, TLS, TTFB, TOTAL
+    }
+
+    /**
+     * Whether a call was answered from the HTTP cache, by the server confirming that the cached
+     * response is still valid, or by the server
+     */
+    public enum CacheStatus {
+        HIT, REVALIDATED, MISS
+    }
+
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+
+    @Inject
+    public NetworkMetrics() {
+    }
+
+    @NonNull
+    @Override
+    public EventListener create(@NonNull Call call) {
+        return new NetworkEventListener(this, labelOf(call.request().url()),
+                call.request().method());
+    }
+
+    /**
+     * @return copies of the statistics of each endpoint, and of all calls under
+     * {@link #ALL_ENDPOINTS}, in the order the endpoints were first called
+     */
+    @NonNull
+    public synchronized Map<String, EndpointStats> getEndpointStats() {
+        Map<String, EndpointStats> copies = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            copies.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Forgets all statistics
+     */
+    public synchronized void reset() {
+        endpoints.clear();
+    }
+
+    synchronized void recordSuccess(String label, Map<Timing, Long> timingsMs,
+                                    long bytesSent, long bytesReceived, CacheStatus cacheStatus) {
+        for (EndpointStats stats : statsOf(label)) {
+            for (Map.Entry<Timing, Long> timing : timingsMs.entrySet()) {
+                stats.timings.get(timing.getKey()).add(timing.getValue());
+            }
+            stats.responseSizes.add(bytesReceived);
+            stats.bytesSent += bytesSent;
+            stats.bytesReceived += bytesReceived;
+            stats.cacheCounts.put(cacheStatus, stats.cacheCounts.get(cacheStatus) + 1);
+        }
+    }
+
+    synchronized void recordFailure(String label, long totalMs, long bytesSent) {
+        for (EndpointStats stats : statsOf(label)) {
+            stats.timings.get(Timing.TOTAL).add(totalMs);
+            stats.bytesSent += bytesSent;
+            stats.failures++;
+        }
+    }
+
+    private EndpointStats[] statsOf(String label) {
+        if (!endpoints.containsKey(ALL_ENDPOINTS)) {
+            endpoints.put(ALL_ENDPOINTS, new EndpointStats());
+        }
+        if (!endpoints.containsKey(label)) {
+            // The all and other entries don't count as endpoints
+            if (endpoints.size() >= MAX_ENDPOINTS + 1) {
+                label = OTHER_ENDPOINTS;
+            }
+            if (!endpoints.containsKey(label)) {
+                endpoints.put(label, new EndpointStats());
+            }
+        }
+        return new EndpointStats[]{endpoints.get(ALL_ENDPOINTS), endpoints.get(label)};
+    }
+
+    /**
+     * Labels calls by host, the first two path segments, and the API action, which identifies the
+     * endpoint without titles, user names or tokens
+     */
+    @NonNull
+    static String labelOf(HttpUrl url) {
+        StringBuilder label = new StringBuilder(url.host());
+        List<String> segments = url.pathSegments();
+        for (int i = 0; i < Math.min(2, segments.size()); i++) {
+            label.append('/').append(segments.get(i));
+        }
+        String action = url.queryParameter("action");
+        if (action != null) {
+            label.append("?action=").append(action);
+        }
+        return label.toString();
+    }
+
+    /**
+     * Statistics of the calls to an endpoint
+     */
+    public static class EndpointStats {
+        private final Map<Timing, Histogram> timings = new EnumMap<>(Timing.class);
+        private final Map<CacheStatus, Long> cacheCounts = new EnumMap<>(CacheStatus.class);
+        private Histogram responseSizes = new Histogram(Histogram.SIZE_BOUNDS_BYTES);
+        private long bytesSent;
+        private long bytesReceived;
+        private long failures;
+
+        EndpointStats() {
+            for (Timing timing : Timing.values()) {
+                timings.put(timing, new Histogram(Histogram.DURATION_BOUNDS_MS));
+            }
+            for (CacheStatus cacheStatus : CacheStatus.values()) {
+                cacheCounts.put(cacheStatus, 0L);
+            }
+        }
+
+        private EndpointStats copy() {
+            EndpointStats copy = new EndpointStats();
+            for (Map.Entry<Timing, Histogram> timing : timings.entrySet()) {
+                copy.timings.put(timing.getKey(), timing.getValue().copy());
+            }
+            copy.cacheCounts.putAll(cacheCounts);
+            copy.responseSizes = responseSizes.copy();
+            copy.bytesSent = bytesSent;
+            copy.bytesReceived = bytesReceived;
+            copy.failures = failures;
+            return copy;
+        }
+
+        /**
+         * @return the durations of a phase of the calls, in milliseconds
+         */
+        @NonNull
+        public Histogram getTiming(Timing timing) {
+            return timings.get(timing);
+        }
+
+        /**
+         * @return the sizes of the response bodies as received, in bytes
+         */
+        @NonNull
+        public Histogram getResponseSizes() {
+            return responseSizes;
+        }
+
+        public long getCacheCount(CacheStatus cacheStatus) {
+            return cacheCounts.get(cacheStatus);
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+    }
+}
@@ -10,7 +10,8 @@ data class Notification(var notificationType: NotificationType,
                    var date: String,
                    var link: String,
                    var iconUrl: String,
-                   var notificationId: String) {
+                   var notificationId: String,
+                   var timestamp: Long = 0) {
     override fun toString(): String {
         return "Notification" +
                 "notificationType='" + notificationType + '\'' +
@@ -19,6 +20,7 @@ data class Notification(var notificationType: NotificationType,
                 ", link='" + link + '\'' +
                 ", iconUrl='" + iconUrl + '\'' +
                 ", notificationId='" + notificationId + '\'' +
+                ", timestamp=" + timestamp +
                 '}'
     }
 
@@ -31,7 +33,8 @@ data class Notification(var notificationType: NotificationType,
                     contents?.compactHeader ?: "",
                     DateUtil.getMonthOnlyDateString(wikiNotification.timestamp),
                     notificationLink,
-                    "", wikiNotification.id().toString())
+                    "", wikiNotification.id().toString(),
+                    wikiNotification.timestamp.time)
         }
     }
 
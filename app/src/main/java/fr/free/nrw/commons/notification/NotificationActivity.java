@@ -129,24 +129,27 @@ public class NotificationActivity extends NavigationBaseActivity {
     }
 
     private void refresh(boolean archived) {
-        if (!NetworkUtils.isInternetConnectionEstablished(this)) {
-            progressBar.setVisibility(View.GONE);
+        boolean online = NetworkUtils.isInternetConnectionEstablished(this);
+        if (!online) {
             Snackbar.make(relativeLayout, R.string.no_internet, Snackbar.LENGTH_INDEFINITE)
                     .setAction(R.string.retry, view -> refresh(archived)).show();
-        } else {
-            addNotifications(archived);
         }
         progressBar.setVisibility(View.VISIBLE);
         no_notification.setVisibility(View.GONE);
         relativeLayout.setVisibility(View.VISIBLE);
+        addNotifications(archived, online);
     }
 
+    /**
+     * Shows the stored notifications, then the ones updated from the API when online
+     */
     @SuppressLint("CheckResult")
-    private void addNotifications(boolean archived) {
+    private void addNotifications(boolean archived, boolean online) {
         Timber.d("Add notifications");
         if (mNotificationWorkerFragment == null) {
             progressBar.setVisibility(View.VISIBLE);
-            compositeDisposable.add(controller.getNotifications(archived)
+            compositeDisposable.add((online ? controller.getNotifications(archived)
+                    : controller.getStoredNotifications(archived).toObservable())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .subscribe(notificationList -> {
@@ -160,12 +163,11 @@ public class NotificationActivity extends NavigationBaseActivity {
                         } else {
                             setAdapter(notificationList);
                         }
-                        progressBar.setVisibility(View.GONE);
                     }, throwable -> {
                         Timber.e(throwable, "Error occurred while loading notifications");
                         ViewUtil.showShortSnackbar(relativeLayout, R.string.error_notifications);
                         progressBar.setVisibility(View.GONE);
-                    }));
+                    }, () -> progressBar.setVisibility(View.GONE)));
         } else {
             notificationList = mNotificationWorkerFragment.getNotificationList();
             setAdapter(notificationList);
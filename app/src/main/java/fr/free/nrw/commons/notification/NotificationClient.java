@@ -1,14 +1,20 @@
 package fr.free.nrw.commons.notification;
 
-import org.wikipedia.csrf.CsrfTokenClient;
+import androidx.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
 import org.wikipedia.dataclient.Service;
+import org.wikipedia.dataclient.mwapi.MwQueryResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 
@@ -17,29 +23,69 @@ import static fr.free.nrw.commons.di.NetworkingModule.NAMED_COMMONS_CSRF;
 @Singleton
 public class NotificationClient {
 
+    // The API marks at most 50 notifications as read per request
+    static final int MAX_IDS_PER_REQUEST = 50;
+    private static final String WIKIS = "wikidatawiki|commonswiki|enwiki";
+
     private final Service service;
-    private final CsrfTokenClient csrfTokenClient;
+    private final CsrfTokenCache csrfTokenCache;
 
     @Inject
-    public NotificationClient(@Named("commons-service") Service service, @Named(NAMED_COMMONS_CSRF) CsrfTokenClient csrfTokenClient) {
+    public NotificationClient(@Named("commons-service") Service service, @Named(NAMED_COMMONS_CSRF) CsrfTokenCache csrfTokenCache) {
         this.service = service;
-        this.csrfTokenClient = csrfTokenClient;
+        this.csrfTokenCache = csrfTokenCache;
     }
 
     public Single<List<Notification>> getNotifications(boolean archived) {
-        return service.getAllNotifications("wikidatawiki|commonswiki|enwiki", archived ? "read" : "!read", null)
-                .map(mwQueryResponse -> mwQueryResponse.query().notifications().list())
-                .flatMap(Observable::fromIterable)
-                .map(notification -> Notification.from(notification))
+        return getNotificationsNewerThan(archived, 0);
+    }
+
+    /**
+     * Fetches the notifications that are newer than the given time, newest first. Further pages
+     * are only fetched while a whole page was new, so that notifications which were fetched
+     * before are not transferred again.
+     *
+     * @param newerThan time of the newest notification fetched before, or 0 to fetch the first
+     *                  page of notifications
+     */
+    public Single<List<Notification>> getNotificationsNewerThan(boolean archived, long newerThan) {
+        return getNotificationPages(archived ? "read" : "!read", null, newerThan)
+                .map(Notification::from)
                 .toList();
     }
 
+    private Observable<org.wikipedia.notifications.Notification> getNotificationPages(
+            String filter, @Nullable String continueStr, long newerThan) {
+        return service.getAllNotifications(WIKIS, filter, continueStr)
+                .concatMap(mwQueryResponse -> {
+                    MwQueryResult.NotificationList page = mwQueryResponse.query().notifications();
+                    List<org.wikipedia.notifications.Notification> newer = new ArrayList<>();
+                    for (org.wikipedia.notifications.Notification notification : page.list()) {
+                        if (notification.getTimestamp().getTime() > newerThan) {
+                            newer.add(notification);
+                        }
+                    }
+                    Observable<org.wikipedia.notifications.Notification> notifications =
+                            Observable.fromIterable(newer);
+                    if (newerThan == 0 || newer.size() < page.list().size()
+                            || page.getContinue() == null) {
+                        return notifications;
+                    }
+                    return notifications.concatWith(
+                            getNotificationPages(filter, page.getContinue(), newerThan));
+                });
+    }
+
     public Observable<Boolean> markNotificationAsRead(String notificationId) {
-        try {
-            return service.markRead(csrfTokenClient.getTokenBlocking(), notificationId, "")
-                    .map(mwQueryResponse -> mwQueryResponse.success());
-        } catch (Throwable throwable) {
-            return Observable.just(false);
-        }
+        return markNotificationsAsRead(Collections.singletonList(notificationId));
+    }
+
+    /**
+     * Marks up to {@link #MAX_IDS_PER_REQUEST} notifications as read with a single request
+     */
+    public Observable<Boolean> markNotificationsAsRead(List<String> notificationIds) {
+        String ids = StringUtils.join(notificationIds, "|");
+        return csrfTokenCache.withToken(token -> service.markRead(token, ids, "")
+                .map(mwQueryResponse -> mwQueryResponse.success()), false);
     }
 }
@@ -1,12 +1,20 @@
 package fr.free.nrw.commons.notification;
 
+import android.annotation.SuppressLint;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
 
 /**
  * Created by root on 19.12.2017.
@@ -14,19 +22,109 @@ import io.reactivex.Single;
 @Singleton
 public class NotificationController {
 
+    // Notifications read or deleted on the web only disappear when all notifications are fetched
+    static final long FULL_SYNC_AFTER_MS = TimeUnit.DAYS.toMillis(1);
+    // Notifications marked as read within this time are sent to the API together
+    static final long MARK_READ_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+
     private NotificationClient notificationClient;
+    private NotificationStore notificationStore;
 
+    private Disposable scheduledMarkRead;
 
     @Inject
-    public NotificationController(NotificationClient notificationClient) {
+    public NotificationController(NotificationClient notificationClient,
+                                  NotificationStore notificationStore) {
         this.notificationClient = notificationClient;
+        this.notificationStore = notificationStore;
+    }
+
+    /**
+     * Loads the stored notifications, then fetches the notifications that are newer than the
+     * stored ones and loads them again. All notifications are fetched again once a day.
+     * @return the stored notifications if there are any, then the updated notifications
+     */
+    public Observable<List<Notification>> getNotifications(boolean archived) {
+        return getStoredNotifications(archived)
+                .filter(notifications -> !notifications.isEmpty())
+                .toObservable()
+                .concatWith(fetchNotifications(archived).toObservable());
+    }
+
+    /**
+     * @return the notifications fetched before, newest first
+     */
+    public Single<List<Notification>> getStoredNotifications(boolean archived) {
+        return Single.fromCallable(() -> notificationStore.getNotifications(archived));
     }
 
-    public Single<List<Notification>> getNotifications(boolean archived) {
-        return notificationClient.getNotifications(archived);
+    private Single<List<Notification>> fetchNotifications(boolean archived) {
+        // Notifications marked as read must not come back with the unread ones
+        return markPendingAsRead()
+                .doOnError(throwable -> Timber.e(throwable, "Error marking notifications as read"))
+                // They are sent again with the next sync, and the store keeps them out meanwhile
+                .onErrorComplete()
+                .andThen(Single.defer(() -> {
+                    long now = System.currentTimeMillis();
+                    if (now - notificationStore.getSyncedAt(archived) > FULL_SYNC_AFTER_MS) {
+                        return notificationClient.getNotifications(archived)
+                                .doOnSuccess(notifications -> notificationStore
+                                        .replaceNotifications(archived, notifications, now));
+                    }
+                    return notificationClient.getNotificationsNewerThan(archived,
+                            notificationStore.getNewestTimestamp(archived))
+                            .doOnSuccess(notifications -> notificationStore
+                                    .addNotifications(archived, notifications));
+                }))
+                .map(notifications -> notificationStore.getNotifications(archived));
     }
 
+    /**
+     * Marks the notification as read locally. The API is told a few seconds later, together with
+     * the other notifications marked as read meanwhile.
+     * @return true, as the notification is marked as read even if the API can't be reached
+     */
     Observable<Boolean> markAsRead(Notification notification) {
-        return notificationClient.markNotificationAsRead(notification.getNotificationId());
+        return Observable.fromCallable(() -> {
+            notificationStore.markAsRead(notification);
+            scheduleMarkRead();
+            return true;
+        });
+    }
+
+    @SuppressLint("CheckResult")
+    private synchronized void scheduleMarkRead() {
+        if (scheduledMarkRead != null && !scheduledMarkRead.isDisposed()) {
+            return;
+        }
+        scheduledMarkRead = Completable.timer(MARK_READ_DELAY_MS, TimeUnit.MILLISECONDS, Schedulers.io())
+                .andThen(markPendingAsRead())
+                .subscribe(() -> {}, throwable ->
+                        Timber.e(throwable, "Error marking notifications as read"));
+    }
+
+    /**
+     * Sends the notifications marked as read to the API, in batches. Notifications that couldn't
+     * be marked are sent again the next time.
+     */
+    Completable markPendingAsRead() {
+        return Completable.defer(() -> {
+            List<String> ids = notificationStore.getPendingReads();
+            List<List<String>> batches = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += NotificationClient.MAX_IDS_PER_REQUEST) {
+                batches.add(ids.subList(i,
+                        Math.min(ids.size(), i + NotificationClient.MAX_IDS_PER_REQUEST)));
+            }
+            return Observable.fromIterable(batches)
+                    .concatMapCompletable(batch -> notificationClient.markNotificationsAsRead(batch)
+                            .doOnNext(success -> {
+                                if (success) {
+                                    notificationStore.removePendingReads(batch);
+                                } else {
+                                    Timber.e("Couldn't mark %d notifications as read", batch.size());
+                                }
+                            })
+                            .ignoreElements());
+        });
     }
 }
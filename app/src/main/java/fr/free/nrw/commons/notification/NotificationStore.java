@@ -0,0 +1,174 @@
+package fr.free.nrw.commons.notification;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.kvstore.JsonKvStore;
+
+/**
+ * Keeps the notifications of the user, so that the notifications screen opens with what was
+ * fetched before and only newer notifications need to be fetched. Notifications marked as read
+ * move to the read list at once, and their ids are kept until the API was told about them. Safe
+ * to use from any thread.
+ */
+@Singleton
+public class NotificationStore {
+
+    static final int MAX_STORED = 200;
+
+    private static final String KEY_NOTIFICATIONS = "notifications_";
+    private static final String KEY_NEWEST_TIMESTAMP = "newest_timestamp_";
+    private static final String KEY_SYNCED_AT = "synced_at_";
+    private static final String KEY_PENDING_READS = "pending_reads";
+
+    private final JsonKvStore store;
+
+    @Inject
+    public NotificationStore(@Named("notification_store") JsonKvStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @return the stored notifications, newest first
+     */
+    @NonNull
+    public synchronized List<Notification> getNotifications(boolean archived) {
+        List<Notification> notifications = store.getJson(KEY_NOTIFICATIONS + filterOf(archived),
+                new TypeToken<ArrayList<Notification>>() {}.getType());
+        return notifications == null ? new ArrayList<>() : notifications;
+    }
+
+    /**
+     * @return the time of the newest notification that was fetched, 0 if none was
+     */
+    public synchronized long getNewestTimestamp(boolean archived) {
+        return store.getLong(KEY_NEWEST_TIMESTAMP + filterOf(archived), 0);
+    }
+
+    /**
+     * @return when all notifications were last fetched, 0 if they never were
+     */
+    public synchronized long getSyncedAt(boolean archived) {
+        return store.getLong(KEY_SYNCED_AT + filterOf(archived), 0);
+    }
+
+    /**
+     * Replaces the stored notifications with all notifications fetched from the API
+     *
+     * @param notifications the fetched notifications, newest first
+     * @param syncedAt when they were fetched
+     */
+    public synchronized void replaceNotifications(boolean archived,
+                                                  List<Notification> notifications,
+                                                  long syncedAt) {
+        save(archived, merge(notifications, new ArrayList<>(), archived));
+        store.putLong(KEY_SYNCED_AT + filterOf(archived), syncedAt);
+    }
+
+    /**
+     * Adds notifications that are newer than the stored ones
+     *
+     * @param notifications the fetched notifications, newest first
+     */
+    public synchronized void addNotifications(boolean archived, List<Notification> notifications) {
+        save(archived, merge(notifications, getNotifications(archived), archived));
+    }
+
+    /**
+     * Moves a notification to the read notifications, and remembers to mark it as read
+     */
+    public synchronized void markAsRead(Notification notification) {
+        List<Notification> unread = getNotifications(false);
+        unread.remove(notification);
+        store.putJson(KEY_NOTIFICATIONS + filterOf(false), unread);
+
+        List<Notification> read = new ArrayList<>();
+        read.add(notification);
+        store.putJson(KEY_NOTIFICATIONS + filterOf(true), merge(read, getNotifications(true), true));
+
+        Set<String> pendingReads = getPendingReadSet();
+        pendingReads.add(notification.getNotificationId());
+        store.putStringSet(KEY_PENDING_READS, pendingReads);
+    }
+
+    /**
+     * @return the ids of the notifications that were marked as read, but not sent to the API yet
+     */
+    @NonNull
+    public synchronized List<String> getPendingReads() {
+        return new ArrayList<>(getPendingReadSet());
+    }
+
+    /**
+     * Forgets the ids of notifications that the API marked as read
+     */
+    public synchronized void removePendingReads(Collection<String> notificationIds) {
+        Set<String> pendingReads = getPendingReadSet();
+        pendingReads.removeAll(notificationIds);
+        store.putStringSet(KEY_PENDING_READS, pendingReads);
+    }
+
+    /**
+     * Forgets all notifications, e.g. when the user logs out
+     */
+    public synchronized void clear() {
+        store.clearAll();
+    }
+
+    /**
+     * Puts the newer notifications before the stored ones, skipping notifications that are
+     * already stored, and unread notifications that were marked as read meanwhile
+     */
+    private List<Notification> merge(List<Notification> newer, List<Notification> stored,
+                                     boolean archived) {
+        Set<String> skipped = archived ? new HashSet<>() : getPendingReadSet();
+        Set<String> ids = new HashSet<>();
+        List<Notification> merged = new ArrayList<>();
+        for (Notification notification : newer) {
+            if (!skipped.contains(notification.getNotificationId())
+                    && ids.add(notification.getNotificationId())) {
+                merged.add(notification);
+            }
+        }
+        for (Notification notification : stored) {
+            if (merged.size() >= MAX_STORED) {
+                break;
+            }
+            if (ids.add(notification.getNotificationId())) {
+                merged.add(notification);
+            }
+        }
+        return merged.size() > MAX_STORED ? merged.subList(0, MAX_STORED) : merged;
+    }
+
+    private void save(boolean archived, List<Notification> notifications) {
+        long newestTimestamp = getNewestTimestamp(archived);
+        for (Notification notification : notifications) {
+            newestTimestamp = Math.max(newestTimestamp, notification.getTimestamp());
+        }
+        store.putJson(KEY_NOTIFICATIONS + filterOf(archived), new ArrayList<>(notifications));
+        store.putLong(KEY_NEWEST_TIMESTAMP + filterOf(archived), newestTimestamp);
+    }
+
+    private Set<String> getPendingReadSet() {
+        // The set returned by the preferences must not be modified
+        Set<String> pendingReads = store.getStringSet(KEY_PENDING_READS);
+        return pendingReads == null ? new LinkedHashSet<>() : new LinkedHashSet<>(pendingReads);
+    }
+
+    private static String filterOf(boolean archived) {
+        return archived ? "read" : "unread";
+    }
+}
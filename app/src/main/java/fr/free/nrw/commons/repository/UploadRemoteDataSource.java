@@ -63,6 +63,15 @@ public class UploadRemoteDataSource {
         uploadController.startUpload(contribution);
     }
 
+    /**
+     * asks the UploadService to start the upload for several contributions at once
+     *
+     * @param contributions
+     */
+    public void startUploads(List<Contribution> contributions) {
+        uploadController.startUploads(contributions);
+    }
+
     /**
      * returns the list of UploadItem from the UploadModel
      *
@@ -49,6 +49,15 @@ public class UploadRepository {
         remoteDataSource.startUpload(contribution);
     }
 
+    /**
+     * asks the RemoteDataSource to start upload for several contributions at once
+     *
+     * @param contributions
+     */
+    public void startUploads(List<Contribution> contributions) {
+        remoteDataSource.startUploads(contributions);
+    }
+
     /**
      * Fetches and returns all the Upload Items
      *
@@ -20,6 +20,7 @@ import javax.inject.Singleton;
 
 import fr.free.nrw.commons.CommonsApplication;
 import fr.free.nrw.commons.Media;
+import fr.free.nrw.commons.MediaDataExtractor;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.actions.PageEditClient;
 import fr.free.nrw.commons.actions.ThanksClient;
@@ -45,6 +46,8 @@ public class ReviewController {
     @Inject
     @Named("commons-page-edit")
     PageEditClient pageEditClient;
+    @Inject
+    MediaDataExtractor mediaDataExtractor;
     private NotificationManager notificationManager;
     private NotificationCompat.Builder notificationBuilder;
     private Media media;
@@ -109,6 +112,7 @@ public class ReviewController {
                     String title;
 
                     if (result) {
+                        mediaDataExtractor.invalidate(media.getFilename());
                         title = context.getString(R.string.check_category_success_title);
                         message = context.getString(R.string.check_category_success_message, media.getDisplayTitle());
                         reviewCallback.onSuccess();
@@ -1,5 +1,6 @@
 package fr.free.nrw.commons.review;
 
+import android.annotation.SuppressLint;
 
 import org.apache.commons.lang3.StringUtils;
 import org.wikipedia.dataclient.mwapi.MwQueryPage;
@@ -8,6 +9,9 @@ import org.wikipedia.util.DateUtil;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.Random;
 
 import javax.inject.Inject;
@@ -17,15 +21,30 @@ import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.media.MediaClient;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
 
+/**
+ * Finds files for peer review. A few reviewable files, with their first revision, are kept ready
+ * and refilled in the background, so that the next file shows without waiting for the network.
+ */
 @Singleton
 public class ReviewHelper {
 
     private static final String[] imageExtensions = new String[]{".jpg", ".jpeg", ".png"};
+    static final int BUFFER_SIZE = 3;
+    static final int MAX_CONCURRENT_CHECKS = 4;
+    // Files shown recently are not buffered again, as recent changes overlap
+    private static final int RECENTLY_SHOWN_SIZE = 20;
 
     private final MediaClient mediaClient;
     private final ReviewInterface reviewInterface;
 
+    private final LinkedList<Media> bufferedMedia = new LinkedList<>();
+    private final Map<String, MwQueryPage.Revision> firstRevisions = new HashMap<>();
+    private final LinkedList<String> recentlyShown = new LinkedList<>();
+    private boolean refilling;
+
     @Inject
     public ReviewHelper(MediaClient mediaClient, ReviewInterface reviewInterface) {
         this.mediaClient = mediaClient;
@@ -59,47 +78,136 @@ public class ReviewHelper {
 
     /**
      * Gets a random file change for review.
-     * - Picks the most recent changes in the last 30 day window
-     * - Picks a random file from those changes
-     * - Checks if the file is nominated for deletion
-     * - Retries upto 5 times for getting a file which is not nominated for deletion
+     * - Picks the most recent changes in a random window of the last hour
+     * - Checks several of those files at once, keeping the ones that are not nominated for deletion
+     * - Returns a file checked in the background earlier if there is one
      *
      * @return Random file change
      */
     public Single<Media> getRandomMedia() {
+        return Single.defer(() -> {
+            Media media = pollBufferedMedia();
+            if (media != null) {
+                refill();
+                return Single.just(media);
+            }
+            return getReviewableMedia()
+                    .firstOrError()
+                    .doOnSuccess(reviewableMedia -> {
+                        onShown(reviewableMedia);
+                        refill();
+                    });
+        });
+    }
+
+    private synchronized Media pollBufferedMedia() {
+        Media media = bufferedMedia.poll();
+        if (media != null) {
+            onShown(media);
+        }
+        return media;
+    }
+
+    private synchronized void onShown(Media media) {
+        recentlyShown.add(media.getFilename());
+        if (recentlyShown.size() > RECENTLY_SHOWN_SIZE) {
+            recentlyShown.removeFirst();
+        }
+    }
+
+    /**
+     * Fills the buffer of reviewable files in the background, with their first revisions
+     */
+    @SuppressLint("CheckResult")
+    private synchronized void refill() {
+        int missing = BUFFER_SIZE - bufferedMedia.size();
+        if (refilling || missing <= 0) {
+            return;
+        }
+        refilling = true;
+        getReviewableMedia()
+                .filter(media -> !isShownOrBuffered(media.getFilename()))
+                .take(missing)
+                .concatMapSingle(media -> getFirstRevisionOfFile(media.getFilename())
+                        .firstOrError()
+                        .map(revision -> {
+                            synchronized (this) {
+                                firstRevisions.put(media.getFilename(), revision);
+                            }
+                            return media;
+                        })
+                        .onErrorReturnItem(media))
+                .subscribeOn(Schedulers.io())
+                .doFinally(() -> {
+                    synchronized (this) {
+                        refilling = false;
+                    }
+                })
+                .subscribe(this::addBufferedMedia,
+                        throwable -> Timber.e(throwable, "Error while filling review buffer"));
+    }
+
+    private synchronized void addBufferedMedia(Media media) {
+        if (!isShownOrBuffered(media.getFilename())) {
+            bufferedMedia.add(media);
+        }
+    }
+
+    private synchronized boolean isShownOrBuffered(String filename) {
+        if (recentlyShown.contains(filename)) {
+            return true;
+        }
+        for (Media buffered : bufferedMedia) {
+            if (buffered.getFilename().equals(filename)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the recent changes for reviewable files, several at a time
+     */
+    private Observable<Media> getReviewableMedia() {
         return getRecentChanges()
-                .flatMapSingle(change -> getRandomMediaFromRecentChange(change))
-                .onExceptionResumeNext(Observable.just(new Media("")))
-                .filter(media -> !StringUtils.isBlank(media.getFilename()))
-                .firstOrError();
+                .flatMapSingle(this::getMediaFromRecentChange, false, MAX_CONCURRENT_CHECKS)
+                .filter(media -> !StringUtils.isBlank(media.getFilename()));
     }
 
     /**
      * Returns a proper Media object if the file is not already nominated for deletion
-     * Else it returns an empty Media object
+     * Else it returns an empty Media object. The file and its deletion request are looked up
+     * with a single request.
      *
      * @param recentChange
      * @return
      */
-    private Single<Media> getRandomMediaFromRecentChange(RecentChange recentChange) {
-        return Single.just(recentChange)
-                .flatMap(change -> mediaClient.checkPageExistsUsingTitle("Commons:Deletion_requests/" + change.getTitle()))
-                .flatMap(isDeleted -> {
-                    if (isDeleted) {
-                        return Single.just(new Media(""));
-                    }
-                    return mediaClient.getMedia(recentChange.getTitle());
+    private Single<Media> getMediaFromRecentChange(RecentChange recentChange) {
+        return mediaClient.getMediaWithDeletionStatus(recentChange.getTitle())
+                // Each check runs on its own thread, as the API calls block the subscribing thread
+                .subscribeOn(Schedulers.io())
+                .map(media -> media.getRequestedDeletion() ? new Media("") : media)
+                .onErrorReturn(throwable -> {
+                    Timber.e(throwable, "Error checking %s for review", recentChange.getTitle());
+                    return new Media("");
                 });
-
     }
 
     /**
-     * Gets the first revision of the file from filename
+     * Gets the first revision of the file from filename, fetched along with the file if it was
+     * buffered
      *
      * @param filename
      * @return
      */
     Observable<MwQueryPage.Revision> getFirstRevisionOfFile(String filename) {
+        MwQueryPage.Revision revision;
+        synchronized (this) {
+            revision = firstRevisions.remove(filename);
+        }
+        if (revision != null) {
+            return Observable.just(revision);
+        }
         return reviewInterface.getFirstRevisionOfFile(filename)
                 .map(response -> response.query().firstPage().revisions().get(0));
     }
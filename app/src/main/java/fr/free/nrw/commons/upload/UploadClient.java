@@ -3,14 +3,13 @@ package fr.free.nrw.commons.upload;
 import android.content.Context;
 import android.net.Uri;
 
-import org.wikipedia.csrf.CsrfTokenClient;
-
 import java.io.File;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import fr.free.nrw.commons.contributions.Contribution;
 import fr.free.nrw.commons.upload.UploadService.NotificationUpdateProgressListener;
 import io.reactivex.Observable;
@@ -24,12 +23,19 @@ import static fr.free.nrw.commons.di.NetworkingModule.NAMED_COMMONS_CSRF;
 public class UploadClient {
 
     private final UploadInterface uploadInterface;
-    private final CsrfTokenClient csrfTokenClient;
+    private final CsrfTokenCache csrfTokenCache;
 
     @Inject
-    public UploadClient(UploadInterface uploadInterface, @Named(NAMED_COMMONS_CSRF) CsrfTokenClient csrfTokenClient) {
+    public UploadClient(UploadInterface uploadInterface, @Named(NAMED_COMMONS_CSRF) CsrfTokenCache csrfTokenCache) {
         this.uploadInterface = uploadInterface;
-        this.csrfTokenClient = csrfTokenClient;
+        this.csrfTokenCache = csrfTokenCache;
+    }
+
+    /**
+     * Warms up the CSRF token so that the first upload of a batch does not wait for it
+     */
+    void prefetchToken() {
+        csrfTokenCache.prefetch();
     }
 
     Observable<UploadResult> uploadFileToStash(Context context, String filename, File file,
@@ -43,31 +49,21 @@ public class UploadClient {
 
         MultipartBody.Part filePart = MultipartBody.Part.createFormData("file", filename, countingRequestBody);
         RequestBody fileNameRequestBody = RequestBody.create(okhttp3.MultipartBody.FORM, filename);
-        RequestBody tokenRequestBody;
-        try {
-            tokenRequestBody = RequestBody.create(MultipartBody.FORM, csrfTokenClient.getTokenBlocking());
-            return uploadInterface.uploadFileToStash(fileNameRequestBody, tokenRequestBody, filePart)
-                    .map(stashUploadResponse -> stashUploadResponse.getUpload());
-        } catch (Throwable throwable) {
-            throwable.printStackTrace();
-            return Observable.error(throwable);
-        }
+        return csrfTokenCache.withToken(token -> uploadInterface.uploadFileToStash(fileNameRequestBody,
+                RequestBody.create(MultipartBody.FORM, token), filePart))
+                .map(stashUploadResponse -> stashUploadResponse.getUpload());
     }
 
     Observable<UploadResult> uploadFileFromStash(Context context,
                                                  Contribution contribution,
                                                  String uniqueFileName,
                                                  String fileKey) {
-        try {
-            return uploadInterface
-                    .uploadFileFromStash(csrfTokenClient.getTokenBlocking(),
-                            contribution.getPageContents(context),
-                            contribution.getEditSummary(),
-                            uniqueFileName,
-                            fileKey).map(uploadResponse -> uploadResponse.getUpload());
-        } catch (Throwable throwable) {
-            throwable.printStackTrace();
-            return Observable.error(throwable);
-        }
+        return csrfTokenCache.withToken(token -> uploadInterface
+                .uploadFileFromStash(token,
+                        contribution.getPageContents(context),
+                        contribution.getEditSummary(),
+                        uniqueFileName,
+                        fileKey))
+                .map(uploadResponse -> uploadResponse.getUpload());
     }
 }
@@ -18,7 +18,9 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -32,7 +34,6 @@ import fr.free.nrw.commons.settings.Prefs;
 import fr.free.nrw.commons.utils.ViewUtil;
 import io.reactivex.Single;
 import io.reactivex.android.schedulers.AndroidSchedulers;
-import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
@@ -43,10 +44,6 @@ public class UploadController {
     private Context context;
     private JsonKvStore store;
 
-    public interface ContributionUploadProgress {
-        void onUploadStarted(Contribution contribution);
-    }
-
     @Inject
     public UploadController(SessionManager sessionManager,
                             Context context,
@@ -97,19 +94,41 @@ public class UploadController {
      * @param contribution the contribution object
      */
     public void startUpload(Contribution contribution) {
-        startUpload(contribution, c -> {});
+        startUploads(Collections.singletonList(contribution));
     }
 
     /**
-     * Starts a new upload task.
+     * Starts upload tasks for several contributions. They are queued to the upload service
+     * together, so that they are saved in a single transaction.
      *
-     * @param contribution the contribution object
-     * @param onComplete   the progress tracker
+     * @param contributions the contribution objects
      */
-    @SuppressLint("StaticFieldLeak")
-    private void startUpload(final Contribution contribution, final ContributionUploadProgress onComplete) {
-        //Set creator, desc, and license
+    @SuppressLint("CheckResult")
+    public void startUploads(List<Contribution> contributions) {
+        for (Contribution contribution : contributions) {
+            if (!setUploadDetails(contribution)) {
+                return;
+            }
+        }
 
+        Single.fromCallable(() -> {
+            for (Contribution contribution : contributions) {
+                makeUpload(contribution);
+            }
+            return contributions;
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::onUploadsReady);
+    }
+
+    /**
+     * Set creator, desc, and license
+     *
+     * @param contribution the contribution object
+     * @return false if there is no logged in user to upload as
+     */
+    private boolean setUploadDetails(Contribution contribution) {
         // If author name is enabled and set, use it
         if (store.getBoolean("useAuthorName", false)) {
             String authorName = store.getString("authorName", "");
@@ -122,7 +141,7 @@ public class UploadController {
                 Timber.d("Current account is null");
                 ViewUtil.showLongToast(context, context.getString(R.string.user_not_logged_in));
                 sessionManager.forceLogin(context);
-                return;
+                return false;
             }
             contribution.setCreator(sessionManager.getAuthorName());
         }
@@ -133,21 +152,7 @@ public class UploadController {
 
         String license = store.getString(Prefs.DEFAULT_LICENSE, Prefs.Licenses.CC_BY_SA_3);
         contribution.setLicense(license);
-
-        uploadTask(contribution, onComplete);
-    }
-
-    /**
-     * Initiates the upload task
-     * @param contribution
-     * @param onComplete
-     * @return
-     */
-    private Disposable uploadTask(Contribution contribution, ContributionUploadProgress onComplete) {
-        return Single.fromCallable(() -> makeUpload(contribution))
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(finalContribution -> onUploadCompleted(finalContribution, onComplete));
+        return true;
     }
 
     /**
@@ -212,14 +217,12 @@ public class UploadController {
     }
 
     /**
-     * When the contribution object is completely formed, the item is queued to the upload service
-     * @param contribution
-     * @param onComplete
+     * When the contribution objects are completely formed, they are queued to the upload service
+     * @param contributions
      */
-    private void onUploadCompleted(Contribution contribution, ContributionUploadProgress onComplete) {
+    private void onUploadsReady(List<Contribution> contributions) {
         //Starts the upload. If commented out, user can proceed to next Fragment but upload doesn't happen
-        uploadService.queue(UploadService.ACTION_UPLOAD_FILE, contribution);
-        onComplete.onUploadStarted(contribution);
+        uploadService.queue(UploadService.ACTION_UPLOAD_FILE, contributions);
     }
 
 
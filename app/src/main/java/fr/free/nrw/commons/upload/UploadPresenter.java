@@ -12,7 +12,7 @@ import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.contributions.Contribution;
 import fr.free.nrw.commons.filepicker.UploadableFile;
 import fr.free.nrw.commons.repository.UploadRepository;
-import io.reactivex.Observer;
+import io.reactivex.SingleObserver;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
@@ -48,8 +48,9 @@ public class UploadPresenter implements UploadContract.UserActionListener {
         if (view.isLoggedIn()) {
             view.showProgress(true);
             repository.buildContributions()
+                    .toList()
                     .observeOn(Schedulers.io())
-                    .subscribe(new Observer<Contribution>() {
+                    .subscribe(new SingleObserver<List<Contribution>>() {
                         @Override
                         public void onSubscribe(Disposable d) {
                             view.showProgress(false);
@@ -58,24 +59,21 @@ public class UploadPresenter implements UploadContract.UserActionListener {
                         }
 
                         @Override
-                        public void onNext(Contribution contribution) {
-                            repository.startUpload(contribution);
-                        }
-
-                        @Override
-                        public void onError(Throwable e) {
-                            view.showMessage(R.string.upload_failed);
+                        public void onSuccess(List<Contribution> contributions) {
+                            // Queued together so that they are saved in a single transaction
+                            repository.startUploads(contributions);
                             repository.cleanup();
                             view.finish();
                             compositeDisposable.clear();
-                            Timber.e("failed to upload: " + e.getMessage());
                         }
 
                         @Override
-                        public void onComplete() {
+                        public void onError(Throwable e) {
+                            view.showMessage(R.string.upload_failed);
                             repository.cleanup();
                             view.finish();
                             compositeDisposable.clear();
+                            Timber.e("failed to upload: " + e.getMessage());
                         }
                     });
         } else {
@@ -14,7 +14,9 @@ import androidx.core.app.NotificationManagerCompat;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -29,6 +31,7 @@ import fr.free.nrw.commons.auth.SessionManager;
 import fr.free.nrw.commons.contributions.Contribution;
 import fr.free.nrw.commons.contributions.ContributionDao;
 import fr.free.nrw.commons.contributions.ContributionsContentProvider;
+import fr.free.nrw.commons.contributions.DirectContributionDao;
 import fr.free.nrw.commons.contributions.MainActivity;
 import fr.free.nrw.commons.media.MediaClient;
 import fr.free.nrw.commons.utils.CommonsDateUtil;
@@ -49,7 +52,7 @@ public class UploadService extends HandlerService<Contribution> {
 
     @Inject WikidataEditService wikidataEditService;
     @Inject SessionManager sessionManager;
-    @Inject ContributionDao contributionDao;
+    @Inject DirectContributionDao contributionDao;
     @Inject UploadClient uploadClient;
     @Inject MediaClient mediaClient;
 
@@ -80,6 +83,10 @@ public class UploadService extends HandlerService<Contribution> {
 
         String notificationProgressTitle;
         String notificationFinishingTitle;
+        /**
+         * Last saved progress in percent, the contribution is only saved when it changes
+         */
+        int savedPercent = -1;
 
         NotificationUpdateProgressListener(String notificationTag, String notificationProgressTitle, String notificationFinishingTitle, Contribution contribution) {
             this.notificationTag = notificationTag;
@@ -105,7 +112,11 @@ public class UploadService extends HandlerService<Contribution> {
             notificationManager.notify(notificationTag, NOTIFICATION_UPLOAD_IN_PROGRESS, curNotification.build());
 
             contribution.setTransferred(transferred);
-            contributionDao.save(contribution);
+            int percent = total > 0 ? (int) (((double) transferred / (double) total) * 100) : 0;
+            if (percent != savedPercent) {
+                savedPercent = percent;
+                contributionDao.saveProgress(contribution);
+            }
         }
 
     }
@@ -137,21 +148,34 @@ public class UploadService extends HandlerService<Contribution> {
 
     @Override
     public void queue(int what, Contribution contribution) {
-        Timber.d("Upload service queue has contribution with wiki data entity id as %s", contribution.getWikiDataEntityId());
+        queue(what, Collections.singletonList(contribution));
+    }
+
+    /**
+     * Queues several contributions. They are saved in a single transaction, so the
+     * contributions list is refreshed once for the whole batch.
+     */
+    public void queue(int what, List<Contribution> contributions) {
         switch (what) {
             case ACTION_UPLOAD_FILE:
-
-                contribution.setState(Contribution.STATE_QUEUED);
-                contribution.setTransferred(0);
-                contributionDao.save(contribution);
-                toUpload++;
-                if (curNotification != null && toUpload != 1) {
-                    curNotification.setContentText(getResources().getQuantityString(R.plurals.uploads_pending_notification_indicator, toUpload, toUpload));
-                    Timber.d("%d uploads left", toUpload);
-                    notificationManager.notify(contribution.getLocalUri().toString(), NOTIFICATION_UPLOAD_IN_PROGRESS, curNotification.build());
+                for (Contribution contribution : contributions) {
+                    Timber.d("Upload service queue has contribution with wiki data entity id as %s", contribution.getWikiDataEntityId());
+                    contribution.setState(Contribution.STATE_QUEUED);
+                    contribution.setTransferred(0);
                 }
+                contributionDao.save(contributions);
+                uploadClient.prefetchToken();
+
+                for (Contribution contribution : contributions) {
+                    toUpload++;
+                    if (curNotification != null && toUpload != 1) {
+                        curNotification.setContentText(getResources().getQuantityString(R.plurals.uploads_pending_notification_indicator, toUpload, toUpload));
+                        Timber.d("%d uploads left", toUpload);
+                        notificationManager.notify(contribution.getLocalUri().toString(), NOTIFICATION_UPLOAD_IN_PROGRESS, curNotification.build());
+                    }
 
-                super.queue(what, contribution);
+                    super.queue(what, contribution);
+                }
                 break;
             default:
                 throw new IllegalArgumentException("Unknown value for what");
@@ -4,7 +4,10 @@ import android.text.TextUtils;
 
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -29,6 +32,11 @@ import static fr.free.nrw.commons.di.CommonsApplicationModule.MAIN_THREAD;
 @Singleton
 public class CategoriesPresenter implements CategoriesContract.UserActionListener {
 
+    /**
+     * Partial results are shown at most this often while a search is running
+     */
+    private static final long PUBLISH_INTERVAL_MS = 200;
+
     private static final CategoriesContract.View DUMMY = (CategoriesContract.View) Proxy
             .newProxyInstance(
                     CategoriesContract.View.class.getClassLoader(),
@@ -41,6 +49,7 @@ public class CategoriesPresenter implements CategoriesContract.UserActionListene
     private UploadRepository repository;
 
     private CompositeDisposable compositeDisposable;
+    private Disposable searchCategoriesDisposable;
 
     @Inject
     public CategoriesPresenter(UploadRepository repository, @Named(IO_THREAD) Scheduler ioScheduler,
@@ -63,15 +72,21 @@ public class CategoriesPresenter implements CategoriesContract.UserActionListene
     }
 
     /**
-     * asks the repository to fetch categories for the query
+     * asks the repository to fetch categories for the query. Results are shown as they arrive,
+     * ranked, and a newer query cancels the search for the previous one.
      *  @param query
      *
      */
     @Override
     public void searchForCategories(String query) {
-        List<CategoryItem> categoryItems = new ArrayList<>();
+        if (searchCategoriesDisposable != null) {
+            compositeDisposable.remove(searchCategoriesDisposable);
+        }
         List<String> imageTitleList = getImageTitleList();
-        Observable<CategoryItem> distinctCategoriesObservable = Observable
+        Comparator<? super CategoryItem> comparator = TextUtils.isEmpty(query)
+                ? null : repository.sortBySimilarity(query);
+        List<CategoryItem> categoryItems = new ArrayList<>();
+        searchCategoriesDisposable = Observable
                 .fromIterable(repository.getSelectedCategories())
                 .subscribeOn(ioScheduler)
                 .observeOn(mainThreadScheduler)
@@ -85,17 +100,30 @@ public class CategoriesPresenter implements CategoriesContract.UserActionListene
                         repository.searchAll(query, imageTitleList)
                 )
                 .filter(categoryItem -> !repository.containsYear(categoryItem.getName()))
-                .distinct();
-                if(!TextUtils.isEmpty(query)) {
-                distinctCategoriesObservable=distinctCategoriesObservable.sorted(repository.sortBySimilarity(query));
-                }
-        Disposable searchCategoriesDisposable = distinctCategoriesObservable
+                .distinct()
+                .scan(new ArrayList<CategoryItem>(), (found, categoryItem) -> {
+                    ArrayList<CategoryItem> snapshot = new ArrayList<>(found);
+                    snapshot.add(categoryItem);
+                    return snapshot;
+                })
+                .skip(1)
+                .throttleLatest(PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS, ioScheduler, true)
+                .map(found -> {
+                    List<CategoryItem> ranked = new ArrayList<>(found);
+                    if (comparator != null) {
+                        Collections.sort(ranked, comparator);
+                    }
+                    return ranked;
+                })
                 .observeOn(mainThreadScheduler)
                 .subscribe(
-                        s -> categoryItems.add(s),
+                        found -> {
+                            categoryItems.clear();
+                            categoryItems.addAll(found);
+                            view.setCategories(found);
+                        },
                         Timber::e,
                         () -> {
-                            view.setCategories(categoryItems);
                             view.showProgress(false);
 
                             if (categoryItems.isEmpty()) {
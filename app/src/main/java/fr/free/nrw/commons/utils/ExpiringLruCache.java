@@ -0,0 +1,68 @@
+package fr.free.nrw.commons.utils;
+
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory cache that keeps at most a fixed number of entries, evicting the least recently used
+ * one first, and forgets entries once they are older than a time to live. Safe to use from any
+ * thread.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final long timeToLiveMs;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * @param maxEntries number of entries to keep at most
+     * @param timeToLiveMs milliseconds an entry is returned for after it was put
+     */
+    public ExpiringLruCache(final int maxEntries, long timeToLiveMs) {
+        this.timeToLiveMs = timeToLiveMs;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the value for the key, or null if there is none or it expired
+     */
+    @Nullable
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.createdAt >= timeToLiveMs) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import com.facebook.common.executors.CallerThreadExecutor;
 import com.facebook.common.references.CloseableReference;
 import com.facebook.datasource.DataSource;
 import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.common.ResizeOptions;
 import com.facebook.imagepipeline.core.ImagePipeline;
 import com.facebook.imagepipeline.datasource.BaseBitmapDataSubscriber;
 import com.facebook.imagepipeline.image.CloseableImage;
@@ -183,16 +184,24 @@ public class ImageUtils {
     /**
      * Downloads the image from the URL and sets it as the phone's wallpaper
      * Fails silently if download or setting wallpaper fails.
+     * The image is taken from Fresco's disk cache if it was shown before, and decoded at the size
+     * of the wallpaper rather than at its full size.
      *
      * @param context context
      * @param imageUrl Url of the image
      */
     public static void setWallpaperFromImageUrl(Context context, Uri imageUrl) {
         Timber.d("Trying to set wallpaper from url %s", imageUrl.toString());
-        ImageRequest imageRequest = ImageRequestBuilder
+        WallpaperManager wallpaperManager = WallpaperManager.getInstance(context);
+        ImageRequestBuilder imageRequestBuilder = ImageRequestBuilder
                 .newBuilderWithSource(imageUrl)
-                .setAutoRotateEnabled(true)
-                .build();
+                .setAutoRotateEnabled(true);
+        int width = wallpaperManager.getDesiredMinimumWidth();
+        int height = wallpaperManager.getDesiredMinimumHeight();
+        if (width > 0 && height > 0) {
+            imageRequestBuilder.setResizeOptions(new ResizeOptions(width, height));
+        }
+        ImageRequest imageRequest = imageRequestBuilder.build();
 
         ImagePipeline imagePipeline = Fresco.getImagePipeline();
         final DataSource<CloseableReference<CloseableImage>>
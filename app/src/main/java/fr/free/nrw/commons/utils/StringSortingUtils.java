@@ -1,6 +1,8 @@
 package fr.free.nrw.commons.utils;
 
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 
 public class StringSortingUtils {
 
@@ -13,77 +15,160 @@ public class StringSortingUtils {
      * By using this Comparator we get results
      * from the highest to the lowest similarity with the filter.
      *
+     * Each string is scored once, the first time it is compared, so sorting n strings computes
+     * n edit distances instead of one per comparison. The Comparator is not thread safe.
+     *
      * @param filter String to compare similarity with
      * @return Comparator with string similarity
      */
     public static Comparator<String> sortBySimilarity(final String filter) {
+        EditDistance editDistance = new EditDistance(filter);
+        Map<String, Double> similarities = new HashMap<>();
         return (firstItem, secondItem) -> {
-            double firstItemSimilarity = calculateSimilarity(firstItem, filter);
-            double secondItemSimilarity = calculateSimilarity(secondItem, filter);
-            return (int) Math.signum(secondItemSimilarity - firstItemSimilarity);
+            double firstItemSimilarity = similarity(firstItem, editDistance, similarities);
+            double secondItemSimilarity = similarity(secondItem, editDistance, similarities);
+            return Double.compare(secondItemSimilarity, firstItemSimilarity);
         };
     }
 
+    private static double similarity(String item, EditDistance editDistance,
+                                     Map<String, Double> similarities) {
+        Double similarity = similarities.get(item);
+        if (similarity == null) {
+            similarity = editDistance.similarity(item);
+            similarities.put(item, similarity);
+        }
+        return similarity;
+    }
 
     /**
-     * Determines String similarity between str1 and str2 on scale from 0.0 to 1.0
-     * @param str1 String 1
-     * @param str2 String 2
-     * @return Double between 0.0 and 1.0 that reflects string similarity
+     * Levenshtein distance from one fixed string, the pattern, to any number of other strings.
+     *
+     * Patterns of up to 64 characters use the bit-parallel algorithm of Myers, as formulated by
+     * Hyyro, which handles a whole column of the distance matrix per character of the other
+     * string. Longer patterns fall back to the usual two-row dynamic programming, with rows
+     * that are reused between strings.
      */
-    private static double calculateSimilarity(String str1, String str2) {
-        int longerLength = Math.max(str1.length(), str2.length());
+    static class EditDistance {
+        private final String pattern;
+        // Bit i of the mask of a character is set when the pattern has it at position i
+        private final long[] asciiMasks = new long[128];
+        private final Map<Character, Long> otherMasks = new HashMap<>();
+        private int[] cost = new int[0];
+        private int[] newCost = new int[0];
+
+        EditDistance(String pattern) {
+            this.pattern = pattern;
+            if (pattern.length() <= Long.SIZE) {
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = pattern.charAt(i);
+                    if (c < asciiMasks.length) {
+                        asciiMasks[c] |= 1L << i;
+                    } else {
+                        Long mask = otherMasks.get(c);
+                        otherMasks.put(c, (mask == null ? 0L : mask) | 1L << i);
+                    }
+                }
+            }
+        }
 
-        if (longerLength == 0) return 1.0;
+        /**
+         * Determines String similarity between the pattern and text on scale from 0.0 to 1.0
+         * @param text String to compare with the pattern
+         * @return Double between 0.0 and 1.0 that reflects string similarity
+         */
+        double similarity(String text) {
+            int longerLength = Math.max(text.length(), pattern.length());
 
-        int distanceBetweenStrings = levenshteinDistance(str1, str2);
-        return (longerLength - distanceBetweenStrings) / (double) longerLength;
-    }
+            if (longerLength == 0) return 1.0;
 
-    /**
-     * Levershtein distance algorithm
-     * https://en.wikibooks.org/wiki/Algorithm_Implementation/Strings/Levenshtein_distance#Java
-     *
-     * @param str1 String 1
-     * @param str2 String 2
-     * @return Number of characters the strings differ by
-     */
-    private static int levenshteinDistance(String str1, String str2) {
-        if (str1.equals(str2)) return 0;
-        if (str1.length() == 0) return str2.length();
-        if (str2.length() == 0) return str1.length();
-
-        int[] cost = new int[str1.length() + 1];
-        int[] newcost = new int[str1.length() + 1];
-
-        // initial cost of skipping prefix in str1
-        for (int i = 0; i < cost.length; i++) cost[i] = i;
-
-        // transformation cost for each letter in str2
-        for (int j = 1; j <= str2.length(); j++) {
-            // initial cost of skipping prefix in String str2
-            newcost[0] = j;
-
-            // transformation cost for each letter in str1
-            for(int i = 1; i < cost.length; i++) {
-                // matching current letters in both strings
-                int match = (str1.charAt(i - 1) == str2.charAt(j - 1)) ? 0 : 1;
-
-                // computing cost for each transformation
-                int cost_replace = cost[i - 1] + match;
-                int cost_insert  = cost[i] + 1;
-                int cost_delete  = newcost[i - 1] + 1;
-
-                // keep minimum cost
-                newcost[i] = Math.min(Math.min(cost_insert, cost_delete), cost_replace);
+            return (longerLength - distance(text)) / (double) longerLength;
+        }
+
+        /**
+         * @return Number of characters the pattern and text differ by
+         */
+        int distance(String text) {
+            if (pattern.equals(text)) return 0;
+            if (pattern.length() == 0) return text.length();
+            if (text.length() == 0) return pattern.length();
+
+            return pattern.length() <= Long.SIZE ? bitParallelDistance(text) : rowDistance(text);
+        }
+
+        private long mask(char c) {
+            if (c < asciiMasks.length) {
+                return asciiMasks[c];
             }
+            Long mask = otherMasks.get(c);
+            return mask == null ? 0L : mask;
+        }
 
-            int[] tmp = cost;
-            cost = newcost;
-            newcost = tmp;
+        private int bitParallelDistance(String text) {
+            long lastBit = 1L << (pattern.length() - 1);
+            // Vertical deltas of the current column, +1 and -1
+            long positive = -1L;
+            long negative = 0L;
+            int distance = pattern.length();
+            for (int j = 0; j < text.length(); j++) {
+                long equal = mask(text.charAt(j));
+                long vertical = equal | negative;
+                long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+                long horizontalPositive = negative | ~(horizontal | positive);
+                long horizontalNegative = positive & horizontal;
+                if ((horizontalPositive & lastBit) != 0) {
+                    distance++;
+                } else if ((horizontalNegative & lastBit) != 0) {
+                    distance--;
+                }
+                // The first row of the matrix grows by one per character of the text
+                horizontalPositive = (horizontalPositive << 1) | 1L;
+                horizontalNegative <<= 1;
+                positive = horizontalNegative | ~(vertical | horizontalPositive);
+                negative = horizontalPositive & vertical;
+            }
+            return distance;
         }
 
-        // the distance is the cost for transforming all letters in both strings
-        return cost[str1.length()];
+        /**
+         * Levenshtein distance algorithm
+         * https://en.wikibooks.org/wiki/Algorithm_Implementation/Strings/Levenshtein_distance#Java
+         */
+        private int rowDistance(String text) {
+            if (cost.length < pattern.length() + 1) {
+                cost = new int[pattern.length() + 1];
+                newCost = new int[pattern.length() + 1];
+            }
+
+            // initial cost of skipping prefix in pattern
+            for (int i = 0; i <= pattern.length(); i++) cost[i] = i;
+
+            // transformation cost for each letter in text
+            for (int j = 1; j <= text.length(); j++) {
+                // initial cost of skipping prefix in text
+                newCost[0] = j;
+
+                // transformation cost for each letter in pattern
+                for (int i = 1; i <= pattern.length(); i++) {
+                    // matching current letters in both strings
+                    int match = (pattern.charAt(i - 1) == text.charAt(j - 1)) ? 0 : 1;
+
+                    // computing cost for each transformation
+                    int costReplace = cost[i - 1] + match;
+                    int costInsert = cost[i] + 1;
+                    int costDelete = newCost[i - 1] + 1;
+
+                    // keep minimum cost
+                    newCost[i] = Math.min(Math.min(costInsert, costDelete), costReplace);
+                }
+
+                int[] tmp = cost;
+                cost = newCost;
+                newCost = tmp;
+            }
+
+            // the distance is the cost for transforming all letters in both strings
+            return cost[pattern.length()];
+        }
     }
 }
@@ -1,34 +1,22 @@
 package fr.free.nrw.commons.widget;
 
+import android.annotation.SuppressLint;
 import android.app.PendingIntent;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.Context;
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.net.Uri;
+import android.os.Bundle;
 import android.widget.RemoteViews;
 
-import androidx.annotation.Nullable;
-
-import com.facebook.common.executors.CallerThreadExecutor;
-import com.facebook.common.references.CloseableReference;
-import com.facebook.datasource.DataSource;
-import com.facebook.drawee.backends.pipeline.Fresco;
-import com.facebook.imagepipeline.core.ImagePipeline;
-import com.facebook.imagepipeline.datasource.BaseBitmapDataSubscriber;
-import com.facebook.imagepipeline.image.CloseableImage;
-import com.facebook.imagepipeline.request.ImageRequest;
-import com.facebook.imagepipeline.request.ImageRequestBuilder;
+import java.util.Date;
 
 import javax.inject.Inject;
 
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.contributions.MainActivity;
 import fr.free.nrw.commons.di.ApplicationlessInjection;
-import fr.free.nrw.commons.media.MediaClient;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.schedulers.Schedulers;
@@ -43,7 +31,7 @@ public class PicOfDayAppWidget extends AppWidgetProvider {
 
     private CompositeDisposable compositeDisposable = new CompositeDisposable();
 
-    @Inject MediaClient mediaClient;
+    @Inject PicOfDayCache picOfDayCache;
 
     void updateAppWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
         RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.pic_of_day_app_widget);
@@ -58,7 +46,9 @@ public class PicOfDayAppWidget extends AppWidgetProvider {
     }
 
     /**
-     * Loads the picture of the day using media wiki API
+     * Loads the picture of the day, and its image scaled to the size of the widget, from the
+     * cache, which only fetches them when they weren't fetched ahead. The pictures of the next
+     * days are then fetched in the background.
      * @param context
      * @param views
      * @param appWidgetManager
@@ -68,63 +58,69 @@ public class PicOfDayAppWidget extends AppWidgetProvider {
                                      RemoteViews views,
                                      AppWidgetManager appWidgetManager,
                                      int appWidgetId) {
-        compositeDisposable.add(mediaClient.getPictureOfTheDay()
+        Date today = new Date();
+        int[] size = getImageSize(context, appWidgetManager, appWidgetId);
+        compositeDisposable.add(picOfDayCache.getPicOfDay(today)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
+                .doFinally(() -> precachePictures(size))
                 .subscribe(
-                        response -> {
-                            if (response != null) {
-                                views.setTextViewText(R.id.appwidget_title, response.getDisplayTitle());
-
-                                // View in browser
-                                Intent viewIntent = new Intent();
-                                viewIntent.setAction(ACTION_VIEW);
-                                viewIntent.setData(Uri.parse(response.getPageTitle().getMobileUri()));
-                                PendingIntent pendingIntent = PendingIntent.getActivity(context, 0, viewIntent, 0);
-                                views.setOnClickPendingIntent(R.id.appwidget_image, pendingIntent);
-
-                                loadImageFromUrl(response.getThumbUrl(), context, views, appWidgetManager, appWidgetId);
-                            }
+                        picOfDay -> {
+                            views.setTextViewText(R.id.appwidget_title, picOfDay.getDisplayTitle());
+
+                            // View in browser
+                            Intent viewIntent = new Intent();
+                            viewIntent.setAction(ACTION_VIEW);
+                            viewIntent.setData(Uri.parse(picOfDay.getMobileUri()));
+                            PendingIntent pendingIntent = PendingIntent.getActivity(context, 0, viewIntent, 0);
+                            views.setOnClickPendingIntent(R.id.appwidget_image, pendingIntent);
+
+                            loadImage(picOfDay, today, size, views, appWidgetManager, appWidgetId);
                         },
                         t -> Timber.e(t, "Fetching picture of the day failed")
                 ));
     }
 
     /**
-     * Uses Fresco to load an image from Url
-     * @param imageUrl
-     * @param context
-     * @param views
-     * @param appWidgetManager
-     * @param appWidgetId
+     * Loads the image of the picture of the day, scaled to the size of the widget
      */
-    private void loadImageFromUrl(String imageUrl,
-                                  Context context,
-                                  RemoteViews views,
-                                  AppWidgetManager appWidgetManager,
-                                  int appWidgetId) {
-        ImageRequest request = ImageRequestBuilder.newBuilderWithSource(Uri.parse(imageUrl)).build();
-        ImagePipeline imagePipeline = Fresco.getImagePipeline();
-        DataSource<CloseableReference<CloseableImage>> dataSource
-                = imagePipeline.fetchDecodedImage(request, context);
-        dataSource.subscribe(new BaseBitmapDataSubscriber() {
-            @Override
-            protected void onNewResultImpl(@Nullable Bitmap tempBitmap) {
-                Bitmap bitmap = null;
-                if (tempBitmap != null) {
-                    bitmap = Bitmap.createBitmap(tempBitmap.getWidth(), tempBitmap.getHeight(), Bitmap.Config.ARGB_8888);
-                    Canvas canvas = new Canvas(bitmap);
-                    canvas.drawBitmap(tempBitmap, 0f, 0f, new Paint());
-                }
-                views.setImageViewBitmap(R.id.appwidget_image, bitmap);
-                appWidgetManager.updateAppWidget(appWidgetId, views);
-            }
-
-            @Override
-            protected void onFailureImpl(DataSource<CloseableReference<CloseableImage>> dataSource) {
-                // Ignore failure for now.
-            }
-        }, CallerThreadExecutor.getInstance());
+    private void loadImage(PicOfDayCache.PicOfDay picOfDay,
+                           Date day,
+                           int[] size,
+                           RemoteViews views,
+                           AppWidgetManager appWidgetManager,
+                           int appWidgetId) {
+        compositeDisposable.add(picOfDayCache.getImage(picOfDay, day, size[0], size[1])
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(bitmap -> {
+                            views.setImageViewBitmap(R.id.appwidget_image, bitmap);
+                            appWidgetManager.updateAppWidget(appWidgetId, views);
+                        },
+                        t -> Timber.e(t, "Loading the image of the picture of the day failed")));
+    }
+
+    @SuppressLint("CheckResult")
+    private void precachePictures(int[] size) {
+        picOfDayCache.precache(size[0], size[1])
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> {}, t -> Timber.e(t, "Precaching pictures of the day failed"));
+    }
+
+    /**
+     * @return the largest size in pixels that the widget takes, or its minimum size if the
+     * launcher doesn't tell
+     */
+    private int[] getImageSize(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
+        Bundle options = appWidgetManager.getAppWidgetOptions(appWidgetId);
+        int widthDp = options.getInt(AppWidgetManager.OPTION_APPWIDGET_MAX_WIDTH);
+        int heightDp = options.getInt(AppWidgetManager.OPTION_APPWIDGET_MAX_HEIGHT);
+        float density = context.getResources().getDisplayMetrics().density;
+        int defaultSize = context.getResources().getDimensionPixelSize(R.dimen.widget_default_size);
+        return new int[]{
+                widthDp > 0 ? Math.round(widthDp * density) : defaultSize,
+                heightDp > 0 ? Math.round(heightDp * density) : defaultSize
+        };
     }
 
     @Override
@@ -140,6 +136,18 @@ public class PicOfDayAppWidget extends AppWidgetProvider {
         }
     }
 
+    @Override
+    public void onAppWidgetOptionsChanged(Context context, AppWidgetManager appWidgetManager,
+                                          int appWidgetId, Bundle newOptions) {
+        // The image is scaled to the new size of the widget
+        ApplicationlessInjection
+                .getInstance(context
+                        .getApplicationContext())
+                .getCommonsApplicationComponent()
+                .inject(this);
+        updateAppWidget(context, appWidgetManager, appWidgetId);
+    }
+
     @Override
     public void onEnabled(Context context) {
         // Enter relevant functionality for when the first widget is created
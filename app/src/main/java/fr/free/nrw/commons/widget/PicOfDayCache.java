@@ -0,0 +1,240 @@
+package fr.free.nrw.commons.widget;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.common.executors.CallerThreadExecutor;
+import com.facebook.common.references.CloseableReference;
+import com.facebook.datasource.DataSource;
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.common.ResizeOptions;
+import com.facebook.imagepipeline.datasource.BaseBitmapDataSubscriber;
+import com.facebook.imagepipeline.image.CloseableImage;
+import com.facebook.imagepipeline.request.ImageRequest;
+import com.facebook.imagepipeline.request.ImageRequestBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.Media;
+import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.media.MediaClient;
+import fr.free.nrw.commons.utils.CommonsDateUtil;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import timber.log.Timber;
+
+/**
+ * Keeps the pictures of the day, and their images scaled down to the size of the widget, so that
+ * refreshing the widget neither needs the network nor decodes a full image. The pictures of the
+ * next days are fetched ahead, as they are chosen some days in advance.
+ */
+@Singleton
+public class PicOfDayCache {
+
+    static final int DAYS_AHEAD = 3;
+    private static final String IMAGE_DIRECTORY = "pic_of_day";
+
+    private final Context context;
+    private final MediaClient mediaClient;
+    private final JsonKvStore store;
+
+    @Inject
+    public PicOfDayCache(Context context, MediaClient mediaClient,
+                         @Named("pic_of_day") JsonKvStore store) {
+        this.context = context;
+        this.mediaClient = mediaClient;
+        this.store = store;
+    }
+
+    /**
+     * @return the picture of the day, from the store if it was fetched before, or nothing if no
+     * picture was chosen for the day
+     */
+    public Maybe<PicOfDay> getPicOfDay(Date day) {
+        String key = dateOf(day);
+        return Maybe.defer(() -> {
+            PicOfDay stored = store.getJson(key, PicOfDay.class);
+            if (stored != null) {
+                return Maybe.just(stored);
+            }
+            return mediaClient.getPictureOfTheDay(day)
+                    .filter(media -> media != Media.EMPTY && media.getFilename() != null)
+                    .map(media -> new PicOfDay(media.getDisplayTitle(),
+                            media.getPageTitle().getMobileUri(), media.getThumbUrl()))
+                    .doOnSuccess(picOfDay -> store.putJson(key, picOfDay));
+        });
+    }
+
+    /**
+     * @return the image of the picture of the day, scaled to fit the given size. It is decoded
+     * from the stored scaled image if there is one, and downloaded and stored otherwise
+     */
+    public Single<Bitmap> getImage(PicOfDay picOfDay, Date day, int width, int height) {
+        return Single.defer(() -> {
+            File file = imageFile(dateOf(day), width, height);
+            if (file.exists()) {
+                Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
+                if (bitmap != null) {
+                    return Single.just(bitmap);
+                }
+            }
+            return downloadScaledImage(picOfDay.getThumbUrl(), width, height)
+                    .doOnSuccess(bitmap -> save(bitmap, file));
+        });
+    }
+
+    /**
+     * Fetches the pictures of today and the next days, with their images scaled to the given
+     * size, and forgets the pictures of the days that are over
+     */
+    public Completable precache(int width, int height) {
+        List<Date> days = new ArrayList<>();
+        Calendar calendar = Calendar.getInstance();
+        for (int i = 0; i <= DAYS_AHEAD; i++) {
+            days.add(calendar.getTime());
+            calendar.add(Calendar.DATE, 1);
+        }
+        return Completable.fromAction(this::removePastDays)
+                .andThen(Observable.fromIterable(days)
+                        .concatMapCompletable(day -> getPicOfDay(day)
+                                .flatMapSingleElement(picOfDay -> getImage(picOfDay, day, width, height))
+                                .ignoreElement()
+                                .onErrorResumeNext((Throwable throwable) -> {
+                                    Timber.e(throwable, "Error precaching picture of %s", dateOf(day));
+                                    return Completable.complete();
+                                })));
+    }
+
+    private Single<Bitmap> downloadScaledImage(String url, int width, int height) {
+        return Single.create(emitter -> {
+            // Fresco decodes a downsampled image, which is then scaled to the exact size
+            ImageRequest request = ImageRequestBuilder.newBuilderWithSource(Uri.parse(url))
+                    .setResizeOptions(new ResizeOptions(width, height))
+                    .build();
+            DataSource<CloseableReference<CloseableImage>> dataSource = Fresco.getImagePipeline()
+                    .fetchDecodedImage(request, context);
+            emitter.setCancellable(dataSource::close);
+            dataSource.subscribe(new BaseBitmapDataSubscriber() {
+                @Override
+                protected void onNewResultImpl(Bitmap bitmap) {
+                    if (!dataSource.isFinished()) {
+                        return;
+                    }
+                    if (bitmap == null) {
+                        emitter.onError(new IOException("No image at " + url));
+                    } else {
+                        // The bitmap is recycled when the data source is closed, so it is copied
+                        emitter.onSuccess(scaleToFit(bitmap, width, height));
+                    }
+                }
+
+                @Override
+                protected void onFailureImpl(DataSource<CloseableReference<CloseableImage>> dataSource) {
+                    emitter.onError(dataSource.getFailureCause() != null
+                            ? dataSource.getFailureCause() : new IOException("Failed to load " + url));
+                }
+            }, CallerThreadExecutor.getInstance());
+        });
+    }
+
+    /**
+     * @return a copy of the bitmap, scaled down to fit the given size if it is larger
+     */
+    static Bitmap scaleToFit(Bitmap bitmap, int width, int height) {
+        float scale = Math.min(1f, Math.min((float) width / bitmap.getWidth(),
+                (float) height / bitmap.getHeight()));
+        int scaledWidth = Math.max(1, Math.round(bitmap.getWidth() * scale));
+        int scaledHeight = Math.max(1, Math.round(bitmap.getHeight() * scale));
+        Bitmap scaled = Bitmap.createBitmap(scaledWidth, scaledHeight, Bitmap.Config.ARGB_8888);
+        new Canvas(scaled).drawBitmap(bitmap, null, new Rect(0, 0, scaledWidth, scaledHeight),
+                new Paint(Paint.FILTER_BITMAP_FLAG));
+        return scaled;
+    }
+
+    private void save(Bitmap bitmap, File file) {
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            Timber.e(e, "Error storing picture of the day");
+        }
+    }
+
+    private void removePastDays() {
+        String today = dateOf(new Date());
+        for (String key : store.getKeySet()) {
+            if (key.compareTo(today) < 0) {
+                store.remove(key);
+            }
+        }
+        File[] files = new File(context.getCacheDir(), IMAGE_DIRECTORY).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                // Files are named after their day, which sorts like the day
+                if (file.getName().compareTo(today) < 0) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    @NonNull
+    private File imageFile(String date, int width, int height) {
+        return new File(new File(context.getCacheDir(), IMAGE_DIRECTORY),
+                date + "_" + width + "x" + height + ".png");
+    }
+
+    private static String dateOf(Date day) {
+        return CommonsDateUtil.getIso8601DateFormatShort().format(day);
+    }
+
+    /**
+     * What the widget shows of a picture of the day
+     */
+    public static class PicOfDay {
+        private final String displayTitle;
+        private final String mobileUri;
+        private final String thumbUrl;
+
+        PicOfDay(String displayTitle, String mobileUri, String thumbUrl) {
+            this.displayTitle = displayTitle;
+            this.mobileUri = mobileUri;
+            this.thumbUrl = thumbUrl;
+        }
+
+        public String getDisplayTitle() {
+            return displayTitle;
+        }
+
+        public String getMobileUri() {
+            return mobileUri;
+        }
+
+        public String getThumbUrl() {
+            return thumbUrl;
+        }
+    }
+}
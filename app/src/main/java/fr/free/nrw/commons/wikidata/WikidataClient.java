@@ -1,25 +1,30 @@
 package fr.free.nrw.commons.wikidata;
 
-import org.jetbrains.annotations.NotNull;
-
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import fr.free.nrw.commons.auth.CsrfTokenCache;
 import fr.free.nrw.commons.wikidata.model.AddEditTagResponse;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 
+import static fr.free.nrw.commons.di.NetworkingModule.NAMED_WIKI_DATA_CSRF;
+
 @Singleton
 public class WikidataClient {
 
 
     private final WikidataInterface wikidataInterface;
+    private final CsrfTokenCache csrfTokenCache;
 
     @Inject
-    public WikidataClient(WikidataInterface wikidataInterface) {
+    public WikidataClient(WikidataInterface wikidataInterface,
+                          @Named(NAMED_WIKI_DATA_CSRF) CsrfTokenCache csrfTokenCache) {
         this.wikidataInterface = wikidataInterface;
+        this.csrfTokenCache = csrfTokenCache;
     }
 
     /**
@@ -29,13 +34,12 @@ public class WikidataClient {
      * @return revisionID of the edit
      */
     Observable<Long> createClaim(String entityId, String value) {
-        return getCsrfToken()
-                .flatMap(csrfToken -> wikidataInterface.postCreateClaim(toRequestBody(entityId),
-                        toRequestBody("value"),
-                        toRequestBody("P18"),
-                        toRequestBody(value),
-                        toRequestBody("en"),
-                        toRequestBody(csrfToken)))
+        return csrfTokenCache.withToken(csrfToken -> wikidataInterface.postCreateClaim(toRequestBody(entityId),
+                toRequestBody("value"),
+                toRequestBody("P18"),
+                toRequestBody(value),
+                toRequestBody("en"),
+                toRequestBody(csrfToken)))
                 .map(mwPostResponse -> mwPostResponse.getPageinfo().getLastrevid());
     }
 
@@ -46,14 +50,6 @@ public class WikidataClient {
         return RequestBody.create(MediaType.parse("text/plain"), value);
     }
 
-    /**
-     * Get csrf token for wikidata edit
-     */
-    @NotNull
-    private Observable<String> getCsrfToken() {
-        return wikidataInterface.getCsrfToken().map(mwQueryResponse -> mwQueryResponse.query().csrfToken());
-    }
-
     /**
      * Add edit tag for a given revision ID. The app currently uses this to tag P18 edits
      * @param revisionId revision ID of the page edited
@@ -61,10 +57,9 @@ public class WikidataClient {
      * @param reason to be mentioned
      */
     ObservableSource<AddEditTagResponse> addEditTag(Long revisionId, String tag, String reason) {
-        return getCsrfToken()
-                .flatMap(csrfToken -> wikidataInterface.addEditTag(String.valueOf(revisionId),
-                        tag,
-                        reason,
-                        csrfToken));
+        return csrfTokenCache.withToken(csrfToken -> wikidataInterface.addEditTag(String.valueOf(revisionId),
+                tag,
+                reason,
+                csrfToken));
     }
 }
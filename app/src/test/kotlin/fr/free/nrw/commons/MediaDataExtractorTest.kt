@@ -2,14 +2,13 @@ package fr.free.nrw.commons
 
 import fr.free.nrw.commons.media.MediaClient
 import io.reactivex.Single
-import org.junit.Assert.assertTrue
+import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers
 import org.mockito.InjectMocks
 import org.mockito.Mock
-import org.mockito.Mockito.`when`
-import org.mockito.Mockito.mock
+import org.mockito.Mockito.*
 import org.mockito.MockitoAnnotations
 
 /**
@@ -36,17 +35,59 @@ class MediaDataExtractorTest {
      */
     @Test
     fun fetchMediaDetails() {
-        `when`(mediaClient?.getMedia(ArgumentMatchers.anyString()))
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
                 .thenReturn(Single.just(mock(Media::class.java)))
 
-        `when`(mediaClient?.checkPageExistsUsingTitle(ArgumentMatchers.anyString()))
-                .thenReturn(Single.just(true))
-
-        `when`(mediaClient?.getPageHtml(ArgumentMatchers.anyString()))
-                .thenReturn(Single.just("Test"))
-
         val fetchMediaDetails = mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
 
         assertTrue(fetchMediaDetails is Media)
+        verify(mediaClient, never())?.getPageHtml(ArgumentMatchers.anyString())
+    }
+
+    /**
+     * test that details are fetched once while they are cached
+     */
+    @Test
+    fun fetchMediaDetailsUsesCache() {
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
+                .thenReturn(Single.just(Media("test.jpg")))
+
+        mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
+        val cachedMedia = mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
+
+        assertEquals("test.jpg", cachedMedia?.filename)
+        verify(mediaClient, times(1))?.getMediaWithDeletionStatus("test.jpg")
+    }
+
+    /**
+     * test that changing fetched details doesn't change the cached details
+     */
+    @Test
+    fun fetchMediaDetailsReturnsCopies() {
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
+                .thenReturn(Single.just(Media("test.jpg")))
+
+        mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()?.setDiscussion("first")
+        val first = mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
+        first?.setDiscussion("second")
+        val second = mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
+
+        assertNotSame(first, second)
+        assertNull(second?.discussion)
+    }
+
+    /**
+     * test that details are fetched again once they were invalidated
+     */
+    @Test
+    fun invalidateFetchesDetailsAgain() {
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
+                .thenReturn(Single.just(Media("test.jpg")))
+
+        mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
+        mediaDataExtractor?.invalidate("test.jpg")
+        mediaDataExtractor?.fetchMediaDetails("test.jpg")?.blockingGet()
+
+        verify(mediaClient, times(2))?.getMediaWithDeletionStatus("test.jpg")
     }
-}
\ No newline at end of file
+}
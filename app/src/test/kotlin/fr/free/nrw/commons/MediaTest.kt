@@ -1,10 +1,16 @@
 package fr.free.nrw.commons
 
-import org.junit.Assert.assertEquals
+import android.os.Parcel
+import org.junit.Assert.*
 import org.junit.Test
 import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
 import org.robolectric.RobolectricTestRunner
 import org.robolectric.annotation.Config
+import org.wikipedia.dataclient.mwapi.MwQueryPage
+import org.wikipedia.gallery.ExtMetadata
+import org.wikipedia.gallery.ImageInfo
 
 @RunWith(RobolectricTestRunner::class)
 @Config(sdk = [21], application = TestCommonsApplication::class)
@@ -20,4 +26,63 @@ class MediaTest {
         val m = Media("File:Example 1_2.jpg")
         assertEquals("Example 1 2", m.displayTitle)
     }
+
+    @Test
+    fun summaryFromReadsOnlyListFields() {
+        val metadata = mock(ExtMetadata::class.java)
+        `when`(metadata.artist()).thenReturn("<a href=\"/wiki/User:Foo\" title=\"User:Foo\">Foo</a>")
+        `when`(metadata.getCategories()).thenReturn("Cat1|Cat2")
+        val imageInfo = mock(ImageInfo::class.java)
+        `when`(imageInfo.originalUrl).thenReturn("https://example.org/Example.jpg")
+        `when`(imageInfo.thumbUrl).thenReturn("https://example.org/640px-Example.jpg")
+        `when`(imageInfo.metadata).thenReturn(metadata)
+        val page = mock(MwQueryPage::class.java)
+        `when`(page.title()).thenReturn("File:Example.jpg")
+        `when`(page.imageInfo()).thenReturn(imageInfo)
+
+        val media = Media.summaryFrom(page)!!
+
+        assertEquals("File:Example.jpg", media.filename)
+        assertEquals("https://example.org/Example.jpg", media.imageUrl)
+        assertEquals("https://example.org/640px-Example.jpg", media.thumbUrl)
+        assertEquals("Foo", media.creator)
+        assertTrue(media.categories.isEmpty())
+    }
+
+    @Test
+    fun copyIsIndependentOfOriginal() {
+        val media = Media("File:Example.jpg")
+        media.setCategories(listOf("Cat1"))
+        media.setLicenseInformation("CC BY-SA 4.0", "https://example.org/license")
+        media.setRequestedDeletion()
+
+        val copy = Media(media)
+        copy.setDiscussion("Talk")
+        copy.setCategories(listOf("Cat2"))
+
+        assertEquals("File:Example.jpg", copy.filename)
+        assertEquals("https://example.org/license", copy.licenseUrl)
+        assertTrue(copy.requestedDeletion)
+        assertNull(media.discussion)
+        assertEquals(listOf("Cat1"), media.categories)
+    }
+
+    @Test
+    fun parcelKeepsCategoriesAndTags() {
+        val media = Media("File:Example.jpg")
+        media.setCategories(listOf("Cat1", "Cat2"))
+        media.setTag("key", "value")
+        media.license = "CC BY-SA 4.0"
+
+        val parcel = Parcel.obtain()
+        media.writeToParcel(parcel, 0)
+        parcel.setDataPosition(0)
+        val restored = Media.CREATOR.createFromParcel(parcel)
+        parcel.recycle()
+
+        assertEquals(listOf("Cat1", "Cat2"), restored.categories)
+        assertEquals("value", restored.getTag("key"))
+        assertEquals("CC BY-SA 4.0", restored.license)
+        assertNull(Media("File:Example.jpg").getTag("key"))
+    }
 }
@@ -3,7 +3,6 @@ package fr.free.nrw.commons
 import android.app.Application
 import android.content.ContentProviderClient
 import android.content.Context
-import androidx.collection.LruCache
 import com.google.gson.Gson
 import com.nhaarman.mockitokotlin2.mock
 import com.squareup.leakcanary.RefWatcher
@@ -34,7 +33,6 @@ class MockCommonsApplicationModule(appContext: Context) : CommonsApplicationModu
     val defaultSharedPreferences: JsonKvStore = mock()
     val locationServiceManager: LocationServiceManager = mock()
     val mockDbOpenHelper: DBOpenHelper = mock()
-    val lruCache: LruCache<String, String> = mock()
     val gson: Gson = Gson()
     val categoryClient: ContentProviderClient = mock()
     val contributionClient: ContentProviderClient = mock()
@@ -54,6 +52,4 @@ class MockCommonsApplicationModule(appContext: Context) : CommonsApplicationModu
     override fun provideLocationServiceManager(context: Context): LocationServiceManager = locationServiceManager
 
     override fun provideDBOpenHelper(context: Context): DBOpenHelper = mockDbOpenHelper
-
-    override fun provideLruCache(): LruCache<String, String> = lruCache
 }
\ No newline at end of file
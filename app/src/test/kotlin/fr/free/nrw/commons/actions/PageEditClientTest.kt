@@ -2,6 +2,8 @@ package fr.free.nrw.commons.actions
 
 import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.verify
+import fr.free.nrw.commons.auth.CsrfTokenCache
+import io.reactivex.Observable
 import org.junit.Before
 import org.junit.Test
 import org.mockito.Mock
@@ -9,6 +11,8 @@ import org.mockito.Mockito
 import org.mockito.MockitoAnnotations
 import org.wikipedia.csrf.CsrfTokenClient
 import org.wikipedia.dataclient.Service
+import java.io.IOException
+import java.util.concurrent.Callable
 
 class PageEditClientTest {
     @Mock
@@ -27,7 +31,8 @@ class PageEditClientTest {
     @Throws(Exception::class)
     fun setUp() {
         MockitoAnnotations.initMocks(this)
-        pageEditClient = PageEditClient(csrfTokenClient, pageEditInterface, service)
+        pageEditClient = PageEditClient(CsrfTokenCache(Callable { csrfTokenClient.tokenBlocking }),
+                pageEditInterface, service)
     }
 
     /**
@@ -36,7 +41,9 @@ class PageEditClientTest {
     @Test
     fun testEdit() {
         Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
-        pageEditClient.edit("test", "test", "test")
+        Mockito.`when`(pageEditInterface.postEdit(eq("test"), eq("test"), eq("test"), eq("test")))
+                .thenReturn(Observable.empty())
+        pageEditClient.edit("test", "test", "test").test()
         verify(pageEditInterface).postEdit(eq("test"), eq("test"), eq("test"), eq("test"))
     }
 
@@ -46,7 +53,9 @@ class PageEditClientTest {
     @Test
     fun testAppendEdit() {
         Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
-        pageEditClient.appendEdit("test", "test", "test")
+        Mockito.`when`(pageEditInterface.postAppendEdit(eq("test"), eq("test"), eq("test"), eq("test")))
+                .thenReturn(Observable.empty())
+        pageEditClient.appendEdit("test", "test", "test").test()
         verify(pageEditInterface).postAppendEdit(eq("test"), eq("test"), eq("test"), eq("test"))
     }
 
@@ -56,7 +65,29 @@ class PageEditClientTest {
     @Test
     fun testPrependEdit() {
         Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
-        pageEditClient.prependEdit("test", "test", "test")
+        Mockito.`when`(pageEditInterface.postPrependEdit(eq("test"), eq("test"), eq("test"), eq("test")))
+                .thenReturn(Observable.empty())
+        pageEditClient.prependEdit("test", "test", "test").test()
         verify(pageEditInterface).postPrependEdit(eq("test"), eq("test"), eq("test"), eq("test"))
     }
-}
\ No newline at end of file
+
+    /**
+     * An edit fails with false if no token can be fetched
+     */
+    @Test
+    fun testEditWithoutToken() {
+        Mockito.`when`(csrfTokenClient.tokenBlocking).thenThrow(RuntimeException())
+        pageEditClient.edit("test", "test", "test").test().assertValue(false)
+    }
+
+    /**
+     * Errors of the edit request reach the subscriber
+     */
+    @Test
+    fun testEditError() {
+        Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
+        Mockito.`when`(pageEditInterface.postEdit(eq("test"), eq("test"), eq("test"), eq("test")))
+                .thenReturn(Observable.error(IOException()))
+        pageEditClient.edit("test", "test", "test").test().assertError(IOException::class.java)
+    }
+}
@@ -3,6 +3,8 @@ package fr.free.nrw.commons.actions
 import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.verify
 import fr.free.nrw.commons.CommonsApplication
+import fr.free.nrw.commons.auth.CsrfTokenCache
+import io.reactivex.Observable
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -15,6 +17,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest
 import org.powermock.modules.junit4.PowerMockRunner
 import org.wikipedia.csrf.CsrfTokenClient
 import org.wikipedia.dataclient.Service
+import java.util.concurrent.Callable
 
 @RunWith(PowerMockRunner::class)
 @PrepareForTest(CommonsApplication::class)
@@ -38,7 +41,7 @@ class ThanksClientTest {
         MockitoAnnotations.initMocks(this)
         PowerMockito.mockStatic(CommonsApplication::class.java)
         PowerMockito.`when`(CommonsApplication.getInstance()).thenReturn(commonsApplication)
-        thanksClient = ThanksClient(csrfTokenClient, service)
+        thanksClient = ThanksClient(CsrfTokenCache(Callable { csrfTokenClient.tokenBlocking }), service)
     }
 
     /**
@@ -48,7 +51,9 @@ class ThanksClientTest {
     fun testThanks() {
         Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
         Mockito.`when`(commonsApplication.userAgent).thenReturn("test")
-        thanksClient.thank(1L)
+        Mockito.`when`(service.thank(ArgumentMatchers.anyString(), ArgumentMatchers.any(), eq("test"), eq("test")))
+                .thenReturn(Observable.empty())
+        thanksClient.thank(1L).test()
         verify(service).thank(ArgumentMatchers.anyString(), ArgumentMatchers.any(), eq("test"), eq("test"))
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package fr.free.nrw.commons.auth
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import io.reactivex.Observable
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.wikipedia.dataclient.mwapi.MwException
+import java.util.concurrent.Callable
+import java.util.concurrent.atomic.AtomicInteger
+
+class CsrfTokenCacheTest {
+
+    private lateinit var fetchCount: AtomicInteger
+    private lateinit var csrfTokenCache: CsrfTokenCache
+
+    @Before
+    fun setUp() {
+        fetchCount = AtomicInteger(0)
+        csrfTokenCache = CsrfTokenCache(Callable { "token" + fetchCount.incrementAndGet() })
+    }
+
+    /**
+     * The token should be fetched once and then served from memory
+     */
+    @Test
+    fun testTokenIsCached() {
+        assertEquals("token1", csrfTokenCache.tokenBlocking)
+        assertEquals("token1", csrfTokenCache.tokenBlocking)
+        assertEquals(1, fetchCount.get())
+    }
+
+    /**
+     * An invalidated token should be fetched again
+     */
+    @Test
+    fun testInvalidate() {
+        csrfTokenCache.tokenBlocking
+        csrfTokenCache.invalidate()
+        assertEquals("token2", csrfTokenCache.tokenBlocking)
+    }
+
+    /**
+     * A request rejected with badtoken should be replayed once with a fresh token
+     */
+    @Test
+    fun testBadTokenIsReplayedOnce() {
+        val badToken: MwException = mock()
+        whenever(badToken.title).thenReturn("badtoken")
+        val usedTokens = mutableListOf<String>()
+        csrfTokenCache.withToken<String> { token ->
+            usedTokens.add(token)
+            if (token == "token1") Observable.error(badToken) else Observable.just(token)
+        }.test().assertValue("token2")
+        assertEquals(listOf("token1", "token2"), usedTokens)
+    }
+
+    /**
+     * Other errors should not trigger a replay
+     */
+    @Test
+    fun testOtherErrorsAreNotReplayed() {
+        val attempts = AtomicInteger(0)
+        csrfTokenCache.withToken<String> {
+            attempts.incrementAndGet()
+            Observable.error(RuntimeException())
+        }.test().assertError(RuntimeException::class.java)
+        assertEquals(1, attempts.get())
+        assertEquals(1, fetchCount.get())
+    }
+
+    /**
+     * The fallback value should only stand in for a token that can't be fetched
+     */
+    @Test
+    fun testFallbackWithoutToken() {
+        val failingCache = CsrfTokenCache(Callable<String> { throw RuntimeException() })
+        failingCache.withToken({ Observable.just(true) }, false)
+                .test().assertValue(false)
+    }
+
+    /**
+     * Errors of the request itself should reach the subscriber despite the fallback value
+     */
+    @Test
+    fun testRequestErrorsPassFallback() {
+        csrfTokenCache.withToken({ Observable.error<Boolean>(RuntimeException()) }, false)
+                .test().assertError(RuntimeException::class.java)
+    }
+}
@@ -0,0 +1,106 @@
+package fr.free.nrw.commons.bookmarks.locations
+
+import com.nhaarman.mockitokotlin2.*
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.location.LatLng
+import fr.free.nrw.commons.nearby.Label
+import fr.free.nrw.commons.nearby.Place
+import fr.free.nrw.commons.nearby.Sitelinks
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.stubbing.Answer
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class BookmarkLocationsIndexTest {
+    private val dao: BookmarkLocationsDao = mock()
+    private lateinit var testObject: BookmarkLocationsIndex
+
+    @Before
+    fun setUp() {
+        testObject = BookmarkLocationsIndex(RuntimeEnvironment.application, dao)
+    }
+
+    @Test
+    fun containsLoadsBookmarksOnce() {
+        whenever(dao.allBookmarksLocations).thenReturn(listOf(place("Bookmarked", "Q1")))
+
+        assertTrue(testObject.contains(place("Bookmarked", "Q1")))
+        assertFalse(testObject.contains(place("Other", "Q2")))
+
+        verify(dao, times(1)).allBookmarksLocations
+    }
+
+    @Test
+    fun containsMatchesByWikidataItem() {
+        whenever(dao.allBookmarksLocations).thenReturn(listOf(place("Old name", "Q1")))
+
+        assertTrue(testObject.contains(place("New name", "Q1")))
+    }
+
+    @Test
+    fun toggleAddsAndRemovesBookmark() {
+        whenever(dao.allBookmarksLocations).thenReturn(emptyList())
+        val place = place("Place", "Q1")
+
+        assertTrue(testObject.toggle(place))
+        verify(dao).addBookmarkLocation(place)
+        assertTrue(testObject.contains(place))
+        assertEquals(listOf(place), testObject.all)
+
+        assertFalse(testObject.toggle(place))
+        verify(dao).deleteBookmarkLocation(place)
+        assertFalse(testObject.contains(place))
+    }
+
+    @Test
+    fun changeNotificationReloadsBookmarks() {
+        whenever(dao.allBookmarksLocations).thenReturn(listOf(place("Bookmarked", "Q1")), emptyList())
+        assertTrue(testObject.contains(place("Bookmarked", "Q1")))
+
+        RuntimeEnvironment.application.contentResolver
+                .notifyChange(BookmarkLocationsContentProvider.BASE_URI, null)
+
+        assertFalse(testObject.contains(place("Bookmarked", "Q1")))
+        verify(dao, times(2)).allBookmarksLocations
+    }
+
+    @Test
+    fun toggleDoesNotReloadOnOwnChangeNotification() {
+        whenever(dao.allBookmarksLocations).thenReturn(emptyList(), listOf(place("Other", "Q2")))
+        // Like the content provider, which notifies every write
+        val notify = Answer<Unit> {
+            RuntimeEnvironment.application.contentResolver
+                    .notifyChange(BookmarkLocationsContentProvider.BASE_URI, null)
+        }
+        doAnswer(notify).whenever(dao).addBookmarkLocation(any())
+        doAnswer(notify).whenever(dao).deleteBookmarkLocation(any())
+        val place = place("Place", "Q1")
+
+        assertTrue(testObject.toggle(place))
+        assertFalse(testObject.toggle(place))
+        assertTrue(testObject.toggle(place))
+
+        assertTrue(testObject.contains(place))
+        verify(dao, times(1)).allBookmarksLocations
+
+        // Changes made elsewhere still reload the bookmarks
+        RuntimeEnvironment.application.contentResolver
+                .notifyChange(BookmarkLocationsContentProvider.BASE_URI, null)
+        assertTrue(testObject.contains(place("Other", "Q2")))
+        verify(dao, times(2)).allBookmarksLocations
+    }
+
+    private fun place(name: String, wikidataId: String): Place {
+        val sitelinks = Sitelinks.Builder()
+                .setWikidataLink("http://www.wikidata.org/entity/$wikidataId")
+                .build()
+        return Place(name, Label.FOREST, "description", LatLng(40.0, 51.4, 1f), "category",
+                sitelinks, "", "")
+    }
+}
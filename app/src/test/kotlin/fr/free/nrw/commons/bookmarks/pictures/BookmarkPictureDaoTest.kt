@@ -1,6 +1,8 @@
 package fr.free.nrw.commons.bookmarks.pictures
 
 import android.content.ContentProviderClient
+import android.content.ContentProviderOperation
+import android.content.ContentProviderResult
 import android.content.ContentValues
 import android.database.Cursor
 import android.database.MatrixCursor
@@ -9,6 +11,7 @@ import android.net.Uri
 import android.os.RemoteException
 import com.nhaarman.mockitokotlin2.*
 import fr.free.nrw.commons.BuildConfig
+import fr.free.nrw.commons.Media
 import fr.free.nrw.commons.TestCommonsApplication
 import fr.free.nrw.commons.bookmarks.Bookmark
 import fr.free.nrw.commons.bookmarks.pictures.BookmarkPicturesContentProvider.BASE_URI
@@ -210,6 +213,96 @@ class BookmarkPictureDaoTest {
         verify(database).execSQL(CREATE_TABLE_STATEMENT)
     }
 
+    @Test
+    fun migrateTableVersionFrom_v15_to_v16() {
+        onUpdate(database, 15, 16)
+        inOrder(database) {
+            verify(database).execSQL(ADD_IMAGE_URL_FIELD)
+            verify(database).execSQL(ADD_THUMB_URL_FIELD)
+            verify(database).execSQL(ADD_FETCHED_AT_FIELD)
+        }
+    }
+
+    @Test
+    fun migrateTableVersionFrom_v7_to_v16() {
+        onUpdate(database, 7, 16)
+        // Created with the columns of the latest version
+        verify(database).execSQL(CREATE_TABLE_STATEMENT)
+        verifyNoMoreInteractions(database)
+    }
+
+    @Test
+    fun getBookmarkedMedia() {
+        val cursor = MatrixCursor(ALL_FIELDS, 1).apply {
+            addRow(listOf("File:Example.jpg", "creatorName", "https://example.org/Example.jpg",
+                    "https://example.org/640px-Example.jpg", 1L))
+        }
+        whenever(client.query(any(), any(), any(), any(), anyOrNull())).thenReturn(cursor)
+
+        val result = testObject.bookmarkedMedia
+
+        assertEquals(1, result.size)
+        assertEquals("File:Example.jpg", result[0].filename)
+        assertEquals("creatorName", result[0].creator)
+        assertEquals("https://example.org/Example.jpg", result[0].imageUrl)
+        assertEquals("https://example.org/640px-Example.jpg", result[0].thumbUrl)
+        verify(client).query(eq(BASE_URI), eq(ALL_FIELDS), eq("$COLUMN_IMAGE_URL != ''"), any(), isNull())
+    }
+
+    @Test
+    fun getMediaNamesFetchedBefore() {
+        val cursor = MatrixCursor(arrayOf(COLUMN_MEDIA_NAME), 1).apply {
+            addRow(listOf("File:Example.jpg"))
+        }
+        whenever(client.query(any(), any(), any(), any(), anyOrNull())).thenReturn(cursor)
+
+        assertEquals(listOf("File:Example.jpg"), testObject.getMediaNamesFetchedBefore(123L))
+        verify(client).query(eq(BASE_URI), eq(arrayOf(COLUMN_MEDIA_NAME)), eq("$COLUMN_FETCHED_AT < ?"),
+                eq(arrayOf("123")), isNull())
+        verify(client).release()
+    }
+
+    @Test
+    fun updateBookmarkedMedia() {
+        val media = Media(null, "https://example.org/Example.jpg", "File:Example.jpg", "", 0,
+                null, null, "Foo")
+        media.thumbUrl = "https://example.org/640px-Example.jpg"
+
+        val operationsCaptor = argumentCaptor<ArrayList<ContentProviderOperation>>()
+        whenever(client.applyBatch(isA())).thenReturn(arrayOf(ContentProviderResult(1), ContentProviderResult(1)))
+
+        testObject.updateBookmarkedMedia(listOf("File:Example.jpg", "File:Missing.jpg"),
+                mapOf("File:Example.jpg" to media), 42L)
+
+        verify(client).applyBatch(operationsCaptor.capture())
+        verify(client, never()).update(any(), any(), anyOrNull(), anyOrNull())
+        verify(client).release()
+        val operations = operationsCaptor.firstValue
+        assertEquals(listOf(BASE_URI, BASE_URI), operations.map { it.uri })
+        assertEquals(listOf("File:Example.jpg"),
+                operations[0].resolveSelectionArgsBackReferences(arrayOf(), 0).toList())
+        operations[0].resolveValueBackReferences(arrayOf(), 0).let { cv ->
+            assertEquals("https://example.org/Example.jpg", cv.getAsString(COLUMN_IMAGE_URL))
+            assertEquals("https://example.org/640px-Example.jpg", cv.getAsString(COLUMN_THUMB_URL))
+            assertEquals("Foo", cv.getAsString(COLUMN_CREATOR))
+            assertEquals(42L, cv.getAsLong(COLUMN_FETCHED_AT))
+        }
+        operations[1].resolveValueBackReferences(arrayOf(), 0).let { cv ->
+            assertEquals("", cv.getAsString(COLUMN_IMAGE_URL))
+            assertEquals(42L, cv.getAsLong(COLUMN_FETCHED_AT))
+        }
+    }
+
+    @Test
+    fun updateBookmarkCountsModifications() {
+        whenever(client.query(any(), any(), any(), any(), anyOrNull())).thenReturn(null)
+        val modificationCount = testObject.modificationCount
+
+        testObject.updateBookmark(exampleBookmark)
+
+        assertEquals(modificationCount + 1, testObject.modificationCount)
+    }
+
     private fun createCursor(rowCount: Int) = MatrixCursor(columns, rowCount).apply {
         for (i in 0 until rowCount) {
             addRow(listOf("mediaName", "creatorName"))
@@ -1,7 +1,5 @@
 package fr.free.nrw.commons.bookmarks.pictures;
 
-import android.net.Uri;
-
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -9,17 +7,24 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import fr.free.nrw.commons.Media;
-import fr.free.nrw.commons.bookmarks.Bookmark;
 import fr.free.nrw.commons.media.MediaClient;
 import io.reactivex.Single;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -42,48 +47,95 @@ public class BookmarkPicturesControllerTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        Media mockMedia = getMockMedia();
-        when(bookmarkDao.getAllBookmarks())
-                .thenReturn(getMockBookmarkList());
-        when(mediaClient.getMedia(anyString()))
-                .thenReturn(Single.just(mockMedia));
+        when(bookmarkDao.getBookmarkedMedia())
+                .thenReturn(getMockMediaList());
+        when(bookmarkDao.getMediaNamesFetchedBefore(anyLong()))
+                .thenReturn(Collections.emptyList());
+        when(bookmarkDao.getModificationCount())
+                .thenReturn(3);
     }
 
     /**
-     * Get mock bookmark list
+     * Get mock media list
      * @return
      */
-    private List<Bookmark> getMockBookmarkList() {
-        ArrayList<Bookmark> list = new ArrayList<>();
-        list.add(new Bookmark("File:Test1.jpg", "Maskaravivek", Uri.EMPTY));
-        list.add(new Bookmark("File:Test2.jpg", "Maskaravivek", Uri.EMPTY));
+    private List<Media> getMockMediaList() {
+        ArrayList<Media> list = new ArrayList<>();
+        list.add(new Media("File:Test1.jpg"));
+        list.add(new Media("File:Test2.jpg"));
         return list;
     }
 
     /**
-     * Test case where all bookmark pictures are fetched and media is found against it
+     * Test case where all bookmark pictures are stored in the DB and up to date
      */
     @Test
     public void loadBookmarkedPictures() {
-        List<Media> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures().blockingGet();
+        List<List<Media>> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures()
+                .toList().blockingGet();
+        assertEquals(1, bookmarkedPictures.size());
+        assertEquals(2, bookmarkedPictures.get(0).size());
+        verify(mediaClient, never()).getMediaSummaries(anyList());
+    }
+
+    /**
+     * Test case where the details of bookmarks are outdated and fetched in batches
+     */
+    @Test
+    public void loadBookmarkedPicturesFetchesOutdatedInBatches() {
+        List<String> staleNames = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            staleNames.add("File:Test" + i + ".jpg");
+        }
+        when(bookmarkDao.getMediaNamesFetchedBefore(anyLong())).thenReturn(staleNames);
+        when(mediaClient.getMediaSummaries(anyList()))
+                .thenReturn(Single.just(Collections.<String, Media>emptyMap()));
+
+        List<List<Media>> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures()
+                .toList().blockingGet();
+
         assertEquals(2, bookmarkedPictures.size());
+        verify(mediaClient).getMediaSummaries(staleNames.subList(0, 50));
+        verify(mediaClient).getMediaSummaries(staleNames.subList(50, 60));
+        verify(bookmarkDao, times(2)).updateBookmarkedMedia(anyList(), anyMap(), anyLong());
     }
 
     /**
-     * Test case where all bookmark pictures are fetched and only one media is found
+     * Test case where the details of bookmarks can't be fetched and the stored ones are shown
      */
     @Test
-    public void loadBookmarkedPicturesForNullMedia() {
-        when(mediaClient.getMedia("File:Test1.jpg"))
-                .thenReturn(Single.error(new NullPointerException("Error occurred")));
-        when(mediaClient.getMedia("File:Test2.jpg"))
-                .thenReturn(Single.just(getMockMedia()));
-        List<Media> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures().blockingGet();
-        assertEquals(1, bookmarkedPictures.size());
+    public void loadBookmarkedPicturesWhenFetchFails() {
+        when(bookmarkDao.getMediaNamesFetchedBefore(anyLong()))
+                .thenReturn(Collections.singletonList("File:Test1.jpg"));
+        when(mediaClient.getMediaSummaries(anyList()))
+                .thenReturn(Single.<Map<String, Media>>error(new NullPointerException("Error occurred")));
+
+        List<List<Media>> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures()
+                .toList().blockingGet();
+
+        assertEquals(2, bookmarkedPictures.get(bookmarkedPictures.size() - 1).size());
+        verify(bookmarkDao, never()).updateBookmarkedMedia(anyList(), anyMap(), anyLong());
     }
 
-    private Media getMockMedia() {
-        return new Media("File:Test.jpg");
+    /**
+     * Test case where nothing is stored yet, so only the fetched pictures are emitted
+     */
+    @Test
+    public void loadBookmarkedPicturesWithoutStoredPictures() {
+        when(bookmarkDao.getBookmarkedMedia())
+                .thenReturn(Collections.<Media>emptyList(), getMockMediaList());
+        when(bookmarkDao.getMediaNamesFetchedBefore(anyLong()))
+                .thenReturn(Collections.singletonList("File:Test1.jpg"));
+        when(mediaClient.getMediaSummaries(anyList()))
+                .thenReturn(Single.just(Collections.<String, Media>emptyMap()));
+
+        List<List<Media>> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures()
+                .toList().blockingGet();
+
+        assertEquals(1, bookmarkedPictures.size());
+        assertEquals(2, bookmarkedPictures.get(0).size());
+        verify(bookmarkDao).updateBookmarkedMedia(eq(Collections.singletonList("File:Test1.jpg")),
+                anyMap(), anyLong());
     }
 
     /**
@@ -100,9 +152,18 @@ public class BookmarkPicturesControllerTest {
      */
     @Test
     public void doNotNeedRefreshBookmarkedPictures() {
-        List<Media> bookmarkedPictures = bookmarkPicturesController.loadBookmarkedPictures().blockingGet();
-        assertEquals(2, bookmarkedPictures.size());
+        bookmarkPicturesController.loadBookmarkedPictures().blockingLast();
         boolean needRefreshBookmarkedPictures = bookmarkPicturesController.needRefreshBookmarkedPictures();
         assertFalse(needRefreshBookmarkedPictures);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case where a bookmark was added after the bookmarks were loaded
+     */
+    @Test
+    public void needRefreshBookmarkedPicturesAfterModification() {
+        bookmarkPicturesController.loadBookmarkedPictures().blockingLast();
+        when(bookmarkDao.getModificationCount()).thenReturn(4);
+        assertTrue(bookmarkPicturesController.needRefreshBookmarkedPictures());
+    }
+}
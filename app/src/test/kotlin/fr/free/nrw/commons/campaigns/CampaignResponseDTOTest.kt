@@ -0,0 +1,23 @@
+package fr.free.nrw.commons.campaigns
+
+import com.google.gson.Gson
+import org.junit.Assert.*
+import org.junit.Test
+
+class CampaignResponseDTOTest {
+
+    @Test
+    fun parseDatesSortsByStartDateAndDropsInvalidDates() {
+        val response = Gson().fromJson("""{"campaigns": [
+            {"title": "Later", "startDate": "2019-12-01", "endDate": "2019-12-31"},
+            {"title": "Invalid", "startDate": "December", "endDate": "2019-12-31"},
+            {"title": "Earlier", "startDate": "2019-09-01", "endDate": "2019-09-30"}
+            ]}""", CampaignResponseDTO::class.java)
+
+        response.parseDates()
+
+        assertEquals(listOf("Earlier", "Later"), response.campaigns!!.map { it.title })
+        assertNotNull(response.campaigns!![0].parsedStartDate)
+        assertTrue(response.campaigns!![0].parsedEndDate!!.after(response.campaigns!![0].parsedStartDate))
+    }
+}
@@ -9,7 +9,6 @@ import org.junit.Test
 import org.mockito.Mock
 import org.mockito.Mockito
 import org.mockito.MockitoAnnotations
-import java.text.SimpleDateFormat
 import java.util.*
 import kotlin.collections.ArrayList
 
@@ -58,17 +57,13 @@ class CampaignsPresenterTest {
         campaignsPresenter.getCampaigns()
         var campaigns= ArrayList<Campaign>()
         campaigns.add(campaign!!)
-        val simpleDateFormat = SimpleDateFormat("yyyy-MM-dd", Locale.ROOT)
-        simpleDateFormat.timeZone = TimeZone.getTimeZone("UTC")
         Mockito.`when`(campaignResponseDTO?.campaigns).thenReturn(campaigns)
         var calendar = Calendar.getInstance()
         calendar.add(Calendar.DATE,-1)
-        val startDateString = simpleDateFormat.format(calendar.time).toString()
+        Mockito.`when`(campaign?.parsedStartDate).thenReturn(calendar.time)
         calendar= Calendar.getInstance()
         calendar.add(Calendar.DATE,3)
-        val endDateString= simpleDateFormat.format(calendar.time).toString()
-        Mockito.`when`(campaign?.endDate).thenReturn(endDateString)
-        Mockito.`when`(campaign?.startDate).thenReturn(startDateString)
+        Mockito.`when`(campaign?.parsedEndDate).thenReturn(calendar.time)
         Mockito.`when`(campaignResponseDTO?.campaigns).thenReturn(campaigns)
         verify(okHttpJsonApiClient)?.campaigns
         testScheduler.triggerActions()
@@ -32,6 +32,9 @@ class CategoriesModelTest {
     @Mock
     internal var context: Context? = null
 
+    @Mock
+    internal var prefixIndex: CategoryPrefixIndex? = null
+
     @InjectMocks
     var categoryClient: CategoryClient? = null
 
@@ -52,7 +55,7 @@ class CategoriesModelTest {
         Mockito.`when`(mwQueryResult.pages()).thenReturn(listOf(mwQueryPage))
         val mockResponse = Mockito.mock(MwQueryResponse::class.java)
         Mockito.`when`(mockResponse.query()).thenReturn(mwQueryResult)
-        val categoriesModel: CategoriesModel = CategoriesModel(categoryClient,null,null)
+        val categoriesModel: CategoriesModel = CategoriesModel(categoryClient,null,null,prefixIndex)
 
         Mockito.`when`(categoryInterface!!.searchCategoriesForPrefix(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt()))
                 .thenReturn(Observable.just(mockResponse))
@@ -84,7 +87,7 @@ class CategoriesModelTest {
         Mockito.`when`(context!!.getSharedPreferences("",0))
                 .thenReturn(null)
         val directKvStore = Mockito.spy(JsonKvStore(context,"",gson))
-        val categoriesModelForSubstringSearch = Mockito.spy(CategoriesModel(categoryClient,categoryDao,directKvStore))
+        val categoriesModelForSubstringSearch = Mockito.spy(CategoriesModel(categoryClient,categoryDao,directKvStore,prefixIndex))
         Mockito.doReturn(Observable.just(categoryItemForSubstringSearch)).`when`(categoriesModelForSubstringSearch).gpsCategories()
         Mockito.`when`(context!!.getSharedPreferences("",0))
                 .thenReturn(null)
@@ -95,11 +98,43 @@ class CategoriesModelTest {
         Mockito.`when`(categoryInterface!!.searchCategories(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt()))
                 .thenReturn(Observable.just(mockResponse))
 
-        // Checking if both return "Test"
-        val actualCategoryName = categoriesModelForSubstringSearch!!.searchAll(null, listOf<String>("tes")).blockingLast()
-        assertEquals("Test",actualCategoryName.getName())
+        // Checking if both return "Test", direct and recent categories follow the title categories
+        val actualCategoryNames = categoriesModelForSubstringSearch!!.searchAll(null, listOf<String>("tes"))
+                .map { it.name }.toList().blockingGet()
+        assertEquals(listOf("", "Test", "Random Value", ""), actualCategoryNames)
+
+        val actualCategoryNamesCaps = categoriesModelForSubstringSearch!!.searchAll(null, listOf<String>("Tes"))
+                .map { it.name }.toList().blockingGet()
+        assertEquals(listOf("", "Test", "Random Value", ""), actualCategoryNamesCaps)
+    }
+
+    @Test
+    fun searchAllReturnsIndexedCategoriesWhenOffline() {
+        Mockito.`when`(prefixIndex!!.search(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(listOf("Test"))
+        Mockito.`when`(categoryInterface!!.searchCategoriesForPrefix(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt()))
+                .thenReturn(Observable.error(Exception("offline")))
+        val categoriesModel = CategoriesModel(categoryClient, null, null, prefixIndex)
+
+        val categories = categoriesModel.searchAll("tes", null).toList().blockingGet()
+
+        assertEquals(listOf("Test"), categories.map { it.name })
+    }
+
+    @Test
+    fun searchAllAddsApiResultsToIndex() {
+        val mwQueryPage = Mockito.mock(MwQueryPage::class.java)
+        Mockito.`when`(mwQueryPage.title()).thenReturn("Category:Test")
+        val mwQueryResult = Mockito.mock(MwQueryResult::class.java)
+        Mockito.`when`(mwQueryResult.pages()).thenReturn(listOf(mwQueryPage))
+        val mockResponse = Mockito.mock(MwQueryResponse::class.java)
+        Mockito.`when`(mockResponse.query()).thenReturn(mwQueryResult)
+        Mockito.`when`(categoryInterface!!.searchCategoriesForPrefix(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt()))
+                .thenReturn(Observable.just(mockResponse))
+        val categoriesModel = CategoriesModel(categoryClient, null, null, prefixIndex)
+
+        categoriesModel.searchAll("tes", null).blockingSubscribe()
 
-        val actualCategoryNameCaps = categoriesModelForSubstringSearch!!.searchAll(null, listOf<String>("Tes")).blockingLast()
-        assertEquals("Test",actualCategoryNameCaps.getName())
+        Mockito.verify(prefixIndex)!!.addAll(listOf("Test"))
     }
-}
\ No newline at end of file
+}
@@ -12,11 +12,13 @@ import fr.free.nrw.commons.TestCommonsApplication
 import fr.free.nrw.commons.category.CategoryContentProvider.BASE_URI
 import fr.free.nrw.commons.category.CategoryContentProvider.uriForId
 import fr.free.nrw.commons.category.CategoryDao.Table.*
+import fr.free.nrw.commons.data.DBOpenHelper
 import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
 import org.robolectric.annotation.Config
 import java.util.*
 
@@ -100,6 +102,13 @@ class CategoryDaoTest {
         verifyZeroInteractions(database)
     }
 
+    @Test
+    fun migrateTableVersionFrom_v13_to_v14() {
+        onUpdate(database, 13, 14)
+        // Frecency and indexes added in version 14
+        verify(database, times(5)).execSQL(any())
+    }
+
     @Test
     fun createFromCursor() {
         createCursor(1).let { cursor ->
@@ -122,10 +131,11 @@ class CategoryDaoTest {
 
             verify(client).update(eq(category.contentUri), captor.capture(), isNull(), isNull())
             captor.firstValue.let { cv ->
-                assertEquals(3, cv.size())
+                assertEquals(4, cv.size())
                 assertEquals(category.name, cv.getAsString(COLUMN_NAME))
                 assertEquals(category.lastUsed.time, cv.getAsLong(COLUMN_LAST_USED))
                 assertEquals(category.timesUsed, cv.getAsInteger(COLUMN_TIMES_USED))
+                assertEquals(frecency(123L, 2), cv.getAsLong(COLUMN_FRECENCY))
             }
         }
     }
@@ -140,10 +150,11 @@ class CategoryDaoTest {
 
         verify(client).insert(eq(BASE_URI), captor.capture())
         captor.firstValue.let { cv ->
-            assertEquals(3, cv.size())
+            assertEquals(4, cv.size())
             assertEquals(category.name, cv.getAsString(COLUMN_NAME))
             assertEquals(category.lastUsed.time, cv.getAsLong(COLUMN_LAST_USED))
             assertEquals(category.timesUsed, cv.getAsInteger(COLUMN_TIMES_USED))
+            assertEquals(234L + FRECENCY_BONUS_PER_USE, cv.getAsLong(COLUMN_FRECENCY))
             assertEquals(contentUri, category.contentUri)
         }
     }
@@ -244,22 +255,63 @@ class CategoryDaoTest {
         assertEquals("foo", result[0])
 
         verify(client).query(
-                eq(BASE_URI),
-                eq(ALL_FIELDS),
+                eq(CategoryContentProvider.limitedUri(10)),
+                eq(arrayOf(COLUMN_NAME)),
                 isNull(),
                 queryCaptor.capture(),
-                eq("$COLUMN_LAST_USED DESC")
+                eq("$COLUMN_FRECENCY DESC")
         )
         assertEquals(0, queryCaptor.firstValue.size)
     }
 
     @Test
-    fun recentCategoriesHonorsLimit() {
-        whenever(client.query(any(), any(), anyOrNull(), any(), any())).thenReturn(createCursor(10))
+    fun recentCategoriesLimitsQuery() {
+        whenever(client.query(any(), any(), anyOrNull(), any(), any())).thenReturn(createCursor(5))
 
         val result = testObject.recentCategories(5)
 
         assertEquals(5, result.size)
+        verify(client).query(argThat { getQueryParameter("limit") == "5" },
+                any(), anyOrNull(), any(), any())
+    }
+
+    @Test
+    fun recordUse() {
+        testObject.recordUse("foo")
+
+        verify(client).insert(eq(CategoryContentProvider.USES_URI), captor.capture())
+        captor.firstValue.let { cv ->
+            assertEquals(2, cv.size())
+            assertEquals("foo", cv.getAsString(COLUMN_NAME))
+            assertNotNull(cv.getAsLong(COLUMN_LAST_USED))
+        }
+    }
+
+    @Test
+    fun recordUseStatementsCountUsesAndRankByFrecency() {
+        val dbOpenHelper = DBOpenHelper(RuntimeEnvironment.application)
+        try {
+            val db = dbOpenHelper.writableDatabase
+            recordUse(db, "often", 1000L)
+            recordUse(db, "often", 2000L)
+            recordUse(db, "once", 3000L)
+
+            db.query(TABLE_NAME, arrayOf(COLUMN_NAME, COLUMN_TIMES_USED, COLUMN_FRECENCY),
+                    null, null, null, null, "$COLUMN_FRECENCY DESC", "1").use {
+                it.moveToFirst()
+                assertEquals("often", it.getString(0))
+                assertEquals(2, it.getInt(1))
+                assertEquals(frecency(2000L, 2), it.getLong(2))
+                assertEquals(1, it.count)
+            }
+        } finally {
+            dbOpenHelper.close()
+        }
+    }
+
+    private fun recordUse(db: SQLiteDatabase, name: String, lastUsed: Long) {
+        db.execSQL(INSERT_IF_MISSING, arrayOf(name))
+        db.execSQL(RECORD_USE, arrayOf(lastUsed, name))
     }
 
     private fun createCursor(rowCount: Int) = MatrixCursor(columns, rowCount).apply {
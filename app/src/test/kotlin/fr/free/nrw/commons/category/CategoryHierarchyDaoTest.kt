@@ -0,0 +1,68 @@
+package fr.free.nrw.commons.category
+
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.category.CategoryHierarchyDao.PARENTS
+import fr.free.nrw.commons.category.CategoryHierarchyDao.SUBCATEGORIES
+import fr.free.nrw.commons.data.DBOpenHelper
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class CategoryHierarchyDaoTest {
+    private lateinit var dbOpenHelper: DBOpenHelper
+    private lateinit var testObject: CategoryHierarchyDao
+
+    @Before
+    fun setUp() {
+        dbOpenHelper = DBOpenHelper(RuntimeEnvironment.application)
+        testObject = CategoryHierarchyDao(dbOpenHelper)
+    }
+
+    @After
+    fun tearDown() {
+        dbOpenHelper.close()
+    }
+
+    @Test
+    fun findReturnsNullWhenNeverFetched() {
+        assertNull(testObject.find("Trees", SUBCATEGORIES))
+    }
+
+    @Test
+    fun saveKeepsOrderAndDirection() {
+        testObject.save("Trees", SUBCATEGORIES, listOf("Pines", "Oaks"), 10L)
+        testObject.save("Trees", PARENTS, emptyList(), 20L)
+
+        val subcategories = testObject.find("Trees", SUBCATEGORIES)!!
+        assertEquals(listOf("Pines", "Oaks"), subcategories.related)
+        assertEquals(10L, subcategories.fetchedAt)
+        val parents = testObject.find("Trees", PARENTS)!!
+        assertTrue(parents.related.isEmpty())
+        assertEquals(20L, parents.fetchedAt)
+    }
+
+    @Test
+    fun saveReplacesStoredList() {
+        testObject.save("Trees", SUBCATEGORIES, listOf("Pines", "Oaks"), 10L)
+        testObject.save("Trees", SUBCATEGORIES, listOf("Firs"), 20L)
+
+        assertEquals(listOf("Firs"), testObject.find("Trees", SUBCATEGORIES)!!.related)
+    }
+
+    @Test
+    fun oldestListsAreEvicted() {
+        for (i in 0..CategoryHierarchyDao.MAX_NODES) {
+            testObject.save("Category $i", SUBCATEGORIES, listOf("Child $i"), i.toLong())
+        }
+
+        assertNull(testObject.find("Category 0", SUBCATEGORIES))
+        assertEquals(listOf("Child 1"), testObject.find("Category 1", SUBCATEGORIES)!!.related)
+    }
+}
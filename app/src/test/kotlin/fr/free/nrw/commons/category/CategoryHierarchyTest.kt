@@ -0,0 +1,83 @@
+package fr.free.nrw.commons.category
+
+import com.nhaarman.mockitokotlin2.*
+import fr.free.nrw.commons.category.CategoryHierarchyDao.Node
+import fr.free.nrw.commons.category.CategoryHierarchyDao.SUBCATEGORIES
+import io.reactivex.Observable
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+
+class CategoryHierarchyTest {
+    private val categoryClient: CategoryClient = mock()
+    private val hierarchyDao: CategoryHierarchyDao = mock()
+    private lateinit var testObject: CategoryHierarchy
+
+    @Before
+    fun setUp() {
+        testObject = CategoryHierarchy(categoryClient, hierarchyDao)
+        // Categories found below are already stored, so nothing is prefetched unless a test says so
+        whenever(hierarchyDao.find(any(), any())).thenReturn(Node(emptyList(), now()))
+    }
+
+    @Test
+    fun freshStoredListIsNotFetchedAgain() {
+        whenever(hierarchyDao.find("Trees", SUBCATEGORIES)).thenReturn(Node(listOf("Oaks"), now()))
+
+        testObject.getSubCategories("Trees").test().await().assertValues(listOf("Oaks"))
+
+        verifyZeroInteractions(categoryClient)
+    }
+
+    @Test
+    fun missingListIsFetchedAndStored() {
+        whenever(hierarchyDao.find("Trees", SUBCATEGORIES)).thenReturn(null)
+        whenever(categoryClient.getSubCategoryList("Category:Trees"))
+                .thenReturn(Observable.just("Oaks", "Pines"))
+
+        testObject.getSubCategories("Trees").test().await().assertValues(listOf("Oaks", "Pines"))
+
+        verify(hierarchyDao).save(eq("Trees"), eq(SUBCATEGORIES), eq(listOf("Oaks", "Pines")), any())
+    }
+
+    @Test
+    fun staleListIsShownThenRevalidated() {
+        whenever(hierarchyDao.find("Trees", SUBCATEGORIES))
+                .thenReturn(Node(listOf("Oaks"), stale()))
+        whenever(categoryClient.getSubCategoryList("Category:Trees"))
+                .thenReturn(Observable.just("Oaks", "Pines"))
+
+        testObject.getSubCategories("Trees").test().await()
+                .assertValues(listOf("Oaks"), listOf("Oaks", "Pines"))
+    }
+
+    @Test
+    fun staleListIsKeptWhenRevalidationFails() {
+        whenever(hierarchyDao.find("Trees", SUBCATEGORIES))
+                .thenReturn(Node(listOf("Oaks"), stale()))
+        whenever(categoryClient.getSubCategoryList("Category:Trees"))
+                .thenReturn(Observable.error(IOException()))
+
+        testObject.getSubCategories("Trees").test().await()
+                .assertValues(listOf("Oaks"))
+                .assertComplete()
+    }
+
+    @Test
+    fun firstCategoriesArePrefetched() {
+        whenever(hierarchyDao.find("Trees", SUBCATEGORIES))
+                .thenReturn(Node(listOf("Oaks", "Pines", "Firs", "Yews"), now()))
+        whenever(hierarchyDao.find("Oaks", SUBCATEGORIES)).thenReturn(null)
+        whenever(categoryClient.getSubCategoryList(any())).thenReturn(Observable.just("Cork oaks"))
+
+        testObject.getSubCategories("Trees").test().await().assertValueCount(1)
+
+        verify(categoryClient).getSubCategoryList("Category:Oaks")
+        verify(categoryClient, never()).getSubCategoryList("Category:Yews")
+        verify(hierarchyDao).save(eq("Oaks"), eq(SUBCATEGORIES), eq(listOf("Cork oaks")), any())
+    }
+
+    private fun now() = System.currentTimeMillis()
+
+    private fun stale() = now() - CategoryHierarchy.STALE_AFTER_MS - 1
+}
@@ -0,0 +1,60 @@
+package fr.free.nrw.commons.category
+
+import com.nhaarman.mockitokotlin2.*
+import fr.free.nrw.commons.kvstore.JsonKvStore
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.lang.reflect.Type
+
+class CategoryPrefixIndexTest {
+    private val store: JsonKvStore = mock()
+    private lateinit var testObject: CategoryPrefixIndex
+
+    @Before
+    fun setUp() {
+        testObject = CategoryPrefixIndex(store)
+    }
+
+    @Test
+    fun searchMatchesPrefixIgnoringCase() {
+        testObject.addAll(listOf("Trees", "Tree houses", "Towers", "Streets"))
+
+        assertEquals(listOf("Tree houses", "Trees"), testObject.search("TRE", 10))
+        assertEquals(emptyList<String>(), testObject.search("x", 10))
+    }
+
+    @Test
+    fun searchHonorsLimit() {
+        testObject.addAll(listOf("Trees", "Tree houses", "Trees in Paris"))
+
+        assertEquals(2, testObject.search("tree", 2).size)
+    }
+
+    @Test
+    fun leastRecentlyAddedNamesAreEvicted() {
+        testObject.addAll((0..CategoryPrefixIndex.MAX_NAMES).map { "Category $it" })
+
+        assertEquals(emptyList<String>(), testObject.search("Category 0", 10).filter { it == "Category 0" })
+        assertEquals(listOf("Category 1"), testObject.search("Category 1", 10).filter { it == "Category 1" })
+    }
+
+    @Test
+    fun loadsSavedNames() {
+        whenever(store.getJson<List<String>>(eq("names"), any<Type>())).thenReturn(listOf("Trees"))
+
+        assertEquals(listOf("Trees"), testObject.search("tr", 10))
+    }
+
+    @Test
+    fun savesOnlyWhenChanged() {
+        testObject.save()
+        verify(store, never()).putJson(any(), any<Any>())
+
+        testObject.addAll(listOf("Trees", "Towers"))
+        testObject.save()
+        testObject.save()
+
+        verify(store, times(1)).putJson("names", listOf("Trees", "Towers"))
+    }
+}
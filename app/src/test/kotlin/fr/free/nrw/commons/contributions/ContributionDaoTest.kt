@@ -1,18 +1,15 @@
 package fr.free.nrw.commons.contributions
 
-import android.content.ContentProviderClient
-import android.content.ContentValues
 import android.database.MatrixCursor
 import android.database.sqlite.SQLiteDatabase
 import android.net.Uri
-import android.os.RemoteException
 import com.nhaarman.mockitokotlin2.*
 import fr.free.nrw.commons.BuildConfig
+import fr.free.nrw.commons.Media
 import fr.free.nrw.commons.TestCommonsApplication
 import fr.free.nrw.commons.Utils
 import fr.free.nrw.commons.contributions.Contribution.*
 import fr.free.nrw.commons.contributions.ContributionDao.Table
-import fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI
 import fr.free.nrw.commons.contributions.ContributionsContentProvider.uriForId
 import org.junit.Assert.*
 import org.junit.Before
@@ -26,17 +23,13 @@ import java.util.*
 @Config(sdk = [21], application = TestCommonsApplication::class)
 class ContributionDaoTest {
     private val localUri = "http://example.com/"
-    private val client: ContentProviderClient = mock()
     private val database: SQLiteDatabase = mock()
-    private val captor = argumentCaptor<ContentValues>()
 
-    private lateinit var contentUri: Uri
     private lateinit var testObject: ContributionDao
 
     @Before
     fun setUp() {
-        contentUri = uriForId(111)
-        testObject = ContributionDao { client }
+        testObject = ContributionDao()
     }
 
     @Test
@@ -136,15 +129,41 @@ class ContributionDaoTest {
     }
 
     @Test
-    fun saveNewContribution_nonNullFields() {
-        whenever(client.insert(isA(), isA())).thenReturn(contentUri)
-        val contribution = createContribution(true, null, null, null, null)
+    fun migrateTableVersionFrom_v11_to_v12() {
+        Table.onUpdate(database, 11, 12)
+        // Sort key and indexes added in version 12
+        inOrder(database) {
+            verify<SQLiteDatabase>(database).execSQL(Table.ADD_SORT_KEY_FIELD)
+            verify<SQLiteDatabase>(database).execSQL(Table.SET_DEFAULT_SORT_KEY)
+            verify<SQLiteDatabase>(database).execSQL(Table.CREATE_SORT_KEY_INDEX)
+            verify<SQLiteDatabase>(database).execSQL(Table.CREATE_SORT_KEY_UPDATE_TRIGGER)
+        }
+    }
 
-        testObject.save(contribution)
+    @Test
+    fun migrateTableVersionFrom_v12_to_v13() {
+        Table.onUpdate(database, 12, 13)
+        // Thumbnail URL added in version 13
+        verify(database).execSQL(Table.ADD_THUMBNAIL_URL_FIELD)
+        verify(database, never()).execSQL(Table.ADD_SORT_KEY_FIELD)
+    }
 
-        assertEquals(contentUri, contribution.contentUri)
-        verify(client).insert(eq(BASE_URI), captor.capture())
-        captor.firstValue.let {
+    @Test
+    fun migrateTableVersionFrom_v16_to_v17() {
+        Table.onUpdate(database, 16, 17)
+        // Thumbnail retry time added in version 17, empty thumbnail URLs are looked up again
+        inOrder(database) {
+            verify<SQLiteDatabase>(database).execSQL(Table.ADD_THUMBNAIL_RETRY_AFTER_FIELD)
+            verify<SQLiteDatabase>(database).execSQL(Table.RESET_EMPTY_THUMBNAIL_URLS)
+        }
+        verify(database, never()).execSQL(Table.ADD_THUMBNAIL_URL_FIELD)
+    }
+
+    @Test
+    fun contentValues_nonNullFields() {
+        val contribution = createContribution(true, null, null, null, null)
+
+        testObject.toContentValues(contribution).let {
             // Long fields
             assertEquals(222L, it.getAsLong(Table.COLUMN_LENGTH))
             assertEquals(321L, it.getAsLong(Table.COLUMN_TIMESTAMP))
@@ -164,15 +183,10 @@ class ContributionDaoTest {
     }
 
     @Test
-    fun saveNewContribution_nullableFieldsAreNull() {
-        whenever(client.insert(isA(), isA())).thenReturn(contentUri)
+    fun contentValues_nullableFieldsAreNull() {
         val contribution = createContribution(true, null, null, null, null)
 
-        testObject.save(contribution)
-
-        assertEquals(contentUri, contribution.contentUri)
-        verify(client).insert(eq(BASE_URI), captor.capture())
-        captor.firstValue.let {
+        testObject.toContentValues(contribution).let {
             // Nullable fields are absent if null
             assertFalse(it.containsKey(Table.COLUMN_LOCAL_URI))
             assertFalse(it.containsKey(Table.COLUMN_IMAGE_URL))
@@ -181,16 +195,11 @@ class ContributionDaoTest {
     }
 
     @Test
-    fun saveNewContribution_nullableFieldsAreNonNull() {
-        whenever(client.insert(isA(), isA())).thenReturn(contentUri)
+    fun contentValues_nullableFieldsAreNonNull() {
         val contribution = createContribution(true, Uri.parse(localUri),
                 "image", Date(456L), null)
 
-        testObject.save(contribution)
-
-        assertEquals(contentUri, contribution.contentUri)
-        verify(client).insert(eq(BASE_URI), captor.capture())
-        captor.firstValue.let {
+        testObject.toContentValues(contribution).let {
             assertEquals(localUri, it.getAsString(Table.COLUMN_LOCAL_URI))
             assertEquals("image", it.getAsString(Table.COLUMN_IMAGE_URL))
             assertEquals(456L, it.getAsLong(Table.COLUMN_UPLOADED))
@@ -198,74 +207,21 @@ class ContributionDaoTest {
     }
 
     @Test
-    fun saveNewContribution_booleanEncodesTrue() {
-        whenever(client.insert(isA(), isA())).thenReturn(contentUri)
+    fun contentValues_booleanEncodesTrue() {
         val contribution = createContribution(true, null, null, null, null)
 
-        testObject.save(contribution)
-
-        assertEquals(contentUri, contribution.contentUri)
-        verify(client).insert(eq(BASE_URI), captor.capture())
-
         // Boolean true --> 1 for ths encoding scheme
         assertEquals("Boolean true should be encoded as 1", 1,
-                captor.firstValue.getAsInteger(Table.COLUMN_MULTIPLE))
+                testObject.toContentValues(contribution).getAsInteger(Table.COLUMN_MULTIPLE))
     }
 
     @Test
-    fun saveNewContribution_booleanEncodesFalse() {
-        whenever(client.insert(isA(), isA())).thenReturn(contentUri)
+    fun contentValues_booleanEncodesFalse() {
         val contribution = createContribution(false, null, null, null, null)
 
-        testObject.save(contribution)
-
-        assertEquals(contentUri, contribution.contentUri)
-        verify(client).insert(eq(BASE_URI), captor.capture())
-
         // Boolean true --> 1 for ths encoding scheme
         assertEquals("Boolean false should be encoded as 0", 0,
-                captor.firstValue.getAsInteger(Table.COLUMN_MULTIPLE))
-    }
-
-    @Test
-    fun saveExistingContribution() {
-        val contribution = createContribution(false, null, null, null, null)
-        contribution.contentUri = contentUri
-
-        testObject.save(contribution)
-
-        verify(client).update(eq(contentUri), isA(), isNull(), isNull())
-    }
-
-    @Test(expected = RuntimeException::class)
-    fun saveTranslatesExceptions() {
-        whenever(client.insert(isA(), isA())).thenThrow(RemoteException(""))
-
-        testObject.save(createContribution(false, null, null, null, null))
-    }
-
-    @Test(expected = RuntimeException::class)
-    fun deleteTranslatesExceptions() {
-        whenever(client.delete(anyOrNull(), anyOrNull(), anyOrNull())).thenThrow(RemoteException(""))
-
-        val contribution = createContribution(false, null, null, null, null)
-        contribution.contentUri = contentUri
-        testObject.delete(contribution)
-    }
-
-    @Test(expected = RuntimeException::class)
-    fun exceptionThrownWhenAttemptingToDeleteUnsavedContribution() {
-        testObject.delete(createContribution(false, null, null, null, null))
-    }
-
-    @Test
-    fun deleteExistingContribution() {
-        val contribution = createContribution(false, null, null, null, null)
-        contribution.contentUri = contentUri
-
-        testObject.delete(contribution)
-
-        verify(client).delete(eq(contentUri), isNull(), isNull())
+                testObject.toContentValues(contribution).getAsInteger(Table.COLUMN_MULTIPLE))
     }
 
     @Test
@@ -278,6 +234,7 @@ class ContributionDaoTest {
                 assertEquals("filePath", it.filename)
                 assertEquals(localUri, it.localUri.toString())
                 assertEquals("image", it.imageUrl)
+                assertEquals("thumb", it.thumbUrl)
                 assertEquals(created, it.dateCreated.time)
                 assertEquals(STATE_QUEUED, it.state)
                 assertEquals(222L, it.dataLength)
@@ -323,11 +280,52 @@ class ContributionDaoTest {
         assertTrue(testObject.fromCursor(mcHammer).multiple)
     }
 
+    @Test
+    fun rowMapperMapsAllRows() {
+        val mc = MatrixCursor(Table.ALL_FIELDS, 2).apply {
+            addRow(listOf("111", "first", localUri, "image", 321L, STATE_QUEUED, 222L, 0L, 88L,
+                    SOURCE_GALLERY, "desc", "create", 0, 640, 480, "007", "Q1", "thumb"))
+            addRow(listOf("112", "second", "", "image", 654L, STATE_COMPLETED, 222L, 987L, 88L,
+                    SOURCE_GALLERY, "desc", "create", 1, 640, 480, "007", "", null))
+        }
+
+        val contributions = ContributionDao.RowMapper(mc).mapAll()
+
+        assertEquals(listOf(uriForId(111), uriForId(112)), contributions.map { it.contentUri })
+        assertEquals(localUri, contributions[0].localUri.toString())
+        assertNull(contributions[1].localUri)
+        assertEquals(987L, contributions[1].dateUploaded?.time)
+        assertNull(contributions[1].thumbUrl)
+        assertNull(contributions[1].wikiDataEntityId)
+    }
+
+    @Test
+    fun dateSetBeforeDecodingIsKept() {
+        createCursor(321L, 456L, false, localUri).let { mc ->
+            testObject.fromCursor(mc).let {
+                it.setDateUploaded(Date(789L))
+                assertEquals(789L, it.dateUploaded?.time)
+                assertEquals(321L, it.dateCreated.time)
+            }
+        }
+    }
+
+    @Test
+    fun copyOfUndecodedContributionKeepsEncodedFields() {
+        createCursor(321L, 456L, false, localUri).let { mc ->
+            val copy = Media(testObject.fromCursor(mc))
+
+            assertEquals(localUri, copy.localUri.toString())
+            assertEquals(321L, copy.dateCreated.time)
+            assertEquals(456L, copy.dateUploaded?.time)
+        }
+    }
+
     private fun createCursor(created: Long, uploaded: Long, multiple: Boolean, localUri: String) =
             MatrixCursor(Table.ALL_FIELDS, 1).apply {
                 addRow(listOf("111", "filePath", localUri, "image",
                         created, STATE_QUEUED, 222L, uploaded, 88L, SOURCE_GALLERY, "desc",
-                        "create", if (multiple) 1 else 0, 640, 480, "007", "Q1"))
+                        "create", if (multiple) 1 else 0, 640, 480, "007", "Q1", "thumb"))
                 moveToFirst()
             }
 
@@ -1,11 +1,16 @@
 package fr.free.nrw.commons.contributions
 
-import android.database.Cursor
-import androidx.loader.content.CursorLoader
-import androidx.loader.content.Loader
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.anyOrNull
+import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.verify
+import io.reactivex.Observable
+import io.reactivex.schedulers.Schedulers
+import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Test
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.ArgumentMatchers.anyString
 import org.mockito.Mock
 import org.mockito.Mockito
 import org.mockito.MockitoAnnotations
@@ -21,12 +26,8 @@ class ContributionsPresenterTest {
 
     private var contributionsPresenter: ContributionsPresenter? = null
 
-    private lateinit var cursor: Cursor
-
     lateinit var contribution: Contribution
 
-    lateinit var loader: Loader<Cursor>
-
     /**
      * initial setup
      */
@@ -34,21 +35,11 @@ class ContributionsPresenterTest {
     @Throws(Exception::class)
     fun setUp() {
         MockitoAnnotations.initMocks(this)
-        cursor = Mockito.mock(Cursor::class.java)
         contribution = Mockito.mock(Contribution::class.java)
-        contributionsPresenter = ContributionsPresenter(repository)
-        loader = Mockito.mock(CursorLoader::class.java)
-        contributionsPresenter?.onAttachView(view)
-    }
-
-
-    /**
-     * Test presenter actions onGetContributionFromCursor
-     */
-    @Test
-    fun testGetContributionFromCursor() {
-        contributionsPresenter?.getContributionsFromCursor(cursor)
-        verify(repository)?.getContributionFromCursor(cursor)
+        Mockito.`when`(repository!!.get(anyString())).thenReturn(2)
+        Mockito.`when`(repository!!.observeChanges()).thenReturn(Observable.never())
+        contributionsPresenter = ContributionsPresenter(repository,
+                Schedulers.trampoline(), Schedulers.trampoline())
     }
 
     /**
@@ -61,50 +52,87 @@ class ContributionsPresenterTest {
     }
 
     /**
-     * Test presenter actions on loaderFinished and has non zero media objects
+     * Test presenter actions on first page loaded with non zero media objects
      */
     @Test
-    fun testOnLoaderFinishedNonZeroContributions() {
-        Mockito.`when`(cursor.count).thenReturn(1)
-        contributionsPresenter?.onLoadFinished(loader, cursor)
+    fun testLoadNonZeroContributions() {
+        Mockito.`when`(repository!!.loadContributions(anyOrNull(), anyInt()))
+                .thenReturn(listOf(contribution))
+        contributionsPresenter?.onAttachView(view)
+        verify(repository)?.loadContributions(eq(null), eq(2))
         verify(view)?.showProgress(false)
         verify(view)?.showWelcomeTip(false)
         verify(view)?.showNoContributionsUI(false)
-        verify(view)?.setUploadCount(cursor.count)
+        verify(view)?.setUploadCount(1)
+        verify(view)?.onDataSetChanged(any())
     }
 
     /**
-     * Test presenter actions on loaderFinished and has Zero media objects
+     * Test presenter actions on first page loaded with Zero media objects
      */
     @Test
-    fun testOnLoaderFinishedZeroContributions() {
-        Mockito.`when`(cursor.count).thenReturn(0)
-        contributionsPresenter?.onLoadFinished(loader, cursor)
+    fun testLoadZeroContributions() {
+        Mockito.`when`(repository!!.loadContributions(anyOrNull(), anyInt()))
+                .thenReturn(emptyList())
+        contributionsPresenter?.onAttachView(view)
         verify(view)?.showProgress(false)
         verify(view)?.showWelcomeTip(true)
         verify(view)?.showNoContributionsUI(true)
     }
 
-
     /**
-     * Test presenter actions on loader reset
+     * Test that the next page starts after the last loaded contribution
      */
     @Test
-    fun testOnLoaderReset() {
-        contributionsPresenter?.onLoaderReset(loader)
-        verify(view)?.showProgress(false)
-        verify(view)?.showWelcomeTip(true)
-        verify(view)?.showNoContributionsUI(true)
+    fun testLoadMoreContributions() {
+        val lastContribution = Mockito.mock(Contribution::class.java)
+        val nextContribution = Mockito.mock(Contribution::class.java)
+        Mockito.`when`(repository!!.loadContributions(eq(null), anyInt()))
+                .thenReturn(listOf(contribution, lastContribution))
+        Mockito.`when`(repository!!.loadContributions(eq(lastContribution), anyInt()))
+                .thenReturn(listOf(nextContribution))
+        contributionsPresenter?.onAttachView(view)
+        contributionsPresenter?.loadMoreContributions()
+        verify(repository)?.loadContributions(eq(lastContribution), eq(2))
+        verify(view)?.setUploadCount(3)
+        assertEquals(nextContribution, contributionsPresenter?.getItemAtPosition(2))
     }
 
     /**
-     * Test presenter actions on loader change
+     * Test that changes to the table reload the pages loaded so far
      */
     @Test
-    fun testOnChanged() {
-        contributionsPresenter?.onChanged()
-        verify(view)?.onDataSetChanged()
+    fun testReloadOnChange() {
+        Mockito.`when`(repository!!.observeChanges()).thenReturn(Observable.just(false))
+        Mockito.`when`(repository!!.loadContributions(anyOrNull(), anyInt()))
+                .thenReturn(listOf(contribution))
+        contributionsPresenter?.onAttachView(view)
+        verify(repository, Mockito.times(2))?.loadContributions(eq(null), eq(2))
     }
 
+    /**
+     * Test that attaching again, e.g. on resume, doesn't start another load chain and observer
+     */
+    @Test
+    fun testAttachAgainReusesObserver() {
+        Mockito.`when`(repository!!.loadContributions(anyOrNull(), anyInt()))
+                .thenReturn(listOf(contribution))
+        contributionsPresenter?.onAttachView(view)
+        contributionsPresenter?.onAttachView(view)
+        verify(repository, Mockito.times(1))?.observeChanges()
+        verify(repository, Mockito.times(2))?.loadContributions(eq(null), eq(2))
+    }
 
-}
\ No newline at end of file
+    /**
+     * Test that attaching after a detach observes the changes again
+     */
+    @Test
+    fun testAttachAfterDetach() {
+        Mockito.`when`(repository!!.loadContributions(anyOrNull(), anyInt()))
+                .thenReturn(listOf(contribution))
+        contributionsPresenter?.onAttachView(view)
+        contributionsPresenter?.onDetachView()
+        contributionsPresenter?.onAttachView(view)
+        verify(repository, Mockito.times(2))?.observeChanges()
+    }
+}
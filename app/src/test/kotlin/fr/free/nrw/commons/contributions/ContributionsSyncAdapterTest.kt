@@ -0,0 +1,147 @@
+package fr.free.nrw.commons.contributions
+
+import android.content.ContentProviderClient
+import android.content.ContentValues
+import android.content.SyncResult
+import android.database.MatrixCursor
+import com.nhaarman.mockitokotlin2.*
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.contributions.ContributionDao.Table
+import fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI
+import fr.free.nrw.commons.kvstore.JsonKvStore
+import fr.free.nrw.commons.mwapi.UserClient
+import io.reactivex.Observable
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import org.wikipedia.dataclient.mwapi.MwQueryLogEvent
+import org.wikipedia.dataclient.mwapi.MwQueryResponse
+import org.wikipedia.dataclient.mwapi.MwQueryResult
+import org.wikipedia.util.DateUtil
+import java.util.*
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class ContributionsSyncAdapterTest {
+    private val user = "Test"
+    private val stateKey = "contributionsSyncState_Test"
+
+    private val userClient: UserClient = mock()
+    private val defaultKvStore: JsonKvStore = mock()
+    private val client: ContentProviderClient = mock()
+
+    private lateinit var testObject: ContributionsSyncAdapter
+
+    @Before
+    fun setUp() {
+        testObject = ContributionsSyncAdapter(RuntimeEnvironment.application, false)
+        testObject.userClient = userClient
+        testObject.defaultKvStore = defaultKvStore
+        whenever(client.query(eq(BASE_URI), any(), any(), any(), any()))
+                .thenAnswer { MatrixCursor(arrayOf(Table.COLUMN_FILENAME)) }
+    }
+
+    @Test
+    fun syncResumesFromStoredContinuation() {
+        val continuation = mapOf("lecontinue" to "20191001000000|100", "continue" to "-||")
+        val storedState = ContributionsSyncAdapter.SyncState().apply {
+            highWaterMark = 1000L
+            pendingHighWaterMark = 5000L
+            this.continuation = continuation
+        }
+        whenever(defaultKvStore.getJson(stateKey, ContributionsSyncAdapter.SyncState::class.java))
+                .thenReturn(storedState)
+        val end = DateUtil.iso8601DateFormat(Date(1000L))
+        whenever(userClient.logEvents(user, end, continuation))
+                .thenReturn(Observable.just(createResponse(null, createLogEvent("File:New.jpg", 2000L))))
+
+        testObject.sync(user, client, SyncResult())
+
+        verify(userClient).logEvents(user, end, continuation)
+        verify(userClient, never()).logEvents(eq(user), anyOrNull(), eq(emptyMap()))
+        // The newest event of the pages fetched before the sync was interrupted is kept
+        assertEquals(5000L, storedState.highWaterMark)
+        assertEquals(0L, storedState.pendingHighWaterMark)
+        assertNull(storedState.continuation)
+    }
+
+    @Test
+    fun syncFollowsContinuationUntilLastPage() {
+        val continuation = mapOf("lecontinue" to "20191001000000|100", "continue" to "-||")
+        whenever(userClient.logEvents(user, null, emptyMap()))
+                .thenReturn(Observable.just(createResponse(continuation, createLogEvent("File:First.jpg", 2000L))))
+        whenever(userClient.logEvents(user, null, continuation))
+                .thenReturn(Observable.just(createResponse(null, createLogEvent("File:Second.jpg", 1000L))))
+        val stateCaptor = argumentCaptor<ContributionsSyncAdapter.SyncState>()
+
+        testObject.sync(user, client, SyncResult())
+
+        verify(userClient).logEvents(user, null, emptyMap())
+        verify(userClient).logEvents(user, null, continuation)
+        verify(client, times(2)).bulkInsert(eq(BASE_URI), any())
+        verify(defaultKvStore, atLeastOnce()).putJson(eq(stateKey), stateCaptor.capture())
+        assertEquals(2000L, stateCaptor.lastValue.highWaterMark)
+        assertNull(stateCaptor.lastValue.continuation)
+    }
+
+    @Test
+    fun syncDoesNotInsertStoredContributions() {
+        whenever(client.query(eq(BASE_URI), any(), any(), any(), any()))
+                .thenReturn(MatrixCursor(arrayOf(Table.COLUMN_FILENAME)).apply {
+                    addRow(arrayOf("File:Old.jpg"))
+                })
+        whenever(userClient.logEvents(user, null, emptyMap()))
+                .thenReturn(Observable.just(createResponse(null,
+                        createLogEvent("File:New.jpg", 2000L),
+                        createLogEvent("File:Old.jpg", 1000L))))
+        val valuesCaptor = argumentCaptor<Array<ContentValues>>()
+        val syncResult = SyncResult()
+
+        testObject.sync(user, client, syncResult)
+
+        verify(client).bulkInsert(eq(BASE_URI), valuesCaptor.capture())
+        assertEquals(listOf("File:New.jpg"),
+                valuesCaptor.firstValue.map { it.getAsString(Table.COLUMN_FILENAME) })
+        assertEquals(1L, syncResult.stats.numInserts)
+    }
+
+    @Test
+    fun failedSyncKeepsContinuationOfLastPage() {
+        val continuation = mapOf("lecontinue" to "20191001000000|100", "continue" to "-||")
+        whenever(userClient.logEvents(user, null, emptyMap()))
+                .thenReturn(Observable.just(createResponse(continuation, createLogEvent("File:First.jpg", 2000L))))
+        whenever(userClient.logEvents(user, null, continuation))
+                .thenReturn(Observable.error(RuntimeException()))
+        val stateCaptor = argumentCaptor<ContributionsSyncAdapter.SyncState>()
+        val syncResult = SyncResult()
+
+        testObject.sync(user, client, syncResult)
+
+        verify(defaultKvStore).putJson(eq(stateKey), stateCaptor.capture())
+        assertEquals(continuation, stateCaptor.lastValue.continuation)
+        assertEquals(0L, stateCaptor.lastValue.highWaterMark)
+        assertEquals(1L, syncResult.stats.numIoExceptions)
+    }
+
+    private fun createResponse(continuation: Map<String, String>?,
+                               vararg logEvents: MwQueryLogEvent): MwQueryResponse {
+        val result: MwQueryResult = mock()
+        whenever(result.logevents()).thenReturn(logEvents.toList())
+        val response: MwQueryResponse = mock()
+        whenever(response.query()).thenReturn(result)
+        whenever(response.continuation()).thenReturn(continuation)
+        return response
+    }
+
+    private fun createLogEvent(title: String, date: Long): MwQueryLogEvent {
+        val logEvent: MwQueryLogEvent = mock()
+        whenever(logEvent.title()).thenReturn(title)
+        whenever(logEvent.date()).thenReturn(Date(date))
+        whenever(logEvent.isDeleted).thenReturn(false)
+        return logEvent
+    }
+}
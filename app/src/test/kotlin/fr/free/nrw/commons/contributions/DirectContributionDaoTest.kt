@@ -0,0 +1,168 @@
+package fr.free.nrw.commons.contributions
+
+import android.net.Uri
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.contributions.Contribution.*
+import fr.free.nrw.commons.contributions.ContributionDao.Table
+import fr.free.nrw.commons.data.DBOpenHelper
+import org.junit.After
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.util.*
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class DirectContributionDaoTest {
+    private lateinit var dbOpenHelper: DBOpenHelper
+    private lateinit var testObject: DirectContributionDao
+
+    @Before
+    fun setUp() {
+        dbOpenHelper = DBOpenHelper(RuntimeEnvironment.application)
+        testObject = DirectContributionDao(dbOpenHelper, RuntimeEnvironment.application)
+    }
+
+    @After
+    fun tearDown() {
+        dbOpenHelper.close()
+    }
+
+    @Test
+    fun saveAssignsContentUris() {
+        val first = createContribution("File:First.jpg", STATE_COMPLETED, 1L)
+        val second = createContribution("File:Second.jpg", STATE_COMPLETED, 2L)
+
+        testObject.save(listOf(first, second))
+
+        assertNotNull(first.contentUri)
+        assertNotNull(second.contentUri)
+        assertNotEquals(first.contentUri, second.contentUri)
+    }
+
+    @Test
+    fun saveAfterDatabaseReopenedReleasesPreviousDatabase() {
+        testObject.save(createContribution("File:First.jpg", STATE_COMPLETED, 1L))
+        val previousDatabase = dbOpenHelper.writableDatabase
+        dbOpenHelper.close()
+
+        testObject.save(createContribution("File:Second.jpg", STATE_COMPLETED, 2L))
+
+        assertFalse(previousDatabase.isOpen)
+        assertEquals(2, testObject.loadContributions(null, 10).size)
+    }
+
+    @Test
+    fun updateKeepsStoredImageUrl() {
+        val contribution = createContribution("File:Test.jpg", STATE_COMPLETED, 1L)
+        contribution.imageUrl = "http://example.com/Test.jpg"
+        testObject.save(contribution)
+
+        contribution.imageUrl = null
+        contribution.description = "new desc"
+        testObject.save(contribution)
+
+        val loaded = testObject.loadContributions(null, 10).single()
+        assertEquals(contribution.contentUri, loaded.contentUri)
+        assertEquals("http://example.com/Test.jpg", loaded.imageUrl)
+        assertEquals("new desc", loaded.description)
+    }
+
+    @Test
+    fun saveProgressWritesStateAndTransferred() {
+        val contribution = createContribution("File:Test.jpg", STATE_QUEUED, 1L)
+        testObject.save(contribution)
+
+        contribution.state = STATE_IN_PROGRESS
+        contribution.transferred = 100L
+        testObject.saveProgress(contribution)
+
+        val loaded = testObject.loadContributions(null, 10).single()
+        assertEquals(STATE_IN_PROGRESS, loaded.state)
+        assertEquals(100L, loaded.transferred)
+    }
+
+    @Test
+    fun loadContributionsPagesInListOrder() {
+        val older = createContribution("File:Older.jpg", STATE_COMPLETED, 1L)
+        val newer = createContribution("File:Newer.jpg", STATE_COMPLETED, 2L)
+        testObject.save(listOf(older, newer))
+
+        val firstPage = testObject.loadContributions(null, 1)
+        val secondPage = testObject.loadContributions(firstPage.last(), 1)
+
+        assertEquals("File:Newer.jpg", firstPage.single().filename)
+        assertEquals("File:Older.jpg", secondPage.single().filename)
+        assertTrue(testObject.loadContributions(secondPage.last(), 1).isEmpty())
+    }
+
+    @Test
+    fun delete() {
+        val contribution = createContribution("File:Test.jpg", STATE_COMPLETED, 1L)
+        testObject.save(contribution)
+
+        testObject.delete(contribution)
+
+        assertTrue(testObject.loadContributions(null, 10).isEmpty())
+    }
+
+    @Test(expected = RuntimeException::class)
+    fun deleteWithoutContentUri() {
+        testObject.delete(createContribution("File:Test.jpg", STATE_COMPLETED, 1L))
+    }
+
+    @Test
+    fun saveThumbnailUrls() {
+        testObject.save(listOf(
+                createContribution("File:Test.jpg", STATE_COMPLETED, 1L),
+                createContribution("File:Missing.jpg", STATE_COMPLETED, 2L),
+                createContribution("File:Queued.jpg", STATE_QUEUED, 3L)))
+        assertEquals(listOf("File:Missing.jpg", "File:Test.jpg"),
+                testObject.getFilenamesWithoutThumbnail(10))
+
+        testObject.saveThumbnailUrls(mapOf("File:Test.jpg" to "thumb", "File:Missing.jpg" to ""))
+
+        assertTrue(testObject.getFilenamesWithoutThumbnail(10).isEmpty())
+        val thumbUrls = testObject.loadContributions(null, 10).associate { it.filename to it.thumbUrl }
+        assertEquals("thumb", thumbUrls["File:Test.jpg"])
+        assertNull(thumbUrls["File:Missing.jpg"])
+        assertNull(thumbUrls["File:Queued.jpg"])
+    }
+
+    @Test
+    fun missingThumbnailIsLookedUpAgainAfterRetryDelay() {
+        testObject.save(createContribution("File:Missing.jpg", STATE_COMPLETED, 1L))
+        testObject.saveThumbnailUrls(mapOf("File:Missing.jpg" to ""))
+        assertTrue(testObject.getFilenamesWithoutThumbnail(10).isEmpty())
+
+        dbOpenHelper.writableDatabase.execSQL("UPDATE ${Table.TABLE_NAME}"
+                + " SET ${Table.COLUMN_THUMBNAIL_RETRY_AFTER} = ${System.currentTimeMillis() - 1}")
+
+        assertEquals(listOf("File:Missing.jpg"), testObject.getFilenamesWithoutThumbnail(10))
+    }
+
+    @Test
+    fun contributionsWithoutFilenameAreNotBackfilled() {
+        testObject.save(listOf(
+                createContribution(null, STATE_COMPLETED, 1L),
+                createContribution("File:Test.jpg", STATE_COMPLETED, 2L)))
+
+        assertEquals(listOf("File:Test.jpg"), testObject.getFilenamesWithoutThumbnail(10))
+
+        testObject.saveThumbnailUrls(mapOf("File:Test.jpg" to "thumb"))
+        assertTrue(testObject.getFilenamesWithoutThumbnail(10).isEmpty())
+    }
+
+    private fun createContribution(filename: String?, state: Int, dateCreated: Long): Contribution {
+        return Contribution(Uri.parse("file:///$filename"), null, filename, "desc", 222L,
+                Date(dateCreated), null, "create", "edit", "coords").apply {
+            this.state = state
+            source = SOURCE_CAMERA
+            license = "007"
+        }
+    }
+}
@@ -2,6 +2,7 @@ package fr.free.nrw.commons.delete
 
 import android.content.Context
 import fr.free.nrw.commons.Media
+import fr.free.nrw.commons.MediaDataExtractor
 import fr.free.nrw.commons.actions.PageEditClient
 import fr.free.nrw.commons.notification.NotificationHelper
 import fr.free.nrw.commons.utils.ViewUtilWrapper
@@ -13,6 +14,7 @@ import org.mockito.ArgumentMatchers
 import org.mockito.InjectMocks
 import org.mockito.Mock
 import org.mockito.Mockito.`when`
+import org.mockito.Mockito.verify
 import org.mockito.MockitoAnnotations
 import org.wikipedia.AppAdapter
 import javax.inject.Inject
@@ -36,6 +38,9 @@ class DeleteHelperTest {
     @Mock
     internal var viewUtil: ViewUtilWrapper? = null
 
+    @Mock
+    internal var mediaDataExtractor: MediaDataExtractor? = null
+
     @Mock
     internal var media: Media? = null
 
@@ -68,6 +73,7 @@ class DeleteHelperTest {
         val makeDeletion = deleteHelper?.makeDeletion(context, media, "Test reason")?.blockingGet()
         assertNotNull(makeDeletion)
         assertTrue(makeDeletion!!)
+        verify(mediaDataExtractor)?.invalidate("Test file.jpg")
     }
 
     /**
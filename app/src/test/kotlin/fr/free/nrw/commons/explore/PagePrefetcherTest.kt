@@ -0,0 +1,39 @@
+package fr.free.nrw.commons.explore
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class PagePrefetcherTest {
+    private val testObject = PagePrefetcher()
+
+    @Test
+    fun slowScrollingLoadsMinimumPageNearTheEnd() {
+        testObject.onScrolled(10, 1000L)
+        testObject.onScrolled(11, 1400L)
+
+        assertFalse(testObject.shouldLoadMore(11, 30))
+        assertTrue(testObject.shouldLoadMore(25, 30))
+        assertEquals(PagePrefetcher.MIN_PAGE_SIZE, testObject.getPageSize())
+    }
+
+    @Test
+    fun fastScrollingLoadsLargerPagesEarlier() {
+        // 20 items per 100 ms
+        for (i in 0..5) {
+            testObject.onScrolled(i * 20, 1000L + i * 100)
+        }
+
+        assertTrue(testObject.shouldLoadMore(100, 300))
+        assertEquals(PagePrefetcher.MAX_PAGE_SIZE, testObject.getPageSize())
+    }
+
+    @Test
+    fun pauseResetsSpeed() {
+        testObject.onScrolled(0, 1000L)
+        testObject.onScrolled(40, 1100L)
+        testObject.onScrolled(41, 5000L)
+
+        assertEquals(PagePrefetcher.MIN_PAGE_SIZE, testObject.getPageSize())
+        assertFalse(testObject.shouldLoadMore(41, 60))
+    }
+}
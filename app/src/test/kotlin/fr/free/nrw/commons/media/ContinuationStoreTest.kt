@@ -0,0 +1,44 @@
+package fr.free.nrw.commons.media
+
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+class ContinuationStoreTest {
+    private lateinit var testObject: ContinuationStore
+
+    @Before
+    fun setUp() {
+        testObject = ContinuationStore()
+    }
+
+    @Test
+    fun unknownListStartsFromFirstPage() {
+        assertEquals(emptyMap<String, String>(), testObject.get("category_Trees"))
+    }
+
+    @Test
+    fun finishedListHasNoContinuation() {
+        testObject.put("category_Trees", null)
+
+        assertNull(testObject.get("category_Trees"))
+    }
+
+    @Test
+    fun removedListStartsFromFirstPage() {
+        testObject.put("search_trees", mapOf("continue" to "1"))
+        testObject.remove("search_trees")
+
+        assertEquals(emptyMap<String, String>(), testObject.get("search_trees"))
+    }
+
+    @Test
+    fun leastRecentlyUsedListsAreEvicted() {
+        for (i in 0..ContinuationStore.MAX_LISTS) {
+            testObject.put("category_$i", mapOf("continue" to "$i"))
+        }
+
+        assertEquals(emptyMap<String, String>(), testObject.get("category_0"))
+        assertEquals(mapOf("continue" to "1"), testObject.get("category_1"))
+    }
+}
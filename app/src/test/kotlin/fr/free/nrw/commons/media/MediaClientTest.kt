@@ -26,13 +26,13 @@ class MediaClientTest {
     @Mock
     internal var mediaInterface: MediaInterface? = null
 
-    @InjectMocks
     var mediaClient: MediaClient? = null
 
     @Before
     @Throws(Exception::class)
     fun setUp() {
         MockitoAnnotations.initMocks(this)
+        mediaClient = MediaClient(mediaInterface, ContinuationStore())
     }
 
     @Test
@@ -52,6 +52,27 @@ class MediaClientTest {
         assertTrue(checkPageExistsUsingTitle)
     }
 
+    @Test
+    fun getMediaWithDeletionStatus() {
+        val filePage = mock(MwQueryPage::class.java)
+        `when`(filePage.title()).thenReturn("File:Test.jpg")
+        `when`(filePage.imageInfo()).thenReturn(ImageInfo())
+        val deletionRequestPage = mock(MwQueryPage::class.java)
+        `when`(deletionRequestPage.title()).thenReturn("Commons:Deletion requests/File:Test.jpg")
+        `when`(deletionRequestPage.pageId()).thenReturn(10)
+        val mwQueryResult = mock(MwQueryResult::class.java)
+        `when`(mwQueryResult.pages()).thenReturn(listOf(filePage, deletionRequestPage))
+        val mockResponse = mock(MwQueryResponse::class.java)
+        `when`(mockResponse.query()).thenReturn(mwQueryResult)
+
+        `when`(mediaInterface!!.getMedia("File:Test.jpg|Commons:Deletion_requests/File:Test.jpg"))
+                .thenReturn(Observable.just(mockResponse))
+
+        val media = mediaClient!!.getMediaWithDeletionStatus("File:Test.jpg").blockingGet()
+        assertEquals("File:Test.jpg", media.filename)
+        assertTrue(media.requestedDeletion)
+    }
+
     @Test
     fun checkPageNotExistsUsingTitle() {
         val mwQueryPage = mock(MwQueryPage::class.java)
@@ -197,6 +218,45 @@ class MediaClientTest {
         assertEquals(media2.filename, "Test")
     }
 
+    @Test
+    fun getMediaListFromCategoryAfterLastPage() {
+        val mwQueryPage = mock(MwQueryPage::class.java)
+        `when`(mwQueryPage.title()).thenReturn("Test")
+        `when`(mwQueryPage.imageInfo()).thenReturn(ImageInfo())
+        val mwQueryResult = mock(MwQueryResult::class.java)
+        `when`(mwQueryResult.pages()).thenReturn(listOf(mwQueryPage))
+        val mockResponse = mock(MwQueryResponse::class.java)
+        `when`(mockResponse.query()).thenReturn(mwQueryResult)
+        `when`(mockResponse.continuation()).thenReturn(null)
+        `when`(mediaInterface!!.getMediaListFromCategory(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyMap()))
+                .thenReturn(Observable.just(mockResponse))
+
+        assertEquals(1, mediaClient!!.getMediaListFromCategory("abcde").blockingGet().size)
+        assertTrue(mediaClient!!.getMediaListFromCategory("abcde").blockingGet().isEmpty())
+
+        Mockito.verify(mediaInterface, Mockito.times(1))!!.getMediaListFromCategory(
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyMap())
+    }
+
+    @Test
+    fun getMediaListFromCategoryAfterReset() {
+        val mwQueryResult = mock(MwQueryResult::class.java)
+        `when`(mwQueryResult.pages()).thenReturn(listOf(mock(MwQueryPage::class.java)))
+        val mockResponse = mock(MwQueryResponse::class.java)
+        `when`(mockResponse.query()).thenReturn(mwQueryResult)
+        `when`(mockResponse.continuation()).thenReturn(null)
+        `when`(mediaInterface!!.getMediaListFromCategory(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                continuationCaptor!!.capture()))
+                .thenReturn(Observable.just(mockResponse))
+
+        mediaClient!!.getMediaListFromCategory("abcde").blockingGet()
+        mediaClient!!.resetMediaListFromCategory("abcde")
+        mediaClient!!.getMediaListFromCategory("abcde").blockingGet()
+
+        assertEquals(listOf(emptyMap<String, String>(), emptyMap<String, String>()), continuationCaptor.allValues)
+    }
+
     @Test
     fun getPageHtmlTest() {
         val mwParseResult = mock(MwParseResult::class.java)
@@ -222,4 +282,50 @@ class MediaClientTest {
 
         assertEquals("", mediaClient!!.getPageHtml("abcde").blockingGet())
     }
-}
\ No newline at end of file
+
+    @Test
+    fun getThumbnailUrls() {
+        val imageInfo = mock(ImageInfo::class.java)
+        `when`(imageInfo.thumbUrl).thenReturn("thumb")
+        val mwQueryPage = mock(MwQueryPage::class.java)
+        `when`(mwQueryPage.title()).thenReturn("File:Test 1.jpg")
+        `when`(mwQueryPage.imageInfo()).thenReturn(imageInfo)
+        val missingPage = mock(MwQueryPage::class.java)
+        `when`(missingPage.title()).thenReturn("File:Missing.jpg")
+        val mwQueryResult = mock(MwQueryResult::class.java)
+        `when`(mwQueryResult.pages()).thenReturn(listOf(mwQueryPage, missingPage))
+        val mockResponse = mock(MwQueryResponse::class.java)
+        `when`(mockResponse.query()).thenReturn(mwQueryResult)
+
+        `when`(mediaInterface!!.getThumbnailUrls("File:Test_1.jpg|File:Missing.jpg"))
+                .thenReturn(Observable.just(mockResponse))
+
+        val thumbnailUrls = mediaClient!!.getThumbnailUrls(listOf("File:Test_1.jpg", "File:Missing.jpg")).blockingGet()
+        assertEquals("thumb", thumbnailUrls["File:Test_1.jpg"])
+        assertEquals("", thumbnailUrls["File:Missing.jpg"])
+    }
+
+    @Test
+    fun getMediaSummaries() {
+        val imageInfo = mock(ImageInfo::class.java)
+        `when`(imageInfo.originalUrl).thenReturn("original")
+        `when`(imageInfo.thumbUrl).thenReturn("thumb")
+        val mwQueryPage = mock(MwQueryPage::class.java)
+        `when`(mwQueryPage.title()).thenReturn("File:Test 1.jpg")
+        `when`(mwQueryPage.imageInfo()).thenReturn(imageInfo)
+        val missingPage = mock(MwQueryPage::class.java)
+        `when`(missingPage.title()).thenReturn("File:Missing.jpg")
+        val mwQueryResult = mock(MwQueryResult::class.java)
+        `when`(mwQueryResult.pages()).thenReturn(listOf(mwQueryPage, missingPage))
+        val mockResponse = mock(MwQueryResponse::class.java)
+        `when`(mockResponse.query()).thenReturn(mwQueryResult)
+
+        `when`(mediaInterface!!.getMediaSummaries("File:Test_1.jpg|File:Missing.jpg"))
+                .thenReturn(Observable.just(mockResponse))
+
+        val media = mediaClient!!.getMediaSummaries(listOf("File:Test_1.jpg", "File:Missing.jpg")).blockingGet()
+        assertEquals(1, media.size)
+        assertEquals("original", media["File:Test_1.jpg"]!!.imageUrl)
+        assertEquals("thumb", media["File:Test_1.jpg"]!!.thumbUrl)
+    }
+}
@@ -0,0 +1,79 @@
+package fr.free.nrw.commons.media
+
+import fr.free.nrw.commons.Media
+import io.reactivex.Completable
+import io.reactivex.subjects.CompletableSubject
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+class NeighbourPrefetcherTest {
+    private val loads = LinkedHashMap<String, CompletableSubject>()
+    private lateinit var testObject: NeighbourPrefetcher
+
+    private val provider = object : MediaDetailPagerFragment.MediaDetailProvider {
+        override fun getMediaAtPosition(i: Int) = Media("File:$i.jpg")
+
+        override fun getTotalMediaCount() = 10
+    }
+
+    @Before
+    fun setUp() {
+        testObject = NeighbourPrefetcher(NeighbourPrefetcher.Loader { media: Media ->
+            val load = CompletableSubject.create()
+            loads[media.filename] = load
+            load as Completable
+        })
+    }
+
+    @Test
+    fun neighbourPositionsAreNearestFirstAndWithinBounds() {
+        assertEquals(listOf(6, 4, 7, 3), NeighbourPrefetcher.neighbourPositions(5, 10))
+        assertEquals(listOf(1, 2), NeighbourPrefetcher.neighbourPositions(0, 10))
+        assertEquals(listOf(8, 7), NeighbourPrefetcher.neighbourPositions(9, 10))
+        assertEquals(emptyList<Int>(), NeighbourPrefetcher.neighbourPositions(0, 1))
+    }
+
+    @Test
+    fun limitsConcurrentLoads() {
+        testObject.onPageSelected(5, provider)
+        assertEquals(listOf("File:6.jpg", "File:4.jpg"), loads.keys.toList())
+
+        loads["File:6.jpg"]!!.onComplete()
+        assertEquals(listOf("File:6.jpg", "File:4.jpg", "File:7.jpg"), loads.keys.toList())
+
+        loads["File:4.jpg"]!!.onError(Exception())
+        assertEquals(listOf("File:6.jpg", "File:4.jpg", "File:7.jpg", "File:3.jpg"), loads.keys.toList())
+    }
+
+    @Test
+    fun cancelsLoadsOutOfWindow() {
+        testObject.onPageSelected(5, provider)
+        testObject.onPageSelected(8, provider)
+
+        assertFalse(loads["File:6.jpg"]!!.hasObservers())
+        assertFalse(loads["File:4.jpg"]!!.hasObservers())
+        assertTrue(loads["File:9.jpg"]!!.hasObservers())
+        assertTrue(loads["File:7.jpg"]!!.hasObservers())
+    }
+
+    @Test
+    fun doesNotReloadLoadedPagesInWindow() {
+        testObject.onPageSelected(5, provider)
+        loads["File:6.jpg"]!!.onComplete()
+        loads.clear()
+
+        testObject.onPageSelected(6, provider)
+
+        assertFalse(loads.containsKey("File:6.jpg"))
+        assertFalse(loads.containsKey("File:7.jpg"))
+    }
+
+    @Test
+    fun clearCancelsAllLoads() {
+        testObject.onPageSelected(5, provider)
+        testObject.clear()
+
+        assertFalse(loads.values.any { it.hasObservers() })
+    }
+}
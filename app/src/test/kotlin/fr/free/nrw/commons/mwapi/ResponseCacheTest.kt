@@ -0,0 +1,97 @@
+package fr.free.nrw.commons.mwapi
+
+import com.nhaarman.mockitokotlin2.*
+import okhttp3.*
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+
+class ResponseCacheTest {
+    private val okHttpClient: OkHttpClient = mock()
+    private val call: Call = mock()
+    private val request = Request.Builder().url("https://tools.wmflabs.org/uploadsbyuser.py?user=Test").build()
+    private val parses = mutableListOf<String>()
+    private val parser = ResponseCache.Parser<Int> { body ->
+        parses.add(body)
+        body.toInt()
+    }
+    private lateinit var testObject: ResponseCache
+
+    @Before
+    fun setUp() {
+        whenever(okHttpClient.newCall(any())).thenReturn(call)
+        testObject = ResponseCache(okHttpClient)
+    }
+
+    @Test
+    fun freshResponseIsNotFetchedAgain() {
+        whenever(call.execute()).thenReturn(response(200, "5", "\"v1\""))
+
+        assertEquals(5, testObject.get(request, 60_000, parser))
+        assertEquals(5, testObject.get(request, 60_000, parser))
+
+        verify(okHttpClient, times(1)).newCall(any())
+        assertEquals(listOf("5"), parses)
+    }
+
+    @Test
+    fun staleResponseIsRevalidatedWithItsETag() {
+        whenever(call.execute()).thenReturn(response(200, "5", "\"v1\""), response(304, "", null))
+
+        assertEquals(5, testObject.get(request, 0, parser))
+        assertEquals(5, testObject.get(request, 0, parser))
+
+        val requests = argumentCaptor<Request>()
+        verify(okHttpClient, times(2)).newCall(requests.capture())
+        assertEquals("\"v1\"", requests.secondValue.header("If-None-Match"))
+        assertEquals(listOf("5"), parses)
+    }
+
+    @Test
+    fun changedResponseIsParsedAgain() {
+        whenever(call.execute()).thenReturn(response(200, "5", "\"v1\""), response(200, "6", "\"v2\""))
+
+        testObject.get(request, 0, parser)
+
+        assertEquals(6, testObject.get(request, 0, parser))
+    }
+
+    @Test
+    fun staleResponseIsUsedWhenOffline() {
+        whenever(call.execute()).thenReturn(response(200, "5", "\"v1\"")).thenThrow(IOException())
+
+        testObject.get(request, 0, parser)
+
+        assertEquals(5, testObject.get(request, 0, parser))
+    }
+
+    @Test(expected = IOException::class)
+    fun errorIsThrownWithoutResponse() {
+        whenever(call.execute()).thenThrow(IOException())
+
+        testObject.get(request, 0, parser)
+    }
+
+    @Test
+    fun failedResponseIsNotCached() {
+        whenever(call.execute()).thenReturn(response(500, "", null), response(200, "5", null))
+
+        assertNull(testObject.get(request, 60_000, parser))
+        assertEquals(5, testObject.get(request, 60_000, parser))
+    }
+
+    private fun response(code: Int, body: String, etag: String?): Response {
+        val builder = Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(body.toResponseBody(null))
+        if (etag != null) {
+            builder.header("ETag", etag)
+        }
+        return builder.build()
+    }
+}
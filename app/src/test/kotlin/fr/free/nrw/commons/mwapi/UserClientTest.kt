@@ -1,8 +1,7 @@
 package fr.free.nrw.commons.mwapi
 
 import io.reactivex.Observable
-import org.junit.Assert.assertFalse
-import org.junit.Assert.assertTrue
+import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
 import org.mockito.*
@@ -74,4 +73,32 @@ class UserClientTest{
         assertFalse(isBanned)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun logEventsPassesEndAndContinuation() {
+        val continuation = mapOf("lecontinue" to "20191010000000|123", "continue" to "-||")
+        val nextContinuation = mapOf("lecontinue" to "20191001000000|100", "continue" to "-||")
+        val mockResponse = Mockito.mock(MwQueryResponse::class.java)
+        Mockito.`when`(mockResponse.continuation()).thenReturn(nextContinuation)
+        Mockito.`when`(userInterface!!.getUserLogEvents("Test", "2019-09-01T00:00:00Z", continuation))
+                .thenReturn(Observable.just(mockResponse))
+
+        val response = userClient!!.logEvents("Test", "2019-09-01T00:00:00Z", continuation).blockingFirst()
+
+        Mockito.verify(userInterface)!!.getUserLogEvents("Test", "2019-09-01T00:00:00Z", continuation)
+        assertEquals(nextContinuation, response.continuation())
+    }
+
+    @Test
+    fun logEventsFetchesFirstPageWithoutEndOrContinuation() {
+        val mockResponse = Mockito.mock(MwQueryResponse::class.java)
+        Mockito.`when`(mockResponse.continuation()).thenReturn(null)
+        Mockito.`when`(userInterface!!.getUserLogEvents("Test", null, emptyMap()))
+                .thenReturn(Observable.just(mockResponse))
+
+        val response = userClient!!.logEvents("Test", null, emptyMap()).blockingFirst()
+
+        Mockito.verify(userInterface)!!.getUserLogEvents("Test", null, emptyMap())
+        // The last page has no continuation, which ends the sync
+        assertNull(response.continuation())
+    }
+}
@@ -0,0 +1,49 @@
+package fr.free.nrw.commons.network
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class HistogramTest {
+
+    @Test
+    fun emptyHistogram() {
+        val histogram = Histogram(longArrayOf(10, 100))
+
+        assertEquals(0, histogram.count)
+        assertEquals(0, histogram.mean)
+        assertEquals(0, histogram.getPercentile(50.0))
+    }
+
+    @Test
+    fun valuesAreCountedInTheirBuckets() {
+        val histogram = Histogram(longArrayOf(10, 100))
+        listOf(5L, 10L, 50L, 500L).forEach { histogram.add(it) }
+
+        assertArrayEquals(longArrayOf(2, 1, 1), histogram.counts)
+        assertEquals(4, histogram.count)
+        assertEquals(565, histogram.sum)
+        assertEquals(500, histogram.max)
+    }
+
+    @Test
+    fun percentilesAreEstimatedByBucketBounds() {
+        val histogram = Histogram(longArrayOf(10, 100))
+        listOf(5L, 6L, 50L, 500L).forEach { histogram.add(it) }
+
+        assertEquals(10, histogram.getPercentile(50.0))
+        assertEquals(100, histogram.getPercentile(75.0))
+        assertEquals(500, histogram.getPercentile(99.0))
+    }
+
+    @Test
+    fun copyIsIndependent() {
+        val histogram = Histogram(longArrayOf(10))
+        histogram.add(1)
+        val copy = histogram.copy()
+
+        histogram.add(20)
+
+        assertEquals(1, copy.count)
+        assertEquals(2, histogram.count)
+    }
+}
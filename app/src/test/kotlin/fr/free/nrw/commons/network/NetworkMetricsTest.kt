@@ -0,0 +1,111 @@
+package fr.free.nrw.commons.network
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import okhttp3.Call
+import okhttp3.HttpUrl.Companion.toHttpUrl
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+
+class NetworkMetricsTest {
+    private lateinit var testObject: NetworkMetrics
+
+    @Before
+    fun setUp() {
+        testObject = NetworkMetrics()
+    }
+
+    @Test
+    fun labelsLeaveOutTitlesAndQueries() {
+        assertEquals("commons.wikimedia.org/w/api.php?action=query", NetworkMetrics.labelOf(
+                "https://commons.wikimedia.org/w/api.php?action=query&titles=File:Secret.jpg&token=abc".toHttpUrl()))
+        assertEquals("commons.wikimedia.org/api/rest_v1", NetworkMetrics.labelOf(
+                "https://commons.wikimedia.org/api/rest_v1/page/summary/File:Secret.jpg".toHttpUrl()))
+    }
+
+    @Test
+    fun callFromNetworkIsRecorded() {
+        val call = call("https://commons.wikimedia.org/w/api.php?action=query")
+        val listener = testObject.create(call)
+
+        listener.callStart(call)
+        listener.requestHeadersStart(call)
+        listener.requestBodyEnd(call, 100)
+        listener.responseHeadersStart(call)
+        listener.responseHeadersEnd(call, response(call, 200))
+        listener.responseBodyEnd(call, 2000)
+        listener.callEnd(call)
+
+        val stats = testObject.endpointStats["commons.wikimedia.org/w/api.php?action=query"]!!
+        assertEquals(1, stats.getTiming(NetworkMetrics.Timing.TOTAL).count)
+        assertEquals(1, stats.getTiming(NetworkMetrics.Timing.TTFB).count)
+        assertEquals(0, stats.getTiming(NetworkMetrics.Timing.DNS).count)
+        assertEquals(100, stats.bytesSent)
+        assertEquals(2000, stats.bytesReceived)
+        assertEquals(1, stats.getCacheCount(NetworkMetrics.CacheStatus.MISS))
+        assertEquals(1, testObject.endpointStats[NetworkMetrics.ALL_ENDPOINTS]!!.getTiming(NetworkMetrics.Timing.TOTAL).count)
+    }
+
+    @Test
+    fun cacheUsageIsRecorded() {
+        val call = call("https://commons.wikimedia.org/w/api.php")
+        val hit = testObject.create(call)
+        hit.callStart(call)
+        hit.callEnd(call)
+
+        val revalidated = testObject.create(call)
+        revalidated.callStart(call)
+        revalidated.responseHeadersEnd(call, response(call, 304))
+        revalidated.callEnd(call)
+
+        val stats = testObject.endpointStats["commons.wikimedia.org/w/api.php"]!!
+        assertEquals(1, stats.getCacheCount(NetworkMetrics.CacheStatus.HIT))
+        assertEquals(1, stats.getCacheCount(NetworkMetrics.CacheStatus.REVALIDATED))
+        assertEquals(0, stats.getCacheCount(NetworkMetrics.CacheStatus.MISS))
+    }
+
+    @Test
+    fun failedCallIsRecorded() {
+        val call = call("https://query.wikidata.org/sparql")
+        val listener = testObject.create(call)
+
+        listener.callStart(call)
+        listener.callFailed(call, IOException())
+
+        val stats = testObject.endpointStats["query.wikidata.org/sparql"]!!
+        assertEquals(1, stats.failures)
+        assertEquals(0, stats.responseSizes.count)
+    }
+
+    @Test
+    fun endpointsBeyondLimitAreGrouped() {
+        for (i in 0..NetworkMetrics.MAX_ENDPOINTS) {
+            val call = call("https://example.org/$i")
+            val listener = testObject.create(call)
+            listener.callStart(call)
+            listener.callEnd(call)
+        }
+
+        val stats = testObject.endpointStats
+        assertEquals(NetworkMetrics.MAX_ENDPOINTS + 2, stats.size)
+        assertEquals(1, stats[NetworkMetrics.OTHER_ENDPOINTS]!!.getCacheCount(NetworkMetrics.CacheStatus.HIT))
+    }
+
+    private fun call(url: String): Call {
+        val call: Call = mock()
+        whenever(call.request()).thenReturn(Request.Builder().url(url).build())
+        return call
+    }
+
+    private fun response(call: Call, code: Int) = Response.Builder()
+            .request(call.request())
+            .protocol(Protocol.HTTP_1_1)
+            .code(code)
+            .message("")
+            .build()
+}
@@ -1,6 +1,8 @@
 package fr.free.nrw.commons.notification
 
+import fr.free.nrw.commons.auth.CsrfTokenCache
 import io.reactivex.Observable
+import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers
@@ -14,6 +16,8 @@ import org.wikipedia.dataclient.Service
 import org.wikipedia.dataclient.mwapi.MwQueryResponse
 import org.wikipedia.dataclient.mwapi.MwQueryResult
 import org.wikipedia.notifications.Notification
+import java.util.Date
+import java.util.concurrent.Callable
 
 class NotificationClientTest {
 
@@ -40,7 +44,7 @@ class NotificationClientTest {
     @Throws(Exception::class)
     fun setUp() {
         MockitoAnnotations.initMocks(this)
-        notificationClient = NotificationClient(service, csrfTokenClient)
+        notificationClient = NotificationClient(service, CsrfTokenCache(Callable { csrfTokenClient.tokenBlocking }))
     }
 
     /**
@@ -65,8 +69,51 @@ class NotificationClientTest {
         Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
         Mockito.`when`(service.markRead(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString())).thenReturn(Observable.just(mQueryResponse))
         Mockito.`when`(mQueryResponse.success()).thenReturn(true)
-        notificationClient.markNotificationAsRead("test")
+        notificationClient.markNotificationAsRead("test").test()
         verify(service).markRead(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString())
     }
 
-}
\ No newline at end of file
+    /**
+     * Test that notification ids are marked as read with a single request
+     */
+    @Test
+    fun markNotificationsAsReadTest() {
+        Mockito.`when`(csrfTokenClient.tokenBlocking).thenReturn("test")
+        Mockito.`when`(service.markRead(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString())).thenReturn(Observable.just(mQueryResponse))
+        Mockito.`when`(mQueryResponse.success()).thenReturn(true)
+        notificationClient.markNotificationsAsRead(listOf("1", "2")).test().assertValue(true)
+        verify(service).markRead(eq("test"), eq("1|2"), eq(""))
+    }
+
+    /**
+     * Test that pages are fetched until one reaches notifications fetched before
+     */
+    @Test
+    fun getNotificationsNewerThanTest() {
+        val secondResponse = Mockito.mock(MwQueryResponse::class.java)
+        val secondResult = Mockito.mock(MwQueryResult::class.java)
+        val secondList = Mockito.mock(MwQueryResult.NotificationList::class.java)
+        Mockito.`when`(service.getAllNotifications(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.isNull())).thenReturn(Observable.just(mQueryResponse))
+        Mockito.`when`(service.getAllNotifications(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), eq("next"))).thenReturn(Observable.just(secondResponse))
+        Mockito.`when`(mQueryResponse.query()).thenReturn(mQueryResult)
+        Mockito.`when`(mQueryResult.notifications()).thenReturn(mQueryResultNotificationsList)
+        Mockito.`when`(mQueryResultNotificationsList.list()).thenReturn(listOf(wikiNotification(40), wikiNotification(30)))
+        Mockito.`when`(mQueryResultNotificationsList.getContinue()).thenReturn("next")
+        Mockito.`when`(secondResponse.query()).thenReturn(secondResult)
+        Mockito.`when`(secondResult.notifications()).thenReturn(secondList)
+        Mockito.`when`(secondList.list()).thenReturn(listOf(wikiNotification(20), wikiNotification(10)))
+        Mockito.`when`(secondList.getContinue()).thenReturn("last")
+
+        val notifications = notificationClient.getNotificationsNewerThan(false, 15).blockingGet()
+
+        assertEquals(listOf(40L, 30L, 20L), notifications.map { it.timestamp })
+        verify(service, Mockito.never()).getAllNotifications(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), eq("last"))
+    }
+
+    private fun wikiNotification(timestamp: Long): Notification {
+        val notification = Mockito.mock(Notification::class.java)
+        Mockito.`when`(notification.timestamp).thenReturn(Date(timestamp))
+        Mockito.`when`(notification.id()).thenReturn(timestamp)
+        return notification
+    }
+}
@@ -1,12 +1,12 @@
 package fr.free.nrw.commons.notification
 
+import com.nhaarman.mockitokotlin2.*
+import io.reactivex.Observable
+import io.reactivex.Single
+import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Test
-import org.mockito.ArgumentMatchers
-import org.mockito.ArgumentMatchers.eq
 import org.mockito.Mock
-import org.mockito.Mockito.`when`
-import org.mockito.Mockito.verify
 import org.mockito.MockitoAnnotations
 
 class NotificationControllerTest {
@@ -14,6 +14,8 @@ class NotificationControllerTest {
     @Mock
     private lateinit var notificationClient: NotificationClient
     @Mock
+    private lateinit var notificationStore: NotificationStore
+    @Mock
     private lateinit var notification: Notification
     private lateinit var notificationController: NotificationController
 
@@ -24,16 +26,39 @@ class NotificationControllerTest {
     @Throws(Exception::class)
     fun setUp() {
         MockitoAnnotations.initMocks(this)
-        notificationController = NotificationController(notificationClient)
+        notificationController = NotificationController(notificationClient, notificationStore)
+        whenever(notificationStore.getPendingReads()).thenReturn(emptyList())
+        whenever(notificationStore.getNotifications(any())).thenReturn(listOf(notification))
     }
 
     /**
-     * Test get notifications
+     * Test get notifications when they were recently fetched
      */
     @Test
-    fun testGetNotifications() {
-        notificationController.getNotifications(ArgumentMatchers.anyBoolean())
-        verify(notificationClient).getNotifications(ArgumentMatchers.anyBoolean())
+    fun testGetNotificationsFetchesNewerOnly() {
+        whenever(notificationStore.getSyncedAt(false)).thenReturn(System.currentTimeMillis())
+        whenever(notificationStore.getNewestTimestamp(false)).thenReturn(10L)
+        whenever(notificationClient.getNotificationsNewerThan(false, 10L))
+                .thenReturn(Single.just(listOf(notification)))
+
+        val emitted = notificationController.getNotifications(false).toList().blockingGet()
+
+        assertEquals(2, emitted.size)
+        verify(notificationStore).addNotifications(false, listOf(notification))
+        verify(notificationClient, never()).getNotifications(any())
+    }
+
+    /**
+     * Test get notifications when they were never fetched
+     */
+    @Test
+    fun testGetNotificationsFetchesAllWhenOutdated() {
+        whenever(notificationStore.getSyncedAt(true)).thenReturn(0L)
+        whenever(notificationClient.getNotifications(true)).thenReturn(Single.just(listOf(notification)))
+
+        notificationController.getNotifications(true).blockingLast()
+
+        verify(notificationStore).replaceNotifications(eq(true), eq(listOf(notification)), any())
     }
 
     /**
@@ -41,8 +66,23 @@ class NotificationControllerTest {
      */
     @Test
     fun testMarkNotificationsAsRead() {
-        `when`(notification.notificationId).thenReturn("test")
-        notificationController.markAsRead(notification)
-        verify(notificationClient).markNotificationAsRead(eq("test"))
+        assertEquals(true, notificationController.markAsRead(notification).blockingFirst())
+        verify(notificationStore).markAsRead(notification)
+    }
+
+    /**
+     * Test that notifications marked as read are sent to the API in batches
+     */
+    @Test
+    fun testMarkPendingAsReadInBatches() {
+        val ids = (1..60).map { "$it" }
+        whenever(notificationStore.getPendingReads()).thenReturn(ids)
+        whenever(notificationClient.markNotificationsAsRead(ids.subList(0, 50))).thenReturn(Observable.just(true))
+        whenever(notificationClient.markNotificationsAsRead(ids.subList(50, 60))).thenReturn(Observable.just(false))
+
+        notificationController.markPendingAsRead().blockingAwait()
+
+        verify(notificationStore).removePendingReads(ids.subList(0, 50))
+        verify(notificationStore, never()).removePendingReads(ids.subList(50, 60))
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package fr.free.nrw.commons.notification
+
+import com.google.gson.Gson
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.kvstore.JsonKvStore
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class NotificationStoreTest {
+    private lateinit var testObject: NotificationStore
+
+    @Before
+    fun setUp() {
+        testObject = NotificationStore(JsonKvStore(RuntimeEnvironment.application, "test_notifications", Gson()))
+    }
+
+    @Test
+    fun nothingStoredInitially() {
+        assertEquals(emptyList<Notification>(), testObject.getNotifications(false))
+        assertEquals(0L, testObject.getNewestTimestamp(false))
+        assertEquals(0L, testObject.getSyncedAt(false))
+    }
+
+    @Test
+    fun newerNotificationsAreAddedFirst() {
+        testObject.replaceNotifications(false, listOf(notification("2", 20), notification("1", 10)), 100)
+        testObject.addNotifications(false, listOf(notification("3", 30), notification("2", 20)))
+
+        assertEquals(listOf("3", "2", "1"), testObject.getNotifications(false).map { it.notificationId })
+        assertEquals(30L, testObject.getNewestTimestamp(false))
+        assertEquals(100L, testObject.getSyncedAt(false))
+        assertEquals(emptyList<Notification>(), testObject.getNotifications(true))
+    }
+
+    @Test
+    fun storedNotificationsAreLimited() {
+        testObject.addNotifications(true, (1..NotificationStore.MAX_STORED + 1).map {
+            notification("$it", it.toLong())
+        }.reversed())
+
+        val stored = testObject.getNotifications(true)
+        assertEquals(NotificationStore.MAX_STORED, stored.size)
+        assertEquals("${NotificationStore.MAX_STORED + 1}", stored.first().notificationId)
+    }
+
+    @Test
+    fun markAsReadMovesNotificationAndKeepsItUntilSent() {
+        val notification = notification("1", 10)
+        testObject.addNotifications(false, listOf(notification))
+
+        testObject.markAsRead(notification)
+
+        assertEquals(emptyList<Notification>(), testObject.getNotifications(false))
+        assertEquals(listOf(notification), testObject.getNotifications(true))
+        assertEquals(listOf("1"), testObject.getPendingReads())
+
+        // Not sent yet, so the API still lists it as unread
+        testObject.replaceNotifications(false, listOf(notification), 100)
+        assertEquals(emptyList<Notification>(), testObject.getNotifications(false))
+
+        testObject.removePendingReads(listOf("1"))
+        assertEquals(emptyList<String>(), testObject.getPendingReads())
+    }
+
+    @Test
+    fun clearForgetsEverything() {
+        val notification = notification("1", 10)
+        testObject.replaceNotifications(false, listOf(notification), 100)
+        testObject.markAsRead(notification)
+
+        testObject.clear()
+
+        assertEquals(emptyList<Notification>(), testObject.getNotifications(true))
+        assertEquals(emptyList<String>(), testObject.getPendingReads())
+        assertEquals(0L, testObject.getSyncedAt(false))
+    }
+
+    private fun notification(id: String, timestamp: Long) =
+            Notification(NotificationType.UNKNOWN, "text $id", "date", "link", "", id, timestamp)
+}
@@ -4,8 +4,13 @@ import fr.free.nrw.commons.Media
 import fr.free.nrw.commons.media.MediaClient
 import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.plugins.RxJavaPlugins
+import io.reactivex.schedulers.Schedulers
 import junit.framework.Assert.assertNotNull
 import junit.framework.Assert.assertNull
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
 import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
@@ -18,6 +23,9 @@ import org.wikipedia.dataclient.mwapi.MwQueryPage
 import org.wikipedia.dataclient.mwapi.MwQueryResponse
 import org.wikipedia.dataclient.mwapi.MwQueryResult
 import org.wikipedia.dataclient.mwapi.RecentChange
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 
 /**
  * Test class for ReviewHelper
@@ -39,6 +47,8 @@ class ReviewHelperTest {
     @Throws(Exception::class)
     fun setUp() {
         MockitoAnnotations.initMocks(this)
+        // Fills the buffer before getRandomMedia returns
+        RxJavaPlugins.setIoSchedulerHandler { Schedulers.trampoline() }
 
         val mwQueryPage = mock(MwQueryPage::class.java)
         val mockRevision = mock(MwQueryPage.Revision::class.java)
@@ -60,10 +70,19 @@ class ReviewHelperTest {
         `when`(reviewInterface?.getFirstRevisionOfFile(ArgumentMatchers.anyString()))
                 .thenReturn(Observable.just(mockResponse))
 
-        val media = mock(Media::class.java)
-        `when`(media.filename).thenReturn("File:Test.jpg")
-        `when`(mediaClient?.getMedia(ArgumentMatchers.anyString()))
-                .thenReturn(Single.just(media))
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
+                .thenAnswer { Single.just(Media(it.getArgument<String>(0))) }
+    }
+
+    @After
+    fun tearDown() {
+        RxJavaPlugins.reset()
+    }
+
+    private fun nominatedForDeletion(filename: String): Single<Media> {
+        val media = Media(filename)
+        media.setRequestedDeletion()
+        return Single.just(media)
     }
 
     /**
@@ -71,14 +90,30 @@ class ReviewHelperTest {
      */
     @Test
     fun getRandomMedia() {
-        `when`(mediaClient?.checkPageExistsUsingTitle(ArgumentMatchers.anyString()))
-                .thenReturn(Single.just(false))
-
         val randomMedia = reviewHelper?.randomMedia?.blockingGet()
 
         assertNotNull(randomMedia)
         assertTrue(randomMedia is Media)
-        verify(reviewInterface, times(1))!!.getRecentChanges(ArgumentMatchers.anyString())
+        // Once for the media, once to fill the buffer
+        verify(reviewInterface, times(2))!!.getRecentChanges(ArgumentMatchers.anyString())
+    }
+
+    /**
+     * Test that buffered media are returned without fetching recent changes again
+     */
+    @Test
+    fun getRandomMediaFromBuffer() {
+        val first = reviewHelper?.randomMedia?.blockingGet()
+        val second = reviewHelper?.randomMedia?.blockingGet()
+        val third = reviewHelper?.randomMedia?.blockingGet()
+
+        assertNotEquals(first!!.filename, second!!.filename)
+        assertNotEquals(second.filename, third!!.filename)
+        assertNotEquals(first.filename, third.filename)
+        // Buffered files come with their first revision
+        reviewHelper?.getFirstRevisionOfFile(second.filename)?.blockingFirst()
+        reviewHelper?.getFirstRevisionOfFile(third.filename)?.blockingFirst()
+        verify(reviewInterface, times(2))!!.getFirstRevisionOfFile(ArgumentMatchers.anyString())
     }
 
     /**
@@ -86,8 +121,8 @@ class ReviewHelperTest {
      */
     @Test(expected = RuntimeException::class)
     fun getRandomMediaWithWithAllMediaNominatedForDeletion() {
-        `when`(mediaClient?.checkPageExistsUsingTitle(ArgumentMatchers.anyString()))
-                .thenReturn(Single.just(true))
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
+                .thenAnswer { nominatedForDeletion(it.getArgument<String>(0)) }
         val media = reviewHelper?.randomMedia?.blockingGet()
         assertNull(media)
         verify(reviewInterface, times(1))!!.getRecentChanges(ArgumentMatchers.anyString())
@@ -98,18 +133,41 @@ class ReviewHelperTest {
      */
     @Test
     fun getRandomMediaWithWithOneMediaNominatedForDeletion() {
-        `when`(mediaClient?.checkPageExistsUsingTitle("Commons:Deletion_requests/File:Test1.jpeg"))
-                .thenReturn(Single.just(true))
-        `when`(mediaClient?.checkPageExistsUsingTitle("Commons:Deletion_requests/File:Test2.png"))
-                .thenReturn(Single.just(false))
-        `when`(mediaClient?.checkPageExistsUsingTitle("Commons:Deletion_requests/File:Test3.jpg"))
-                .thenReturn(Single.just(true))
+        `when`(mediaClient?.getMediaWithDeletionStatus("File:Test1.jpeg"))
+                .thenReturn(nominatedForDeletion("File:Test1.jpeg"))
+        `when`(mediaClient?.getMediaWithDeletionStatus("File:Test3.jpg"))
+                .thenReturn(nominatedForDeletion("File:Test3.jpg"))
 
         val media = reviewHelper?.randomMedia?.blockingGet()
 
         assertNotNull(media)
-        assertTrue(media is Media)
-        verify(reviewInterface, times(1))!!.getRecentChanges(ArgumentMatchers.anyString())
+        assertEquals("File:Test2.png", media!!.filename)
+    }
+
+    /**
+     * Test that the files are checked at the same time
+     */
+    @Test
+    fun getRandomMediaChecksFilesConcurrently() {
+        RxJavaPlugins.reset()
+        val started = CountDownLatch(3)
+        val overlapped = Collections.synchronizedList(mutableListOf<Boolean>())
+        `when`(mediaClient?.getMediaWithDeletionStatus(ArgumentMatchers.anyString()))
+                .thenAnswer {
+                    val filename = it.getArgument<String>(0)
+                    Single.fromCallable {
+                        // Blocks like a request, until all three checks have started
+                        started.countDown()
+                        overlapped.add(started.await(5, TimeUnit.SECONDS))
+                        Media(filename)
+                    }
+                }
+
+        val media = reviewHelper?.randomMedia?.blockingGet()
+
+        assertNotNull(media)
+        assertTrue(overlapped.isNotEmpty())
+        assertTrue(overlapped.all { it })
     }
 
     private fun getMockRecentChange(type: String, title: String, oldRevisionId: Long): RecentChange {
@@ -7,6 +7,9 @@ import fr.free.nrw.commons.upload.categories.CategoriesContract
 import fr.free.nrw.commons.upload.categories.CategoriesPresenter
 import io.reactivex.Observable
 import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers
@@ -67,6 +70,28 @@ class CategoriesPresenterTest {
         verify(view)?.showProgress(false)
     }
 
+    /**
+     * A newer query cancels the search for the previous one
+     */
+    @Test
+    fun searchForCategoriesCancelsPreviousSearch() {
+        val staleResults = PublishSubject.create<CategoryItem>()
+        Mockito.`when`(repository?.sortBySimilarity(ArgumentMatchers.anyString())).thenReturn(Comparator<CategoryItem> { _, _ -> 1 })
+        Mockito.`when`(repository?.selectedCategories).thenReturn(ArrayList())
+        Mockito.`when`(repository?.searchAll(ArgumentMatchers.eq("tes"), ArgumentMatchers.anyList())).thenReturn(staleResults)
+        Mockito.`when`(repository?.searchAll(ArgumentMatchers.eq("test"), ArgumentMatchers.anyList())).thenReturn(Observable.just(categoryItem))
+
+        categoriesPresenter?.searchForCategories("tes")
+        testScheduler?.triggerActions()
+        assertTrue(staleResults.hasObservers())
+
+        categoriesPresenter?.searchForCategories("test")
+        testScheduler?.triggerActions()
+
+        assertFalse(staleResults.hasObservers())
+        verify(view)?.setCategories(categoryItems)
+    }
+
     /**
      * unit test for method CategoriesPresenter.verifyCategories
      */
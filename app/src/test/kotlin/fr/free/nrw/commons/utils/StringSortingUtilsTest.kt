@@ -124,4 +124,33 @@ class StringSortingUtilsTest {
 
         assertEquals(expectedList, actualList)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testSortingByFilterLongerThan64Characters() {
+        val filter = "Buildings in the historic centre of the city, photographed in 2018"
+        val actualList = listOf(
+                "Buildings",
+                "Buildings in the historic centre of the town, photographed in 2018",
+                "Buildings in the historic centre of the city"
+        )
+        val expectedList = listOf(
+                "Buildings in the historic centre of the town, photographed in 2018",
+                "Buildings in the historic centre of the city",
+                "Buildings"
+        )
+
+        sort(actualList, sortBySimilarity(filter))
+
+        assertEquals(expectedList, actualList)
+    }
+
+    @Test
+    fun testEditDistance() {
+        val editDistance = StringSortingUtils.EditDistance("kitten")
+
+        assertEquals(3, editDistance.distance("sitting"))
+        assertEquals(0, editDistance.distance("kitten"))
+        assertEquals(6, editDistance.distance(""))
+        assertEquals(1, editDistance.distance("kittén"))
+    }
+}
@@ -0,0 +1,74 @@
+package fr.free.nrw.commons.widget
+
+import android.graphics.Bitmap
+import com.google.gson.Gson
+import com.nhaarman.mockitokotlin2.*
+import fr.free.nrw.commons.Media
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.kvstore.JsonKvStore
+import fr.free.nrw.commons.media.MediaClient
+import io.reactivex.Single
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.util.*
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class PicOfDayCacheTest {
+    private val mediaClient: MediaClient = mock()
+    private lateinit var testObject: PicOfDayCache
+
+    @Before
+    fun setUp() {
+        testObject = PicOfDayCache(RuntimeEnvironment.application, mediaClient,
+                JsonKvStore(RuntimeEnvironment.application, "test_pic_of_day", Gson()))
+    }
+
+    @Test
+    fun picOfDayIsFetchedOnce() {
+        val media = Media("File:Potd.jpg")
+        media.thumbUrl = "https://upload.wikimedia.org/potd.jpg"
+        whenever(mediaClient.getPictureOfTheDay(any())).thenReturn(Single.just(media))
+        val day = Date()
+
+        val fetched = testObject.getPicOfDay(day).blockingGet()
+        val stored = testObject.getPicOfDay(day).blockingGet()
+
+        assertEquals("Potd", stored.displayTitle)
+        assertEquals(fetched.thumbUrl, stored.thumbUrl)
+        verify(mediaClient, times(1)).getPictureOfTheDay(any())
+    }
+
+    @Test
+    fun dayWithoutPicOfDayIsEmpty() {
+        whenever(mediaClient.getPictureOfTheDay(any())).thenReturn(Single.just(Media.EMPTY))
+
+        assertNull(testObject.getPicOfDay(Date()).blockingGet())
+    }
+
+    @Test
+    fun largeBitmapIsScaledToFit() {
+        val bitmap = Bitmap.createBitmap(1000, 500, Bitmap.Config.ARGB_8888)
+
+        val scaled = PicOfDayCache.scaleToFit(bitmap, 200, 200)
+
+        assertEquals(200, scaled.width)
+        assertEquals(100, scaled.height)
+    }
+
+    @Test
+    fun smallBitmapIsNotScaledUp() {
+        val bitmap = Bitmap.createBitmap(100, 50, Bitmap.Config.ARGB_8888)
+
+        val scaled = PicOfDayCache.scaleToFit(bitmap, 200, 200)
+
+        assertEquals(100, scaled.width)
+        assertEquals(50, scaled.height)
+        assertNotSame(bitmap, scaled)
+    }
+}
@@ -1,5 +1,6 @@
 package fr.free.nrw.commons.wikidata
 
+import fr.free.nrw.commons.auth.CsrfTokenCache
 import fr.free.nrw.commons.wikidata.model.AddEditTagResponse
 import fr.free.nrw.commons.wikidata.model.WbCreateClaimResponse
 import io.reactivex.Observable
@@ -7,20 +8,20 @@ import okhttp3.RequestBody
 import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers.*
-import org.mockito.InjectMocks
 import org.mockito.Mock
 import org.mockito.Mockito.`when`
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.verify
 import org.mockito.MockitoAnnotations
 import org.wikipedia.dataclient.mwapi.MwQueryResponse
 import org.wikipedia.dataclient.mwapi.MwQueryResult
+import java.util.concurrent.Callable
 
 class WikidataClientTest {
 
     @Mock
     internal var wikidataInterface: WikidataInterface? = null
 
-    @InjectMocks
     var wikidataClient: WikidataClient? = null
 
     @Before
@@ -33,6 +34,9 @@ class WikidataClientTest {
         `when`(mwQueryResponse.query()).thenReturn(mwQueryResult)
         `when`(wikidataInterface!!.getCsrfToken())
                 .thenReturn(Observable.just(mwQueryResponse))
+        wikidataClient = WikidataClient(wikidataInterface, CsrfTokenCache(Callable {
+            wikidataInterface!!.getCsrfToken().blockingFirst().query()!!.csrfToken()
+        }))
     }
 
     @Test
@@ -44,13 +48,20 @@ class WikidataClientTest {
                 any(RequestBody::class.java),
                 any(RequestBody::class.java)))
                 .thenReturn(Observable.just(mock(WbCreateClaimResponse::class.java)))
-        wikidataClient!!.createClaim("Q1", "test.jpg")
+        wikidataClient!!.createClaim("Q1", "test.jpg").test()
+        verify(wikidataInterface!!).postCreateClaim(any(RequestBody::class.java),
+                any(RequestBody::class.java),
+                any(RequestBody::class.java),
+                any(RequestBody::class.java),
+                any(RequestBody::class.java),
+                any(RequestBody::class.java))
     }
 
     @Test
     fun addEditTag() {
         `when`(wikidataInterface!!.addEditTag(anyString(), anyString(), anyString(), anyString()))
                 .thenReturn(Observable.just(mock(AddEditTagResponse::class.java)))
-        wikidataClient!!.addEditTag(1L, "test", "test")
+        Observable.wrap(wikidataClient!!.addEditTag(1L, "test", "test")).test()
+        verify(wikidataInterface!!).addEditTag(anyString(), anyString(), anyString(), eq("test_token"))
     }
 }
\ No newline at end of file